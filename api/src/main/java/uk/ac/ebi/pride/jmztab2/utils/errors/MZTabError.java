@@ -2,10 +2,6 @@ package uk.ac.ebi.pride.jmztab2.utils.errors;
 
 import de.isas.mztab2.model.ValidationMessage;
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import static uk.ac.ebi.pride.jmztab2.model.MZTabConstants.NEW_LINE;
 
@@ -34,11 +30,14 @@ public class MZTabError implements Serializable {
 
     private int lineNumber;
     private MZTabErrorType type;
-    private String message;
+    private String[] values;
+    // rendered on first access to getMessage()
+    private transient String message;
 
     /**
      * System will fill a couple of values one by one, and generate a concrete
-     * error message during parse {@link #lineNumber} line in mzTab file.
+     * error message during parse {@link #lineNumber} line in mzTab file. The
+     * message is only rendered when it is first requested.
      *
      * @param type SHOULD NOT null.
      * @param lineNumber SHOULD be positive integer. Except "-1", which means
@@ -53,36 +52,28 @@ public class MZTabError implements Serializable {
 
         this.lineNumber = lineNumber;
 
-        List<String> valueList = new ArrayList<String>();
-        for (String value : values) {
-            valueList.add(value == null ? "" : value);
+        this.values = values == null ? new String[0] : values;
+        int placeholders = type.getFragments().length - 1;
+        if (placeholders > this.values.length) {
+            throw new ArrayIndexOutOfBoundsException(
+                "Tried to replace placeholder " + (this.values.length + 1) + " but only " + this.values.length + " values are available for " + getClass().
+                    getSimpleName() + " " + type.toString());
         }
-
-        this.message = fill(0, valueList, type.getOriginal());
     }
 
     /**
      * fill "{id}" parameter list one by one.
      */
-    private String fill(int count, List<String> values, String message) {
-        String regexp = "\\{\\w\\}";
-        Pattern pattern = Pattern.compile(regexp);
-        Matcher matcher = pattern.matcher(message);
-
-        String value;
-        if (matcher.find()) {
-            if (count >= values.size()) {
-                throw new ArrayIndexOutOfBoundsException(
-                    "Tried to replace placeholder " + (count + 1) + " but only " + values.
-                        size() + " values are available for " + getClass().
-                        getSimpleName() + " " + type.toString());
-            }
-            value = values.get(count);
-            message = matcher.replaceFirst(Matcher.quoteReplacement(value));
-            return fill(count + 1, values, message);
-        } else {
-            return message;
+    private String fill() {
+        String[] fragments = type.getFragments();
+        StringBuilder sb = new StringBuilder(128);
+        sb.append(fragments[0]);
+        for (int i = 1; i < fragments.length; i++) {
+            String value = values[i - 1];
+            sb.append(value == null ? "" : value).
+                append(fragments[i]);
         }
+        return sb.toString();
     }
 
     /**
@@ -102,7 +93,12 @@ public class MZTabError implements Serializable {
      * @return a concrete error/warn message.
      */
     public String getMessage() {
-        return message;
+        String m = message;
+        if (m == null) {
+            m = fill();
+            message = m;
+        }
+        return m;
     }
 
     /**
@@ -136,7 +132,7 @@ public class MZTabError implements Serializable {
         sb.append("line ").
             append(lineNumber).
             append(": ");
-        sb.append(message).
+        sb.append(getMessage()).
             append(NEW_LINE);
 
         return sb.toString();
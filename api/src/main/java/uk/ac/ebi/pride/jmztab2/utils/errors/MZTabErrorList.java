@@ -103,17 +103,8 @@ public class MZTabErrorList {
             throw new NullPointerException("Can not add a null error into list.");
         }
         
-        switch(error.getType().getLevel()) {
-            case Info:
-                if(level==MZTabErrorType.Level.Warn || level==MZTabErrorType.Level.Error) {
-                    return false;
-                }
-                break;
-            case Warn:
-                if(level==MZTabErrorType.Level.Error) {
-                    return false;
-                }
-            //ERROR is always being reported
+        if (!isReported(error.getType())) {
+            return false;
         }
 
         if (errorList.size() >= maxErrorCount) {
@@ -123,6 +114,50 @@ public class MZTabErrorList {
         return errorList.add(error);
     }
 
+    /**
+     * Create and add a new
+     * {@link uk.ac.ebi.pride.jmztab2.utils.errors.MZTabError}, if its type is
+     * reported at the level of this list. Errors below the level are dropped
+     * without creating the error object.
+     *
+     * @param type SHOULD NOT set null
+     * @param lineNumber the line number, or -1 if unknown.
+     * @param values the values for the placeholders of the error message.
+     * @return a boolean.
+     * @throws uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorOverflowException
+     * if any.
+     * @see #add(uk.ac.ebi.pride.jmztab2.utils.errors.MZTabError)
+     */
+    public boolean add(MZTabErrorType type, int lineNumber, String... values) throws MZTabErrorOverflowException {
+        if (type == null) {
+            throw new NullPointerException("Can not add a null error into list.");
+        }
+        if (!isReported(type)) {
+            return false;
+        }
+        return add(new MZTabError(type, lineNumber, values));
+    }
+
+    /**
+     * Returns true, if errors of the given type would be added to this list
+     * with its current level setting. Callers can use this to skip preparing
+     * the values of an error message that would be dropped.
+     *
+     * @param type the error type.
+     * @return true, if errors of this type are reported.
+     */
+    public boolean isReported(MZTabErrorType type) {
+        switch(type.getLevel()) {
+            case Info:
+                return level != MZTabErrorType.Level.Warn && level != MZTabErrorType.Level.Error;
+            case Warn:
+                return level != MZTabErrorType.Level.Error;
+            default:
+                //ERROR is always being reported
+                return true;
+        }
+    }
+
     /**
      * <p>
      * Getter for the field <code>maxErrorCount</code>.</p>
@@ -1,6 +1,8 @@
 package uk.ac.ebi.pride.jmztab2.utils.errors;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 import uk.ac.ebi.pride.jmztab2.model.MZTabStringUtils;
 import uk.ac.ebi.pride.jmztab2.utils.MZTabProperties;
 
@@ -37,6 +39,8 @@ public class MZTabErrorType implements Serializable {
     private Level level;
     private String original;
     private String cause;
+    // original split at its "{?}" placeholders, created on first use
+    private transient volatile String[] fragments;
 
     /**
      * <p>Constructor for MZTabErrorType.</p>
@@ -168,6 +172,45 @@ public class MZTabErrorType implements Serializable {
         return original;
     }
 
+    /**
+     * Returns the text fragments of {@link #getOriginal()} between its
+     * "{?}" placeholders. The array contains one more element than there are
+     * placeholders.
+     *
+     * @return the template fragments, must not be modified.
+     */
+    String[] getFragments() {
+        String[] f = fragments;
+        if (f == null) {
+            f = tokenize(original == null ? "" : original);
+            fragments = f;
+        }
+        return f;
+    }
+
+    private static String[] tokenize(String original) {
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        int i = 0;
+        while (i + 2 < original.length()) {
+            if (original.charAt(i) == '{' && isWordChar(original.charAt(i + 1)) && original.
+                charAt(i + 2) == '}') {
+                parts.add(original.substring(start, i));
+                i += 3;
+                start = i;
+            } else {
+                i++;
+            }
+        }
+        parts.add(original.substring(start));
+        return parts.toArray(new String[parts.size()]);
+    }
+
+    private static boolean isWordChar(char c) {
+        // same characters as \w in java.util.regex
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
     /**
      * <p>Getter for the field <code>cause</code>.</p>
      *
@@ -59,6 +59,52 @@ public class MZTabErrorListTest {
         Assert.assertEquals(3, list.size());
     }
 
+    /**
+     * Test of add method with error type and values, of class MZTabErrorList.
+     */
+    @Test
+    public void testAddType() {
+        MZTabErrorList list = new MZTabErrorList(MZTabErrorType.Level.Warn, 5);
+        Assert.assertFalse(list.isReported(
+            LogicalErrorType.NoSmallMoleculeFeatureSection));
+        Assert.assertTrue(list.isReported(LogicalErrorType.NotNULL));
+        Assert.assertFalse(list.add(
+            LogicalErrorType.NoSmallMoleculeFeatureSection, 0));
+        Assert.assertTrue(list.add(FormatErrorType.Integer, 3, "col", null));
+        Assert.assertEquals(1, list.size());
+        Assert.assertEquals(
+            "Column \"col\" value \"\" is not a valid Integer value.", list.
+                getError(0).
+                getMessage());
+        Assert.assertEquals(3, list.getError(0).
+            getLineNumber());
+    }
+
+    /**
+     * Test of message rendering, of class MZTabError.
+     */
+    @Test
+    public void testErrorMessage() {
+        MZTabError err = new MZTabError(FormatErrorType.IntegerList, 1, "col",
+            "a|b", "|");
+        Assert.assertEquals(
+            "Column \"col\" value \"a|b\" is not valid integer list. The split char is \"|\"",
+            err.getMessage());
+        // values containing placeholders or replacement characters are kept
+        err = new MZTabError(FormatErrorType.Integer, 1, "{1}", "$1\\");
+        Assert.assertEquals(
+            "Column \"{1}\" value \"$1\\\" is not a valid Integer value.", err.
+                getMessage());
+        Assert.assertTrue(err.toString().
+            startsWith("[Error-"));
+        try {
+            new MZTabError(FormatErrorType.Integer, 1, "col");
+            Assert.fail("Expected ArrayIndexOutOfBoundsException");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // expected, too few values
+        }
+    }
+
     /**
      * Test of getMaxErrorCount method, of class MZTabErrorList.
      */
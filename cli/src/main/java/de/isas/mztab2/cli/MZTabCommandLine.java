@@ -307,7 +307,13 @@ public class MZTabCommandLine {
             logger.info("Beginning validation of mztab file: {}", inFile.
                 getAbsolutePath());
             MzTabFileParser mzTabParser = new MzTabFileParser(inFile);
-            MZTabErrorList errorList = mzTabParser.parse(outFile, level);
+            MZTabErrorList errorList;
+            if (toJson || line.hasOption(checkSemanticOpt)) {
+                errorList = mzTabParser.parse(outFile, level);
+            } else {
+                // the mzTab object is not needed for structural validation
+                errorList = mzTabParser.validate(outFile, level);
+            }
             if (!errorList.isEmpty()) {
                 long nErrorsOrWarnings = errorList.getErrorList().
                     stream().
@@ -0,0 +1,396 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.isas.mztab2.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * <p>
+ * Reads data in the blocked gzip format (BGZF), as written by the
+ * {@link BgzfOutputStream} and by tools like bgzip. The compressed blocks are
+ * read sequentially and can be decompressed ahead of time on a
+ * {@link ForkJoinPool}, so that decompression runs in parallel to the
+ * consumer of the data.</p>
+ *
+ * <p>
+ * Positions in the data are expressed as virtual offsets, which combine the
+ * byte offset of a compressed block in the file, in the upper 48 bits, with
+ * the offset within the uncompressed block, in the lower 16 bits. The current
+ * virtual offset is returned by {@link #getVirtualOffset()}. If the stream
+ * reads from a {@link SeekableByteChannel}, {@link #seek(long)} continues
+ * reading at a previously obtained virtual offset.</p>
+ *
+ * <p>
+ * Closing this stream closes the channel. Instances are not thread-safe.</p>
+ *
+ * @author nilshoffmann
+ * @see BgzfOutputStream
+ */
+public final class BgzfInputStream extends InputStream {
+
+    /**
+     * Maximum size of a compressed block.
+     */
+    static final int MAX_BLOCK_SIZE = 1 << 16;
+    /**
+     * Number of bytes required by {@link #isBgzf(byte[], int)}.
+     */
+    static final int HEADER_LENGTH = 18;
+    private static final int FIXED_HEADER_LENGTH = 12;
+
+    private final ReadableByteChannel channel;
+    private final ForkJoinPool pool;
+    private final int readAhead;
+    private final ArrayDeque<Future<Block>> pending = new ArrayDeque<>();
+    private final ByteBuffer header = ByteBuffer.allocate(FIXED_HEADER_LENGTH);
+    private long readAddress = 0;
+    private boolean channelExhausted = false;
+    private long startAddress = 0;
+    private Block current = null;
+    private int offset = 0;
+
+    /**
+     * Open a BGZF file. The blocks are decompressed on the calling thread,
+     * which is best suited for random access.
+     *
+     * @param file the file.
+     * @return the stream.
+     * @throws java.io.IOException if the file can not be opened.
+     */
+    public static BgzfInputStream open(Path file) throws IOException {
+        return new BgzfInputStream(FileChannel.open(file,
+            StandardOpenOption.READ), null, 0);
+    }
+
+    /**
+     * Create a stream reading the compressed blocks from the channel.
+     *
+     * @param channel the channel, positioned at the start of a block.
+     * @param pool the pool to decompress blocks on, or null to decompress on
+     * the calling thread.
+     * @param readAhead the number of blocks to decompress ahead of time on the
+     * pool, ignored without a pool.
+     * @throws java.io.IOException if the position of a seekable channel can
+     * not be determined.
+     */
+    public BgzfInputStream(ReadableByteChannel channel, ForkJoinPool pool,
+        int readAhead) throws IOException {
+        this.channel = channel;
+        this.pool = pool;
+        this.readAhead = pool == null ? 1 : Math.max(1, readAhead);
+        if (channel instanceof SeekableByteChannel) {
+            this.readAddress = ((SeekableByteChannel) channel).position();
+            this.startAddress = readAddress;
+        }
+    }
+
+    /**
+     * Returns true, if the bytes start with the header of a BGZF block, i.e. a
+     * gzip member header with the BGZF "BC" extra field.
+     *
+     * @param bytes the first bytes of the data.
+     * @param length the number of valid bytes.
+     * @return true, if the data is BGZF compressed.
+     */
+    public static boolean isBgzf(byte[] bytes, int length) {
+        return length >= HEADER_LENGTH && (bytes[0] & 0xff) == 0x1f && (bytes[1] & 0xff) == 0x8b && bytes[2] == 8 && (bytes[3] & 4) != 0 && bytes[12] == 'B' && bytes[13] == 'C' && bytes[14] == 2 && bytes[15] == 0;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureData()) {
+            return -1;
+        }
+        return current.data[offset++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureData()) {
+            return -1;
+        }
+        int n = Math.min(len, current.length - offset);
+        System.arraycopy(current.data, offset, b, off, n);
+        offset += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return current == null ? 0 : current.length - offset;
+    }
+
+    /**
+     * Returns the next byte without consuming it.
+     *
+     * @return the next byte, or -1 at the end of the data.
+     * @throws java.io.IOException if reading fails.
+     */
+    int peek() throws IOException {
+        if (!ensureData()) {
+            return -1;
+        }
+        return current.data[offset] & 0xff;
+    }
+
+    /**
+     * Returns the virtual offset of the next byte. At the end of a block, this
+     * is the virtual offset of the start of the following block.
+     *
+     * @return the virtual offset.
+     */
+    public long getVirtualOffset() {
+        if (current == null) {
+            return startAddress << 16;
+        }
+        if (offset == current.length) {
+            return (current.address + current.compressedSize) << 16;
+        }
+        return (current.address << 16) | offset;
+    }
+
+    /**
+     * Continue reading at the given virtual offset.
+     *
+     * @param virtualOffset the virtual offset.
+     * @throws java.io.IOException if the offset is not valid or reading fails.
+     * @throws UnsupportedOperationException if the channel is not seekable.
+     */
+    public void seek(long virtualOffset) throws IOException {
+        if (!(channel instanceof SeekableByteChannel)) {
+            throw new UnsupportedOperationException(
+                "Seeking requires a seekable channel!");
+        }
+        long address = virtualOffset >>> 16;
+        int blockOffset = (int) (virtualOffset & 0xffff);
+        if (current == null || current.address != address) {
+            for (Future<Block> block : pending) {
+                block.cancel(false);
+            }
+            pending.clear();
+            ((SeekableByteChannel) channel).position(address);
+            readAddress = address;
+            startAddress = address;
+            channelExhausted = false;
+            current = null;
+            offset = 0;
+            if (!nextBlock()) {
+                if (blockOffset != 0) {
+                    throw new IOException(
+                        "Virtual offset " + virtualOffset + " is beyond the end of the data!");
+                }
+                return;
+            }
+        }
+        if (blockOffset > current.length) {
+            throw new IOException(
+                "Virtual offset " + virtualOffset + " is beyond the end of its block!");
+        }
+        offset = blockOffset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Future<Block> block : pending) {
+            block.cancel(false);
+        }
+        pending.clear();
+        current = null;
+        channel.close();
+    }
+
+    private boolean ensureData() throws IOException {
+        while (current == null || offset == current.length) {
+            if (!nextBlock()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean nextBlock() throws IOException {
+        while (pending.size() < readAhead && !channelExhausted) {
+            final RawBlock raw = readRawBlock();
+            if (raw == null) {
+                channelExhausted = true;
+            } else if (pool == null) {
+                pending.add(CompletableFuture.completedFuture(inflate(raw)));
+            } else {
+                pending.add(pool.submit(() -> inflate(raw)));
+            }
+        }
+        Future<Block> next = pending.poll();
+        if (next == null) {
+            return false;
+        }
+        try {
+            current = next.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().
+                interrupt();
+            throw new IOException("Interrupted while decompressing!", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            throw new IOException(ex.getCause());
+        }
+        offset = 0;
+        return true;
+    }
+
+    private RawBlock readRawBlock() throws IOException {
+        header.clear();
+        if (!readFully(header, true)) {
+            return null;
+        }
+        byte[] bytes = header.array();
+        if ((bytes[0] & 0xff) != 0x1f || (bytes[1] & 0xff) != 0x8b || bytes[2] != 8 || (bytes[3] & 4) == 0) {
+            throw new IOException(
+                "No BGZF block header at byte " + readAddress);
+        }
+        int extraLength = (bytes[10] & 0xff) | (bytes[11] & 0xff) << 8;
+        ByteBuffer extra = ByteBuffer.allocate(extraLength);
+        readFully(extra, false);
+        int blockSize = -1;
+        byte[] extraBytes = extra.array();
+        for (int i = 0; i + 4 <= extraLength;) {
+            int subfieldLength = (extraBytes[i + 2] & 0xff) | (extraBytes[i + 3] & 0xff) << 8;
+            if (extraBytes[i] == 'B' && extraBytes[i + 1] == 'C' && subfieldLength == 2 && i + 6 <= extraLength) {
+                blockSize = ((extraBytes[i + 4] & 0xff) | (extraBytes[i + 5] & 0xff) << 8) + 1;
+            }
+            i += 4 + subfieldLength;
+        }
+        int remaining = blockSize - FIXED_HEADER_LENGTH - extraLength;
+        if (blockSize < 0 || remaining < 8) {
+            throw new IOException(
+                "No BGZF block size in gzip header at byte " + readAddress);
+        }
+        ByteBuffer body = ByteBuffer.allocate(remaining);
+        readFully(body, false);
+        RawBlock raw = new RawBlock(readAddress, blockSize, body.array());
+        readAddress += blockSize;
+        return raw;
+    }
+
+    private boolean readFully(ByteBuffer buffer, boolean endAllowed) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                if (endAllowed && buffer.position() == 0) {
+                    return false;
+                }
+                throw new IOException(
+                    "Truncated BGZF block at byte " + readAddress);
+            }
+        }
+        return true;
+    }
+
+    private static Block inflate(RawBlock raw) throws IOException {
+        byte[] body = raw.body;
+        int trailer = body.length - 8;
+        int expectedCrc = getInt(body, trailer);
+        int length = getInt(body, trailer + 4);
+        if (length < 0 || length > MAX_BLOCK_SIZE) {
+            throw new IOException(
+                "Invalid uncompressed size " + (length & 0xffffffffL) + " of BGZF block at byte " + raw.address);
+        }
+        byte[] data = new byte[length];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(body, 0, trailer);
+            int n = 0;
+            while (n < length && !inflater.finished()) {
+                int inflated = inflater.inflate(data, n, length - n);
+                if (inflated == 0 && (inflater.needsInput() || inflater.
+                    needsDictionary())) {
+                    break;
+                }
+                n += inflated;
+            }
+            if (n != length) {
+                throw new IOException(
+                    "BGZF block at byte " + raw.address + " is shorter than its declared size!");
+            }
+            if (!inflater.finished() && inflater.inflate(new byte[1]) > 0) {
+                throw new IOException(
+                    "BGZF block at byte " + raw.address + " is longer than its declared size!");
+            }
+        } catch (DataFormatException ex) {
+            throw new IOException(
+                "Corrupt BGZF block at byte " + raw.address, ex);
+        } finally {
+            inflater.end();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, length);
+        if ((int) crc.getValue() != expectedCrc) {
+            throw new IOException(
+                "CRC mismatch in BGZF block at byte " + raw.address);
+        }
+        return new Block(raw.address, raw.compressedSize, data, length);
+    }
+
+    private static int getInt(byte[] b, int index) {
+        return (b[index] & 0xff) | (b[index + 1] & 0xff) << 8 | (b[index + 2] & 0xff) << 16 | (b[index + 3] & 0xff) << 24;
+    }
+
+    private static final class RawBlock {
+
+        private final long address;
+        private final int compressedSize;
+        private final byte[] body;
+
+        RawBlock(long address, int compressedSize, byte[] body) {
+            this.address = address;
+            this.compressedSize = compressedSize;
+            this.body = body;
+        }
+    }
+
+    private static final class Block {
+
+        private final long address;
+        private final int compressedSize;
+        private final byte[] data;
+        private final int length;
+
+        Block(long address, int compressedSize, byte[] data, int length) {
+            this.address = address;
+            this.compressedSize = compressedSize;
+            this.data = data;
+            this.length = length;
+        }
+    }
+}
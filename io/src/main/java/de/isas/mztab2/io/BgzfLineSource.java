@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.isas.mztab2.io;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Reads the lines of BGZF compressed data from a {@link BgzfInputStream}.
+ * Positions are the virtual offsets of the line starts. Lines that only
+ * contain ASCII characters are converted to strings without going through the
+ * charset decoder.</p>
+ *
+ * @author nilshoffmann
+ * @see BgzfInputStream
+ */
+final class BgzfLineSource implements SeekableLineSource {
+
+    private final BgzfInputStream in;
+    private final Charset charset;
+    private byte[] bytes = new byte[8192];
+
+    BgzfLineSource(BgzfInputStream in, Charset charset) {
+        this.in = in;
+        this.charset = charset;
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            return null;
+        }
+        int length = 0;
+        boolean ascii = true;
+        while (b >= 0 && b != '\n' && b != '\r') {
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, length * 2);
+            }
+            bytes[length++] = (byte) b;
+            ascii &= b < 0x80;
+            b = in.read();
+        }
+        if (b == '\r' && in.peek() == '\n') {
+            in.read();
+        }
+        return toString(length, ascii);
+    }
+
+    @Override
+    public long position() {
+        return in.getVirtualOffset();
+    }
+
+    @Override
+    public void seek(long position) throws IOException {
+        in.seek(position);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    @SuppressWarnings("deprecation")
+    private String toString(int length, boolean ascii) {
+        if (ascii) {
+            // each byte is one char, no decoding required
+            return new String(bytes, 0, 0, length);
+        }
+        return new String(bytes, 0, length, charset);
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.isas.mztab2.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * <p>
+ * Writes data in the blocked gzip format (BGZF). The data is split into blocks
+ * of at most 64 KB, which are compressed independently and written as separate
+ * gzip members, followed by an empty end-of-file block. The output is a valid
+ * multi-member gzip file that can be read by any gzip implementation, and it
+ * can be decompressed in parallel and accessed randomly with the
+ * {@link BgzfInputStream}.</p>
+ *
+ * <p>
+ * Closing this stream closes the underlying stream. Instances are not
+ * thread-safe.</p>
+ *
+ * @author nilshoffmann
+ * @see BgzfInputStream
+ */
+public final class BgzfOutputStream extends OutputStream {
+
+    /**
+     * Maximum number of uncompressed bytes per block, so that even
+     * incompressible data fits into a block of at most 64 KB.
+     */
+    static final int MAX_BLOCK_INPUT = 0xff00;
+
+    private static final byte[] EOF_BLOCK = {
+        0x1f, (byte) 0x8b, 0x08, 0x04, 0x00, 0x00, 0x00, 0x00, 0x00, (byte) 0xff,
+        0x06, 0x00, 0x42, 0x43, 0x02, 0x00, 0x1b, 0x00, 0x03, 0x00, 0x00, 0x00,
+        0x00, 0x00, 0x00, 0x00, 0x00, 0x00
+    };
+
+    private final OutputStream out;
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final byte[] input = new byte[MAX_BLOCK_INPUT];
+    private final byte[] block = new byte[BgzfInputStream.MAX_BLOCK_SIZE];
+    private int inputLength = 0;
+    private boolean closed = false;
+
+    /**
+     * Create a BGZF stream with the default compression level.
+     *
+     * @param out the stream to write the compressed blocks to.
+     */
+    public BgzfOutputStream(OutputStream out) {
+        this(out, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Create a BGZF stream with the given compression level.
+     *
+     * @param out the stream to write the compressed blocks to.
+     * @param level the compression level, from 0 to 9, or -1 for the default.
+     */
+    public BgzfOutputStream(OutputStream out, int level) {
+        this.out = out;
+        this.deflater = new Deflater(level, true);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (inputLength == input.length) {
+            writeBlock();
+        }
+        input[inputLength++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (inputLength == input.length) {
+                writeBlock();
+            }
+            int n = Math.min(len, input.length - inputLength);
+            System.arraycopy(b, off, input, inputLength, n);
+            inputLength += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Writes the buffered data as a block and flushes the underlying stream.
+     * Frequent flushing creates small blocks and reduces the compression
+     * ratio.
+     *
+     * @throws java.io.IOException if writing fails.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (inputLength > 0) {
+            writeBlock();
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (inputLength > 0) {
+                writeBlock();
+            }
+            out.write(EOF_BLOCK);
+            out.flush();
+        } finally {
+            deflater.end();
+            out.close();
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        deflater.reset();
+        deflater.setInput(input, 0, inputLength);
+        deflater.finish();
+        int headerLength = 18;
+        int trailerLength = 8;
+        int compressedLength = 0;
+        int capacity = block.length - headerLength - trailerLength;
+        while (!deflater.finished()) {
+            if (compressedLength == capacity) {
+                throw new IOException(
+                    "Compressed block exceeds the maximum BGZF block size!");
+            }
+            compressedLength += deflater.deflate(block, headerLength + compressedLength,
+                capacity - compressedLength);
+        }
+        int blockSize = headerLength + compressedLength + trailerLength;
+        // gzip member header with the BGZF "BC" extra field
+        block[0] = 0x1f;
+        block[1] = (byte) 0x8b;
+        block[2] = 0x08;
+        block[3] = 0x04;
+        block[4] = 0;
+        block[5] = 0;
+        block[6] = 0;
+        block[7] = 0;
+        block[8] = 0;
+        block[9] = (byte) 0xff;
+        block[10] = 6;
+        block[11] = 0;
+        block[12] = 'B';
+        block[13] = 'C';
+        block[14] = 2;
+        block[15] = 0;
+        putShort(block, 16, blockSize - 1);
+        crc.reset();
+        crc.update(input, 0, inputLength);
+        int trailer = headerLength + compressedLength;
+        putInt(block, trailer, (int) crc.getValue());
+        putInt(block, trailer + 4, inputLength);
+        out.write(block, 0, blockSize);
+        inputLength = 0;
+    }
+
+    private static void putShort(byte[] b, int index, int value) {
+        b[index] = (byte) value;
+        b[index + 1] = (byte) (value >>> 8);
+    }
+
+    private static void putInt(byte[] b, int index, int value) {
+        putShort(b, index, value);
+        putShort(b, index + 2, value >>> 16);
+    }
+}
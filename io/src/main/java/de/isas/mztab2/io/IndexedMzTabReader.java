@@ -0,0 +1,338 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.isas.mztab2.io;
+
+import de.isas.mztab2.model.Metadata;
+import de.isas.mztab2.model.SmallMoleculeEvidence;
+import de.isas.mztab2.model.SmallMoleculeFeature;
+import de.isas.mztab2.model.SmallMoleculeSummary;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import uk.ac.ebi.pride.jmztab2.model.Section;
+import static uk.ac.ebi.pride.jmztab2.utils.MZTabProperties.ENCODE;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorList;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabException;
+import uk.ac.ebi.pride.jmztab2.utils.parser.MZTabParserContext;
+
+/**
+ * <p>
+ * Random access reader for the small molecule summary (SML), feature (SMF) and
+ * evidence (SME) rows of a local mzTab-M file, based on a
+ * {@link MzTabRowOffsetIndex}. The file may be uncompressed or BGZF
+ * compressed, other compression formats are rejected when it is opened.</p>
+ *
+ * <p>
+ * The metadata section is parsed when the reader is created. A section header
+ * is parsed on the first access to a row of its section. Afterwards, each
+ * requested row is read by seeking directly to its offset and parsing only
+ * its line with the same line parsers used by the {@link MzTabFileParser}.
+ * Errors are reported with the line numbers of the original file and collected
+ * in the error list, see {@link #getErrorList()}.</p>
+ *
+ * <p>
+ * Instances are not thread-safe.</p>
+ *
+ * @author nilshoffmann
+ * @see MzTabRowOffsetIndex
+ */
+@Slf4j
+public final class IndexedMzTabReader implements Closeable {
+
+    private final MzTabRowOffsetIndex index;
+    private final SeekableLineSource lines;
+    private final MZTabErrorList errorList;
+    private final MzTabStreamParser.LineDispatcher dispatcher;
+    private final EnumSet<Section> parsedHeaders = EnumSet.noneOf(
+        Section.class);
+    private Metadata metadata;
+    private Object captured;
+
+    /**
+     * Open the file with the index from its sidecar file. If the sidecar does
+     * not exist, can not be read or does not match the size and modification
+     * time of the file, the index is rebuilt and the sidecar is written. The
+     * checksum of the file is not compared, see
+     * {@link #IndexedMzTabReader(Path, boolean)}.
+     *
+     * @param source the mzTab file.
+     * @throws java.io.IOException if the file can not be read.
+     * @throws MZTabException if the metadata can not be parsed.
+     * @see MzTabRowOffsetIndex#sidecarFor(Path)
+     */
+    public IndexedMzTabReader(Path source) throws IOException, MZTabException {
+        this(source, false);
+    }
+
+    /**
+     * Open the file with the index from its sidecar file. If the sidecar does
+     * not exist, can not be read or does not match the size and modification
+     * time of the file, the index is rebuilt and the sidecar is written.
+     *
+     * @param source the mzTab file.
+     * @param verifyChecksum true, to also compare the checksum of the file,
+     * which detects a rewrite with the same size within the resolution of the
+     * modification time, but reads the whole file. The default is false.
+     * @throws java.io.IOException if the file can not be read.
+     * @throws MZTabException if the metadata can not be parsed.
+     * @see MzTabRowOffsetIndex#matches(Path, boolean)
+     */
+    public IndexedMzTabReader(Path source, boolean verifyChecksum) throws IOException, MZTabException {
+        this(source, loadOrBuild(source, verifyChecksum));
+    }
+
+    /**
+     * Open the file with the given index.
+     *
+     * @param source the mzTab file.
+     * @param index the index of the file.
+     * @throws java.io.IOException if the file can not be read.
+     * @throws MZTabException if the metadata can not be parsed.
+     */
+    public IndexedMzTabReader(Path source, MzTabRowOffsetIndex index) throws IOException, MZTabException {
+        this.index = index;
+        this.errorList = new MZTabErrorList();
+        this.dispatcher = new MzTabStreamParser.LineDispatcher(
+            new MZTabParserContext(), errorList, new CapturingHandler());
+        this.lines = SeekableLineSource.open(source, Charset.forName(ENCODE));
+        try {
+            int lineNumber = 0;
+            String line;
+            while (lines.position() < index.getMetadataEnd() && (line = lines.
+                readLine()) != null) {
+                dispatcher.dispatch(++lineNumber, line);
+            }
+            dispatcher.finish();
+        } catch (MZTabException | IOException | RuntimeException ex) {
+            lines.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns the index used by this reader.
+     *
+     * @return the index.
+     */
+    public MzTabRowOffsetIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the metadata of the file.
+     *
+     * @return the metadata.
+     */
+    public Metadata getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * Returns the errors recorded so far.
+     *
+     * @return the error list.
+     */
+    public MZTabErrorList getErrorList() {
+        return errorList;
+    }
+
+    /**
+     * Read the small molecule summary row with the given SML_ID.
+     *
+     * @param smlId the id.
+     * @return the row, or empty, if no row has this id.
+     * @throws java.io.IOException if the file can not be read.
+     * @throws MZTabException if the row or its header can not be parsed.
+     */
+    public Optional<SmallMoleculeSummary> getSmallMoleculeSummary(int smlId) throws IOException, MZTabException {
+        return first(getSmallMoleculeSummaries(smlId, smlId));
+    }
+
+    /**
+     * Read the small molecule summary rows with SML_IDs from
+     * <code>fromId</code> to <code>toId</code>, both inclusive.
+     *
+     * @param fromId the first id.
+     * @param toId the last id.
+     * @return the rows, ordered by id.
+     * @throws java.io.IOException if the file can not be read.
+     * @throws MZTabException if a row or its header can not be parsed.
+     */
+    public List<SmallMoleculeSummary> getSmallMoleculeSummaries(int fromId,
+        int toId) throws IOException, MZTabException {
+        return read(Section.Small_Molecule, fromId, toId,
+            SmallMoleculeSummary.class);
+    }
+
+    /**
+     * Read the small molecule feature row with the given SMF_ID.
+     *
+     * @param smfId the id.
+     * @return the row, or empty, if no row has this id.
+     * @throws java.io.IOException if the file can not be read.
+     * @throws MZTabException if the row or its header can not be parsed.
+     */
+    public Optional<SmallMoleculeFeature> getSmallMoleculeFeature(int smfId) throws IOException, MZTabException {
+        return first(getSmallMoleculeFeatures(smfId, smfId));
+    }
+
+    /**
+     * Read the small molecule feature rows with SMF_IDs from
+     * <code>fromId</code> to <code>toId</code>, both inclusive.
+     *
+     * @param fromId the first id.
+     * @param toId the last id.
+     * @return the rows, ordered by id.
+     * @throws java.io.IOException if the file can not be read.
+     * @throws MZTabException if a row or its header can not be parsed.
+     */
+    public List<SmallMoleculeFeature> getSmallMoleculeFeatures(int fromId,
+        int toId) throws IOException, MZTabException {
+        return read(Section.Small_Molecule_Feature, fromId, toId,
+            SmallMoleculeFeature.class);
+    }
+
+    /**
+     * Read the small molecule evidence row with the given SME_ID.
+     *
+     * @param smeId the id.
+     * @return the row, or empty, if no row has this id.
+     * @throws java.io.IOException if the file can not be read.
+     * @throws MZTabException if the row or its header can not be parsed.
+     */
+    public Optional<SmallMoleculeEvidence> getSmallMoleculeEvidence(int smeId) throws IOException, MZTabException {
+        return first(getSmallMoleculeEvidences(smeId, smeId));
+    }
+
+    /**
+     * Read the small molecule evidence rows with SME_IDs from
+     * <code>fromId</code> to <code>toId</code>, both inclusive.
+     *
+     * @param fromId the first id.
+     * @param toId the last id.
+     * @return the rows, ordered by id.
+     * @throws java.io.IOException if the file can not be read.
+     * @throws MZTabException if a row or its header can not be parsed.
+     */
+    public List<SmallMoleculeEvidence> getSmallMoleculeEvidences(int fromId,
+        int toId) throws IOException, MZTabException {
+        return read(Section.Small_Molecule_Evidence, fromId, toId,
+            SmallMoleculeEvidence.class);
+    }
+
+    @Override
+    public void close() throws IOException {
+        lines.close();
+    }
+
+    private <T> List<T> read(Section dataSection, int fromId, int toId,
+        Class<T> rowType) throws IOException, MZTabException {
+        long[][] positions = index.getRowPositions(dataSection, fromId, toId);
+        if (positions.length == 0) {
+            return Collections.emptyList();
+        }
+        parseHeader(dataSection);
+        List<T> rows = new ArrayList<>(positions.length);
+        for (long[] position : positions) {
+            captured = null;
+            lines.seek(position[1]);
+            dispatcher.resetLineOrder();
+            dispatcher.dispatch((int) position[2], lines.readLine());
+            if (captured != null) {
+                rows.add(rowType.cast(captured));
+            }
+        }
+        return rows;
+    }
+
+    private void parseHeader(Section dataSection) throws IOException, MZTabException {
+        if (parsedHeaders.contains(dataSection)) {
+            return;
+        }
+        long offset = index.getHeaderOffset(dataSection);
+        if (offset < 0) {
+            // rows are only indexed after their header
+            throw new IllegalStateException(
+                "No header for section " + dataSection + " in index!");
+        }
+        lines.seek(offset);
+        dispatcher.resetLineOrder();
+        dispatcher.dispatch(index.getHeaderLineNumber(dataSection), lines.
+            readLine());
+        parsedHeaders.add(dataSection);
+    }
+
+    private static <T> Optional<T> first(List<T> rows) {
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    private static MzTabRowOffsetIndex loadOrBuild(Path source,
+        boolean verifyChecksum) throws IOException {
+        Path sidecar = MzTabRowOffsetIndex.sidecarFor(source);
+        if (Files.isRegularFile(sidecar)) {
+            try {
+                MzTabRowOffsetIndex index = MzTabRowOffsetIndex.load(sidecar);
+                if (index.matches(source, verifyChecksum)) {
+                    return index;
+                }
+                log.info("Rebuilding stale index {}", sidecar);
+            } catch (IOException ex) {
+                log.warn("Rebuilding unreadable index " + sidecar, ex);
+            }
+        }
+        MzTabRowOffsetIndex index = MzTabRowOffsetIndex.build(source);
+        try {
+            index.save(sidecar);
+        } catch (IOException ex) {
+            log.warn("Could not save index " + sidecar, ex);
+        }
+        return index;
+    }
+
+    private class CapturingHandler implements MzTabStreamHandler {
+
+        @Override
+        public void onMetadata(Metadata metadata) {
+            IndexedMzTabReader.this.metadata = metadata;
+        }
+
+        @Override
+        public void onSmallMoleculeSummary(
+            SmallMoleculeSummary smallMoleculeSummary) {
+            captured = smallMoleculeSummary;
+        }
+
+        @Override
+        public void onSmallMoleculeFeature(
+            SmallMoleculeFeature smallMoleculeFeature) {
+            captured = smallMoleculeFeature;
+        }
+
+        @Override
+        public void onSmallMoleculeEvidence(
+            SmallMoleculeEvidence smallMoleculeEvidence) {
+            captured = smallMoleculeEvidence;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.isas.mztab2.io;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * <p>
+ * Source of the lines of an mzTab file, as consumed by the
+ * {@link MzTabStreamParser}. Lines are terminated by a line feed, a carriage
+ * return or a carriage return followed by a line feed, the terminators are not
+ * part of the returned line, as for
+ * {@link java.io.BufferedReader#readLine()}.</p>
+ *
+ * @author nilshoffmann
+ * @see MappedLineSource
+ */
+public interface LineSource extends Closeable {
+
+    /**
+     * Read the next line.
+     *
+     * @return the line without its terminator, or null at the end of the
+     * input.
+     * @throws java.io.IOException if any io related errors occur.
+     */
+    String readLine() throws IOException;
+
+    /**
+     * Skip the next line without decoding it, if it starts with the given
+     * prefix. Sources that can not look ahead without decoding do not skip
+     * and return false, the line must then be read with {@link #readLine()}.
+     *
+     * @param prefix the prefix of ASCII characters.
+     * @return true, if the line was skipped, false, if nothing was consumed.
+     * @throws java.io.IOException if any io related errors occur.
+     */
+    default boolean skipLine(String prefix) throws IOException {
+        return false;
+    }
+
+    /**
+     * Create a line source reading from the given reader. Closing the line
+     * source closes the reader.
+     *
+     * @param reader the reader.
+     * @return the line source.
+     */
+    static LineSource of(BufferedReader reader) {
+        return new LineSource() {
+            @Override
+            public String readLine() throws IOException {
+                return reader.readLine();
+            }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+}
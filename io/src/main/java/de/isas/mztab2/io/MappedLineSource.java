@@ -0,0 +1,269 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.isas.mztab2.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.Checksum;
+
+/**
+ * <p>
+ * Reads the lines of a local, uncompressed file from a memory mapped
+ * {@link FileChannel}. Line terminators are located on the mapped bytes
+ * directly, without a read buffer on the heap. Lines that only contain ASCII
+ * characters, which is the common case for mzTab files, are converted to
+ * strings without going through the charset decoder. Other lines are decoded
+ * with the given charset.</p>
+ *
+ * <p>
+ * The file is mapped in windows of at most 256 MB, so files larger than 2 GB
+ * are supported. A single line must fit into one window. Instances are not
+ * thread-safe.</p>
+ *
+ * @author nilshoffmann
+ * @see MzTabStreamParser#setMemoryMapped(boolean)
+ */
+public final class MappedLineSource implements SeekableLineSource {
+
+    static final int DEFAULT_WINDOW_SIZE = 1 << 28;
+
+    private final FileChannel channel;
+    private final Charset charset;
+    private final long size;
+    private final int windowSize;
+    private final Checksum checksum;
+    private long checksummed = 0;
+    private MappedByteBuffer window = null;
+    private long windowStart = 0;
+    private int windowLength = 0;
+    private long position = 0;
+    private byte[] bytes = new byte[8192];
+
+    /**
+     * Open the file for reading.
+     *
+     * @param file the file.
+     * @param charset the charset of the file.
+     * @throws java.io.IOException if the file can not be opened or mapped.
+     */
+    public MappedLineSource(Path file, Charset charset) throws IOException {
+        this(file, charset, DEFAULT_WINDOW_SIZE);
+    }
+
+    MappedLineSource(Path file, Charset charset, int windowSize) throws IOException {
+        this(file, charset, windowSize, null);
+    }
+
+    /**
+     * Open the file for reading and update the given checksum with each byte
+     * of the file the first time it is mapped, so that reading all lines from
+     * the start also computes the checksum of the file.
+     *
+     * @param file the file.
+     * @param charset the charset of the file.
+     * @param windowSize the maximum size of a mapped window.
+     * @param checksum the checksum to update, or null.
+     * @throws java.io.IOException if the file can not be opened or mapped.
+     */
+    MappedLineSource(Path file, Charset charset, int windowSize,
+        Checksum checksum) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.charset = charset;
+        this.windowSize = windowSize;
+        this.checksum = checksum;
+        this.size = channel.size();
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        if (position >= size) {
+            return null;
+        }
+        long lineStart = position;
+        if (window == null || lineStart < windowStart || lineStart >= windowStart + windowLength) {
+            mapAt(lineStart);
+        }
+        int i = (int) (lineStart - windowStart);
+        boolean ascii = true;
+        while (true) {
+            if (i == windowLength) {
+                if (windowStart + windowLength == size) {
+                    // last line without terminator
+                    position = size;
+                    return toString(lineStart, i, ascii);
+                }
+                if (windowStart == lineStart) {
+                    throw new IOException(
+                        "Line starting at byte " + lineStart + " is longer than " + windowSize + " bytes!");
+                }
+                // continue the line in a window starting at the line
+                int scanned = i - (int) (lineStart - windowStart);
+                mapAt(lineStart);
+                i = scanned;
+                continue;
+            }
+            byte b = window.get(i);
+            if (b == '\n') {
+                position = windowStart + i + 1;
+                return toString(lineStart, i, ascii);
+            }
+            if (b == '\r') {
+                position = windowStart + i + 1;
+                if (position < size && byteAt(position) == '\n') {
+                    position++;
+                }
+                return toString(lineStart, i, ascii);
+            }
+            ascii &= b >= 0;
+            i++;
+        }
+    }
+
+    /**
+     * Skip the next line by scanning for its terminator, if its bytes start
+     * with the given prefix.
+     *
+     * @param prefix the prefix of ASCII characters.
+     * @return true, if the line was skipped, false, if nothing was consumed.
+     * @throws java.io.IOException if any io related errors occur.
+     */
+    @Override
+    public boolean skipLine(String prefix) throws IOException {
+        int length = prefix.length();
+        if (size - position <= length) {
+            return false;
+        }
+        if (window == null || position < windowStart || position + length > windowStart + windowLength) {
+            mapAt(position);
+        }
+        int i = (int) (position - windowStart);
+        for (int k = 0; k < length; k++) {
+            if (window.get(i + k) != prefix.charAt(k)) {
+                return false;
+            }
+        }
+        i += length;
+        while (true) {
+            if (i == windowLength) {
+                if (windowStart + windowLength == size) {
+                    position = size;
+                    return true;
+                }
+                // the skipped part of the line is not needed anymore
+                mapAt(windowStart + windowLength);
+                i = 0;
+                continue;
+            }
+            byte b = window.get(i);
+            if (b == '\n') {
+                position = windowStart + i + 1;
+                return true;
+            }
+            if (b == '\r') {
+                position = windowStart + i + 1;
+                if (position < size && byteAt(position) == '\n') {
+                    position++;
+                }
+                return true;
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Returns the byte offset of the next line.
+     *
+     * @return the byte offset, equal to the file size at the end of the file.
+     */
+    @Override
+    public long position() {
+        return position;
+    }
+
+    /**
+     * Continue reading at the given byte offset, which must be the start of a
+     * line.
+     *
+     * @param position the byte offset.
+     * @throws IllegalArgumentException if the offset is negative or beyond the
+     * end of the file.
+     */
+    @Override
+    public void seek(long position) {
+        if (position < 0 || position > size) {
+            throw new IllegalArgumentException(
+                "Position " + position + " is outside of the file of " + size + " bytes!");
+        }
+        this.position = position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    private void mapAt(long start) throws IOException {
+        windowStart = start;
+        windowLength = (int) Math.min(windowSize, size - start);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+            windowLength);
+        long windowEnd = windowStart + windowLength;
+        if (checksum != null && windowStart <= checksummed && checksummed < windowEnd) {
+            window.position((int) (checksummed - windowStart));
+            while (window.hasRemaining()) {
+                int length = Math.min(bytes.length, window.remaining());
+                window.get(bytes, 0, length);
+                checksum.update(bytes, 0, length);
+            }
+            checksummed = windowEnd;
+        }
+    }
+
+    private byte byteAt(long index) throws IOException {
+        if (index < windowStart + windowLength) {
+            return window.get((int) (index - windowStart));
+        }
+        ByteBuffer next = ByteBuffer.allocate(1);
+        channel.read(next, index);
+        if (checksum != null && index == checksummed) {
+            checksum.update(next.get(0));
+            checksummed++;
+        }
+        return next.get(0);
+    }
+
+    @SuppressWarnings("deprecation")
+    private String toString(long lineStart, int end, boolean ascii) {
+        int offset = (int) (lineStart - windowStart);
+        int length = end - offset;
+        if (bytes.length < length) {
+            bytes = new byte[Math.max(length, bytes.length * 2)];
+        }
+        window.position(offset);
+        window.get(bytes, 0, length);
+        if (ascii) {
+            // each byte is one char, no decoding required
+            return new String(bytes, 0, 0, length);
+        }
+        return new String(bytes, 0, length, charset);
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.isas.mztab2.io;
+
+import java.io.BufferedInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorOutputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorInputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
+
+/**
+ * <p>
+ * Compression formats of mzTab files. The {@link MzTabStreamParser} and
+ * {@link MzTabFileParser} detect the format of their input from its magic
+ * bytes, see {@link #detect(byte[], int)}, the
+ * {@link MzTabNonValidatingWriter} compresses with a configurable format and
+ * level.</p>
+ *
+ * <p>
+ * Zstandard requires {@code com.github.luben:zstd-jni} on the classpath, see
+ * {@link #isAvailable()}.</p>
+ *
+ * @author nilshoffmann
+ */
+public enum MzTabCompression {
+    /**
+     * Uncompressed text, the level is ignored.
+     */
+    NONE(Integer.MIN_VALUE, Integer.MAX_VALUE),
+    /**
+     * Gzip, decompressed sequentially, levels from 0 to 9.
+     */
+    GZIP(0, 9),
+    /**
+     * The blocked gzip format, which any gzip implementation can read, but
+     * which is also decompressed in parallel, see {@link BgzfInputStream}.
+     * Levels from 0 to 9.
+     */
+    BGZF(0, 9),
+    /**
+     * Zstandard, levels from 1 to 22.
+     */
+    ZSTD(1, 22),
+    /**
+     * Xz, presets from 0 to 9.
+     */
+    XZ(0, 9),
+    /**
+     * Bzip2, block sizes from 1 to 9 (times 100k).
+     */
+    BZIP2(1, 9);
+
+    /**
+     * The level that selects the default of each format.
+     */
+    public static final int DEFAULT_LEVEL = -1;
+
+    /**
+     * The number of leading bytes required by {@link #detect(byte[], int)}.
+     */
+    public static final int MAGIC_LENGTH = BgzfInputStream.HEADER_LENGTH;
+
+    private final int minLevel;
+    private final int maxLevel;
+
+    private MzTabCompression(int minLevel, int maxLevel) {
+        this.minLevel = minLevel;
+        this.maxLevel = maxLevel;
+    }
+
+    /**
+     * Detect the format of compressed data from its leading bytes.
+     *
+     * @param bytes the leading bytes, at least {@link #MAGIC_LENGTH} bytes,
+     * unless the data is shorter.
+     * @param length the number of valid bytes.
+     * @return the format, {@link #NONE} if no compression was detected.
+     */
+    public static MzTabCompression detect(byte[] bytes, int length) {
+        if (BgzfInputStream.isBgzf(bytes, length)) {
+            return BGZF;
+        }
+        if (length >= 2 && (bytes[0] & 0xff) == 0x1f && (bytes[1] & 0xff) == 0x8b) {
+            return GZIP;
+        }
+        if (ZstdUtils.matches(bytes, length)) {
+            return ZSTD;
+        }
+        if (XZCompressorInputStream.matches(bytes, length)) {
+            return XZ;
+        }
+        if (BZip2CompressorInputStream.matches(bytes, length)) {
+            return BZIP2;
+        }
+        return NONE;
+    }
+
+    /**
+     * Detect the format of the stream from its leading bytes, without
+     * consuming them.
+     *
+     * @param is the stream, which must support mark and reset.
+     * @return the format, {@link #NONE} if no compression was detected.
+     * @throws java.io.IOException if any io related errors occur.
+     */
+    public static MzTabCompression detect(BufferedInputStream is) throws IOException {
+        byte[] header = new byte[MAGIC_LENGTH];
+        is.mark(header.length);
+        int length = 0;
+        int n;
+        while (length < header.length && (n = is.read(header, length,
+            header.length - length)) > 0) {
+            length += n;
+        }
+        is.reset();
+        return detect(header, length);
+    }
+
+    /**
+     * Select the format from the suffix of a file name: {@code .gz} and
+     * {@code .bgz} select {@link #BGZF}, {@code .zst} selects {@link #ZSTD},
+     * {@code .xz} selects {@link #XZ} and {@code .bz2} selects
+     * {@link #BZIP2}.
+     *
+     * @param fileName the file name.
+     * @return the format, {@link #NONE} for other file names.
+     */
+    public static MzTabCompression forFileName(String fileName) {
+        if (fileName.endsWith(".gz") || fileName.endsWith(".bgz")) {
+            return BGZF;
+        } else if (fileName.endsWith(".zst")) {
+            return ZSTD;
+        } else if (fileName.endsWith(".xz")) {
+            return XZ;
+        } else if (fileName.endsWith(".bz2")) {
+            return BZIP2;
+        }
+        return NONE;
+    }
+
+    /**
+     * Returns true, if the libraries required for this format are on the
+     * classpath.
+     *
+     * @return true, if the format can be read and written.
+     */
+    public boolean isAvailable() {
+        return this != ZSTD || ZstdUtils.isZstdCompressionAvailable();
+    }
+
+    /**
+     * Decompress the given stream. Concatenated members are read until the
+     * end of the stream.
+     *
+     * @param is the compressed stream.
+     * @param pool the pool to decompress BGZF blocks ahead on, or null to
+     * decompress on the reading thread only as far as needed. Other formats
+     * are always decompressed on the reading thread.
+     * @return the decompressed stream.
+     * @throws java.io.IOException if any io related errors occur, or if the
+     * format is not available.
+     */
+    public InputStream decompress(InputStream is, ForkJoinPool pool) throws IOException {
+        checkAvailable();
+        switch (this) {
+            case GZIP:
+                return new GZIPInputStream(is);
+            case BGZF:
+                // decompress the independent blocks ahead of the parser
+                return new BgzfInputStream(Channels.newChannel(is), pool,
+                    pool == null ? 0 : 2 * pool.getParallelism());
+            case ZSTD:
+                return new ZstdCompressorInputStream(is);
+            case XZ:
+                return new XZCompressorInputStream(is, true);
+            case BZIP2:
+                return new BZip2CompressorInputStream(is, true);
+            default:
+                return is;
+        }
+    }
+
+    /**
+     * Check that the level is supported by this format.
+     *
+     * @param level the level of the format, or {@link #DEFAULT_LEVEL}.
+     * @throws IllegalArgumentException if the level is not supported.
+     */
+    public void checkLevel(int level) {
+        if (level != DEFAULT_LEVEL && (level < minLevel || level > maxLevel)) {
+            throw new IllegalArgumentException(
+                "Compression level " + level + " is not supported by " + this + ", use a level from " + minLevel + " to " + maxLevel + " or " + DEFAULT_LEVEL + " for the default!");
+        }
+    }
+
+    /**
+     * Create or truncate the file and compress into it, see
+     * {@link #compress(OutputStream, int)}. The level is checked before the
+     * file is created.
+     *
+     * @param path the file.
+     * @param level the level of the format, or {@link #DEFAULT_LEVEL}.
+     * @return the stream to write the uncompressed data to.
+     * @throws java.io.IOException if any io related errors occur, or if the
+     * format is not available.
+     * @throws IllegalArgumentException if the level is not supported.
+     */
+    public OutputStream compress(Path path, int level) throws IOException {
+        checkLevel(level);
+        checkAvailable();
+        OutputStream os = Files.newOutputStream(path);
+        try {
+            return compress(os, level);
+        } catch (IOException | RuntimeException ex) {
+            os.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Compress into the given stream. Closing the returned stream finishes
+     * the compressed data and closes the given stream. Flushing the returned
+     * stream has no effect, so that writers flushing after every line, like
+     * the Jackson generators, do not end a compressed block per line.
+     *
+     * @param os the stream to write the compressed data to.
+     * @param level the level of the format, or {@link #DEFAULT_LEVEL}.
+     * @return the stream to write the uncompressed data to.
+     * @throws java.io.IOException if any io related errors occur, or if the
+     * format is not available.
+     * @throws IllegalArgumentException if the level is not supported.
+     */
+    public OutputStream compress(OutputStream os, int level) throws IOException {
+        checkLevel(level);
+        return this == NONE ? os : new UnflushedOutputStream(compressor(os,
+            level));
+    }
+
+    private OutputStream compressor(OutputStream os, int level) throws IOException {
+        checkAvailable();
+        boolean defaultLevel = level == DEFAULT_LEVEL;
+        switch (this) {
+            case GZIP:
+                return new GZIPOutputStream(os) {
+                    {
+                        def.setLevel(defaultLevel ? Deflater.DEFAULT_COMPRESSION : level);
+                    }
+                };
+            case BGZF:
+                return new BgzfOutputStream(os,
+                    defaultLevel ? Deflater.DEFAULT_COMPRESSION : level);
+            case ZSTD:
+                return defaultLevel ? new ZstdCompressorOutputStream(os)
+                    : new ZstdCompressorOutputStream(os, level);
+            case XZ:
+                return defaultLevel ? new XZCompressorOutputStream(os)
+                    : new XZCompressorOutputStream(os, level);
+            case BZIP2:
+                return defaultLevel ? new BZip2CompressorOutputStream(os)
+                    : new BZip2CompressorOutputStream(os, level);
+            default:
+                return os;
+        }
+    }
+
+    private void checkAvailable() throws IOException {
+        if (!isAvailable()) {
+            throw new IOException(
+                "Compression format " + this + " requires com.github.luben:zstd-jni on the classpath!");
+        }
+    }
+
+    /**
+     * Stream that ignores flushes of the compressed data.
+     */
+    private static final class UnflushedOutputStream extends FilterOutputStream {
+
+        private UnflushedOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() {
+            // the data is complete after close
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
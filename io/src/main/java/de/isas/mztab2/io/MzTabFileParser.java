@@ -15,7 +15,6 @@
  */
 package de.isas.mztab2.io;
 
-import de.isas.mztab2.model.CV;
 import de.isas.mztab2.model.ColumnParameterMapping;
 import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabError;
 import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabException;
@@ -24,16 +23,7 @@ import uk.ac.ebi.pride.jmztab2.utils.errors.FormatErrorType;
 import uk.ac.ebi.pride.jmztab2.utils.errors.LogicalErrorType;
 import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorType;
 import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorOverflowException;
-import uk.ac.ebi.pride.jmztab2.utils.parser.SFHLineParser;
-import uk.ac.ebi.pride.jmztab2.utils.parser.PositionMapping;
-import uk.ac.ebi.pride.jmztab2.utils.parser.SMFLineParser;
 import uk.ac.ebi.pride.jmztab2.utils.parser.MZTabParserContext;
-import uk.ac.ebi.pride.jmztab2.utils.parser.SEHLineParser;
-import uk.ac.ebi.pride.jmztab2.utils.parser.MTDLineParser;
-import uk.ac.ebi.pride.jmztab2.utils.parser.SMLLineParser;
-import uk.ac.ebi.pride.jmztab2.utils.parser.SMELineParser;
-import uk.ac.ebi.pride.jmztab2.utils.parser.SMHLineParser;
-import uk.ac.ebi.pride.jmztab2.utils.parser.COMLineParser;
 import de.isas.mztab2.model.Comment;
 import de.isas.mztab2.model.Metadata;
 import de.isas.mztab2.model.MsRun;
@@ -44,24 +34,24 @@ import de.isas.mztab2.model.SmallMoleculeSummary;
 
 import java.io.*;
 import java.net.URI;
-import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-import java.util.zip.GZIPInputStream;
 import uk.ac.ebi.pride.jmztab2.model.IMZTabColumn;
 import uk.ac.ebi.pride.jmztab2.model.MZTabColumnFactory;
+import uk.ac.ebi.pride.jmztab2.model.MZTabPatterns;
 import static uk.ac.ebi.pride.jmztab2.model.MZTabConstants.NEW_LINE;
 import static uk.ac.ebi.pride.jmztab2.model.MZTabConstants.REGEX_DEFAULT_RELIABILITY;
-import static uk.ac.ebi.pride.jmztab2.model.MZTabConstants.TAB;
-import uk.ac.ebi.pride.jmztab2.model.MZTabStringUtils;
 import uk.ac.ebi.pride.jmztab2.model.Section;
 import static uk.ac.ebi.pride.jmztab2.utils.MZTabProperties.*;
 
@@ -70,6 +60,9 @@ import static uk.ac.ebi.pride.jmztab2.utils.MZTabProperties.*;
  * MZTabFileParser provides reading functionality of the mzTab file. During the
  * parsing process, minimal integrity checks are preformed.
  *
+ * All rows are kept in memory to create the {@link MzTab} object. Use the
+ * {@link MzTabStreamParser} to process large files row by row.
+ *
  * @author qingwei
  * @author nilshoffmann
  * 
@@ -79,10 +72,17 @@ import static uk.ac.ebi.pride.jmztab2.utils.MZTabProperties.*;
 public class MzTabFileParser {
 
     private MzTab mzTabFile;
-    private URI tabFile;
+    private final MzTabSource tabFile;
 
     private MZTabErrorList errorList;
     private MZTabParserContext context;
+    private MzTabReferenceIndex referenceIndex;
+    private ForkJoinPool pool = null;
+    private int batchSize = MzTabStreamParser.DEFAULT_BATCH_SIZE;
+    private boolean memoryMapped = false;
+    private boolean deduplicateValues = false;
+    private boolean trustedInput = false;
+    private Set<Section> dataSections = MzTabStreamParser.DATA_SECTIONS;
 
     /**
      * Create a new {@code MZTabFileParser} for the given file.
@@ -106,17 +106,134 @@ public class MzTabFileParser {
      * invalid.
      */
     public MzTabFileParser(URI tabFileUri) throws IllegalArgumentException {
-        if (tabFileUri == null) {
+        this.tabFile = MzTabSource.of(tabFileUri);
+    }
+
+    /**
+     * Create a new {@code MZTabFileParser} for the given input stream, which
+     * may be compressed, see {@link MzTabCompression}. The stream is read by
+     * the first parse and closed afterwards, further parses throw an
+     * {@link java.lang.IllegalStateException}.
+     *
+     * @param inputStream the MZTab input stream. The stream SHOULD not be null
+     * @throws java.lang.IllegalArgumentException if the provided argument in
+     * invalid.
+     */
+    public MzTabFileParser(InputStream inputStream) throws IllegalArgumentException {
+        this.tabFile = MzTabSource.of(inputStream);
+    }
+
+    /**
+     * Create a new {@code MZTabFileParser} for the given reader. The reader is
+     * read by the first parse and closed afterwards, further parses throw an
+     * {@link java.lang.IllegalStateException}.
+     *
+     * @param reader the MZTab reader. The reader SHOULD not be null
+     * @throws java.lang.IllegalArgumentException if the provided argument in
+     * invalid.
+     */
+    public MzTabFileParser(Reader reader) throws IllegalArgumentException {
+        this.tabFile = MzTabSource.of(reader);
+    }
+
+    /**
+     * Create a new {@code MZTabFileParser} for the given bytes, which may be
+     * compressed, see {@link MzTabCompression}. The array is not copied and MUST not be
+     * modified while parsing.
+     *
+     * @param bytes the MZTab file content. The bytes SHOULD not be null
+     * @throws java.lang.IllegalArgumentException if the provided argument in
+     * invalid.
+     */
+    public MzTabFileParser(byte[] bytes) throws IllegalArgumentException {
+        this.tabFile = MzTabSource.of(bytes);
+    }
+
+    /**
+     * Create a new {@code MZTabFileParser} for the remaining bytes of the
+     * given buffer, which may be compressed, see {@link MzTabCompression}. The
+     * position of the buffer is not changed, its content MUST not be modified
+     * while parsing.
+     *
+     * @param buffer the MZTab file content. The buffer SHOULD not be null
+     * @throws java.lang.IllegalArgumentException if the provided argument in
+     * invalid.
+     */
+    public MzTabFileParser(ByteBuffer buffer) throws IllegalArgumentException {
+        this.tabFile = MzTabSource.of(buffer);
+    }
+
+    /**
+     * Enable parallel parsing of the SML, SMF and SME data lines on the given
+     * pool. The parsed rows and errors keep their file order.
+     *
+     * @param pool the pool to parse on, null disables parallel parsing.
+     * @param batchSize the number of data lines per batch, must be greater
+     * than 0.
+     * @throws java.lang.IllegalArgumentException if the batch size is smaller
+     * than 1.
+     * @see MzTabStreamParser#setParallel(ForkJoinPool, int)
+     */
+    public void setParallel(ForkJoinPool pool, int batchSize) throws IllegalArgumentException {
+        if (batchSize < 1) {
             throw new IllegalArgumentException(
-                "MZTab file uri must not be null!");
-        }
-        if (("file".equals(tabFileUri.getScheme()) && !new File(tabFileUri).
-            exists())) {
-            throw new IllegalArgumentException("MZTab File URI " + tabFileUri.
-                toASCIIString() + " does not exist!");
+                "Batch size must be greater than 0!");
         }
+        this.pool = pool;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Read local, uncompressed files through a memory mapped
+     * {@link MappedLineSource}.
+     *
+     * @param memoryMapped true to map local files into memory.
+     * @see MzTabStreamParser#setMemoryMapped(boolean)
+     */
+    public void setMemoryMapped(boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+    }
+
+    /**
+     * Share canonical instances of repeated string and parameter values
+     * between the parsed rows. The shared parameters must not be modified.
+     *
+     * @param deduplicateValues true to deduplicate values.
+     * @see MzTabStreamParser#setDeduplicateValues(boolean)
+     */
+    public void setDeduplicateValues(boolean deduplicateValues) {
+        this.deduplicateValues = deduplicateValues;
+    }
 
-        this.tabFile = tabFileUri;
+    /**
+     * Skip the optional semantic and format checks of the data lines, for
+     * files that have already been validated. Parsing still stops with an
+     * error for values that can not be converted into the model.
+     *
+     * @param trustedInput true to skip the optional checks of the data lines.
+     * @see MzTabStreamParser#setTrustedInput(boolean)
+     */
+    public void setTrustedInput(boolean trustedInput) {
+        this.trustedInput = trustedInput;
+    }
+
+    /**
+     * Keep only the rows of the given data sections. The rows of the other
+     * sections are skipped while reading and the resulting
+     * {@link de.isas.mztab2.model.MzTab} contains no rows for them. Checks
+     * that require the rows of a skipped section are not performed, e.g. the
+     * SMF_ID_REFS of the SML rows are only checked if both SML and SMF are
+     * kept.
+     *
+     * @param dataSections any of {@link Section#Small_Molecule},
+     * {@link Section#Small_Molecule_Feature} and
+     * {@link Section#Small_Molecule_Evidence}.
+     * @throws java.lang.IllegalArgumentException if any other section is
+     * given.
+     * @see MzTabStreamParser#setDataSections(Set)
+     */
+    public void setDataSections(Set<Section> dataSections) throws IllegalArgumentException {
+        this.dataSections = MzTabStreamParser.copyDataSections(dataSections);
     }
 
     /**
@@ -134,11 +251,112 @@ public class MzTabFileParser {
      */
     public MZTabErrorList parse(OutputStream out, MZTabErrorType.Level level,
         int maxErrorCount) throws IOException {
+        return parse(out, level, maxErrorCount, ParseMode.COMPLETE);
+    }
+
+    /**
+     * Parse only the metadata section and the comments preceding the first
+     * section header. Reading stops at the first SMH, SML, SFH, SMF, SEH or
+     * SME line, so that the time to open a file does not depend on the number
+     * of rows. Compressed files are only decompressed up to that point.
+     * Parsing output and errors are written to the provided
+     * {@link java.io.OutputStream}. The resulting
+     * {@link de.isas.mztab2.model.MzTab} returned by {@link #getMZTabFile()}
+     * contains only the metadata and comments.
+     *
+     * @param out the output stream for parsing messages
+     * @param level the minimum error level to report errors for
+     * @param maxErrorCount the maximum number of errors to report in the
+     * {@link uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorList} return by
+     * {@link uk.ac.ebi.pride.jmztab2.utils.MZTabFileParser#getErrorList()}
+     * @return the error list
+     * @throws java.io.IOException if any io related errors occur.
+     */
+    public MZTabErrorList parseMetadata(OutputStream out,
+        MZTabErrorType.Level level,
+        int maxErrorCount) throws IOException {
+        return parse(out, level, maxErrorCount, ParseMode.METADATA);
+    }
+
+    /**
+     * Parse only the metadata section and the comments preceding the first
+     * section header. Reports up to
+     * {@link uk.ac.ebi.pride.jmztab2.utils.MZTabProperties#MAX_ERROR_COUNT}
+     * errors on level
+     * {@link uk.ac.ebi.pride.jmztab2.utils.MZTabProperties#LEVEL}.
+     *
+     * @param out the output stream for parsing messages
+     * @return the error list
+     * @throws java.io.IOException if any io related errors occur.
+     * @see #parseMetadata(OutputStream, MZTabErrorType.Level, int)
+     */
+    public MZTabErrorList parseMetadata(OutputStream out) throws IOException {
+        return parseMetadata(out, LEVEL, MAX_ERROR_COUNT);
+    }
+
+    /**
+     * Validate the file without creating the {@link de.isas.mztab2.model.MzTab}
+     * object. All per-line checks, the checks of the sections and the checks
+     * of the id references between the SML, SMF and SME rows are performed as
+     * for {@link #parse(OutputStream, MZTabErrorType.Level, int)} and the same
+     * errors are reported. The rows are discarded after they have been
+     * checked, only their ids and id references are kept in primitive sets
+     * and arrays, so that memory consumption does not depend on the size of
+     * the rows. Afterwards, {@link #getMZTabFile()} and
+     * {@link #getReferenceIndex()} return null.
+     *
+     * @param out the output stream for parsing messages
+     * @param level the minimum error level to report errors for
+     * @param maxErrorCount the maximum number of errors to report in the
+     * {@link uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorList} return by
+     * {@link uk.ac.ebi.pride.jmztab2.utils.MZTabFileParser#getErrorList()}
+     * @return the error list
+     * @throws java.io.IOException if any io related errors occur.
+     */
+    public MZTabErrorList validate(OutputStream out, MZTabErrorType.Level level,
+        int maxErrorCount) throws IOException {
+        return parse(out, level, maxErrorCount, ParseMode.VALIDATION);
+    }
+
+    /**
+     * Validate the file without creating the {@link de.isas.mztab2.model.MzTab}
+     * object. Reports up to
+     * {@link uk.ac.ebi.pride.jmztab2.utils.MZTabProperties#MAX_ERROR_COUNT}
+     * errors on the given level.
+     *
+     * @param out the output stream for parsing messages
+     * @param level the minimum error level to report errors for
+     * @return the error list
+     * @throws java.io.IOException if any io related errors occur.
+     * @see #validate(OutputStream, MZTabErrorType.Level, int)
+     */
+    public MZTabErrorList validate(OutputStream out, MZTabErrorType.Level level) throws IOException {
+        return validate(out, level, MAX_ERROR_COUNT);
+    }
+
+    private enum ParseMode {
+        COMPLETE, METADATA, VALIDATION
+    }
+
+    private MZTabErrorList parse(OutputStream out, MZTabErrorType.Level level,
+        int maxErrorCount, ParseMode mode) throws IOException {
+        Metadata metadata = null;
+        mzTabFile = null;
+        referenceIndex = null;
         try {
             context = new MZTabParserContext();
             errorList = new MZTabErrorList(level, maxErrorCount);
-            check();
-            refine();
+            switch (mode) {
+                case METADATA:
+                    metadata = checkMetadata();
+                    break;
+                case VALIDATION:
+                    metadata = checkOnly();
+                    break;
+                default:
+                    metadata = check();
+            }
+            refine(metadata);
         } catch (MZTabException e) {
             out.write(e.getMessage().getBytes());
             try (PrintStream ps = new PrintStream(out)) {
@@ -153,7 +371,7 @@ public class MzTabFileParser {
         }
 
         errorList.print(out);
-        if (mzTabFile != null && errorList.isEmpty()) {
+        if (metadata != null && errorList.isEmpty()) {
             out.write(
                 ("No structural or logical errors in " + tabFile + " file!" + NEW_LINE).
                     getBytes());
@@ -204,55 +422,14 @@ public class MzTabFileParser {
         return errorList;
     }
 
-    private Section getSection(String line) {
-        String[] items = line.split("\\s*" + TAB + "\\s*");
-        String section = items[0].trim();
-        return Section.findSection(section);
-    }
-
-    private BufferedReader readFile(URI tabFile) throws IOException {
-        BufferedReader reader;
-
-        InputStream is;
-        File file = new File(tabFile);
-        if (file.isFile()) {
-            is = new FileInputStream(file);
-        } else {
-            URL tabFileUrl = tabFile.toURL();
-            is = tabFileUrl.openStream();
-        }
-        if (tabFile.getPath().
-            endsWith(".gz")) {
-            reader = new BufferedReader(new InputStreamReader(
-                new GZIPInputStream(is), ENCODE));
-        } else {
-            reader = new BufferedReader(new InputStreamReader(
-                is, ENCODE));
-        }
-
-        return reader;
-    }
-
-    private String subString(String source) {
-        int length = 20;
-
-        if (length >= source.length()) {
-            return source;
-        } else {
-            return source.substring(0, length - 1) + "...";
-        }
-    }
-
     /**
      * refine all MZTabFile consistency correct.
      */
-    private void refine() throws MZTabException, MZTabErrorOverflowException {
-        if (mzTabFile == null) {
+    private void refine(Metadata metadata) throws MZTabException, MZTabErrorOverflowException {
+        if (metadata == null) {
             return;
         }
 
-        Metadata metadata = mzTabFile.getMetadata();
-
         //If ms_run[1-n]-hash is present,  ms_run[1-n]-hash_method SHOULD also be present
         for (MsRun msRun : metadata.getMsRun()) {
             if (msRun.getHash() != null && msRun.getHashMethod() == null) {
@@ -276,350 +453,201 @@ public class MzTabFileParser {
      * when too many errors are detected, as defined by the mztab.properties
      * file mztab.max_error_count parameter.
      */
-    private void check() throws IOException, MZTabException, MZTabErrorOverflowException {
-        COMLineParser comParser = new COMLineParser(context);
-        MTDLineParser mtdParser = new MTDLineParser(context);
-        SMHLineParser smhParser = null;
-        SMLLineParser smlParser = null;
-        SFHLineParser sfhParser = null;
-        SMFLineParser smfParser = null;
-        SEHLineParser sehParser = null;
-        SMELineParser smeParser = null;
-
-        SortedMap<Integer, Comment> commentMap = new TreeMap<>();
-        SortedMap<Integer, SmallMoleculeSummary> smallMoleculeSummaryMap = new TreeMap<>();
-        SortedMap<Integer, SmallMoleculeFeature> smallMoleculeFeatureMap = new TreeMap<>();
-        SortedMap<Integer, SmallMoleculeEvidence> smallMoleculeEvidenceMap = new TreeMap<>();
-
-        PositionMapping smlPositionMapping = null;
-        PositionMapping smfPositionMapping = null;
-        PositionMapping smePositionMapping = null;
-
-        String line;
-        int highWaterMark = 1;
-        int lineNumber = 0;
-        Section section;
-        try (BufferedReader reader = readFile(tabFile)) {
-            while ((line = reader.readLine()) != null) {
-                try {
-                    lineNumber++;
-
-                    if (MZTabStringUtils.isEmpty(line)) {
-                        continue;
-                    }
-
-                    if (line.startsWith(Section.Comment.getPrefix())) {
-                        comParser.parse(lineNumber, line, errorList);
-                        commentMap.put(lineNumber, comParser.getComment());
-                        continue;
-                    }
-
-                    section = getSection(line);
-                    if (section == null) {
-                        MZTabError sectionNullError = new MZTabError(
-                            FormatErrorType.LinePrefix, lineNumber,
-                            subString(line));
-                        throw new MZTabException(sectionNullError);
-                    }
-                    if (section.getLevel() < highWaterMark) {
-                        Section currentSection = Section.findSection(
-                            highWaterMark);
-                        MZTabError sectionLineOrderError = new MZTabError(
-                            LogicalErrorType.LineOrder, lineNumber,
-                            currentSection.getName(), section.getName());
-                        throw new MZTabException(sectionLineOrderError);
-                    }
-
-                    highWaterMark = section.getLevel();
-
-                    switch (highWaterMark) {
-                        case 1:
-                            // metadata section.
-                            mtdParser.parse(lineNumber, line, errorList);
-                            break;
-                        case 8:
-                            if (smhParser != null) {
-                                MZTabError error = new MZTabError(
-                                    LogicalErrorType.HeaderLine,
-                                    lineNumber, subString(line));
-                                // header line only display once!
-                                throw new MZTabException(error);
-                            }
-
-                            // small molecule header section
-                            smhParser = new SMHLineParser(context, mtdParser.
-                                getMetadata());
-                            smhParser.parse(lineNumber, line, errorList);
-                            smlPositionMapping = new PositionMapping(smhParser.
-                                getFactory(), line);
-
-                            // tell system to continue check small molecule data line.
-                            highWaterMark = 9;
-                            break;
-                        case 9:
-                            if (smhParser == null) {
-                                // header line should be check first.
-                                throw new MZTabException(new MZTabError(
-                                    LogicalErrorType.NoHeaderLine,
-                                    lineNumber, subString(line)));
-                            }
-
-                            if (smlParser == null) {
-                                smlParser = new SMLLineParser(context,
-                                    smhParser.
-                                        getFactory(),
-                                    smlPositionMapping, mtdParser.getMetadata(),
-                                    errorList);
-                            }
-                            smlParser.parse(lineNumber, line, errorList);
-                            smallMoleculeSummaryMap.put(lineNumber, smlParser.
-                                getRecord());
-
-                            break;
-                        case 10:
-                            if (sfhParser != null) {
-                                // header line only display once!
-                                throw new MZTabException(new MZTabError(
-                                    LogicalErrorType.HeaderLine,
-                                    lineNumber, subString(line)));
-                            }
-
-                            // small molecule header section
-                            sfhParser = new SFHLineParser(context, mtdParser.
-                                getMetadata());
-                            sfhParser.parse(lineNumber, line, errorList);
-                            smfPositionMapping = new PositionMapping(sfhParser.
-                                getFactory(), line);
-
-                            // tell system to continue check small molecule data line.
-                            highWaterMark = 11;
-                            break;
-                        case 11:
-                            if (sfhParser == null) {
-                                // header line should be check first.
-                                throw new MZTabException(new MZTabError(
-                                    LogicalErrorType.NoHeaderLine,
-                                    lineNumber, subString(line)));
-                            }
-
-                            if (smfParser == null) {
-                                smfParser = new SMFLineParser(context,
-                                    sfhParser.
-                                        getFactory(),
-                                    smfPositionMapping, mtdParser.getMetadata(),
-                                    errorList);
-                            }
-                            smfParser.parse(lineNumber, line, errorList);
-                            smallMoleculeFeatureMap.put(lineNumber, smfParser.
-                                getRecord());
-
-                            break;
-                        case 12:
-                            if (sehParser != null) {
-                                // header line only display once!
-                                throw new MZTabException(new MZTabError(
-                                    LogicalErrorType.HeaderLine,
-                                    lineNumber, subString(line)));
-                            }
-
-                            // small molecule header section
-                            sehParser = new SEHLineParser(context, mtdParser.
-                                getMetadata());
-                            sehParser.parse(lineNumber, line, errorList);
-                            smePositionMapping = new PositionMapping(sehParser.
-                                getFactory(), line);
-
-                            // tell system to continue check small molecule data line.
-                            highWaterMark = 13;
-                            break;
-                        case 13:
-                            if (sehParser == null) {
-                                // header line should be check first.
-                                throw new MZTabException(new MZTabError(
-                                    LogicalErrorType.NoHeaderLine,
-                                    lineNumber, subString(line)));
-                            }
-
-                            if (smeParser == null) {
-                                smeParser = new SMELineParser(context,
-                                    sehParser.
-                                        getFactory(),
-                                    smePositionMapping, mtdParser.getMetadata(),
-                                    errorList);
-                            }
-                            smeParser.parse(lineNumber, line, errorList);
-                            smallMoleculeEvidenceMap.put(lineNumber, smeParser.
-                                getRecord());
-
-                            break;
-                        default:
-                            throw new IllegalArgumentException(
-                                "Unknown section level " + highWaterMark);
-                    }
-                } catch (NullPointerException npe) {
-                    throw new MZTabException(new MZTabError(
-                        LogicalErrorType.NULL,
-                        lineNumber, subString(line)), npe);
-                }
-            }
+    private Metadata check() throws IOException, MZTabException, MZTabErrorOverflowException {
+        CollectingHandler collector = new CollectingHandler();
+        createStreamParser().parse(context, errorList, collector);
 
+        if (!errorList.isEmpty()) {
+            return null;
         }
-
-        mtdParser.refineNormalMetadata();
-
-        if (errorList.isEmpty()) {
-            mzTabFile = new MzTab();
-            mzTabFile.metadata(mtdParser.getMetadata());
-            for (Integer id : commentMap.keySet()) {
-                mzTabFile.addCommentItem(commentMap.get(id));
+        mzTabFile = new MzTab();
+        mzTabFile.metadata(collector.metadata);
+        if (!collector.comments.isEmpty()) {
+            mzTabFile.comment(collector.comments);
+        }
+        if (!collector.smallMoleculeSummaries.isEmpty()) {
+            mzTabFile.smallMoleculeSummary(collector.smallMoleculeSummaries);
+        }
+        if (!collector.smallMoleculeFeatures.isEmpty()) {
+            mzTabFile.smallMoleculeFeature(collector.smallMoleculeFeatures);
+        }
+        if (!collector.smallMoleculeEvidences.isEmpty()) {
+            mzTabFile.smallMoleculeEvidence(collector.smallMoleculeEvidences);
+        }
+        boolean hasSml = !collector.smallMoleculeSummaries.isEmpty();
+        boolean hasSmf = !collector.smallMoleculeFeatures.isEmpty();
+        boolean hasSme = !collector.smallMoleculeEvidences.isEmpty();
+        List<Map.Entry<String, String>> invalidReliabilities = new ArrayList<>();
+        for (SmallMoleculeSummary sml : collector.smallMoleculeSummaries) {
+            Map.Entry<String, String> invalid = invalidReliability(sml);
+            if (invalid != null) {
+                invalidReliabilities.add(invalid);
             }
-
-            if (smallMoleculeSummaryMap.isEmpty()) {
-                errorList.add(new MZTabError(
-                    LogicalErrorType.NoSmallMoleculeSummarySection, -1));
+        }
+        checkSections(collector.metadata, collector.columnFactories,
+            invalidReliabilities, hasSml, hasSmf, hasSme);
+        //check ID refs, starting at SML level
+        referenceIndex = new MzTabReferenceIndex(
+            collector.smallMoleculeSummaries,
+            collector.smallMoleculeFeatures,
+            collector.smallMoleculeEvidences);
+        if (hasSml && hasSmf) {
+            referenceIndex.checkSmfIdRefs(errorList);
+            if (hasSme) {
+                referenceIndex.checkSmeIdRefs(errorList);
             }
-            if (smlParser != null) {
+        } else if (!dataSections.contains(Section.Small_Molecule) && hasSmf && hasSme) {
+            // SML skipped, the SMF to SME references can still be checked
+            referenceIndex.checkSmeIdRefs(errorList);
+        }
+        return collector.metadata;
+    }
 
-                for (Integer id : smallMoleculeSummaryMap.keySet()) {
-                    mzTabFile.addSmallMoleculeSummaryItem(
-                        smallMoleculeSummaryMap.get(
-                            id));
-                }
-                //check that reliability values are correct
-                if (mzTabFile.getMetadata().
-                    getSmallMoleculeIdentificationReliability() == null) {
-                    Pattern p = Pattern.compile(REGEX_DEFAULT_RELIABILITY);
-                    for (SmallMoleculeSummary smi : mzTabFile.
-                        getSmallMoleculeSummary()) {
-                        String reliability = smi.getReliability();
-                        Matcher matcher = p.matcher(reliability);
-                        if (!matcher.matches()) {
-                            errorList.add(new MZTabError(
-                                FormatErrorType.RegexMismatch, -1,
-                                SmallMoleculeSummary.Properties.reliability.
-                                    getPropertyName(), reliability,
-                                MzTab.Properties.smallMoleculeSummary.
-                                    getPropertyName(), "" + smi.getSmlId(),
-                                REGEX_DEFAULT_RELIABILITY));
-                        }
-                    }
-                }
-                checkColunitMapping(smhParser.getFactory(), Optional.ofNullable(
-                    mzTabFile.
-                        getMetadata().
-                        getColunitSmallMolecule()),
-                    Metadata.Properties.colunitSmallMolecule,
-                    MzTab.Properties.smallMoleculeSummary);
-            }
+    /**
+     * Parse and check the file like {@link #check()}, but only keep the
+     * information required by the checks after parsing.
+     */
+    private Metadata checkOnly() throws IOException, MZTabException, MZTabErrorOverflowException {
+        ValidatingHandler validator = new ValidatingHandler();
+        createStreamParser().parse(context, errorList, validator);
 
-            if (smallMoleculeFeatureMap.isEmpty() && !smallMoleculeSummaryMap.
-                isEmpty()) {
-                errorList.add(new MZTabError(
-                    LogicalErrorType.NoSmallMoleculeFeatureSection, -1));
-            }
-            if (smfParser != null) {
-                for (Integer id : smallMoleculeFeatureMap.keySet()) {
-                    SmallMoleculeFeature smf
-                        = smallMoleculeFeatureMap.get(
-                            id);
-                    mzTabFile.addSmallMoleculeFeatureItem(smf);
-                }
-                if (smallMoleculeFeatureMap.size() > 0 && mzTabFile.
-                    getMetadata().
-                    getSmallMoleculeFeatureQuantificationUnit() == null) {
-                    errorList.add(new MZTabError(
-                        LogicalErrorType.NoSmallMoleculeFeatureQuantificationUnit,
-                        -1));
-                }
-                checkColunitMapping(sfhParser.getFactory(), Optional.ofNullable(
-                    mzTabFile.
-                        getMetadata().
-                        getColunitSmallMoleculeFeature()),
-                    Metadata.Properties.colunitSmallMoleculeFeature,
-                    MzTab.Properties.smallMoleculeFeature);
+        if (!errorList.isEmpty()) {
+            return null;
+        }
+        boolean hasSml = validator.smallMoleculeSummaryCount > 0;
+        boolean hasSmf = validator.smallMoleculeFeatureCount > 0;
+        boolean hasSme = validator.smallMoleculeEvidenceCount > 0;
+        checkSections(validator.metadata, validator.columnFactories,
+            validator.invalidReliabilities, hasSml, hasSmf, hasSme);
+        StreamingReferenceCheck references = validator.references;
+        if (hasSml && hasSmf) {
+            references.checkSmfIdRefs(errorList);
+            if (hasSme) {
+                references.checkSmeIdRefs(errorList);
             }
-            if (smallMoleculeEvidenceMap.isEmpty() && !smallMoleculeSummaryMap.
-                isEmpty()) {
-                errorList.add(new MZTabError(
-                    LogicalErrorType.NoSmallMoleculeEvidenceSection, -1));
+        } else if (!dataSections.contains(Section.Small_Molecule) && hasSmf && hasSme) {
+            references.checkSmeIdRefs(errorList);
+        }
+        return validator.metadata;
+    }
+
+    /**
+     * Check the presence of the sections, the reliability values and the
+     * column unit definitions after all rows have been parsed.
+     *
+     * @param invalidReliabilities the SML_ID and reliability of the SML rows
+     * whose reliability does not match the default reliability, reported if
+     * the default reliability applies.
+     */
+    private void checkSections(Metadata metadata,
+        Map<Section, MZTabColumnFactory> columnFactories,
+        List<Map.Entry<String, String>> invalidReliabilities, boolean hasSml,
+        boolean hasSmf, boolean hasSme) throws MZTabErrorOverflowException {
+        if (!hasSml) {
+            if (dataSections.contains(Section.Small_Molecule)) {
+                errorList.add(
+                    LogicalErrorType.NoSmallMoleculeSummarySection, -1);
             }
-            if (smeParser != null) {
-                for (Integer id : smallMoleculeEvidenceMap.keySet()) {
-                    mzTabFile.addSmallMoleculeEvidenceItem(
-                        smallMoleculeEvidenceMap.get(
-                            id));
+        } else {
+            //check that reliability values are correct
+            if (metadata.getSmallMoleculeIdentificationReliability() == null) {
+                for (Map.Entry<String, String> smi : invalidReliabilities) {
+                    errorList.add(
+                        FormatErrorType.RegexMismatch, -1,
+                        SmallMoleculeSummary.Properties.reliability.
+                            getPropertyName(), smi.getValue(),
+                        MzTab.Properties.smallMoleculeSummary.
+                            getPropertyName(), smi.getKey(),
+                        REGEX_DEFAULT_RELIABILITY);
                 }
-                checkColunitMapping(sehParser.getFactory(), Optional.ofNullable(
-                    mzTabFile.
-                        getMetadata().
-                        getColunitSmallMoleculeEvidence()),
-                    Metadata.Properties.colunitSmallMoleculeEvidence,
-                    MzTab.Properties.smallMoleculeEvidence
-                );
             }
-            //check ID refs, starting at SML level
-            if (smlParser != null && smfParser != null) {
-                for (Integer id : smallMoleculeSummaryMap.keySet()) {
-                    SmallMoleculeSummary sms = smallMoleculeSummaryMap.get(id);
-                    Set<Integer> smfIdRefs = new HashSet<>(sms.getSmfIdRefs());
-                    Set<Integer> definedIds = smallMoleculeFeatureMap.values().
-                        stream().
-                        map((t) ->
-                        {
-                            return t.getSmfId();
-                        }).
-                        collect(Collectors.toSet());
-                    smfIdRefs.removeAll(definedIds);
-                    if (!smfIdRefs.isEmpty()) {
-                        for (Integer smfRefId : smfIdRefs) {
-                            //raise a warning about unmatched SMF id
-                            //Reference id "{0}" for column "{1}" from element "{2}" in section "{3}" to section "{4}" must have a matching element defined.
-                            errorList.add(new MZTabError(
-                                LogicalErrorType.UnknownRefId, -1, "" + smfRefId,
-                                SmallMoleculeSummary.Properties.smfIdRefs.
-                                    getPropertyName(), "" + sms.getSmlId(),
-                                MzTab.Properties.smallMoleculeSummary.
-                                    getPropertyName(),
-                                MzTab.Properties.smallMoleculeFeature.
-                                    getPropertyName()));
-                        }
-                    }
-                }
-                if (smeParser != null) {
-                    for (Integer id : smallMoleculeFeatureMap.keySet()) {
-                        SmallMoleculeFeature smf = smallMoleculeFeatureMap.get(
-                            id);
-                        Set<Integer> smeIdRefs = new HashSet<>(smf.
-                            getSmeIdRefs());
-                        Set<Integer> definedIds = smallMoleculeEvidenceMap.
-                            values().
-                            stream().
-                            map((t) ->
-                            {
-                                return t.getSmeId();
-                            }).
-                            collect(Collectors.toSet());
-                        smeIdRefs.removeAll(definedIds);
-                        if (!smeIdRefs.isEmpty()) {
-                            for (Integer smeRefId : smeIdRefs) {
-                                //raise a warning about unmatched SMF id
-                                //Reference id "{0}" for column "{1}" from element "{2}" in section "{3}" to section "{4}" must have a matching element defined.
-                                errorList.add(new MZTabError(
-                                    LogicalErrorType.UnknownRefId, -1,
-                                    "" + smeRefId,
-                                    SmallMoleculeFeature.Properties.smeIdRefs.
-                                        getPropertyName(), "" + smf.getSmfId(),
-                                    MzTab.Properties.smallMoleculeFeature.
-                                        getPropertyName(),
-                                    MzTab.Properties.smallMoleculeEvidence.
-                                        getPropertyName()));
-                            }
-                        }
-                    }
-                }
+            checkColunitMapping(columnFactories.get(
+                Section.Small_Molecule_Header), Optional.ofNullable(
+                metadata.getColunitSmallMolecule()),
+                Metadata.Properties.colunitSmallMolecule,
+                MzTab.Properties.smallMoleculeSummary);
+        }
+
+        if (dataSections.contains(Section.Small_Molecule_Feature) && !hasSmf && hasSml) {
+            errorList.add(
+                LogicalErrorType.NoSmallMoleculeFeatureSection, -1);
+        }
+        if (hasSmf) {
+            if (metadata.getSmallMoleculeFeatureQuantificationUnit() == null) {
+                errorList.add(
+                    LogicalErrorType.NoSmallMoleculeFeatureQuantificationUnit,
+                    -1);
             }
+            checkColunitMapping(columnFactories.get(
+                Section.Small_Molecule_Feature_Header), Optional.ofNullable(
+                metadata.getColunitSmallMoleculeFeature()),
+                Metadata.Properties.colunitSmallMoleculeFeature,
+                MzTab.Properties.smallMoleculeFeature);
+        }
+        if (dataSections.contains(Section.Small_Molecule_Evidence) && !hasSme && hasSml) {
+            errorList.add(
+                LogicalErrorType.NoSmallMoleculeEvidenceSection, -1);
         }
+        if (hasSme) {
+            checkColunitMapping(columnFactories.get(
+                Section.Small_Molecule_Evidence_Header), Optional.ofNullable(
+                metadata.getColunitSmallMoleculeEvidence()),
+                Metadata.Properties.colunitSmallMoleculeEvidence,
+                MzTab.Properties.smallMoleculeEvidence
+            );
+        }
+    }
+
+    private static boolean isDefaultReliability(String reliability) {
+        Pattern p = MZTabPatterns.DEFAULT_RELIABILITY;
+        Matcher matcher = p.matcher(reliability);
+        return matcher.matches();
+    }
+
+    /**
+     * Returns the SML_ID and reliability of the row, if its reliability does
+     * not match the default reliability. A missing reliability is already
+     * reported by the SML line parser and is skipped.
+     *
+     * @return the SML_ID and reliability, or null.
+     */
+    private static Map.Entry<String, String> invalidReliability(
+        SmallMoleculeSummary sml) {
+        String reliability = sml.getReliability();
+        if (reliability == null || isDefaultReliability(reliability)) {
+            return null;
+        }
+        return new AbstractMap.SimpleImmutableEntry<>("" + sml.getSmlId(),
+            reliability);
+    }
+
+    /**
+     * Parse the metadata and comments only and create a
+     * {@link de.isas.mztab2.model.MzTab} without any data sections, if no
+     * errors were detected.
+     */
+    private Metadata checkMetadata() throws IOException, MZTabException, MZTabErrorOverflowException {
+        CollectingHandler collector = new CollectingHandler();
+        createStreamParser().parseMetadata(context, errorList, collector);
+        if (!errorList.isEmpty()) {
+            return null;
+        }
+        mzTabFile = new MzTab();
+        mzTabFile.metadata(collector.metadata);
+        if (!collector.comments.isEmpty()) {
+            mzTabFile.comment(collector.comments);
+        }
+        return collector.metadata;
+    }
 
+    private MzTabStreamParser createStreamParser() {
+        MzTabStreamParser streamParser = new MzTabStreamParser(tabFile);
+        streamParser.setParallel(pool, batchSize);
+        streamParser.setMemoryMapped(memoryMapped);
+        streamParser.setDeduplicateValues(deduplicateValues);
+        streamParser.setTrustedInput(trustedInput);
+        streamParser.setDataSections(dataSections);
+        return streamParser;
     }
 
     protected void checkColunitMapping(MZTabColumnFactory columnFactory,
@@ -632,12 +660,12 @@ public class MzTabFileParser {
                 IMZTabColumn column = columnFactory.findColumnByHeader(
                     columnName);
                 if (column == null) {
-                    errorList.add(new MZTabError(
+                    errorList.add(
                         FormatErrorType.ColUnit, -1,
                         colUnitProperty.
                             getPropertyName(), columnName,
                         mzTabSection.
-                            getPropertyName()));
+                            getPropertyName());
                 }
             });
     }
@@ -651,4 +679,119 @@ public class MzTabFileParser {
     public MzTab getMZTabFile() {
         return mzTabFile;
     }
+
+    /**
+     * <p>
+     * Getter for the reference index between the SML, SMF and SME rows.</p>
+     *
+     * @return a {@link de.isas.mztab2.io.MzTabReferenceIndex} object, or null,
+     * if the file has not been parsed or contained structural errors.
+     */
+    public MzTabReferenceIndex getReferenceIndex() {
+        return referenceIndex;
+    }
+
+    /**
+     * Collects all elements reported by the {@link MzTabStreamParser} in file
+     * order.
+     */
+    private static class CollectingHandler implements MzTabStreamHandler {
+
+        private Metadata metadata;
+        private final List<Comment> comments = new ArrayList<>();
+        private final Map<Section, MZTabColumnFactory> columnFactories = new EnumMap<>(
+            Section.class);
+        private final List<SmallMoleculeSummary> smallMoleculeSummaries = new ArrayList<>();
+        private final List<SmallMoleculeFeature> smallMoleculeFeatures = new ArrayList<>();
+        private final List<SmallMoleculeEvidence> smallMoleculeEvidences = new ArrayList<>();
+
+        @Override
+        public void onComment(Comment comment) {
+            comments.add(comment);
+        }
+
+        @Override
+        public void onMetadata(Metadata metadata) {
+            this.metadata = metadata;
+        }
+
+        @Override
+        public void onHeader(Section section, MZTabColumnFactory columnFactory) {
+            columnFactories.put(section, columnFactory);
+        }
+
+        @Override
+        public void onSmallMoleculeSummary(
+            SmallMoleculeSummary smallMoleculeSummary) {
+            smallMoleculeSummaries.add(smallMoleculeSummary);
+        }
+
+        @Override
+        public void onSmallMoleculeFeature(
+            SmallMoleculeFeature smallMoleculeFeature) {
+            smallMoleculeFeatures.add(smallMoleculeFeature);
+        }
+
+        @Override
+        public void onSmallMoleculeEvidence(
+            SmallMoleculeEvidence smallMoleculeEvidence) {
+            smallMoleculeEvidences.add(smallMoleculeEvidence);
+        }
+    }
+
+    /**
+     * Keeps only what the checks after parsing need: the metadata, the
+     * headers, the number of rows per section, the SML_ID and reliability of
+     * the SML rows with an invalid default reliability and the ids and id
+     * references of all rows.
+     */
+    private static class ValidatingHandler implements MzTabStreamHandler {
+
+        private Metadata metadata;
+        private final Map<Section, MZTabColumnFactory> columnFactories = new EnumMap<>(
+            Section.class);
+        private final List<Map.Entry<String, String>> invalidReliabilities = new ArrayList<>();
+        private final StreamingReferenceCheck references = new StreamingReferenceCheck();
+        private long smallMoleculeSummaryCount = 0;
+        private long smallMoleculeFeatureCount = 0;
+        private long smallMoleculeEvidenceCount = 0;
+
+        @Override
+        public void onMetadata(Metadata metadata) {
+            this.metadata = metadata;
+        }
+
+        @Override
+        public void onHeader(Section section, MZTabColumnFactory columnFactory) {
+            columnFactories.put(section, columnFactory);
+        }
+
+        @Override
+        public void onSmallMoleculeSummary(
+            SmallMoleculeSummary smallMoleculeSummary) {
+            smallMoleculeSummaryCount++;
+            references.addSmallMoleculeSummary(smallMoleculeSummary);
+            if (metadata.getSmallMoleculeIdentificationReliability() == null) {
+                Map.Entry<String, String> invalid = invalidReliability(
+                    smallMoleculeSummary);
+                if (invalid != null) {
+                    invalidReliabilities.add(invalid);
+                }
+            }
+        }
+
+        @Override
+        public void onSmallMoleculeFeature(
+            SmallMoleculeFeature smallMoleculeFeature) {
+            smallMoleculeFeatureCount++;
+            references.addSmallMoleculeFeature(smallMoleculeFeature);
+        }
+
+        @Override
+        public void onSmallMoleculeEvidence(
+            SmallMoleculeEvidence smallMoleculeEvidence) {
+            smallMoleculeEvidenceCount++;
+            references.addSmallMoleculeEvidence(smallMoleculeEvidence);
+        }
+    }
 }
@@ -16,8 +16,6 @@
 package de.isas.mztab2.io;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.dataformat.csv.CsvMapper;
-import com.fasterxml.jackson.dataformat.csv.CsvSchema;
 import de.isas.mztab2.model.MzTab;
 import java.io.BufferedWriter;
 import java.io.IOException;
@@ -54,13 +52,41 @@ import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabException;
 public class MzTabNonValidatingWriter implements MzTabWriter<Void> {
 
     private final MzTabWriterDefaults writerDefaults;
+    private final MzTabCompression compression;
+    private final int level;
 
     public MzTabNonValidatingWriter() {
-        this.writerDefaults = new MzTabWriterDefaults();
+        this(MzTabWriterDefaults.SHARED);
     }
 
     public MzTabNonValidatingWriter(MzTabWriterDefaults writerDefaults) {
+        this(writerDefaults, null, MzTabCompression.DEFAULT_LEVEL);
+    }
+
+    /**
+     * Create a writer that compresses the files written by
+     * {@link #write(Path, MzTab)} with the given format and level,
+     * independent of the file name.
+     *
+     * @param writerDefaults the writer defaults.
+     * @param compression the compression format, or null to select it from
+     * the file name.
+     * @param level the level of the format, or
+     * {@link MzTabCompression#DEFAULT_LEVEL}. Without a format, the level is
+     * checked against the format selected by the file name before the file
+     * is created.
+     * @throws IllegalArgumentException if the level is not supported by the
+     * format.
+     * @see MzTabCompression#checkLevel(int)
+     */
+    public MzTabNonValidatingWriter(MzTabWriterDefaults writerDefaults,
+        MzTabCompression compression, int level) {
+        if (compression != null) {
+            compression.checkLevel(level);
+        }
         this.writerDefaults = writerDefaults;
+        this.compression = compression;
+        this.level = level;
     }
 
     /**
@@ -90,6 +116,14 @@ public class MzTabNonValidatingWriter implements MzTabWriter<Void> {
      * <p>
      * Write the mzTab object to the provided path.</p>
      *
+     * <p>
+     * If the file name ends in {@code .gz} or {@code .bgz}, the file is
+     * compressed in the blocked gzip format (BGZF), which can be read by any
+     * gzip implementation and supports parallel decompression and random
+     * access, see {@link BgzfInputStream}. The suffixes {@code .zst},
+     * {@code .xz} and {@code .bz2} select the respective format, see
+     * {@link MzTabCompression#forFileName(String)}, unless a format was given
+     * to the constructor.</p>
      *
      * @param path a {@link java.nio.file.Path} object.
      * @param mzTab a {@link de.isas.mztab2.model.MzTab} object.
@@ -98,6 +132,17 @@ public class MzTabNonValidatingWriter implements MzTabWriter<Void> {
      */
     @Override
     public Optional<Void> write(Path path, MzTab mzTab) throws IOException {
+        MzTabCompression format = compression == null ? MzTabCompression.
+            forFileName(path.getFileName().
+                toString()) : compression;
+        if (format != MzTabCompression.NONE) {
+            try (BufferedWriter writer = new BufferedWriter(
+                new OutputStreamWriter(format.compress(path, level),
+                    StandardCharsets.UTF_8))) {
+                writeMzTab(mzTab, writer);
+            }
+            return Optional.empty();
+        }
         try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
             StandardOpenOption.WRITE)) {
             writeMzTab(mzTab, writer);
@@ -117,11 +162,8 @@ public class MzTabNonValidatingWriter implements MzTabWriter<Void> {
     }
 
     void writeMetadataWithJackson(MzTab mztabfile, Writer writer) throws IOException {
-        CsvMapper mapper = writerDefaults.metadataMapper();
-        CsvSchema schema = writerDefaults.metaDataSchema(mapper);
-        
         try {
-            mapper.writer(schema).
+            writerDefaults.metadataWriter().
                 writeValue(writer, mztabfile.getMetadata());
         } catch (JsonProcessingException ex) {
             throw new IOException(ex);
@@ -129,11 +171,8 @@ public class MzTabNonValidatingWriter implements MzTabWriter<Void> {
     }
 
     void writeSmallMoleculeSummaryWithJackson(MzTab mztabfile, Writer writer) throws IOException {
-        CsvMapper mapper = writerDefaults.smallMoleculeSummaryMapper();
         try {
-            CsvSchema schema = writerDefaults.smallMoleculeSummarySchema(mapper,
-                mztabfile);
-            mapper.writer(schema).
+            writerDefaults.smallMoleculeSummaryWriter(mztabfile).
                 writeValue(writer, mztabfile.getSmallMoleculeSummary());
         } catch (JsonProcessingException | MZTabException ex) {
             throw new IOException(ex);
@@ -141,11 +180,8 @@ public class MzTabNonValidatingWriter implements MzTabWriter<Void> {
     }
 
     void writeSmallMoleculeFeaturesWithJackson(MzTab mztabfile, Writer writer) throws IOException {
-        CsvMapper mapper = writerDefaults.smallMoleculeFeatureMapper();
         try {
-            CsvSchema schema = writerDefaults.smallMoleculeFeatureSchema(mapper,
-                mztabfile);
-            mapper.writer(schema).
+            writerDefaults.smallMoleculeFeatureWriter(mztabfile).
                 writeValue(writer, mztabfile.getSmallMoleculeFeature());
         } catch (JsonProcessingException | MZTabException ex) {
             throw new IOException(ex);
@@ -153,12 +189,8 @@ public class MzTabNonValidatingWriter implements MzTabWriter<Void> {
     }
 
     void writeSmallMoleculeEvidenceWithJackson(MzTab mztabfile, Writer writer) throws IOException {
-        CsvMapper mapper = writerDefaults.smallMoleculeEvidenceMapper();
         try {
-            CsvSchema schema = writerDefaults.
-                smallMoleculeEvidenceSchema(mapper,
-                    mztabfile);
-            mapper.writer(schema).
+            writerDefaults.smallMoleculeEvidenceWriter(mztabfile).
                 writeValue(writer, mztabfile.getSmallMoleculeEvidence());
         } catch (JsonProcessingException | MZTabException ex) {
             throw new IOException(ex);
@@ -0,0 +1,341 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.isas.mztab2.io;
+
+import de.isas.mztab2.model.MzTab;
+import de.isas.mztab2.model.SmallMoleculeEvidence;
+import de.isas.mztab2.model.SmallMoleculeFeature;
+import de.isas.mztab2.model.SmallMoleculeSummary;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import uk.ac.ebi.pride.jmztab2.utils.errors.LogicalErrorType;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorList;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorOverflowException;
+
+/**
+ * <p>
+ * Index of the ids and id references between the small molecule summary
+ * (SML), feature (SMF) and evidence (SME) rows of an mzTab-M file.</p>
+ *
+ * <p>
+ * The sets of defined SMF and SME ids are built once, in one pass over each
+ * section. Since ids are usually dense, non-negative integers, they are kept
+ * in a {@link BitSet}. The reverse references, e.g. from an SME id to all SMF
+ * rows referencing it, are built in the same pass and can be queried after
+ * construction.</p>
+ *
+ * @author nilshoffmann
+ * @see MzTabFileParser
+ */
+public final class MzTabReferenceIndex {
+
+    private final List<SmallMoleculeSummary> smallMoleculeSummaries;
+    private final List<SmallMoleculeFeature> smallMoleculeFeatures;
+    private final IdSet smfIds;
+    private final IdSet smeIds;
+    private final Map<Integer, List<Integer>> smlIdsBySmfId;
+    private final Map<Integer, List<Integer>> smfIdsBySmeId;
+
+    /**
+     * Create a new reference index for the rows of the given mzTab object.
+     *
+     * @param mzTab the mzTab object.
+     */
+    public MzTabReferenceIndex(MzTab mzTab) {
+        this(mzTab.getSmallMoleculeSummary(), mzTab.getSmallMoleculeFeature(),
+            mzTab.getSmallMoleculeEvidence());
+    }
+
+    /**
+     * Create a new reference index for the given rows.
+     *
+     * @param smallMoleculeSummaries the SML rows, may be null.
+     * @param smallMoleculeFeatures the SMF rows, may be null.
+     * @param smallMoleculeEvidences the SME rows, may be null.
+     */
+    public MzTabReferenceIndex(
+        List<SmallMoleculeSummary> smallMoleculeSummaries,
+        List<SmallMoleculeFeature> smallMoleculeFeatures,
+        List<SmallMoleculeEvidence> smallMoleculeEvidences) {
+        this.smallMoleculeSummaries = orEmpty(smallMoleculeSummaries);
+        this.smallMoleculeFeatures = orEmpty(smallMoleculeFeatures);
+        this.smfIds = new IdSet();
+        for (SmallMoleculeFeature smf : this.smallMoleculeFeatures) {
+            smfIds.add(smf.getSmfId());
+        }
+        this.smeIds = new IdSet();
+        for (SmallMoleculeEvidence sme : orEmpty(smallMoleculeEvidences)) {
+            smeIds.add(sme.getSmeId());
+        }
+        this.smlIdsBySmfId = new HashMap<>();
+        for (SmallMoleculeSummary sml : this.smallMoleculeSummaries) {
+            for (Integer smfId : orEmpty(sml.getSmfIdRefs())) {
+                smlIdsBySmfId.computeIfAbsent(smfId, (t) ->
+                {
+                    return new ArrayList<>(1);
+                }).
+                    add(sml.getSmlId());
+            }
+        }
+        this.smfIdsBySmeId = new HashMap<>();
+        for (SmallMoleculeFeature smf : this.smallMoleculeFeatures) {
+            for (Integer smeId : orEmpty(smf.getSmeIdRefs())) {
+                smfIdsBySmeId.computeIfAbsent(smeId, (t) ->
+                {
+                    return new ArrayList<>(1);
+                }).
+                    add(smf.getSmfId());
+            }
+        }
+    }
+
+    /**
+     * Returns true, if an SMF row with the given id exists.
+     *
+     * @param smfId the SMF id.
+     * @return true, if the id is defined.
+     */
+    public boolean containsSmfId(Integer smfId) {
+        return smfIds.contains(smfId);
+    }
+
+    /**
+     * Returns true, if an SME row with the given id exists.
+     *
+     * @param smeId the SME id.
+     * @return true, if the id is defined.
+     */
+    public boolean containsSmeId(Integer smeId) {
+        return smeIds.contains(smeId);
+    }
+
+    /**
+     * Returns the ids of all SML rows referencing the given SMF id, in file
+     * order.
+     *
+     * @param smfId the SMF id.
+     * @return the referencing SML ids, or an empty list.
+     */
+    public List<Integer> getSmlIdsReferencing(Integer smfId) {
+        return Collections.unmodifiableList(smlIdsBySmfId.getOrDefault(smfId,
+            Collections.emptyList()));
+    }
+
+    /**
+     * Returns the ids of all SMF rows referencing the given SME id, in file
+     * order.
+     *
+     * @param smeId the SME id.
+     * @return the referencing SMF ids, or an empty list.
+     */
+    public List<Integer> getSmfIdsReferencing(Integer smeId) {
+        return Collections.unmodifiableList(smfIdsBySmeId.getOrDefault(smeId,
+            Collections.emptyList()));
+    }
+
+    /**
+     * Report an {@link LogicalErrorType#UnknownRefId} error for every SMF id
+     * referenced from an SML row without a matching SMF row. Each unknown id is
+     * only reported once per SML row.
+     *
+     * @param errorList the error list to add the errors to.
+     * @throws MZTabErrorOverflowException when too many errors are detected.
+     */
+    public void checkSmfIdRefs(MZTabErrorList errorList) throws MZTabErrorOverflowException {
+        for (SmallMoleculeSummary sml : smallMoleculeSummaries) {
+            Set<Integer> reported = null;
+            for (Integer smfRefId : orEmpty(sml.getSmfIdRefs())) {
+                if (smfIds.contains(smfRefId)) {
+                    continue;
+                }
+                if (reported == null) {
+                    reported = new HashSet<>();
+                }
+                if (reported.add(smfRefId)) {
+                    //Reference id "{0}" for column "{1}" from element "{2}" in section "{3}" to section "{4}" must have a matching element defined.
+                    errorList.add(
+                        LogicalErrorType.UnknownRefId, -1, "" + smfRefId,
+                        SmallMoleculeSummary.Properties.smfIdRefs.
+                            getPropertyName(), "" + sml.getSmlId(),
+                        MzTab.Properties.smallMoleculeSummary.
+                            getPropertyName(),
+                        MzTab.Properties.smallMoleculeFeature.
+                            getPropertyName());
+                }
+            }
+        }
+    }
+
+    /**
+     * Report an {@link LogicalErrorType#UnknownRefId} error for every SME id
+     * referenced from an SMF row without a matching SME row. Each unknown id is
+     * only reported once per SMF row.
+     *
+     * @param errorList the error list to add the errors to.
+     * @throws MZTabErrorOverflowException when too many errors are detected.
+     */
+    public void checkSmeIdRefs(MZTabErrorList errorList) throws MZTabErrorOverflowException {
+        for (SmallMoleculeFeature smf : smallMoleculeFeatures) {
+            Set<Integer> reported = null;
+            for (Integer smeRefId : orEmpty(smf.getSmeIdRefs())) {
+                if (smeIds.contains(smeRefId)) {
+                    continue;
+                }
+                if (reported == null) {
+                    reported = new HashSet<>();
+                }
+                if (reported.add(smeRefId)) {
+                    //Reference id "{0}" for column "{1}" from element "{2}" in section "{3}" to section "{4}" must have a matching element defined.
+                    errorList.add(
+                        LogicalErrorType.UnknownRefId, -1, "" + smeRefId,
+                        SmallMoleculeFeature.Properties.smeIdRefs.
+                            getPropertyName(), "" + smf.getSmfId(),
+                        MzTab.Properties.smallMoleculeFeature.
+                            getPropertyName(),
+                        MzTab.Properties.smallMoleculeEvidence.
+                            getPropertyName());
+                }
+            }
+        }
+    }
+
+    private static <T> List<T> orEmpty(List<T> list) {
+        return list == null ? Collections.emptyList() : list;
+    }
+
+    /**
+     * Set of integer ids. Small non-negative ids, up to a multiple of the
+     * number of ids, are kept in a {@link BitSet}. Larger, negative and null
+     * ids are kept in an open addressing hash set, so that a few sparse, large
+     * ids do not allocate a large bitmap.
+     */
+    static final class IdSet {
+
+        /**
+         * Ids below this are always kept in the bitmap.
+         */
+        static final int MIN_DENSE_LIMIT = 1 << 16;
+        /**
+         * Ids below this multiple of the number of ids are kept in the bitmap.
+         */
+        static final int DENSITY = 8;
+        private static final int EMPTY = Integer.MIN_VALUE;
+
+        private final BitSet ids = new BitSet();
+        private int size = 0;
+        private int[] sparseIds = null;
+        private int sparseSize = 0;
+        private boolean containsEmpty = false;
+        private boolean containsNull = false;
+
+        void add(Integer id) {
+            if (id == null) {
+                containsNull = true;
+            } else if (id >= 0 && id < denseLimit()) {
+                if (!ids.get(id)) {
+                    ids.set(id);
+                    size++;
+                }
+            } else if (id == EMPTY) {
+                containsEmpty = true;
+            } else if (!containsSparse(id)) {
+                addSparse(id);
+                size++;
+            }
+        }
+
+        boolean contains(Integer id) {
+            if (id == null) {
+                return containsNull;
+            }
+            if (id >= 0 && ids.get(id)) {
+                return true;
+            }
+            if (id == EMPTY) {
+                return containsEmpty;
+            }
+            return containsSparse(id);
+        }
+
+        /**
+         * Returns the number of bits allocated by the bitmap.
+         */
+        int bitmapSize() {
+            return ids.size();
+        }
+
+        private long denseLimit() {
+            return Math.max(MIN_DENSE_LIMIT, (long) DENSITY * size);
+        }
+
+        private boolean containsSparse(int id) {
+            if (sparseIds == null) {
+                return false;
+            }
+            int mask = sparseIds.length - 1;
+            for (int i = hash(id) & mask; sparseIds[i] != EMPTY; i = (i + 1) & mask) {
+                if (sparseIds[i] == id) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void addSparse(int id) {
+            if (sparseIds == null) {
+                sparseIds = newTable(16);
+            } else if (2 * (sparseSize + 1) > sparseIds.length) {
+                int[] old = sparseIds;
+                sparseIds = newTable(2 * old.length);
+                sparseSize = 0;
+                for (int oldId : old) {
+                    if (oldId != EMPTY) {
+                        insert(oldId);
+                    }
+                }
+            }
+            insert(id);
+        }
+
+        private void insert(int id) {
+            int mask = sparseIds.length - 1;
+            int i = hash(id) & mask;
+            while (sparseIds[i] != EMPTY) {
+                i = (i + 1) & mask;
+            }
+            sparseIds[i] = id;
+            sparseSize++;
+        }
+
+        private static int[] newTable(int capacity) {
+            int[] table = new int[capacity];
+            Arrays.fill(table, EMPTY);
+            return table;
+        }
+
+        private static int hash(int id) {
+            int h = id * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.isas.mztab2.io;
+
+import de.isas.mztab2.model.Metadata;
+import de.isas.mztab2.model.SmallMoleculeEvidence;
+import de.isas.mztab2.model.SmallMoleculeFeature;
+import de.isas.mztab2.model.SmallMoleculeSummary;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import lombok.extern.slf4j.Slf4j;
+import uk.ac.ebi.pride.jmztab2.model.MZTabColumnFactory;
+import uk.ac.ebi.pride.jmztab2.model.Section;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorList;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorOverflowException;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabException;
+import uk.ac.ebi.pride.jmztab2.utils.parser.MZTabParserContext;
+
+/**
+ * <p>
+ * Lazy, closeable iterator over the rows of one data section (SML, SMF or SME)
+ * of an mzTab-M file. Instances are created by the {@link MzTabStreamParser}.
+ * </p>
+ *
+ * <p>
+ * The metadata and the section header are parsed on creation. Each further
+ * data line is read and parsed only when {@link #hasNext()} needs it. Data
+ * lines of the other sections are skipped without parsing, and reading stops
+ * as soon as the requested section has ended.</p>
+ *
+ * <p>
+ * A structural error that prohibits further processing ends the iteration and
+ * is recorded in the error list, which can be inspected with
+ * {@link #getErrorList()}. I/O errors are rethrown as
+ * {@link java.io.UncheckedIOException}.</p>
+ *
+ * @author nilshoffmann
+ * @param <T> the row type.
+ * @see MzTabStreamParser
+ */
+@Slf4j
+public final class MzTabRowIterator<T> implements Iterator<T>, Closeable {
+
+    private final LineSource reader;
+    private final Section dataSection;
+    private final MZTabErrorList errorList;
+    private final MzTabStreamParser.LineDispatcher dispatcher;
+    private Metadata metadata;
+    private MZTabColumnFactory columnFactory;
+    private Object captured;
+    private T next;
+    private int lineNumber = 0;
+    private boolean finished = false;
+
+    MzTabRowIterator(LineSource reader, Section dataSection,
+        MZTabErrorList errorList, MZTabParserContext context) {
+        this.reader = reader;
+        this.dataSection = dataSection;
+        this.errorList = errorList;
+        this.dispatcher = new MzTabStreamParser.LineDispatcher(
+            context, errorList, new CapturingHandler(),
+            EnumSet.of(dataSection));
+        advance();
+    }
+
+    /**
+     * Returns the metadata of the file.
+     *
+     * @return the metadata, or null, if parsing failed before the end of the
+     * metadata section.
+     */
+    public Metadata getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * Returns the column factory created from the section header line.
+     *
+     * @return the column factory, or null, if the file has no header for this
+     * section.
+     */
+    public MZTabColumnFactory getColumnFactory() {
+        return columnFactory;
+    }
+
+    /**
+     * Returns the errors recorded so far.
+     *
+     * @return the error list.
+     */
+    public MZTabErrorList getErrorList() {
+        return errorList;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public T next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        T current = next;
+        advance();
+        return current;
+    }
+
+    /**
+     * Returns a sequential, ordered stream over the remaining rows. Closing the
+     * stream closes this iterator.
+     *
+     * @return the stream of rows.
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this,
+            Spliterator.ORDERED | Spliterator.NONNULL), false).
+            onClose(() ->
+            {
+                try {
+                    close();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        next = null;
+        reader.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void advance() {
+        next = null;
+        try {
+            while (!finished) {
+                String line = reader.readLine();
+                if (line == null) {
+                    finished = true;
+                    dispatcher.finish();
+                    reader.close();
+                    return;
+                }
+                Section section = dispatcher.dispatch(++lineNumber, line);
+                if (section == dataSection && captured != null) {
+                    next = (T) captured;
+                    captured = null;
+                    return;
+                }
+                if (section != null && section.getLevel() > dataSection.
+                    getLevel()) {
+                    // the requested section has ended
+                    close();
+                    return;
+                }
+            }
+        } catch (MZTabException e) {
+            log.error("Parsing stopped!", e);
+            closeQuietly();
+            errorList.add(e.getError());
+        } catch (MZTabErrorOverflowException e) {
+            log.error("Parsing stopped after " + errorList.size() + " errors!");
+            closeQuietly();
+        } catch (IOException ex) {
+            closeQuietly();
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException ex) {
+            log.warn("Closing of reader failed!", ex);
+        }
+    }
+
+    private class CapturingHandler implements MzTabStreamHandler {
+
+        @Override
+        public void onMetadata(Metadata metadata) {
+            MzTabRowIterator.this.metadata = metadata;
+        }
+
+        @Override
+        public void onHeader(Section section, MZTabColumnFactory columnFactory) {
+            if (section == Section.toHeaderSection(dataSection)) {
+                MzTabRowIterator.this.columnFactory = columnFactory;
+            }
+        }
+
+        @Override
+        public void onSmallMoleculeSummary(
+            SmallMoleculeSummary smallMoleculeSummary) {
+            captured = smallMoleculeSummary;
+        }
+
+        @Override
+        public void onSmallMoleculeFeature(
+            SmallMoleculeFeature smallMoleculeFeature) {
+            captured = smallMoleculeFeature;
+        }
+
+        @Override
+        public void onSmallMoleculeEvidence(
+            SmallMoleculeEvidence smallMoleculeEvidence) {
+            captured = smallMoleculeEvidence;
+        }
+    }
+}
@@ -0,0 +1,483 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.isas.mztab2.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import uk.ac.ebi.pride.jmztab2.model.MZTabNumbers;
+import uk.ac.ebi.pride.jmztab2.model.Section;
+import static uk.ac.ebi.pride.jmztab2.utils.MZTabProperties.ENCODE;
+import uk.ac.ebi.pride.jmztab2.utils.parser.TabTokenizer;
+
+/**
+ * <p>
+ * Index of the offsets of the section headers and of the small molecule
+ * summary (SML), feature (SMF) and evidence (SME) rows of a local mzTab-M
+ * file. The index is built in one scan over the file and can be saved as a
+ * sidecar file next to it, see {@link #sidecarFor(Path)}.</p>
+ *
+ * <p>
+ * Offsets are byte offsets for uncompressed files. For BGZF compressed files,
+ * see {@link BgzfOutputStream}, they are the virtual offsets of the lines in
+ * the compressed file.</p>
+ *
+ * <p>
+ * Rows are indexed by the integer value of their SML_ID, SMF_ID or SME_ID
+ * column. Rows without a valid integer id are not indexed. The index records
+ * the size, the last modification time and a CRC32 checksum of the file, so
+ * that a stale sidecar can be detected with {@link #matches(Path, boolean)}.
+ * </p>
+ *
+ * @author nilshoffmann
+ * @see IndexedMzTabReader
+ */
+public final class MzTabRowOffsetIndex {
+
+    /**
+     * File name suffix of the sidecar index file.
+     */
+    public static final String SIDECAR_SUFFIX = ".idx";
+
+    private static final int MAGIC = 0x4d5a5449; // "MZTI"
+    private static final int VERSION = 1;
+    private static final Section[] DATA_SECTIONS = {
+        Section.Small_Molecule,
+        Section.Small_Molecule_Feature,
+        Section.Small_Molecule_Evidence
+    };
+    private static final int CHECKSUM_WINDOW = 1 << 26;
+    private static final int HEADER_SIZE = 40;
+    private static final int SECTION_HEADER_SIZE = 16;
+    private static final int ENTRY_SIZE = 16;
+
+    private final long sourceSize;
+    private final long sourceLastModified;
+    private final long sourceChecksum;
+    private final long metadataEnd;
+    private final Map<Section, SectionOffsets> sections;
+
+    private MzTabRowOffsetIndex(long sourceSize, long sourceLastModified,
+        long sourceChecksum, long metadataEnd,
+        Map<Section, SectionOffsets> sections) {
+        this.sourceSize = sourceSize;
+        this.sourceLastModified = sourceLastModified;
+        this.sourceChecksum = sourceChecksum;
+        this.metadataEnd = metadataEnd;
+        this.sections = sections;
+    }
+
+    /**
+     * Returns the path of the sidecar index file for the given mzTab file,
+     * which is the file name with the {@link #SIDECAR_SUFFIX} appended.
+     *
+     * @param source the mzTab file.
+     * @return the sidecar path.
+     */
+    public static Path sidecarFor(Path source) {
+        return Paths.get(source.toString() + SIDECAR_SUFFIX);
+    }
+
+    /**
+     * Build the index of the given mzTab file in one scan over the file,
+     * which also computes the checksum of the file.
+     *
+     * @param source the mzTab file.
+     * @return the index.
+     * @throws java.io.IOException if the file can not be read.
+     */
+    public static MzTabRowOffsetIndex build(Path source) throws IOException {
+        long lastModified = Files.getLastModifiedTime(source).
+            toMillis();
+        Map<Section, SectionOffsets> sections = new EnumMap<>(Section.class);
+        for (Section section : DATA_SECTIONS) {
+            sections.put(section, new SectionOffsets());
+        }
+        long metadataEnd = -1;
+        long endOffset;
+        TabTokenizer tokenizer = new TabTokenizer();
+        CRC32 crc = new CRC32();
+        try (SeekableLineSource lines = SeekableLineSource.open(source,
+            Charset.forName(ENCODE), crc)) {
+            SectionOffsets current = null;
+            int idColumn = -1;
+            int lineNumber = 0;
+            long offset = lines.position();
+            String line;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                Section section = line.isEmpty() ? null : TabTokenizer.
+                    findSection(line);
+                if (section != null && section != Section.Metadata && section != Section.Comment) {
+                    if (metadataEnd < 0) {
+                        metadataEnd = offset;
+                    }
+                    if (section.isHeader()) {
+                        current = sections.get(Section.toDataSection(section));
+                        idColumn = -1;
+                        if (current != null) {
+                            current.headerOffset = offset;
+                            current.headerLineNumber = lineNumber;
+                            idColumn = findIdColumn(tokenizer, line, Section.
+                                toDataSection(section));
+                        }
+                    } else if (current != null && idColumn > 0 && sections.
+                        get(section) == current) {
+                        if (tokenizer.tokenize(line) > idColumn) {
+                            int start = tokenizer.start(idColumn);
+                            int end = tokenizer.end(idColumn);
+                            try {
+                                current.add(MZTabNumbers.parseInt(line, start,
+                                    end), offset, lineNumber);
+                            } catch (NumberFormatException ex) {
+                                // not indexed, reported when the row is parsed
+                            }
+                        }
+                    }
+                }
+                offset = lines.position();
+            }
+            endOffset = offset;
+        }
+        if (metadataEnd < 0) {
+            metadataEnd = endOffset;
+        }
+        for (SectionOffsets offsets : sections.values()) {
+            offsets.sortById();
+        }
+        return new MzTabRowOffsetIndex(Files.size(source), lastModified,
+            crc.getValue(), metadataEnd, sections);
+    }
+
+    /**
+     * Load an index from a sidecar file.
+     *
+     * @param indexFile the sidecar file.
+     * @return the index.
+     * @throws java.io.IOException if the file can not be read or is not an
+     * index file of a supported version, or if its row counts are not
+     * consistent with the sizes of the index file and the indexed file.
+     */
+    public static MzTabRowOffsetIndex load(Path indexFile) throws IOException {
+        long remaining = Files.size(indexFile) - HEADER_SIZE - (long) DATA_SECTIONS.length * SECTION_HEADER_SIZE;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+            Files.newInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(
+                    "File " + indexFile + " is not an mzTab row offset index!");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException(
+                    "Unsupported mzTab row offset index version " + version + " in " + indexFile);
+            }
+            long size = in.readLong();
+            long lastModified = in.readLong();
+            long checksum = in.readLong();
+            long metadataEnd = in.readLong();
+            Map<Section, SectionOffsets> sections = new EnumMap<>(
+                Section.class);
+            for (Section section : DATA_SECTIONS) {
+                SectionOffsets offsets = new SectionOffsets();
+                offsets.headerOffset = in.readLong();
+                offsets.headerLineNumber = in.readInt();
+                int count = in.readInt();
+                if (count < 0 || count > size || (long) count * ENTRY_SIZE > remaining) {
+                    throw new IOException(
+                        "Invalid row count " + count + " for section " + section + " in " + indexFile);
+                }
+                remaining -= (long) count * ENTRY_SIZE;
+                offsets.ids = new int[count];
+                offsets.offsets = new long[count];
+                offsets.lineNumbers = new int[count];
+                offsets.count = count;
+                for (int i = 0; i < count; i++) {
+                    offsets.ids[i] = in.readInt();
+                    offsets.offsets[i] = in.readLong();
+                    offsets.lineNumbers[i] = in.readInt();
+                }
+                sections.put(section, offsets);
+            }
+            return new MzTabRowOffsetIndex(size, lastModified, checksum,
+                metadataEnd, sections);
+        }
+    }
+
+    /**
+     * Save this index to a sidecar file. An existing file is replaced.
+     *
+     * @param indexFile the sidecar file.
+     * @throws java.io.IOException if the file can not be written.
+     */
+    public void save(Path indexFile) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+            new BufferedOutputStream(Files.newOutputStream(indexFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(sourceSize);
+            out.writeLong(sourceLastModified);
+            out.writeLong(sourceChecksum);
+            out.writeLong(metadataEnd);
+            for (Section section : DATA_SECTIONS) {
+                SectionOffsets offsets = sections.get(section);
+                out.writeLong(offsets.headerOffset);
+                out.writeInt(offsets.headerLineNumber);
+                out.writeInt(offsets.count);
+                for (int i = 0; i < offsets.count; i++) {
+                    out.writeInt(offsets.ids[i]);
+                    out.writeLong(offsets.offsets[i]);
+                    out.writeInt(offsets.lineNumbers[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns true, if this index was built from the given file in its current
+     * state. The size and the last modification time are always compared. The
+     * checksum is only compared if requested, since this requires reading the
+     * whole file.
+     *
+     * @param source the mzTab file.
+     * @param verifyChecksum true, to also compare the checksum.
+     * @return true, if the index matches the file.
+     * @throws java.io.IOException if the file can not be read.
+     */
+    public boolean matches(Path source, boolean verifyChecksum) throws IOException {
+        if (Files.size(source) != sourceSize || Files.getLastModifiedTime(
+            source).
+            toMillis() != sourceLastModified) {
+            return false;
+        }
+        return !verifyChecksum || checksum(source) == sourceChecksum;
+    }
+
+    /**
+     * Returns the CRC32 checksum of the indexed file.
+     *
+     * @return the checksum.
+     */
+    public long getSourceChecksum() {
+        return sourceChecksum;
+    }
+
+    /**
+     * Returns the size of the indexed file in bytes.
+     *
+     * @return the size.
+     */
+    public long getSourceSize() {
+        return sourceSize;
+    }
+
+    /**
+     * Returns the offset of the first line after the metadata section, i.e.
+     * the offset of the first section header.
+     *
+     * @return the offset, equal to the end of the file if the file only
+     * contains metadata.
+     */
+    public long getMetadataEnd() {
+        return metadataEnd;
+    }
+
+    /**
+     * Returns the offset of the header line of the given data section.
+     *
+     * @param dataSection the data section, SML, SMF or SME.
+     * @return the offset, or -1, if the file has no such header.
+     */
+    public long getHeaderOffset(Section dataSection) {
+        return offsets(dataSection).headerOffset;
+    }
+
+    /**
+     * Returns the line number of the header line of the given data section.
+     *
+     * @param dataSection the data section, SML, SMF or SME.
+     * @return the line number, starting at 1, or -1, if the file has no such
+     * header.
+     */
+    public int getHeaderLineNumber(Section dataSection) {
+        return offsets(dataSection).headerLineNumber;
+    }
+
+    /**
+     * Returns the number of indexed rows of the given data section.
+     *
+     * @param dataSection the data section, SML, SMF or SME.
+     * @return the number of rows.
+     */
+    public int getRowCount(Section dataSection) {
+        return offsets(dataSection).count;
+    }
+
+    /**
+     * Returns the offset of the row with the given id.
+     *
+     * @param dataSection the data section, SML, SMF or SME.
+     * @param id the row id.
+     * @return the offset, or -1, if no row has this id.
+     */
+    public long getRowOffset(Section dataSection, int id) {
+        SectionOffsets offsets = offsets(dataSection);
+        int i = offsets.lowerBound(id);
+        return i < offsets.count && offsets.ids[i] == id ? offsets.offsets[i] : -1;
+    }
+
+    /**
+     * Returns the positions of the rows with ids from <code>fromId</code> to
+     * <code>toId</code>, both inclusive, ordered by id. Each position is an
+     * array of the id, the offset and the line number of the row.
+     *
+     * @param dataSection the data section, SML, SMF or SME.
+     * @param fromId the first id.
+     * @param toId the last id.
+     * @return the row positions, may be empty.
+     */
+    long[][] getRowPositions(Section dataSection, int fromId, int toId) {
+        SectionOffsets offsets = offsets(dataSection);
+        if (fromId > toId) {
+            return new long[0][];
+        }
+        int from = offsets.lowerBound(fromId);
+        int to = toId == Integer.MAX_VALUE ? offsets.count : offsets.
+            lowerBound(toId + 1);
+        long[][] positions = new long[Math.max(0, to - from)][];
+        for (int i = from; i < to; i++) {
+            positions[i - from] = new long[]{offsets.ids[i], offsets.offsets[i],
+                offsets.lineNumbers[i]};
+        }
+        return positions;
+    }
+
+    private SectionOffsets offsets(Section dataSection) {
+        SectionOffsets offsets = sections.get(dataSection);
+        if (offsets == null) {
+            throw new IllegalArgumentException(
+                "Section " + dataSection + " is not indexed!");
+        }
+        return offsets;
+    }
+
+    private static int findIdColumn(TabTokenizer tokenizer, String header,
+        Section dataSection) {
+        String idColumn = dataSection.getPrefix() + "_ID";
+        int size = tokenizer.tokenize(header);
+        for (int i = 1; i < size; i++) {
+            if (idColumn.equals(tokenizer.get(i).
+                trim())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long checksum(Path source) throws IOException {
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(source,
+            StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long start = 0; start < size; start += CHECKSUM_WINDOW) {
+                crc.update(channel.map(FileChannel.MapMode.READ_ONLY, start,
+                    Math.min(CHECKSUM_WINDOW, size - start)));
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Row positions of one data section, sorted by id after building.
+     */
+    private static final class SectionOffsets {
+
+        private long headerOffset = -1;
+        private int headerLineNumber = -1;
+        private int count = 0;
+        private int[] ids = new int[16];
+        private long[] offsets = new long[16];
+        private int[] lineNumbers = new int[16];
+
+        void add(int id, long offset, int lineNumber) {
+            if (count == ids.length) {
+                int capacity = count * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                offsets = Arrays.copyOf(offsets, capacity);
+                lineNumbers = Arrays.copyOf(lineNumbers, capacity);
+            }
+            ids[count] = id;
+            offsets[count] = offset;
+            lineNumbers[count] = lineNumber;
+            count++;
+        }
+
+        void sortById() {
+            boolean sorted = true;
+            for (int i = 1; i < count && sorted; i++) {
+                sorted = ids[i - 1] <= ids[i];
+            }
+            if (!sorted) {
+                // stable, so duplicate ids keep their file order
+                Integer[] order = new Integer[count];
+                for (int i = 0; i < count; i++) {
+                    order[i] = i;
+                }
+                Arrays.sort(order, (a, b) -> Integer.compare(ids[a], ids[b]));
+                int[] sortedIds = new int[count];
+                long[] sortedOffsets = new long[count];
+                int[] sortedLineNumbers = new int[count];
+                for (int i = 0; i < count; i++) {
+                    sortedIds[i] = ids[order[i]];
+                    sortedOffsets[i] = offsets[order[i]];
+                    sortedLineNumbers[i] = lineNumbers[order[i]];
+                }
+                ids = sortedIds;
+                offsets = sortedOffsets;
+                lineNumbers = sortedLineNumbers;
+            } else {
+                ids = Arrays.copyOf(ids, count);
+                offsets = Arrays.copyOf(offsets, count);
+                lineNumbers = Arrays.copyOf(lineNumbers, count);
+            }
+        }
+
+        int lowerBound(int id) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (ids[mid] < id) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.isas.mztab2.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.concurrent.ForkJoinPool;
+import static uk.ac.ebi.pride.jmztab2.utils.MZTabProperties.ENCODE;
+
+/**
+ * <p>
+ * Input of the {@link MzTabStreamParser} and {@link MzTabFileParser}. Byte
+ * based inputs are decompressed if they start with the magic bytes of one of
+ * the {@link MzTabCompression} formats. Files, URLs, byte
+ * arrays and byte buffers can be opened repeatedly, input streams and readers
+ * can be opened only once.</p>
+ *
+ * @author nilshoffmann
+ */
+abstract class MzTabSource {
+
+    /**
+     * Open the lines of the input.
+     *
+     * @param memoryMapped true to map local, uncompressed files into memory.
+     * @param pool the pool to decompress BGZF blocks ahead on, or null to
+     * decompress on the reading thread only as far as needed.
+     * @return the line source.
+     * @throws java.io.IOException if any io related errors occur.
+     * @throws java.lang.IllegalStateException if the input can be opened only
+     * once and has already been opened.
+     */
+    abstract LineSource open(boolean memoryMapped, ForkJoinPool pool) throws IOException, IllegalStateException;
+
+    /**
+     * Create a source for the given file URI.
+     *
+     * @param tabFileUri the MZTab file URI. The file SHOULD not be null and
+     * MUST exist
+     * @return the source.
+     * @throws java.lang.IllegalArgumentException if the provided argument in
+     * invalid.
+     */
+    static MzTabSource of(URI tabFileUri) throws IllegalArgumentException {
+        if (tabFileUri == null) {
+            throw new IllegalArgumentException(
+                "MZTab file uri must not be null!");
+        }
+        if (("file".equals(tabFileUri.getScheme()) && !new File(tabFileUri).
+            exists())) {
+            throw new IllegalArgumentException("MZTab File URI " + tabFileUri.
+                toASCIIString() + " does not exist!");
+        }
+        return new UriSource(tabFileUri);
+    }
+
+    /**
+     * Create a source for the given input stream, which is read once.
+     *
+     * @param inputStream the input stream, closed after parsing.
+     * @return the source.
+     * @throws java.lang.IllegalArgumentException if the input stream is null.
+     */
+    static MzTabSource of(InputStream inputStream) throws IllegalArgumentException {
+        if (inputStream == null) {
+            throw new IllegalArgumentException(
+                "MZTab input stream must not be null!");
+        }
+        return new OnceSource(inputStream.toString()) {
+            @Override
+            LineSource openOnce(ForkJoinPool pool) throws IOException {
+                return LineSource.of(decode(inputStream, pool));
+            }
+        };
+    }
+
+    /**
+     * Create a source for the given reader, which is read once. The reader
+     * is not decompressed.
+     *
+     * @param reader the reader, closed after parsing.
+     * @return the source.
+     * @throws java.lang.IllegalArgumentException if the reader is null.
+     */
+    static MzTabSource of(Reader reader) throws IllegalArgumentException {
+        if (reader == null) {
+            throw new IllegalArgumentException(
+                "MZTab reader must not be null!");
+        }
+        return new OnceSource(reader.toString()) {
+            @Override
+            LineSource openOnce(ForkJoinPool pool) throws IOException {
+                return LineSource.of(reader instanceof BufferedReader
+                    ? (BufferedReader) reader : new BufferedReader(reader));
+            }
+        };
+    }
+
+    /**
+     * Create a source for the given bytes. The array is not copied and must
+     * not be modified while it is parsed.
+     *
+     * @param bytes the bytes of the file.
+     * @return the source.
+     * @throws java.lang.IllegalArgumentException if the bytes are null.
+     */
+    static MzTabSource of(byte[] bytes) throws IllegalArgumentException {
+        if (bytes == null) {
+            throw new IllegalArgumentException(
+                "MZTab bytes must not be null!");
+        }
+        return new MzTabSource() {
+            @Override
+            LineSource open(boolean memoryMapped, ForkJoinPool pool) throws IOException {
+                return LineSource.of(decode(new ByteArrayInputStream(bytes),
+                    pool));
+            }
+
+            @Override
+            public String toString() {
+                return "byte[" + bytes.length + "]";
+            }
+        };
+    }
+
+    /**
+     * Create a source for the remaining bytes of the given buffer. The
+     * position of the buffer is not changed, its content must not be modified
+     * while it is parsed.
+     *
+     * @param buffer the buffer.
+     * @return the source.
+     * @throws java.lang.IllegalArgumentException if the buffer is null.
+     */
+    static MzTabSource of(ByteBuffer buffer) throws IllegalArgumentException {
+        if (buffer == null) {
+            throw new IllegalArgumentException(
+                "MZTab buffer must not be null!");
+        }
+        ByteBuffer content = buffer.slice().
+            asReadOnlyBuffer();
+        return new MzTabSource() {
+            @Override
+            LineSource open(boolean memoryMapped, ForkJoinPool pool) throws IOException {
+                return LineSource.of(decode(new ByteBufferInputStream(content.
+                    duplicate()), pool));
+            }
+
+            @Override
+            public String toString() {
+                return content.toString();
+            }
+        };
+    }
+
+    /**
+     * Open a reader for the input stream, decompressing input of any
+     * {@link MzTabCompression} format detected from its first bytes.
+     *
+     * @param is the input stream.
+     * @param pool the pool to decompress BGZF blocks ahead on, or null to
+     * decompress on the reading thread only as far as needed.
+     * @return the reader.
+     * @throws java.io.IOException if any io related errors occur.
+     */
+    static BufferedReader decode(InputStream is, ForkJoinPool pool) throws IOException {
+        BufferedInputStream bis = new BufferedInputStream(is);
+        return new BufferedReader(new InputStreamReader(MzTabCompression.
+            detect(bis).
+            decompress(bis, pool), ENCODE));
+    }
+
+    /**
+     * Source of a local file or an URL.
+     */
+    private static final class UriSource extends MzTabSource {
+
+        private final URI tabFile;
+
+        private UriSource(URI tabFile) {
+            this.tabFile = tabFile;
+        }
+
+        @Override
+        LineSource open(boolean memoryMapped, ForkJoinPool pool) throws IOException {
+            File file = new File(tabFile);
+            if (memoryMapped && file.isFile() && !isCompressed(file)) {
+                return new MappedLineSource(file.toPath(), Charset.forName(
+                    ENCODE));
+            }
+            InputStream is;
+            if (file.isFile()) {
+                is = new FileInputStream(file);
+            } else {
+                is = tabFile.toURL().
+                    openStream();
+            }
+            return LineSource.of(decode(is, pool));
+        }
+
+        private static boolean isCompressed(File file) throws IOException {
+            try (BufferedInputStream is = new BufferedInputStream(
+                new FileInputStream(file), MzTabCompression.MAGIC_LENGTH)) {
+                return MzTabCompression.detect(is) != MzTabCompression.NONE;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return tabFile.toString();
+        }
+    }
+
+    /**
+     * Source that can be opened only once.
+     */
+    private abstract static class OnceSource extends MzTabSource {
+
+        private final String name;
+        private boolean opened = false;
+
+        private OnceSource(String name) {
+            this.name = name;
+        }
+
+        abstract LineSource openOnce(ForkJoinPool pool) throws IOException;
+
+        @Override
+        synchronized LineSource open(boolean memoryMapped, ForkJoinPool pool) throws IOException, IllegalStateException {
+            if (opened) {
+                throw new IllegalStateException(
+                    "MZTab input " + name + " can only be read once!");
+            }
+            opened = true;
+            return openOnce(pool);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * Input stream over the remaining bytes of a buffer.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.isas.mztab2.io;
+
+import de.isas.mztab2.model.Comment;
+import de.isas.mztab2.model.Metadata;
+import de.isas.mztab2.model.SmallMoleculeEvidence;
+import de.isas.mztab2.model.SmallMoleculeFeature;
+import de.isas.mztab2.model.SmallMoleculeSummary;
+import uk.ac.ebi.pride.jmztab2.model.MZTabColumnFactory;
+import uk.ac.ebi.pride.jmztab2.model.Section;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabError;
+
+/**
+ * Callback interface for the {@link MzTabStreamParser}. Each parsed element is
+ * handed to the handler as soon as its line has been parsed. The parser does
+ * not keep a reference to the element afterwards, so implementations decide
+ * what to retain.
+ *
+ * All methods have empty default implementations, implementors only need to
+ * override the callbacks they are interested in.
+ *
+ * @author nilshoffmann
+ * @see MzTabStreamParser
+ */
+public interface MzTabStreamHandler {
+
+    /**
+     * Called for every comment line, in file order.
+     *
+     * @param comment the comment.
+     */
+    default void onComment(Comment comment) {
+    }
+
+    /**
+     * Called once, after the last metadata line has been parsed and the
+     * metadata section has been refined. This is called before any header or
+     * data line callback.
+     *
+     * @param metadata the metadata.
+     */
+    default void onMetadata(Metadata metadata) {
+    }
+
+    /**
+     * Called once per section header line (SMH, SFH or SEH).
+     *
+     * @param section the header section.
+     * @param columnFactory the column factory created from the header line.
+     */
+    default void onHeader(Section section, MZTabColumnFactory columnFactory) {
+    }
+
+    /**
+     * Called for every small molecule summary (SML) line.
+     *
+     * @param smallMoleculeSummary the parsed summary row.
+     */
+    default void onSmallMoleculeSummary(
+        SmallMoleculeSummary smallMoleculeSummary) {
+    }
+
+    /**
+     * Called for every small molecule feature (SMF) line.
+     *
+     * @param smallMoleculeFeature the parsed feature row.
+     */
+    default void onSmallMoleculeFeature(
+        SmallMoleculeFeature smallMoleculeFeature) {
+    }
+
+    /**
+     * Called for every small molecule evidence (SME) line.
+     *
+     * @param smallMoleculeEvidence the parsed evidence row.
+     */
+    default void onSmallMoleculeEvidence(
+        SmallMoleculeEvidence smallMoleculeEvidence) {
+    }
+
+    /**
+     * Called for every error that was accepted by the error list, i.e. that
+     * matches the configured error level.
+     *
+     * @param error the error.
+     */
+    default void onError(MZTabError error) {
+    }
+}
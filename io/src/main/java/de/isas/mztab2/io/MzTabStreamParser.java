@@ -0,0 +1,998 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.isas.mztab2.io;
+
+import de.isas.mztab2.model.SmallMoleculeEvidence;
+import de.isas.mztab2.model.SmallMoleculeFeature;
+import de.isas.mztab2.model.SmallMoleculeSummary;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import uk.ac.ebi.pride.jmztab2.model.MZTabColumnFactory;
+import uk.ac.ebi.pride.jmztab2.model.MZTabStringUtils;
+import uk.ac.ebi.pride.jmztab2.model.Section;
+import uk.ac.ebi.pride.jmztab2.utils.errors.FormatErrorType;
+import uk.ac.ebi.pride.jmztab2.utils.errors.LogicalErrorType;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabError;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorList;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorOverflowException;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorType;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabException;
+import uk.ac.ebi.pride.jmztab2.utils.parser.COMLineParser;
+import uk.ac.ebi.pride.jmztab2.utils.parser.MTDLineParser;
+import uk.ac.ebi.pride.jmztab2.utils.parser.MZTabParserContext;
+import uk.ac.ebi.pride.jmztab2.utils.parser.MZTabValueCache;
+import uk.ac.ebi.pride.jmztab2.utils.parser.PositionMapping;
+import uk.ac.ebi.pride.jmztab2.utils.parser.SEHLineParser;
+import uk.ac.ebi.pride.jmztab2.utils.parser.SFHLineParser;
+import uk.ac.ebi.pride.jmztab2.utils.parser.SMELineParser;
+import uk.ac.ebi.pride.jmztab2.utils.parser.SMFLineParser;
+import uk.ac.ebi.pride.jmztab2.utils.parser.SMHLineParser;
+import uk.ac.ebi.pride.jmztab2.utils.parser.SMLLineParser;
+import uk.ac.ebi.pride.jmztab2.utils.parser.TabTokenizer;
+import static uk.ac.ebi.pride.jmztab2.utils.MZTabProperties.*;
+
+/**
+ * <p>
+ * MzTabStreamParser reads an mzTab-M file line by line and hands every parsed
+ * element to a {@link MzTabStreamHandler}. In contrast to the
+ * {@link MzTabFileParser}, no rows are retained by the parser, so that memory
+ * consumption is independent of the number of rows in the file.</p>
+ *
+ * <p>
+ * The same line parsers and per-line checks as in the {@link MzTabFileParser}
+ * are applied. Checks that require all rows of a section, like the
+ * cross-references between SML, SMF and SME rows, are not performed.</p>
+ *
+ * <p>
+ * Alternatively to the handler callbacks, the rows of a single section can be
+ * pulled with a {@link MzTabRowIterator} or a {@link java.util.stream.Stream},
+ * e.g. via {@link #streamSmallMoleculeFeatures()}. Lines are only read as far
+ * as the consumer requests rows.</p>
+ *
+ * <p>
+ * Besides files and URLs, the parser reads from input streams, readers, byte
+ * arrays and byte buffers. Gzip, BGZF, zstd, xz and bzip2 compressed input
+ * is detected from its magic bytes and decompressed while reading,
+ * independent of the file name, see {@link MzTabCompression}. Input in the
+ * blocked gzip format (BGZF), as written by the {@link BgzfOutputStream}, is
+ * decompressed ahead of the parser in parallel,
+ * on the pool given to {@link #setParallel(ForkJoinPool, int)} or on the
+ * common pool.</p>
+ *
+ * @author nilshoffmann
+ * @see MzTabStreamHandler
+ * @see MzTabRowIterator
+ * @see MzTabFileParser
+ */
+@Slf4j
+public class MzTabStreamParser {
+
+    /**
+     * The default number of data lines that are read before they are parsed
+     * in parallel.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 8192;
+
+    /**
+     * The data sections of mzTab-M, which are parsed by default.
+     */
+    static final Set<Section> DATA_SECTIONS = Collections.unmodifiableSet(
+        EnumSet.of(Section.Small_Molecule, Section.Small_Molecule_Feature,
+            Section.Small_Molecule_Evidence));
+
+    private final MzTabSource source;
+    private ForkJoinPool pool = null;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private boolean memoryMapped = false;
+    private boolean deduplicateValues = false;
+    private boolean trustedInput = false;
+    private Set<Section> dataSections = DATA_SECTIONS;
+    private final Map<Section, Set<String>> columnProjections = new EnumMap<>(
+        Section.class);
+
+    /**
+     * Create a new {@code MzTabStreamParser} for the given file.
+     *
+     * @param tabFile the MZTab file. The file SHOULD not be null and MUST exist
+     * @throws java.lang.IllegalArgumentException if the provided argument in
+     * invalid.
+     */
+    public MzTabStreamParser(File tabFile) throws IllegalArgumentException {
+        this(tabFile.toURI());
+    }
+
+    /**
+     * Create a new {@code MzTabStreamParser} for the given path.
+     *
+     * @param tabFile the MZTab file path. The file SHOULD not be null and MUST
+     * exist
+     * @throws java.lang.IllegalArgumentException if the provided argument in
+     * invalid.
+     */
+    public MzTabStreamParser(Path tabFile) throws IllegalArgumentException {
+        this(tabFile.toUri());
+    }
+
+    /**
+     * Create a new {@code MzTabStreamParser} for the given file URI.
+     *
+     * @param tabFileUri the MZTab file URI. The file SHOULD not be null and
+     * MUST exist
+     * @throws java.lang.IllegalArgumentException if the provided argument in
+     * invalid.
+     */
+    public MzTabStreamParser(URI tabFileUri) throws IllegalArgumentException {
+        this(MzTabSource.of(tabFileUri));
+    }
+
+    /**
+     * Create a new {@code MzTabStreamParser} for the given input stream. The
+     * stream is read by the first parse or row iterator and closed
+     * afterwards, compressed content is detected from its first bytes.
+     *
+     * @param inputStream the MZTab input stream. The stream SHOULD not be null
+     * @throws java.lang.IllegalArgumentException if the provided argument in
+     * invalid.
+     */
+    public MzTabStreamParser(InputStream inputStream) throws IllegalArgumentException {
+        this(MzTabSource.of(inputStream));
+    }
+
+    /**
+     * Create a new {@code MzTabStreamParser} for the given reader. The reader
+     * is read by the first parse or row iterator and closed afterwards.
+     *
+     * @param reader the MZTab reader. The reader SHOULD not be null
+     * @throws java.lang.IllegalArgumentException if the provided argument in
+     * invalid.
+     */
+    public MzTabStreamParser(Reader reader) throws IllegalArgumentException {
+        this(MzTabSource.of(reader));
+    }
+
+    /**
+     * Create a new {@code MzTabStreamParser} for the given bytes, which may be
+     * compressed, see {@link MzTabCompression}. The array is not copied and MUST not be
+     * modified while parsing.
+     *
+     * @param bytes the MZTab file content. The bytes SHOULD not be null
+     * @throws java.lang.IllegalArgumentException if the provided argument in
+     * invalid.
+     */
+    public MzTabStreamParser(byte[] bytes) throws IllegalArgumentException {
+        this(MzTabSource.of(bytes));
+    }
+
+    /**
+     * Create a new {@code MzTabStreamParser} for the remaining bytes of the
+     * given buffer, which may be compressed, see {@link MzTabCompression}. The
+     * position of the buffer is not changed, its content MUST not be modified
+     * while parsing.
+     *
+     * @param buffer the MZTab file content. The buffer SHOULD not be null
+     * @throws java.lang.IllegalArgumentException if the provided argument in
+     * invalid.
+     */
+    public MzTabStreamParser(ByteBuffer buffer) throws IllegalArgumentException {
+        this(MzTabSource.of(buffer));
+    }
+
+    MzTabStreamParser(MzTabSource source) {
+        this.source = source;
+    }
+
+    /**
+     * Enable parallel parsing of the SML, SMF and SME data lines. The lines of
+     * each data section are read in batches of the given size, parsed on the
+     * given pool with one line parser per chunk and reported to the handler in
+     * line order. Metadata, header and comment lines are always parsed on the
+     * calling thread. The row iterators are not affected by this setting,
+     * except that BGZF compressed files are also decompressed on the pool.
+     *
+     * @param pool the pool to parse on, null disables parallel parsing.
+     * @param batchSize the number of data lines per batch, must be greater
+     * than 0.
+     * @throws java.lang.IllegalArgumentException if the batch size is smaller
+     * than 1.
+     */
+    public void setParallel(ForkJoinPool pool, int batchSize) throws IllegalArgumentException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException(
+                "Batch size must be greater than 0!");
+        }
+        this.pool = pool;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Read local, uncompressed files through a {@link MappedLineSource}
+     * instead of a {@link java.io.BufferedReader}. Other inputs are always
+     * read through a reader. While the file is being parsed, it remains mapped until the
+     * mapping is garbage collected, which may prevent deleting the file on
+     * some platforms.
+     *
+     * @param memoryMapped true to map local files into memory.
+     */
+    public void setMemoryMapped(boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+    }
+
+    /**
+     * Return canonical instances for repeated string and parameter values of
+     * the data lines, e.g. adduct ions or identification methods, from a
+     * bounded {@link MZTabValueCache} per parse. This reduces the retained
+     * heap when the rows are kept, but the parameters are then shared between
+     * rows and must not be modified. A context passed to
+     * {@link #parse(MZTabParserContext, MZTabErrorList, MzTabStreamHandler)}
+     * that already has a value cache keeps it.
+     *
+     * @param deduplicateValues true to deduplicate values.
+     */
+    public void setDeduplicateValues(boolean deduplicateValues) {
+        this.deduplicateValues = deduplicateValues;
+    }
+
+    /**
+     * Treat the data lines as coming from a trusted source, e.g. a file that
+     * has already been validated or that was written by this library. The
+     * cells are then only converted into the model: they are not trimmed,
+     * and the checks for null values, namespaced parameter accessions, adduct
+     * ion formats, matching list lengths and ms run locations are skipped.
+     * Parsing still stops with the first cell that can not be converted, e.g.
+     * a number that can not be parsed. A context passed to
+     * {@link #parse(MZTabParserContext, MZTabErrorList, MzTabStreamHandler)}
+     * that is already trusted stays trusted.
+     *
+     * @param trustedInput true to skip the optional checks of the data lines.
+     */
+    public void setTrustedInput(boolean trustedInput) {
+        this.trustedInput = trustedInput;
+    }
+
+    /**
+     * Parse and report only the rows of the given data sections. The header
+     * lines of all sections are still parsed and reported. The rows of the
+     * other sections are skipped without tokenizing them, a
+     * {@link MappedLineSource} skips them without decoding them, too.
+     * The row iterators are not affected by this setting.
+     *
+     * @param dataSections any of {@link Section#Small_Molecule},
+     * {@link Section#Small_Molecule_Feature} and
+     * {@link Section#Small_Molecule_Evidence}.
+     * @throws java.lang.IllegalArgumentException if any other section is
+     * given.
+     */
+    public void setDataSections(Set<Section> dataSections) throws IllegalArgumentException {
+        this.dataSections = copyDataSections(dataSections);
+    }
+
+    /**
+     * Parse only the columns with the given headers in the rows of a data
+     * section, e.g. <code>SML_ID</code> and <code>abundance_assay[1]</code>.
+     * The cells of other stable and <code>opt_</code> columns are skipped
+     * without trimming or converting them and the corresponding properties of
+     * the rows remain unset. The cells of other abundance and
+     * <code>id_confidence_measure</code> columns are reported as null, so that
+     * the positions in these lists are kept. The number of cells of each row
+     * is still checked against the header. Headers that do not occur in the
+     * file are ignored. The row iterators use the same projection.
+     *
+     * @param section one of {@link Section#Small_Molecule},
+     * {@link Section#Small_Molecule_Feature} and
+     * {@link Section#Small_Molecule_Evidence}.
+     * @param headers the headers of the columns to parse, or null to parse
+     * all columns of the section.
+     * @throws java.lang.IllegalArgumentException if the section is not a data
+     * section.
+     */
+    public void setColumns(Section section, Set<String> headers) throws IllegalArgumentException {
+        if (!DATA_SECTIONS.contains(section)) {
+            throw new IllegalArgumentException(
+                "Section " + section + " is not an mzTab-M data section!");
+        }
+        if (headers == null) {
+            columnProjections.remove(section);
+        } else {
+            columnProjections.put(section, Collections.unmodifiableSet(
+                new HashSet<>(headers)));
+        }
+    }
+
+    static Set<Section> copyDataSections(Set<Section> dataSections) throws IllegalArgumentException {
+        for (Section section : dataSections) {
+            if (!DATA_SECTIONS.contains(section)) {
+                throw new IllegalArgumentException(
+                    "Section " + section + " is not an mzTab-M data section!");
+            }
+        }
+        return Collections.unmodifiableSet(dataSections.isEmpty() ? EnumSet.
+            noneOf(Section.class) : EnumSet.copyOf(dataSections));
+    }
+
+    /**
+     * Parse the file and report all elements and errors to the provided
+     * handler. A structural error that prohibits further processing is added
+     * to the returned error list and reported via
+     * {@link MzTabStreamHandler#onError(MZTabError)}, before this method
+     * returns.
+     *
+     * @param handler the handler to receive the parsed elements.
+     * @param level the minimum error level to report errors for
+     * @param maxErrorCount the maximum number of errors to report
+     * @return the error list
+     * @throws java.io.IOException if any io related errors occur.
+     */
+    public MZTabErrorList parse(MzTabStreamHandler handler,
+        MZTabErrorType.Level level, int maxErrorCount) throws IOException {
+        MZTabErrorList errorList = new HandlerErrorList(handler, level,
+            maxErrorCount);
+        try {
+            parse(createContext(), errorList, handler);
+        } catch (MZTabException e) {
+            log.error("Parsing of " + source + " stopped!", e);
+            errorList.add(e.getError());
+        } catch (MZTabErrorOverflowException e) {
+            log.error("Parsing of " + source + " stopped after " + errorList.
+                size() + " errors!");
+        }
+        return errorList;
+    }
+
+    /**
+     * Parse the file and report all elements and errors to the provided
+     * handler. Reports up to
+     * {@link uk.ac.ebi.pride.jmztab2.utils.MZTabProperties#MAX_ERROR_COUNT}
+     * errors on level
+     * {@link uk.ac.ebi.pride.jmztab2.utils.MZTabProperties#LEVEL}.
+     *
+     * @param handler the handler to receive the parsed elements.
+     * @return the error list
+     * @throws java.io.IOException if any io related errors occur.
+     */
+    public MZTabErrorList parse(MzTabStreamHandler handler) throws IOException {
+        return parse(handler, LEVEL, MAX_ERROR_COUNT);
+    }
+
+    /**
+     * Parse the file using the provided context and error list. Errors are
+     * added to the error list only, the
+     * {@link MzTabStreamHandler#onError(MZTabError)} method is not called
+     * unless the error list forwards them itself.
+     *
+     * @param context the parser context.
+     * @param errorList the error list.
+     * @param handler the handler to receive the parsed elements.
+     * @throws java.io.IOException if any io related errors occur.
+     * @throws uk.ac.ebi.pride.jmztab2.utils.errors.MZTabException if any
+     * structural or logical errors are encountered that prohibit further
+     * processing.
+     * @throws uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorOverflowException
+     * when too many errors are detected.
+     */
+    public void parse(MZTabParserContext context, MZTabErrorList errorList,
+        MzTabStreamHandler handler) throws IOException, MZTabException, MZTabErrorOverflowException {
+        configure(context);
+        LineDispatcher dispatcher = new LineDispatcher(context, errorList,
+            handler, dataSections);
+        if (pool != null) {
+            dispatcher.setParallel(pool, batchSize);
+        }
+        String line;
+        int lineNumber = 0;
+        try (LineSource reader = openLineSource(decompressionPool())) {
+            while (true) {
+                Section skipped = dispatcher.getSkippedSection();
+                if (skipped != null && reader.skipLine(skipped.getPrefix() + "\t")) {
+                    lineNumber++;
+                    continue;
+                }
+                if ((line = reader.readLine()) == null) {
+                    break;
+                }
+                dispatcher.dispatch(++lineNumber, line);
+            }
+        }
+        dispatcher.finish();
+    }
+
+    /**
+     * Parse only the metadata section and the comments before the first
+     * section header. Reading stops at the first line that is neither a
+     * metadata, a comment nor an empty line, so that the time to open a file
+     * does not depend on its size. Compressed files are only decompressed as
+     * far as needed. The metadata is refined and reported via
+     * {@link MzTabStreamHandler#onMetadata(Metadata)}, as for a complete parse.
+     *
+     * @param handler the handler to receive the metadata and comments.
+     * @param level the minimum error level to report errors for
+     * @param maxErrorCount the maximum number of errors to report
+     * @return the error list
+     * @throws java.io.IOException if any io related errors occur.
+     */
+    public MZTabErrorList parseMetadata(MzTabStreamHandler handler,
+        MZTabErrorType.Level level, int maxErrorCount) throws IOException {
+        MZTabErrorList errorList = new HandlerErrorList(handler, level,
+            maxErrorCount);
+        try {
+            parseMetadata(createContext(), errorList, handler);
+        } catch (MZTabException e) {
+            log.error("Parsing of metadata of " + source + " stopped!", e);
+            errorList.add(e.getError());
+        } catch (MZTabErrorOverflowException e) {
+            log.error("Parsing of metadata of " + source + " stopped after " + errorList.
+                size() + " errors!");
+        }
+        return errorList;
+    }
+
+    /**
+     * Parse only the metadata section and the comments before the first
+     * section header, using the provided context and error list.
+     *
+     * @param context the parser context.
+     * @param errorList the error list.
+     * @param handler the handler to receive the metadata and comments.
+     * @throws java.io.IOException if any io related errors occur.
+     * @throws uk.ac.ebi.pride.jmztab2.utils.errors.MZTabException if any
+     * structural or logical errors are encountered that prohibit further
+     * processing.
+     * @throws uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorOverflowException
+     * when too many errors are detected.
+     * @see #parseMetadata(MzTabStreamHandler, MZTabErrorType.Level, int)
+     */
+    public void parseMetadata(MZTabParserContext context,
+        MZTabErrorList errorList,
+        MzTabStreamHandler handler) throws IOException, MZTabException, MZTabErrorOverflowException {
+        LineDispatcher dispatcher = new LineDispatcher(context, errorList,
+            handler, EnumSet.noneOf(Section.class));
+        String line;
+        int lineNumber = 0;
+        // no read ahead, blocks after the metadata are not needed
+        try (LineSource reader = openLineSource(null)) {
+            while ((line = reader.readLine()) != null) {
+                if (!MZTabStringUtils.isEmpty(line)) {
+                    Section section = TabTokenizer.findSection(line);
+                    if (section != null && section != Section.Metadata && section != Section.Comment) {
+                        break;
+                    }
+                }
+                dispatcher.dispatch(++lineNumber, line);
+            }
+        }
+        dispatcher.finish();
+    }
+
+    /**
+     * Returns a lazy iterator over the small molecule summary (SML) rows. The
+     * metadata and the SMH header are parsed before this method returns. The
+     * iterator MUST be closed by the caller.
+     *
+     * @param level the minimum error level to record errors for
+     * @param maxErrorCount the maximum number of errors to record
+     * @return the row iterator.
+     * @throws java.io.IOException if any io related errors occur.
+     */
+    public MzTabRowIterator<SmallMoleculeSummary> iterateSmallMoleculeSummaries(
+        MZTabErrorType.Level level, int maxErrorCount) throws IOException {
+        return new MzTabRowIterator<>(openLineSource(decompressionPool()), Section.Small_Molecule,
+            new MZTabErrorList(level, maxErrorCount), createContext());
+    }
+
+    /**
+     * Returns a lazy iterator over the small molecule summary (SML) rows,
+     * using the default error level and count.
+     *
+     * @return the row iterator.
+     * @throws java.io.IOException if any io related errors occur.
+     * @see #iterateSmallMoleculeSummaries(MZTabErrorType.Level, int)
+     */
+    public MzTabRowIterator<SmallMoleculeSummary> iterateSmallMoleculeSummaries() throws IOException {
+        return iterateSmallMoleculeSummaries(LEVEL, MAX_ERROR_COUNT);
+    }
+
+    /**
+     * Returns a lazy iterator over the small molecule feature (SMF) rows. The
+     * metadata and the SFH header are parsed before this method returns, SML
+     * lines are skipped without being parsed. The iterator MUST be closed by
+     * the caller.
+     *
+     * @param level the minimum error level to record errors for
+     * @param maxErrorCount the maximum number of errors to record
+     * @return the row iterator.
+     * @throws java.io.IOException if any io related errors occur.
+     */
+    public MzTabRowIterator<SmallMoleculeFeature> iterateSmallMoleculeFeatures(
+        MZTabErrorType.Level level, int maxErrorCount) throws IOException {
+        return new MzTabRowIterator<>(openLineSource(decompressionPool()),
+            Section.Small_Molecule_Feature,
+            new MZTabErrorList(level, maxErrorCount), createContext());
+    }
+
+    /**
+     * Returns a lazy iterator over the small molecule feature (SMF) rows,
+     * using the default error level and count.
+     *
+     * @return the row iterator.
+     * @throws java.io.IOException if any io related errors occur.
+     * @see #iterateSmallMoleculeFeatures(MZTabErrorType.Level, int)
+     */
+    public MzTabRowIterator<SmallMoleculeFeature> iterateSmallMoleculeFeatures() throws IOException {
+        return iterateSmallMoleculeFeatures(LEVEL, MAX_ERROR_COUNT);
+    }
+
+    /**
+     * Returns a lazy iterator over the small molecule evidence (SME) rows. The
+     * metadata and the SEH header are parsed before this method returns, SML
+     * and SMF lines are skipped without being parsed. The iterator MUST be
+     * closed by the caller.
+     *
+     * @param level the minimum error level to record errors for
+     * @param maxErrorCount the maximum number of errors to record
+     * @return the row iterator.
+     * @throws java.io.IOException if any io related errors occur.
+     */
+    public MzTabRowIterator<SmallMoleculeEvidence> iterateSmallMoleculeEvidences(
+        MZTabErrorType.Level level, int maxErrorCount) throws IOException {
+        return new MzTabRowIterator<>(openLineSource(decompressionPool()),
+            Section.Small_Molecule_Evidence,
+            new MZTabErrorList(level, maxErrorCount), createContext());
+    }
+
+    /**
+     * Returns a lazy iterator over the small molecule evidence (SME) rows,
+     * using the default error level and count.
+     *
+     * @return the row iterator.
+     * @throws java.io.IOException if any io related errors occur.
+     * @see #iterateSmallMoleculeEvidences(MZTabErrorType.Level, int)
+     */
+    public MzTabRowIterator<SmallMoleculeEvidence> iterateSmallMoleculeEvidences() throws IOException {
+        return iterateSmallMoleculeEvidences(LEVEL, MAX_ERROR_COUNT);
+    }
+
+    /**
+     * Returns a lazy stream over the small molecule summary (SML) rows. The
+     * stream MUST be closed by the caller, e.g. with try-with-resources.
+     *
+     * @return the stream of rows.
+     * @throws java.io.IOException if any io related errors occur.
+     */
+    public Stream<SmallMoleculeSummary> streamSmallMoleculeSummaries() throws IOException {
+        return iterateSmallMoleculeSummaries().stream();
+    }
+
+    /**
+     * Returns a lazy stream over the small molecule feature (SMF) rows. The
+     * stream MUST be closed by the caller, e.g. with try-with-resources.
+     *
+     * @return the stream of rows.
+     * @throws java.io.IOException if any io related errors occur.
+     */
+    public Stream<SmallMoleculeFeature> streamSmallMoleculeFeatures() throws IOException {
+        return iterateSmallMoleculeFeatures().stream();
+    }
+
+    /**
+     * Returns a lazy stream over the small molecule evidence (SME) rows. The
+     * stream MUST be closed by the caller, e.g. with try-with-resources.
+     *
+     * @return the stream of rows.
+     * @throws java.io.IOException if any io related errors occur.
+     */
+    public Stream<SmallMoleculeEvidence> streamSmallMoleculeEvidences() throws IOException {
+        return iterateSmallMoleculeEvidences().stream();
+    }
+
+    private MZTabParserContext createContext() {
+        return configure(new MZTabParserContext());
+    }
+
+    private MZTabParserContext configure(MZTabParserContext context) {
+        if (deduplicateValues && context.getValueCache() == null) {
+            context.setValueCache(new MZTabValueCache());
+        }
+        if (trustedInput) {
+            context.setTrustedInput(true);
+        }
+        if (context.getColumnProjections().isEmpty()) {
+            context.getColumnProjections().putAll(columnProjections);
+        }
+        return context;
+    }
+
+    private ForkJoinPool decompressionPool() {
+        return pool == null ? ForkJoinPool.commonPool() : pool;
+    }
+
+    private LineSource openLineSource(ForkJoinPool decompressionPool) throws IOException {
+        return source.open(memoryMapped, decompressionPool);
+    }
+
+    /**
+     * Error list that forwards every accepted error to the handler.
+     */
+    private static class HandlerErrorList extends MZTabErrorList {
+
+        private final MzTabStreamHandler handler;
+
+        HandlerErrorList(MzTabStreamHandler handler,
+            MZTabErrorType.Level level, int maxErrorCount) {
+            super(level, maxErrorCount);
+            this.handler = handler;
+        }
+
+        @Override
+        public boolean add(MZTabError error) throws MZTabErrorOverflowException {
+            boolean added = super.add(error);
+            if (added) {
+                handler.onError(error);
+            }
+            return added;
+        }
+    }
+
+    /**
+     * Keeps the section state of one pass over an mzTab file and dispatches
+     * each line to the matching line parser.
+     */
+    static class LineDispatcher {
+
+        private final MZTabParserContext context;
+        private final MZTabErrorList errorList;
+        private final MzTabStreamHandler handler;
+        private final COMLineParser comParser;
+        private final MTDLineParser mtdParser;
+        private SMHLineParser smhParser = null;
+        private SMLLineParser smlParser = null;
+        private SFHLineParser sfhParser = null;
+        private SMFLineParser smfParser = null;
+        private SEHLineParser sehParser = null;
+        private SMELineParser smeParser = null;
+
+        private PositionMapping smlPositionMapping = null;
+        private PositionMapping smfPositionMapping = null;
+        private PositionMapping smePositionMapping = null;
+
+        private final Set<Section> dataSections;
+        private ParallelDataLineParser parallelParser = null;
+        private int highWaterMark = 1;
+        private boolean metadataFinished = false;
+
+        LineDispatcher(MZTabParserContext context, MZTabErrorList errorList,
+            MzTabStreamHandler handler) {
+            this(context, errorList, handler, DATA_SECTIONS);
+        }
+
+        /**
+         * Create a dispatcher that only parses the data lines of the given
+         * data sections. Data lines of all other sections are skipped.
+         */
+        LineDispatcher(MZTabParserContext context, MZTabErrorList errorList,
+            MzTabStreamHandler handler, Set<Section> dataSections) {
+            this.context = context;
+            this.errorList = errorList;
+            this.handler = handler;
+            this.dataSections = dataSections;
+            this.comParser = new COMLineParser(context);
+            this.mtdParser = new MTDLineParser(context);
+        }
+
+        /**
+         * Parse the data lines in batches on the given pool instead of on the
+         * calling thread.
+         *
+         * @param pool the pool to parse on.
+         * @param batchSize the number of data lines per batch.
+         */
+        void setParallel(ForkJoinPool pool, int batchSize) {
+            this.parallelParser = new ParallelDataLineParser(pool, batchSize,
+                errorList, handler);
+        }
+
+        /**
+         * Parse one line of the file.
+         *
+         * @param lineNumber the line number, starting at 1.
+         * @param line the raw line.
+         * @return the section of the line, or null for empty lines.
+         * @throws MZTabException if any structural or logical errors are
+         * encountered that prohibit further processing.
+         */
+        Section dispatch(int lineNumber, String line) throws MZTabException {
+            try {
+                if (MZTabStringUtils.isEmpty(line)) {
+                    return null;
+                }
+
+                if (line.startsWith(Section.Comment.getPrefix())) {
+                    flushParallel();
+                    comParser.parse(lineNumber, line, errorList);
+                    handler.onComment(comParser.getComment());
+                    return Section.Comment;
+                }
+
+                Section section = TabTokenizer.findSection(line);
+                if (section == null) {
+                    MZTabError sectionNullError = new MZTabError(
+                        FormatErrorType.LinePrefix, lineNumber,
+                        subString(line));
+                    throw new MZTabException(sectionNullError);
+                }
+                if (parallelParser != null) {
+                    // keep the order of rows, errors and other lines
+                    parallelParser.flushUnless(section);
+                }
+                if (section.getLevel() < highWaterMark) {
+                    Section currentSection = Section.findSection(
+                        highWaterMark);
+                    MZTabError sectionLineOrderError = new MZTabError(
+                        LogicalErrorType.LineOrder, lineNumber,
+                        currentSection.getName(), section.getName());
+                    throw new MZTabException(sectionLineOrderError);
+                }
+
+                highWaterMark = section.getLevel();
+                if (highWaterMark > 1) {
+                    finishMetadata();
+                }
+
+                switch (highWaterMark) {
+                    case 1:
+                        // metadata section.
+                        mtdParser.parse(lineNumber, line, errorList);
+                        break;
+                    case 8:
+                        if (smhParser != null) {
+                            MZTabError error = new MZTabError(
+                                LogicalErrorType.HeaderLine,
+                                lineNumber, subString(line));
+                            // header line only display once!
+                            throw new MZTabException(error);
+                        }
+
+                        // small molecule header section
+                        smhParser = new SMHLineParser(context, mtdParser.
+                            getMetadata());
+                        smhParser.parse(lineNumber, line, errorList);
+                        smlPositionMapping = new PositionMapping(smhParser.
+                            getFactory(), line);
+                        handler.onHeader(section, smhParser.getFactory());
+
+                        // tell system to continue check small molecule data line.
+                        highWaterMark = 9;
+                        break;
+                    case 9:
+                        if (smhParser == null) {
+                            // header line should be check first.
+                            throw new MZTabException(new MZTabError(
+                                LogicalErrorType.NoHeaderLine,
+                                lineNumber, subString(line)));
+                        }
+
+                        if (!dataSections.contains(Section.Small_Molecule)) {
+                            break;
+                        }
+                        if (parallelParser != null) {
+                            final MZTabColumnFactory factory = smhParser.
+                                getFactory();
+                            final PositionMapping mapping = smlPositionMapping;
+                            parallelParser.add(Section.Small_Molecule,
+                                (chunkErrors) -> new SMLLineParser(context, factory,
+                                    mapping, mtdParser.getMetadata(),
+                                    chunkErrors), lineNumber, line);
+                            break;
+                        }
+                        if (smlParser == null) {
+                            smlParser = new SMLLineParser(context,
+                                smhParser.getFactory(),
+                                smlPositionMapping, mtdParser.getMetadata(),
+                                errorList);
+                        }
+                        smlParser.parse(lineNumber, line, errorList);
+                        handler.onSmallMoleculeSummary(smlParser.getRecord());
+                        break;
+                    case 10:
+                        if (sfhParser != null) {
+                            // header line only display once!
+                            throw new MZTabException(new MZTabError(
+                                LogicalErrorType.HeaderLine,
+                                lineNumber, subString(line)));
+                        }
+
+                        // small molecule feature header section
+                        sfhParser = new SFHLineParser(context, mtdParser.
+                            getMetadata());
+                        sfhParser.parse(lineNumber, line, errorList);
+                        smfPositionMapping = new PositionMapping(sfhParser.
+                            getFactory(), line);
+                        handler.onHeader(section, sfhParser.getFactory());
+
+                        // tell system to continue check small molecule feature data line.
+                        highWaterMark = 11;
+                        break;
+                    case 11:
+                        if (sfhParser == null) {
+                            // header line should be check first.
+                            throw new MZTabException(new MZTabError(
+                                LogicalErrorType.NoHeaderLine,
+                                lineNumber, subString(line)));
+                        }
+
+                        if (!dataSections.contains(Section.Small_Molecule_Feature)) {
+                            break;
+                        }
+                        if (parallelParser != null) {
+                            final MZTabColumnFactory factory = sfhParser.
+                                getFactory();
+                            final PositionMapping mapping = smfPositionMapping;
+                            parallelParser.add(Section.Small_Molecule_Feature,
+                                (chunkErrors) -> new SMFLineParser(context, factory,
+                                    mapping, mtdParser.getMetadata(),
+                                    chunkErrors), lineNumber, line);
+                            break;
+                        }
+                        if (smfParser == null) {
+                            smfParser = new SMFLineParser(context,
+                                sfhParser.getFactory(),
+                                smfPositionMapping, mtdParser.getMetadata(),
+                                errorList);
+                        }
+                        smfParser.parse(lineNumber, line, errorList);
+                        handler.onSmallMoleculeFeature(smfParser.getRecord());
+                        break;
+                    case 12:
+                        if (sehParser != null) {
+                            // header line only display once!
+                            throw new MZTabException(new MZTabError(
+                                LogicalErrorType.HeaderLine,
+                                lineNumber, subString(line)));
+                        }
+
+                        // small molecule evidence header section
+                        sehParser = new SEHLineParser(context, mtdParser.
+                            getMetadata());
+                        sehParser.parse(lineNumber, line, errorList);
+                        smePositionMapping = new PositionMapping(sehParser.
+                            getFactory(), line);
+                        handler.onHeader(section, sehParser.getFactory());
+
+                        // tell system to continue check small molecule evidence data line.
+                        highWaterMark = 13;
+                        break;
+                    case 13:
+                        if (sehParser == null) {
+                            // header line should be check first.
+                            throw new MZTabException(new MZTabError(
+                                LogicalErrorType.NoHeaderLine,
+                                lineNumber, subString(line)));
+                        }
+
+                        if (!dataSections.contains(Section.Small_Molecule_Evidence)) {
+                            break;
+                        }
+                        if (parallelParser != null) {
+                            final MZTabColumnFactory factory = sehParser.
+                                getFactory();
+                            final PositionMapping mapping = smePositionMapping;
+                            parallelParser.add(Section.Small_Molecule_Evidence,
+                                (chunkErrors) -> new SMELineParser(context, factory,
+                                    mapping, mtdParser.getMetadata(),
+                                    chunkErrors), lineNumber, line);
+                            break;
+                        }
+                        if (smeParser == null) {
+                            smeParser = new SMELineParser(context,
+                                sehParser.getFactory(),
+                                smePositionMapping, mtdParser.getMetadata(),
+                                errorList);
+                        }
+                        smeParser.parse(lineNumber, line, errorList);
+                        handler.onSmallMoleculeEvidence(smeParser.getRecord());
+                        break;
+                    default:
+                        throw new IllegalArgumentException(
+                            "Unknown section level " + highWaterMark);
+                }
+                return section;
+            } catch (NullPointerException npe) {
+                throw new MZTabException(new MZTabError(
+                    LogicalErrorType.NULL,
+                    lineNumber, subString(line)), npe);
+            }
+        }
+
+        /**
+         * Finish parsing. Refines the metadata, if this has not happened yet
+         * because the file does not contain any non-metadata section.
+         *
+         * @throws MZTabException if the metadata refinement fails.
+         */
+        void finish() throws MZTabException {
+            flushParallel();
+            finishMetadata();
+        }
+
+        private void flushParallel() throws MZTabException {
+            if (parallelParser != null) {
+                parallelParser.flush();
+            }
+        }
+
+        private void finishMetadata() throws MZTabException {
+            if (!metadataFinished) {
+                metadataFinished = true;
+                mtdParser.refineNormalMetadata();
+                handler.onMetadata(mtdParser.getMetadata());
+            }
+        }
+
+        /**
+         * Returns the data section whose header was dispatched last, if its
+         * rows are skipped. A following line of this section would be ignored
+         * by {@link #dispatch(int, String)} and need not be read.
+         *
+         * @return the skipped data section or null.
+         */
+        Section getSkippedSection() {
+            switch (highWaterMark) {
+                case 9:
+                case 11:
+                case 13:
+                    Section section = Section.findSection(highWaterMark);
+                    return dataSections.contains(section) ? null : section;
+                default:
+                    return null;
+            }
+        }
+
+        /**
+         * Allow the next line to belong to any section after the metadata, for
+         * random access to single rows. Each header line must still be
+         * dispatched once before the rows of its section.
+         */
+        void resetLineOrder() {
+            highWaterMark = Math.min(highWaterMark, 2);
+        }
+
+        MTDLineParser getMtdParser() {
+            return mtdParser;
+        }
+
+        private String subString(String source) {
+            int length = 20;
+
+            if (length >= source.length()) {
+                return source;
+            } else {
+                return source.substring(0, length - 1) + "...";
+            }
+        }
+    }
+}
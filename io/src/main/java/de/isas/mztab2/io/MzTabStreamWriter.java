@@ -0,0 +1,380 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.isas.mztab2.io;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import de.isas.mztab2.io.serialization.Serializers;
+import de.isas.mztab2.model.Metadata;
+import de.isas.mztab2.model.MzTab;
+import de.isas.mztab2.model.OptColumnMapping;
+import de.isas.mztab2.model.SmallMoleculeEvidence;
+import de.isas.mztab2.model.SmallMoleculeFeature;
+import de.isas.mztab2.model.SmallMoleculeSummary;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import uk.ac.ebi.pride.jmztab2.model.Section;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabException;
+
+/**
+ * <p>
+ * Writes an mzTab file row by row, without keeping the rows in memory. The
+ * metadata is written when the writer is created, the opt columns of each
+ * data section must be declared with
+ * {@link #setOptColumns(Section, List)} before its first row. The rows must be
+ * written in section order: small molecule summary, small molecule feature
+ * and small molecule evidence rows. Writing a row of an earlier section
+ * throws an {@link IllegalStateException}. Sections without rows are written
+ * with their header only, like by the {@link MzTabNonValidatingWriter}, which
+ * produces the same output for the same rows.</p>
+ *
+ * <pre>
+ * try (MzTabStreamWriter writer = new MzTabStreamWriter(path, metadata)) {
+ *     writer.setOptColumns(Section.Small_Molecule_Feature, optColumns);
+ *     writer.writeSmallMoleculeSummary(sml);
+ *     writer.writeSmallMoleculeFeatures(smfBatch);
+ * }
+ * </pre>
+ *
+ * <p>
+ * The writer is not validating and not thread safe.</p>
+ *
+ * @author nilshoffmann
+ * @see MzTabNonValidatingWriter
+ * @see MzTabStreamParser
+ */
+public class MzTabStreamWriter implements Closeable, Flushable {
+
+    private static final List<Section> SECTIONS = Collections.unmodifiableList(
+        Arrays.asList(Section.Metadata, Section.Small_Molecule,
+            Section.Small_Molecule_Feature, Section.Small_Molecule_Evidence));
+
+    private final MzTabWriterDefaults writerDefaults;
+    private final Writer writer;
+    private final boolean closeWriter;
+    private final Metadata metadata;
+    private final Map<Section, Set<String>> optColumns = new EnumMap<>(
+        Section.class);
+    private int section = 0;
+    private SequenceWriter rows = null;
+    private boolean closed = false;
+
+    /**
+     * Create a writer for the given output stream writer and write the
+     * metadata. The output stream writer is flushed, but not closed, when this
+     * writer is closed.
+     *
+     * @param writer the output stream writer, MUST use UTF8 encoding.
+     * @param metadata the metadata.
+     * @throws java.io.IOException if writing the metadata fails.
+     * @throws java.lang.IllegalArgumentException if the encoding of the writer
+     * is not UTF8.
+     */
+    public MzTabStreamWriter(OutputStreamWriter writer, Metadata metadata) throws IOException {
+        this(writer, metadata, MzTabWriterDefaults.SHARED);
+    }
+
+    /**
+     * Create a writer for the given output stream writer and write the
+     * metadata. The output stream writer is flushed, but not closed, when this
+     * writer is closed.
+     *
+     * @param writer the output stream writer, MUST use UTF8 encoding.
+     * @param metadata the metadata.
+     * @param writerDefaults the writer defaults.
+     * @throws java.io.IOException if writing the metadata fails.
+     * @throws java.lang.IllegalArgumentException if the encoding of the writer
+     * is not UTF8.
+     */
+    public MzTabStreamWriter(OutputStreamWriter writer, Metadata metadata,
+        MzTabWriterDefaults writerDefaults) throws IOException {
+        this(checkEncoding(writer), false, metadata, writerDefaults);
+    }
+
+    /**
+     * Create a writer for the given path and write the metadata. The file is
+     * compressed according to its name, see
+     * {@link MzTabCompression#forFileName(String)}.
+     *
+     * @param path the path of the file.
+     * @param metadata the metadata.
+     * @throws java.io.IOException if creating the file or writing the
+     * metadata fails.
+     */
+    public MzTabStreamWriter(Path path, Metadata metadata) throws IOException {
+        this(path, metadata, MzTabWriterDefaults.SHARED, MzTabCompression.
+            forFileName(path.getFileName().
+                toString()), MzTabCompression.DEFAULT_LEVEL);
+    }
+
+    /**
+     * Create a writer for the given path and write the metadata.
+     *
+     * @param path the path of the file.
+     * @param metadata the metadata.
+     * @param writerDefaults the writer defaults.
+     * @param compression the compression format of the file.
+     * @param level the level of the format, or
+     * {@link MzTabCompression#DEFAULT_LEVEL}.
+     * @throws java.io.IOException if creating the file or writing the
+     * metadata fails.
+     * @throws IllegalArgumentException if the level is not supported by the
+     * format, checked before the file is created.
+     */
+    public MzTabStreamWriter(Path path, Metadata metadata,
+        MzTabWriterDefaults writerDefaults, MzTabCompression compression,
+        int level) throws IOException {
+        this(new BufferedWriter(new OutputStreamWriter(compression.compress(
+            path, level), StandardCharsets.UTF_8)), true, metadata,
+            writerDefaults);
+    }
+
+    private MzTabStreamWriter(Writer writer, boolean closeWriter,
+        Metadata metadata, MzTabWriterDefaults writerDefaults) throws IOException {
+        if (metadata == null) {
+            throw new IllegalArgumentException("Metadata must not be null!");
+        }
+        this.writer = writer;
+        this.closeWriter = closeWriter;
+        this.metadata = metadata;
+        this.writerDefaults = writerDefaults;
+        try {
+            new MzTabNonValidatingWriter(writerDefaults).
+                writeMetadataWithJackson(new MzTab().metadata(metadata), writer);
+        } catch (IOException | RuntimeException ex) {
+            if (closeWriter) {
+                writer.close();
+            }
+            throw ex;
+        }
+    }
+
+    private static Writer checkEncoding(OutputStreamWriter writer) {
+        if (!writer.getEncoding().
+            equals("UTF8")) {
+            throw new IllegalArgumentException(
+                "OutputStreamWriter encoding must be UTF8 but is " + writer.
+                    getEncoding());
+        }
+        return writer;
+    }
+
+    /**
+     * Declare the opt columns of a data section, in order. Opt columns of the
+     * rows that are not declared are not written.
+     *
+     * @param section one of {@link Section#Small_Molecule},
+     * {@link Section#Small_Molecule_Feature} and
+     * {@link Section#Small_Molecule_Evidence}.
+     * @param optColumns the opt columns, their values are ignored.
+     * @throws java.lang.IllegalArgumentException if the section is not a data
+     * section.
+     * @throws java.lang.IllegalStateException if the section has already been
+     * started.
+     */
+    public void setOptColumns(Section section, List<OptColumnMapping> optColumns) throws IllegalArgumentException, IllegalStateException {
+        int index = SECTIONS.indexOf(section);
+        if (index < 1) {
+            throw new IllegalArgumentException(
+                "Opt columns can only be declared for data sections, not for " + section + "!");
+        }
+        if (index <= this.section) {
+            throw new IllegalStateException(
+                "Opt columns of section " + section + " must be declared before its first row!");
+        }
+        Set<String> headers = new LinkedHashSet<>();
+        optColumns.forEach((ocm) ->
+        {
+            headers.add(Serializers.printOptColumnMapping(ocm));
+        });
+        this.optColumns.put(section, headers);
+    }
+
+    /**
+     * Write a small molecule summary row.
+     *
+     * @param smallMoleculeSummary the row.
+     * @throws java.io.IOException if writing fails.
+     * @throws java.lang.IllegalStateException if rows of a later section have
+     * already been written, or if the writer is closed.
+     */
+    public void writeSmallMoleculeSummary(
+        SmallMoleculeSummary smallMoleculeSummary) throws IOException, IllegalStateException {
+        rows(Section.Small_Molecule).write(smallMoleculeSummary);
+    }
+
+    /**
+     * Write a batch of small molecule summary rows.
+     *
+     * @param smallMoleculeSummaries the rows.
+     * @throws java.io.IOException if writing fails.
+     * @throws java.lang.IllegalStateException if rows of a later section have
+     * already been written, or if the writer is closed.
+     */
+    public void writeSmallMoleculeSummaries(
+        Collection<SmallMoleculeSummary> smallMoleculeSummaries) throws IOException, IllegalStateException {
+        rows(Section.Small_Molecule).writeAll(smallMoleculeSummaries);
+    }
+
+    /**
+     * Write a small molecule feature row.
+     *
+     * @param smallMoleculeFeature the row.
+     * @throws java.io.IOException if writing fails.
+     * @throws java.lang.IllegalStateException if rows of a later section have
+     * already been written, or if the writer is closed.
+     */
+    public void writeSmallMoleculeFeature(
+        SmallMoleculeFeature smallMoleculeFeature) throws IOException, IllegalStateException {
+        rows(Section.Small_Molecule_Feature).write(smallMoleculeFeature);
+    }
+
+    /**
+     * Write a batch of small molecule feature rows.
+     *
+     * @param smallMoleculeFeatures the rows.
+     * @throws java.io.IOException if writing fails.
+     * @throws java.lang.IllegalStateException if rows of a later section have
+     * already been written, or if the writer is closed.
+     */
+    public void writeSmallMoleculeFeatures(
+        Collection<SmallMoleculeFeature> smallMoleculeFeatures) throws IOException, IllegalStateException {
+        rows(Section.Small_Molecule_Feature).writeAll(smallMoleculeFeatures);
+    }
+
+    /**
+     * Write a small molecule evidence row.
+     *
+     * @param smallMoleculeEvidence the row.
+     * @throws java.io.IOException if writing fails.
+     * @throws java.lang.IllegalStateException if the writer is closed.
+     */
+    public void writeSmallMoleculeEvidence(
+        SmallMoleculeEvidence smallMoleculeEvidence) throws IOException, IllegalStateException {
+        rows(Section.Small_Molecule_Evidence).write(smallMoleculeEvidence);
+    }
+
+    /**
+     * Write a batch of small molecule evidence rows.
+     *
+     * @param smallMoleculeEvidences the rows.
+     * @throws java.io.IOException if writing fails.
+     * @throws java.lang.IllegalStateException if the writer is closed.
+     */
+    public void writeSmallMoleculeEvidences(
+        Collection<SmallMoleculeEvidence> smallMoleculeEvidences) throws IOException, IllegalStateException {
+        rows(Section.Small_Molecule_Evidence).writeAll(smallMoleculeEvidences);
+    }
+
+    /**
+     * Flush the written rows to the underlying writer and flush it.
+     *
+     * @throws java.io.IOException if flushing fails.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (rows != null) {
+            rows.flush();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Write the headers of the remaining sections and flush the underlying
+     * writer. The writer is closed, if it was created for a path.
+     *
+     * @throws java.io.IOException if writing fails.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            rows(Section.Small_Molecule_Evidence).close();
+            closed = true;
+            writer.flush();
+        } finally {
+            closed = true;
+            if (closeWriter) {
+                writer.close();
+            }
+        }
+    }
+
+    private SequenceWriter rows(Section target) throws IOException, IllegalStateException {
+        if (closed) {
+            throw new IllegalStateException("MzTabStreamWriter is closed!");
+        }
+        int index = SECTIONS.indexOf(target);
+        if (index < section) {
+            throw new IllegalStateException(
+                "Rows of section " + target + " must be written before the rows of section " + SECTIONS.
+                    get(section) + "!");
+        }
+        while (section < index) {
+            if (rows != null) {
+                rows.close();
+            }
+            writer.write("\n");
+            section++;
+            rows = open(SECTIONS.get(section));
+        }
+        return rows;
+    }
+
+    private SequenceWriter open(Section section) throws IOException {
+        Set<String> headers = optColumns.getOrDefault(section, Collections.
+            emptySet());
+        ObjectWriter objectWriter;
+        try {
+            switch (section) {
+                case Small_Molecule:
+                    objectWriter = writerDefaults.smallMoleculeSummaryWriter(
+                        metadata, headers);
+                    break;
+                case Small_Molecule_Feature:
+                    objectWriter = writerDefaults.smallMoleculeFeatureWriter(
+                        metadata, headers);
+                    break;
+                default:
+                    objectWriter = writerDefaults.smallMoleculeEvidenceWriter(
+                        metadata, headers);
+                    break;
+            }
+        } catch (MZTabException ex) {
+            throw new IOException(ex);
+        }
+        return objectWriter.
+            without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE).
+            writeValuesAsArray(writer);
+    }
+}
@@ -19,8 +19,7 @@ import de.isas.lipidomics.mztab2.validation.MzTabValidator;
 import de.isas.lipidomics.mztab2.validation.Validator;
 import de.isas.mztab2.model.MzTab;
 import de.isas.mztab2.model.ValidationMessage;
-import java.io.File;
-import java.io.FileOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
@@ -29,7 +28,6 @@ import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -71,7 +69,7 @@ public class MzTabValidatingWriter implements MzTabWriter<List<ValidationMessage
      */
     public MzTabValidatingWriter() {
         this(new WriteAndParseValidator(System.out, Level.Info, 100),
-            new MzTabWriterDefaults(), true);
+            MzTabWriterDefaults.SHARED, true);
     }
 
     /**
@@ -84,7 +82,7 @@ public class MzTabValidatingWriter implements MzTabWriter<List<ValidationMessage
      */
     public MzTabValidatingWriter(Validator<MzTab> validator,
         boolean skipWriteOnValidationFailure) {
-        this(validator, new MzTabWriterDefaults(), skipWriteOnValidationFailure);
+        this(validator, MzTabWriterDefaults.SHARED, skipWriteOnValidationFailure);
     }
 
     /**
@@ -103,8 +101,8 @@ public class MzTabValidatingWriter implements MzTabWriter<List<ValidationMessage
     }
 
     /**
-     * A default validator implemenation that first writes and then parses the
-     * created temporary file, performing the parser checks.
+     * A default validator implemenation that first writes into memory and then
+     * parses the written bytes, performing the parser checks.
      */
     public static class WriteAndParseValidator implements Validator<MzTab> {
 
@@ -133,31 +131,22 @@ public class MzTabValidatingWriter implements MzTabWriter<List<ValidationMessage
         @Override
         public List<ValidationMessage> validate(MzTab mzTab) {
             MzTabNonValidatingWriter writer = new MzTabNonValidatingWriter();
-            File mzTabFile = null;
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
             try {
-                mzTabFile = File.createTempFile(UUID.randomUUID().
-                    toString(), ".mztab");
-                try (OutputStreamWriter osw = new OutputStreamWriter(
-                    new FileOutputStream(mzTabFile),
+                try (OutputStreamWriter osw = new OutputStreamWriter(bytes,
                     StandardCharsets.UTF_8)) {
                     writer.
                         write(
                             osw, mzTab);
-
-                    MzTabFileParser parser = new MzTabFileParser(mzTabFile);
-                    parser.parse(outputStream, level, maxErrorCount);
-                    return parser.getErrorList().
-                        convertToValidationMessages();
                 }
+                MzTabFileParser parser = new MzTabFileParser(bytes.
+                    toByteArray());
+                parser.parse(outputStream, level, maxErrorCount);
+                return parser.getErrorList().
+                    convertToValidationMessages();
             } catch (IOException ex) {
                 logger.error(
-                    "Caught exception while trying to parse " + mzTabFile, ex);
-            } finally {
-                if (mzTabFile != null && mzTabFile.exists()) {
-                    if(!mzTabFile.delete()) {
-                        logger.warn("Deletion of "+mzTabFile+" failed!");
-                    }
-                };
+                    "Caught exception while trying to parse written mzTab", ex);
             }
             return Collections.emptyList();
         }
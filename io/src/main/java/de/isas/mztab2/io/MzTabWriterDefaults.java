@@ -17,6 +17,7 @@ package de.isas.mztab2.io;
 
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonGenerator.Feature;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.dataformat.csv.CsvFactory;
 import com.fasterxml.jackson.dataformat.csv.CsvMapper;
 import com.fasterxml.jackson.dataformat.csv.CsvSchema;
@@ -42,6 +43,7 @@ import de.isas.mztab2.model.Assay;
 import de.isas.mztab2.model.CV;
 import de.isas.mztab2.model.Contact;
 import de.isas.mztab2.model.Database;
+import de.isas.mztab2.model.IndexedElement;
 import de.isas.mztab2.model.Instrument;
 import de.isas.mztab2.model.Metadata;
 import de.isas.mztab2.model.MsRun;
@@ -57,11 +59,20 @@ import de.isas.mztab2.model.SmallMoleculeSummary;
 import de.isas.mztab2.model.Software;
 import de.isas.mztab2.model.StudyVariable;
 import de.isas.mztab2.model.Uri;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import uk.ac.ebi.pride.jmztab2.model.MZTabConstants;
+import uk.ac.ebi.pride.jmztab2.model.Section;
 import uk.ac.ebi.pride.jmztab2.model.SmallMoleculeColumn;
 import uk.ac.ebi.pride.jmztab2.model.SmallMoleculeEvidenceColumn;
 import uk.ac.ebi.pride.jmztab2.model.SmallMoleculeFeatureColumn;
@@ -76,12 +87,36 @@ import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabException;
  * Default mapper and schema definitions for writing of mzTab files using the
  * Jackson CSV mapper.
  *
+ * <p>
+ * The mapper and schema methods create new instances on every call. The
+ * writer methods, e.g. {@link #metadataWriter()}, create the mappers once per
+ * instance and cache the object writers by the shape of the section, that is
+ * the ids of the assays, study variables or id confidence measures and the
+ * opt column headers, so that writing many files of the same shape reuses
+ * the warm serializer caches of Jackson. The writers are immutable and this
+ * class is safe to share between threads, as long as the mapper and schema
+ * methods of a subclass are.</p>
+ *
  * @author nilshoffmann
  * 
  * 
  */
 public class MzTabWriterDefaults {
 
+    /**
+     * The instance used by the writers if no writer defaults are given.
+     */
+    static final MzTabWriterDefaults SHARED = new MzTabWriterDefaults();
+
+    /**
+     * The cache is cleared when it grows beyond this number of section shapes.
+     */
+    private static final int MAX_CACHED_SHAPES = 256;
+
+    private final ConcurrentMap<Section, CsvMapper> mappers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<List<Object>, CsvSchema> schemas = new ConcurrentHashMap<>();
+    private final ConcurrentMap<List<Object>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
     public CsvMapper defaultMapper() {
         CsvFactory factory = new CsvFactory();
         factory.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
@@ -164,70 +199,68 @@ public class MzTabWriterDefaults {
 
     public CsvSchema smallMoleculeSummarySchema(CsvMapper mapper,
         MzTab mzTabFile) throws MZTabException {
+        if (mzTabFile.getMetadata() == null) {
+            throw new MZTabException(new MZTabError(
+                LogicalErrorType.NoMetadataSection, -1));
+        }
+        if (mzTabFile.getSmallMoleculeSummary() == null) {
+            throw new MZTabException(new MZTabError(
+                LogicalErrorType.NoSmallMoleculeSummarySection, -1));
+        }
+        return smallMoleculeSummarySchema(mapper, mzTabFile.getMetadata(),
+            optColumnHeaders(mzTabFile.getSmallMoleculeSummary(),
+                SmallMoleculeSummary::getOpt));
+    }
+
+    /**
+     * Create the schema of the small molecule summary section for the given
+     * metadata and opt columns, independent of the rows.
+     *
+     * @param mapper the mapper.
+     * @param metadata the metadata, defining the abundance columns.
+     * @param optColumnHeaders the headers of the opt columns, in order.
+     * @return the schema.
+     * @throws MZTabException if the metadata is null.
+     */
+    public CsvSchema smallMoleculeSummarySchema(CsvMapper mapper,
+        Metadata metadata, Collection<String> optColumnHeaders) throws MZTabException {
         CsvSchema.Builder builder = mapper.schema().
             builder();
         builder.addColumn(SmallMoleculeSummary.HeaderPrefixEnum.SMH.getValue(),
             CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeColumn.Stable.columnFor(
-                SmallMoleculeColumn.Stable.SML_ID).
-                getHeader(),
+            addColumn(SmallMoleculeColumn.Stable.SML_ID.getHeader(),
                 CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeColumn.Stable.columnFor(
-                SmallMoleculeColumn.Stable.SMF_ID_REFS).
-                getHeader(),
+            addColumn(SmallMoleculeColumn.Stable.SMF_ID_REFS.getHeader(),
                 CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeColumn.Stable.columnFor(
-                SmallMoleculeColumn.Stable.DATABASE_IDENTIFIER).
+            addColumn(SmallMoleculeColumn.Stable.DATABASE_IDENTIFIER.
                 getHeader(),
                 CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeColumn.Stable.columnFor(
-                SmallMoleculeColumn.Stable.CHEMICAL_FORMULA).
-                getHeader(),
+            addColumn(SmallMoleculeColumn.Stable.CHEMICAL_FORMULA.getHeader(),
                 CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeColumn.Stable.columnFor(
-                SmallMoleculeColumn.Stable.SMILES).
-                getHeader(),
+            addColumn(SmallMoleculeColumn.Stable.SMILES.getHeader(),
                 CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeColumn.Stable.columnFor(
-                SmallMoleculeColumn.Stable.INCHI).
-                getHeader(),
+            addColumn(SmallMoleculeColumn.Stable.INCHI.getHeader(),
                 CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeColumn.Stable.columnFor(
-                SmallMoleculeColumn.Stable.CHEMICAL_NAME).
-                getHeader(),
+            addColumn(SmallMoleculeColumn.Stable.CHEMICAL_NAME.getHeader(),
                 CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeColumn.Stable.columnFor(
-                SmallMoleculeColumn.Stable.URI).
-                getHeader(),
+            addColumn(SmallMoleculeColumn.Stable.URI.getHeader(),
                 CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeColumn.Stable.columnFor(
-                SmallMoleculeColumn.Stable.THEOR_NEUTRAL_MASS).
-                getHeader(),
+            addColumn(SmallMoleculeColumn.Stable.THEOR_NEUTRAL_MASS.getHeader(),
                 CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeColumn.Stable.columnFor(
-                SmallMoleculeColumn.Stable.ADDUCT_IONS).
-                getHeader(),
+            addColumn(SmallMoleculeColumn.Stable.ADDUCT_IONS.getHeader(),
                 CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeColumn.Stable.columnFor(
-                SmallMoleculeColumn.Stable.RELIABILITY).
-                getHeader(),
+            addColumn(SmallMoleculeColumn.Stable.RELIABILITY.getHeader(),
                 CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeColumn.Stable.columnFor(
-                SmallMoleculeColumn.Stable.BEST_ID_CONFIDENCE_MEASURE).
+            addColumn(SmallMoleculeColumn.Stable.BEST_ID_CONFIDENCE_MEASURE.
                 getHeader(), CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeColumn.Stable.columnFor(
-                SmallMoleculeColumn.Stable.BEST_ID_CONFIDENCE_VALUE).
+            addColumn(SmallMoleculeColumn.Stable.BEST_ID_CONFIDENCE_VALUE.
                 getHeader(), CsvSchema.ColumnType.NUMBER_OR_STRING);
-        if (mzTabFile.getMetadata() == null) {
+        if (metadata == null) {
             throw new MZTabException(new MZTabError(
                 LogicalErrorType.NoMetadataSection, -1));
         }
-        if (mzTabFile.getSmallMoleculeSummary() == null) {
-            throw new MZTabException(new MZTabError(
-                LogicalErrorType.NoSmallMoleculeSummarySection, -1));
-        }
 
-        mzTabFile.getMetadata().
+        metadata.
             getAssay().
             forEach((assay) ->
             {
@@ -236,7 +269,7 @@ public class MzTabWriterDefaults {
                         getId() + "]",
                     CsvSchema.ColumnType.NUMBER_OR_STRING);
             });
-        mzTabFile.getMetadata().
+        metadata.
             getStudyVariable().
             forEach((studyVariable) ->
             {
@@ -244,7 +277,7 @@ public class MzTabWriterDefaults {
                     SmallMoleculeSummary.Properties.abundanceStudyVariable + "[" + studyVariable.
                         getId() + "]", CsvSchema.ColumnType.NUMBER_OR_STRING);
             });
-        mzTabFile.getMetadata().
+        metadata.
             getStudyVariable().
             forEach((studyVariable) ->
             {
@@ -253,20 +286,7 @@ public class MzTabWriterDefaults {
                         getId() + "]",
                     CsvSchema.ColumnType.NUMBER_OR_STRING);
             });
-        Map<String, OptColumnMapping> optColumns = new LinkedHashMap<>();
-        mzTabFile.getSmallMoleculeSummary().
-            forEach((SmallMoleculeSummary sms) ->
-            {
-                Optional.ofNullable(sms.getOpt()).
-                    orElse(Collections.emptyList()).
-                    forEach((ocm) ->
-                    {
-                        optColumns.putIfAbsent(Serializers.
-                            printOptColumnMapping(ocm),
-                            ocm);
-                    });
-            });
-        optColumns.keySet().
+        optColumnHeaders.
             forEach((key) ->
             {
                 builder.addColumn(key, CsvSchema.ColumnType.NUMBER_OR_STRING);
@@ -276,54 +296,60 @@ public class MzTabWriterDefaults {
 
     public CsvSchema smallMoleculeFeatureSchema(CsvMapper mapper,
         MzTab mzTabFile) throws MZTabException {
+        if (mzTabFile.getMetadata() == null) {
+            throw new MZTabException(new MZTabError(
+                LogicalErrorType.NoMetadataSection, -1));
+        }
+        return smallMoleculeFeatureSchema(mapper, mzTabFile.getMetadata(),
+            optColumnHeaders(mzTabFile.getSmallMoleculeFeature(),
+                SmallMoleculeFeature::getOpt));
+    }
+
+    /**
+     * Create the schema of the small molecule feature section for the given
+     * metadata and opt columns, independent of the rows.
+     *
+     * @param mapper the mapper.
+     * @param metadata the metadata, defining the abundance columns.
+     * @param optColumnHeaders the headers of the opt columns, in order.
+     * @return the schema.
+     * @throws MZTabException if the metadata is null.
+     */
+    public CsvSchema smallMoleculeFeatureSchema(CsvMapper mapper,
+        Metadata metadata, Collection<String> optColumnHeaders) throws MZTabException {
         CsvSchema.Builder builder = mapper.schema().
             builder();
         builder.addColumn(SmallMoleculeFeature.HeaderPrefixEnum.SFH.getValue(),
             CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeFeatureColumn.Stable.columnFor(
-                SmallMoleculeFeatureColumn.Stable.SMF_ID).
-                getHeader(),
+            addColumn(SmallMoleculeFeatureColumn.Stable.SMF_ID.getHeader(),
                 CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeFeatureColumn.Stable.columnFor(
-                SmallMoleculeFeatureColumn.Stable.SME_ID_REFS).
-                getHeader(),
+            addColumn(SmallMoleculeFeatureColumn.Stable.SME_ID_REFS.getHeader(),
                 CsvSchema.ColumnType.STRING).
             addColumn(
-                SmallMoleculeFeatureColumn.Stable.columnFor(
-                    SmallMoleculeFeatureColumn.Stable.SME_ID_REF_AMBIGUITY_CODE).
+                SmallMoleculeFeatureColumn.Stable.SME_ID_REF_AMBIGUITY_CODE.
                     getHeader(), CsvSchema.ColumnType.NUMBER_OR_STRING).
-            addColumn(SmallMoleculeFeatureColumn.Stable.columnFor(
-                SmallMoleculeFeatureColumn.Stable.ADDUCT_ION).
-                getHeader(),
+            addColumn(SmallMoleculeFeatureColumn.Stable.ADDUCT_ION.getHeader(),
                 CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeFeatureColumn.Stable.columnFor(
-                SmallMoleculeFeatureColumn.Stable.ISOTOPOMER).
-                getHeader(),
+            addColumn(SmallMoleculeFeatureColumn.Stable.ISOTOPOMER.getHeader(),
                 CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeFeatureColumn.Stable.columnFor(
-                SmallMoleculeFeatureColumn.Stable.EXP_MASS_TO_CHARGE).
+            addColumn(SmallMoleculeFeatureColumn.Stable.EXP_MASS_TO_CHARGE.
                 getHeader(), CsvSchema.ColumnType.NUMBER_OR_STRING).
-            addColumn(SmallMoleculeFeatureColumn.Stable.columnFor(
-                SmallMoleculeFeatureColumn.Stable.CHARGE).
-                getHeader(),
+            addColumn(SmallMoleculeFeatureColumn.Stable.CHARGE.getHeader(),
                 CsvSchema.ColumnType.NUMBER_OR_STRING).
             addColumn(
-                SmallMoleculeFeatureColumn.Stable.columnFor(
-                    SmallMoleculeFeatureColumn.Stable.RETENTION_TIME_IN_SECONDS).
+                SmallMoleculeFeatureColumn.Stable.RETENTION_TIME_IN_SECONDS.
                     getHeader(), CsvSchema.ColumnType.NUMBER_OR_STRING).
             addColumn(
-                SmallMoleculeFeatureColumn.Stable.columnFor(
-                    SmallMoleculeFeatureColumn.Stable.RETENTION_TIME_IN_SECONDS_START).
+                SmallMoleculeFeatureColumn.Stable.RETENTION_TIME_IN_SECONDS_START.
                     getHeader(), CsvSchema.ColumnType.NUMBER_OR_STRING).
             addColumn(
-                SmallMoleculeFeatureColumn.Stable.columnFor(
-                    SmallMoleculeFeatureColumn.Stable.RETENTION_TIME_IN_SECONDS_END).
+                SmallMoleculeFeatureColumn.Stable.RETENTION_TIME_IN_SECONDS_END.
                     getHeader(), CsvSchema.ColumnType.NUMBER_OR_STRING);
-        if (mzTabFile.getMetadata() == null) {
+        if (metadata == null) {
             throw new MZTabException(new MZTabError(
                 LogicalErrorType.NoMetadataSection, -1));
         }
-        Optional.ofNullable(mzTabFile.getMetadata().
+        Optional.ofNullable(metadata.
             getAssay()).
             ifPresent((assayList) ->
                 assayList.forEach((assay) ->
@@ -335,20 +361,7 @@ public class MzTabWriterDefaults {
                 })
             );
 
-        Map<String, OptColumnMapping> optColumns = new LinkedHashMap<>();
-        mzTabFile.getSmallMoleculeFeature().
-            forEach((SmallMoleculeFeature smf) ->
-            {
-                Optional.ofNullable(smf.getOpt()).
-                    orElse(Collections.emptyList()).
-                    forEach((ocm) ->
-                    {
-                        optColumns.putIfAbsent(Serializers.
-                            printOptColumnMapping(ocm),
-                            ocm);
-                    });
-            });
-        optColumns.keySet().
+        optColumnHeaders.
             forEach((key) ->
             {
                 builder.addColumn(key, CsvSchema.ColumnType.NUMBER_OR_STRING);
@@ -358,72 +371,71 @@ public class MzTabWriterDefaults {
 
     public CsvSchema smallMoleculeEvidenceSchema(CsvMapper mapper,
         MzTab mzTabFile) throws MZTabException {
+        if (mzTabFile.getMetadata() == null) {
+            throw new MZTabException(new MZTabError(
+                LogicalErrorType.NoMetadataSection, -1));
+        }
+        return smallMoleculeEvidenceSchema(mapper, mzTabFile.getMetadata(),
+            optColumnHeaders(mzTabFile.getSmallMoleculeEvidence(),
+                SmallMoleculeEvidence::getOpt));
+    }
+
+    /**
+     * Create the schema of the small molecule evidence section for the given
+     * metadata and opt columns, independent of the rows.
+     *
+     * @param mapper the mapper.
+     * @param metadata the metadata, defining the id confidence measure
+     * columns.
+     * @param optColumnHeaders the headers of the opt columns, in order.
+     * @return the schema.
+     * @throws MZTabException if the metadata is null.
+     */
+    public CsvSchema smallMoleculeEvidenceSchema(CsvMapper mapper,
+        Metadata metadata, Collection<String> optColumnHeaders) throws MZTabException {
         CsvSchema.Builder builder = mapper.schema().
             builder();
         builder.addColumn(SmallMoleculeEvidence.HeaderPrefixEnum.SEH.getValue(),
             CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeEvidenceColumn.Stable.columnFor(
-                SmallMoleculeEvidenceColumn.Stable.SME_ID).
-                getHeader(),
+            addColumn(SmallMoleculeEvidenceColumn.Stable.SME_ID.getHeader(),
                 CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeEvidenceColumn.Stable.columnFor(
-                SmallMoleculeEvidenceColumn.Stable.EVIDENCE_INPUT_ID).
+            addColumn(SmallMoleculeEvidenceColumn.Stable.EVIDENCE_INPUT_ID.
                 getHeader(), CsvSchema.ColumnType.NUMBER_OR_STRING).
-            addColumn(SmallMoleculeEvidenceColumn.Stable.columnFor(
-                SmallMoleculeEvidenceColumn.Stable.DATABASE_IDENTIFIER).
+            addColumn(SmallMoleculeEvidenceColumn.Stable.DATABASE_IDENTIFIER.
                 getHeader(), CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeEvidenceColumn.Stable.columnFor(
-                SmallMoleculeEvidenceColumn.Stable.CHEMICAL_FORMULA).
+            addColumn(SmallMoleculeEvidenceColumn.Stable.CHEMICAL_FORMULA.
                 getHeader(), CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeEvidenceColumn.Stable.columnFor(
-                SmallMoleculeEvidenceColumn.Stable.SMILES).
-                getHeader(),
+            addColumn(SmallMoleculeEvidenceColumn.Stable.SMILES.getHeader(),
                 CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeEvidenceColumn.Stable.columnFor(
-                SmallMoleculeEvidenceColumn.Stable.INCHI).
-                getHeader(),
+            addColumn(SmallMoleculeEvidenceColumn.Stable.INCHI.getHeader(),
                 CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeEvidenceColumn.Stable.columnFor(
-                SmallMoleculeEvidenceColumn.Stable.CHEMICAL_NAME).
+            addColumn(SmallMoleculeEvidenceColumn.Stable.CHEMICAL_NAME.
                 getHeader(), CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeEvidenceColumn.Stable.columnFor(
-                SmallMoleculeEvidenceColumn.Stable.URI).
-                getHeader(),
+            addColumn(SmallMoleculeEvidenceColumn.Stable.URI.getHeader(),
                 CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeEvidenceColumn.Stable.columnFor(
-                SmallMoleculeEvidenceColumn.Stable.DERIVATIZED_FORM).
+            addColumn(SmallMoleculeEvidenceColumn.Stable.DERIVATIZED_FORM.
                 getHeader(), CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeEvidenceColumn.Stable.columnFor(
-                SmallMoleculeEvidenceColumn.Stable.ADDUCT_ION).
-                getHeader(),
+            addColumn(SmallMoleculeEvidenceColumn.Stable.ADDUCT_ION.getHeader(),
                 CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeEvidenceColumn.Stable.columnFor(
-                SmallMoleculeEvidenceColumn.Stable.EXP_MASS_TO_CHARGE).
+            addColumn(SmallMoleculeEvidenceColumn.Stable.EXP_MASS_TO_CHARGE.
                 getHeader(), CsvSchema.ColumnType.NUMBER_OR_STRING).
-            addColumn(SmallMoleculeEvidenceColumn.Stable.columnFor(
-                SmallMoleculeEvidenceColumn.Stable.CHARGE).
-                getHeader(),
+            addColumn(SmallMoleculeEvidenceColumn.Stable.CHARGE.getHeader(),
                 CsvSchema.ColumnType.NUMBER_OR_STRING).
             addColumn(
-                SmallMoleculeEvidenceColumn.Stable.columnFor(
-                    SmallMoleculeEvidenceColumn.Stable.THEORETICAL_MASS_TO_CHARGE).
+                SmallMoleculeEvidenceColumn.Stable.THEORETICAL_MASS_TO_CHARGE.
                     getHeader(), CsvSchema.ColumnType.NUMBER_OR_STRING).
-            addColumn(SmallMoleculeEvidenceColumn.Stable.columnFor(
-                SmallMoleculeEvidenceColumn.Stable.SPECTRA_REF).
+            addColumn(SmallMoleculeEvidenceColumn.Stable.SPECTRA_REF.
                 getHeader(),
                 CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeEvidenceColumn.Stable.columnFor(
-                SmallMoleculeEvidenceColumn.Stable.IDENTIFICATION_METHOD).
+            addColumn(SmallMoleculeEvidenceColumn.Stable.IDENTIFICATION_METHOD.
                 getHeader(), CsvSchema.ColumnType.STRING).
-            addColumn(SmallMoleculeEvidenceColumn.Stable.columnFor(
-                SmallMoleculeEvidenceColumn.Stable.MS_LEVEL).
-                getHeader(),
+            addColumn(SmallMoleculeEvidenceColumn.Stable.MS_LEVEL.getHeader(),
                 CsvSchema.ColumnType.STRING);
-        if (mzTabFile.getMetadata() == null) {
+        if (metadata == null) {
             throw new MZTabException(new MZTabError(
                 LogicalErrorType.NoMetadataSection, -1));
         }
-        Optional.ofNullable(mzTabFile.getMetadata().
+        Optional.ofNullable(metadata.
             getIdConfidenceMeasure()).
             ifPresent((parameterList) ->
             {
@@ -436,28 +448,257 @@ public class MzTabWriterDefaults {
                             CsvSchema.ColumnType.NUMBER_OR_STRING);
                 });
             });
-        builder.addColumn(SmallMoleculeEvidenceColumn.Stable.columnFor(
-            SmallMoleculeEvidenceColumn.Stable.RANK).
-            getHeader(),
+        builder.addColumn(SmallMoleculeEvidenceColumn.Stable.RANK.getHeader(),
             CsvSchema.ColumnType.NUMBER_OR_STRING);
-        Map<String, OptColumnMapping> optColumns = new LinkedHashMap<>();
-        mzTabFile.getSmallMoleculeEvidence().
-            forEach((SmallMoleculeEvidence sme) ->
-            {
-                Optional.ofNullable(sme.getOpt()).
-                    orElse(Collections.emptyList()).
-                    forEach((ocm) ->
-                    {
-                        optColumns.putIfAbsent(Serializers.
-                            printOptColumnMapping(ocm),
-                            ocm);
-                    });
-            });
-        optColumns.keySet().
+        optColumnHeaders.
             forEach((key) ->
             {
                 builder.addColumn(key, CsvSchema.ColumnType.NUMBER_OR_STRING);
             });
         return defaultSchemaForBuilder(builder);
     }
+
+    /**
+     * Returns the cached writer for the metadata section.
+     *
+     * @return the writer.
+     */
+    public ObjectWriter metadataWriter() {
+        return writers.computeIfAbsent(Collections.singletonList(
+            Section.Metadata), (key) ->
+        {
+            CsvMapper mapper = mapper(Section.Metadata);
+            return mapper.writer(metaDataSchema(mapper));
+        });
+    }
+
+    /**
+     * Returns the cached writer for the small molecule summary section of
+     * the given mzTab file.
+     *
+     * @param mzTabFile the mzTab file.
+     * @return the writer.
+     * @throws MZTabException if the metadata or the small molecule summary
+     * section is null.
+     */
+    public ObjectWriter smallMoleculeSummaryWriter(MzTab mzTabFile) throws MZTabException {
+        if (mzTabFile.getMetadata() == null) {
+            throw new MZTabException(new MZTabError(
+                LogicalErrorType.NoMetadataSection, -1));
+        }
+        if (mzTabFile.getSmallMoleculeSummary() == null) {
+            throw new MZTabException(new MZTabError(
+                LogicalErrorType.NoSmallMoleculeSummarySection, -1));
+        }
+        return smallMoleculeSummaryWriter(mzTabFile.getMetadata(),
+            optColumnHeaders(mzTabFile.getSmallMoleculeSummary(),
+                SmallMoleculeSummary::getOpt));
+    }
+
+    /**
+     * Returns the cached writer for the small molecule summary section of
+     * the given metadata and opt columns.
+     *
+     * @param metadata the metadata, defining the abundance columns.
+     * @param optColumnHeaders the headers of the opt columns, in order.
+     * @return the writer.
+     * @throws MZTabException if the metadata is null.
+     */
+    public ObjectWriter smallMoleculeSummaryWriter(Metadata metadata,
+        Collection<String> optColumnHeaders) throws MZTabException {
+        return writer(Section.Small_Molecule, metadata, optColumnHeaders);
+    }
+
+    /**
+     * Returns the cached writer for the small molecule feature section of
+     * the given mzTab file.
+     *
+     * @param mzTabFile the mzTab file.
+     * @return the writer.
+     * @throws MZTabException if the metadata is null.
+     */
+    public ObjectWriter smallMoleculeFeatureWriter(MzTab mzTabFile) throws MZTabException {
+        return smallMoleculeFeatureWriter(mzTabFile.getMetadata(),
+            optColumnHeaders(mzTabFile.getSmallMoleculeFeature(),
+                SmallMoleculeFeature::getOpt));
+    }
+
+    /**
+     * Returns the cached writer for the small molecule feature section of
+     * the given metadata and opt columns.
+     *
+     * @param metadata the metadata, defining the abundance columns.
+     * @param optColumnHeaders the headers of the opt columns, in order.
+     * @return the writer.
+     * @throws MZTabException if the metadata is null.
+     */
+    public ObjectWriter smallMoleculeFeatureWriter(Metadata metadata,
+        Collection<String> optColumnHeaders) throws MZTabException {
+        return writer(Section.Small_Molecule_Feature, metadata,
+            optColumnHeaders);
+    }
+
+    /**
+     * Returns the cached writer for the small molecule evidence section of
+     * the given mzTab file.
+     *
+     * @param mzTabFile the mzTab file.
+     * @return the writer.
+     * @throws MZTabException if the metadata is null.
+     */
+    public ObjectWriter smallMoleculeEvidenceWriter(MzTab mzTabFile) throws MZTabException {
+        return smallMoleculeEvidenceWriter(mzTabFile.getMetadata(),
+            optColumnHeaders(mzTabFile.getSmallMoleculeEvidence(),
+                SmallMoleculeEvidence::getOpt));
+    }
+
+    /**
+     * Returns the cached writer for the small molecule evidence section of
+     * the given metadata and opt columns.
+     *
+     * @param metadata the metadata, defining the id confidence measure
+     * columns.
+     * @param optColumnHeaders the headers of the opt columns, in order.
+     * @return the writer.
+     * @throws MZTabException if the metadata is null.
+     */
+    public ObjectWriter smallMoleculeEvidenceWriter(Metadata metadata,
+        Collection<String> optColumnHeaders) throws MZTabException {
+        return writer(Section.Small_Molecule_Evidence, metadata,
+            optColumnHeaders);
+    }
+
+    private CsvMapper mapper(Section section) {
+        return mappers.computeIfAbsent(section, (key) ->
+        {
+            switch (key) {
+                case Small_Molecule:
+                    return smallMoleculeSummaryMapper();
+                case Small_Molecule_Feature:
+                    return smallMoleculeFeatureMapper();
+                case Small_Molecule_Evidence:
+                    return smallMoleculeEvidenceMapper();
+                default:
+                    return metadataMapper();
+            }
+        });
+    }
+
+    private ObjectWriter writer(Section section, Metadata metadata,
+        Collection<String> optColumnHeaders) throws MZTabException {
+        List<Object> shape = shape(section, metadata, optColumnHeaders);
+        ObjectWriter writer = writers.get(shape);
+        if (writer == null) {
+            writer = cache(writers, shape, mapper(section).
+                writer(schema(shape, metadata, optColumnHeaders)));
+        }
+        return writer;
+    }
+
+    /**
+     * Returns the cached schema of a data section for the given metadata and
+     * opt columns, the column order shared by the Jackson writers and the
+     * {@link SectionWriter}.
+     *
+     * @param section the data section.
+     * @param metadata the metadata.
+     * @param optColumnHeaders the headers of the opt columns, in order.
+     * @return the schema.
+     * @throws MZTabException if the metadata is null.
+     */
+    CsvSchema schema(Section section, Metadata metadata,
+        Collection<String> optColumnHeaders) throws MZTabException {
+        return schema(shape(section, metadata, optColumnHeaders), metadata,
+            optColumnHeaders);
+    }
+
+    private CsvSchema schema(List<Object> shape, Metadata metadata,
+        Collection<String> optColumnHeaders) throws MZTabException {
+        CsvSchema schema = schemas.get(shape);
+        if (schema == null) {
+            Section section = (Section) shape.get(0);
+            CsvMapper mapper = mapper(section);
+            switch (section) {
+                case Small_Molecule:
+                    schema = smallMoleculeSummarySchema(mapper, metadata,
+                        optColumnHeaders);
+                    break;
+                case Small_Molecule_Feature:
+                    schema = smallMoleculeFeatureSchema(mapper, metadata,
+                        optColumnHeaders);
+                    break;
+                default:
+                    schema = smallMoleculeEvidenceSchema(mapper, metadata,
+                        optColumnHeaders);
+                    break;
+            }
+            schema = cache(schemas, shape, schema);
+        }
+        return schema;
+    }
+
+    private static List<Object> shape(Section section, Metadata metadata,
+        Collection<String> optColumnHeaders) throws MZTabException {
+        if (metadata == null) {
+            throw new MZTabException(new MZTabError(
+                LogicalErrorType.NoMetadataSection, -1));
+        }
+        switch (section) {
+            case Small_Molecule:
+                return Arrays.asList(section, ids(metadata.getAssay()), ids(
+                    metadata.getStudyVariable()), new ArrayList<>(
+                    optColumnHeaders));
+            case Small_Molecule_Feature:
+                return Arrays.asList(section, ids(metadata.getAssay()),
+                    new ArrayList<>(optColumnHeaders));
+            case Small_Molecule_Evidence:
+                return Arrays.asList(section, ids(metadata.
+                    getIdConfidenceMeasure()), new ArrayList<>(
+                    optColumnHeaders));
+            default:
+                throw new IllegalArgumentException(
+                    "No schema for section " + section + "!");
+        }
+    }
+
+    private static <V> V cache(ConcurrentMap<List<Object>, V> cache,
+        List<Object> shape, V value) {
+        if (cache.size() >= MAX_CACHED_SHAPES) {
+            cache.clear();
+        }
+        V cached = cache.putIfAbsent(shape, value);
+        return cached == null ? value : cached;
+    }
+
+    private static List<Integer> ids(List<? extends IndexedElement> elements) {
+        return Optional.ofNullable(elements).
+            orElse(Collections.emptyList()).
+            stream().
+            map(IndexedElement::getId).
+            collect(Collectors.toList());
+    }
+
+    /**
+     * Collect the headers of the opt columns of the rows, in order of their
+     * first occurrence.
+     *
+     * @param <T> the row type.
+     * @param rows the rows.
+     * @param opt the accessor of the opt columns of a row.
+     * @return the headers.
+     */
+    static <T> Set<String> optColumnHeaders(List<T> rows,
+        Function<T, List<OptColumnMapping>> opt) {
+        Set<String> optColumns = new LinkedHashSet<>();
+        rows.forEach((row) ->
+        {
+            Optional.ofNullable(opt.apply(row)).
+                orElse(Collections.emptyList()).
+                forEach((ocm) ->
+                {
+                    optColumns.add(Serializers.printOptColumnMapping(ocm));
+                });
+        });
+        return optColumns;
+    }
 }
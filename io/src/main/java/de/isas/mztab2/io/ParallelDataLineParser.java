@@ -0,0 +1,264 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.isas.mztab2.io;
+
+import de.isas.mztab2.model.SmallMoleculeEvidence;
+import de.isas.mztab2.model.SmallMoleculeFeature;
+import de.isas.mztab2.model.SmallMoleculeSummary;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+import uk.ac.ebi.pride.jmztab2.model.Section;
+import uk.ac.ebi.pride.jmztab2.utils.errors.LogicalErrorType;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabError;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorList;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorOverflowException;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabException;
+import uk.ac.ebi.pride.jmztab2.utils.parser.MZTabDataLineParser;
+
+/**
+ * <p>
+ * Parses the lines of one data section (SML, SMF or SME) in batches on a
+ * {@link ForkJoinPool}. Each batch is split into one chunk per worker and
+ * every chunk is parsed with its own line parser and error list. The results
+ * are merged back in line order, so that the handler receives the rows and
+ * errors in the same order as during sequential parsing.</p>
+ *
+ * <p>
+ * A data line only depends on the metadata, the column factory and the
+ * position mapping of its section, which are not modified after the header
+ * line has been parsed. The data line parsers only read from the parser
+ * context, to resolve ms run references.</p>
+ *
+ * @author nilshoffmann
+ */
+final class ParallelDataLineParser {
+
+    private final ForkJoinPool pool;
+    private final int batchSize;
+    private final MZTabErrorList errorList;
+    private final MzTabStreamHandler handler;
+    private final int[] lineNumbers;
+    private final String[] lines;
+    private int size = 0;
+    private Section section = null;
+    private Function<MZTabErrorList, MZTabDataLineParser<?>> parserFactory = null;
+
+    /**
+     * Create a new parallel data line parser.
+     *
+     * @param pool the pool to parse the chunks on.
+     * @param batchSize the number of lines to read before parsing starts.
+     * @param errorList the error list to merge the chunk errors into.
+     * @param handler the handler to receive the parsed rows.
+     */
+    ParallelDataLineParser(ForkJoinPool pool, int batchSize,
+        MZTabErrorList errorList, MzTabStreamHandler handler) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException(
+                "Batch size must be greater than 0!");
+        }
+        this.pool = pool;
+        this.batchSize = batchSize;
+        this.errorList = errorList;
+        this.handler = handler;
+        this.lineNumbers = new int[batchSize];
+        this.lines = new String[batchSize];
+    }
+
+    /**
+     * Add a data line to the current batch. The batch is parsed when it is
+     * full, or before a line of another section is added.
+     *
+     * @param section the data section of the line.
+     * @param parserFactory creates a new line parser for the section, writing
+     * to the given error list.
+     * @param lineNumber the line number.
+     * @param line the raw line.
+     * @throws MZTabException if any structural or logical errors are
+     * encountered in the batch that prohibit further processing.
+     */
+    void add(Section section,
+        Function<MZTabErrorList, MZTabDataLineParser<?>> parserFactory,
+        int lineNumber, String line) throws MZTabException {
+        if (this.section != section) {
+            flush();
+            this.section = section;
+            this.parserFactory = parserFactory;
+        }
+        lineNumbers[size] = lineNumber;
+        lines[size] = line;
+        size++;
+        if (size == batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Parse the current batch, if it contains lines of another section than
+     * the given one.
+     *
+     * @param section the section of the next line.
+     * @throws MZTabException if any structural or logical errors are
+     * encountered in the batch that prohibit further processing.
+     */
+    void flushUnless(Section section) throws MZTabException {
+        if (this.section != section) {
+            flush();
+        }
+    }
+
+    /**
+     * Parse all lines of the current batch and report the results to the
+     * handler, in line order.
+     *
+     * @throws MZTabException if any structural or logical errors are
+     * encountered in the batch that prohibit further processing.
+     */
+    void flush() throws MZTabException {
+        if (size == 0) {
+            return;
+        }
+        int chunks = Math.min(size, Math.max(1, pool.getParallelism()));
+        int chunkSize = (size + chunks - 1) / chunks;
+        List<ForkJoinTask<ChunkResult>> tasks = new ArrayList<>(chunks);
+        for (int from = 0; from < size; from += chunkSize) {
+            final int start = from;
+            final int end = Math.min(size, from + chunkSize);
+            tasks.add(pool.submit(() -> parseChunk(start, end)));
+        }
+        int count = size;
+        size = 0;
+        try {
+            for (ForkJoinTask<ChunkResult> task : tasks) {
+                task.join().
+                    merge();
+            }
+        } finally {
+            for (ForkJoinTask<ChunkResult> task : tasks) {
+                task.cancel(false);
+            }
+            for (int i = 0; i < count; i++) {
+                lines[i] = null;
+            }
+        }
+    }
+
+    private ChunkResult parseChunk(int start, int end) {
+        MZTabErrorList chunkErrors = new MZTabErrorList(errorList.getLevel(),
+            errorList.getMaxErrorCount());
+        MZTabDataLineParser<?> parser = parserFactory.apply(chunkErrors);
+        ChunkResult result = new ChunkResult(section, end - start, chunkErrors);
+        for (int i = start; i < end; i++) {
+            int index = i - start;
+            try {
+                parser.parse(lineNumbers[i], lines[i], chunkErrors);
+                result.records[index] = parser.getRecord();
+            } catch (MZTabException e) {
+                result.fail(index, e);
+                return result;
+            } catch (MZTabErrorOverflowException e) {
+                result.fail(index, null);
+                return result;
+            } catch (NullPointerException npe) {
+                result.fail(index, new MZTabException(new MZTabError(
+                    LogicalErrorType.NULL,
+                    lineNumbers[i], subString(lines[i])), npe));
+                return result;
+            } finally {
+                result.errorEnds[index] = chunkErrors.size();
+            }
+        }
+        return result;
+    }
+
+    private String subString(String source) {
+        int length = 20;
+
+        if (length >= source.length()) {
+            return source;
+        } else {
+            return source.substring(0, length - 1) + "...";
+        }
+    }
+
+    /**
+     * The parsed rows and errors of one chunk.
+     */
+    private final class ChunkResult {
+
+        private final Section section;
+        private final Object[] records;
+        private final int[] errorEnds;
+        private final MZTabErrorList errors;
+        private int failedAt = -1;
+        private MZTabException exception = null;
+
+        ChunkResult(Section section, int size, MZTabErrorList errors) {
+            this.section = section;
+            this.records = new Object[size];
+            this.errorEnds = new int[size];
+            this.errors = errors;
+        }
+
+        void fail(int index, MZTabException exception) {
+            this.failedAt = index;
+            this.exception = exception;
+        }
+
+        /**
+         * Add the errors of each line to the error list and hand the row to
+         * the handler, stopping at the line that failed.
+         */
+        void merge() throws MZTabException {
+            int error = 0;
+            for (int i = 0; i < records.length; i++) {
+                for (; error < errorEnds[i]; error++) {
+                    errorList.add(errors.getError(error));
+                }
+                if (i == failedAt) {
+                    if (exception != null) {
+                        throw exception;
+                    }
+                    throw new MZTabErrorOverflowException();
+                }
+                deliver(records[i]);
+            }
+        }
+
+        private void deliver(Object record) {
+            switch (section) {
+                case Small_Molecule:
+                    handler.onSmallMoleculeSummary(
+                        (SmallMoleculeSummary) record);
+                    break;
+                case Small_Molecule_Feature:
+                    handler.onSmallMoleculeFeature(
+                        (SmallMoleculeFeature) record);
+                    break;
+                case Small_Molecule_Evidence:
+                    handler.onSmallMoleculeEvidence(
+                        (SmallMoleculeEvidence) record);
+                    break;
+                default:
+                    throw new IllegalArgumentException(
+                        "Not a data section: " + section);
+            }
+        }
+    }
+}
@@ -0,0 +1,709 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.isas.mztab2.io;
+
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import de.isas.mztab2.io.serialization.ParameterConverter;
+import de.isas.mztab2.io.serialization.Serializers;
+import de.isas.mztab2.model.Metadata;
+import de.isas.mztab2.model.OptColumnMapping;
+import de.isas.mztab2.model.Parameter;
+import de.isas.mztab2.model.SmallMoleculeEvidence;
+import de.isas.mztab2.model.SmallMoleculeFeature;
+import de.isas.mztab2.model.SmallMoleculeSummary;
+import de.isas.mztab2.model.SpectraRef;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import uk.ac.ebi.pride.jmztab2.model.AbundanceColumn;
+import uk.ac.ebi.pride.jmztab2.model.MZTabConstants;
+import uk.ac.ebi.pride.jmztab2.model.Section;
+import uk.ac.ebi.pride.jmztab2.model.SmallMoleculeColumn;
+import uk.ac.ebi.pride.jmztab2.model.SmallMoleculeEvidenceColumn;
+import uk.ac.ebi.pride.jmztab2.model.SmallMoleculeFeatureColumn;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabException;
+
+/**
+ * <p>
+ * Writes the rows of a data section directly as tab separated lines, without
+ * going through the Jackson CSV generator. The column order is the one of the
+ * schemas of the {@link MzTabWriterDefaults}, and the output is identical to
+ * the one of the Jackson writers, e.g.
+ * {@link MzTabWriterDefaults#smallMoleculeSummaryWriter(Metadata, Collection)}.
+ * Rows are formatted into reused buffers, numbers are appended without
+ * intermediate strings.</p>
+ *
+ * <p>
+ * Like the Jackson CSV generator, a value for a column that precedes the last
+ * column written in order is ignored, a later value for a column ahead of it
+ * replaces an earlier one, values for columns that are not in the schema are
+ * ignored and columns without value are left empty.</p>
+ *
+ * <pre>
+ * SectionWriter&lt;SmallMoleculeSummary&gt; sml = SectionWriter.
+ *     smallMoleculeSummary(writer, metadata, optColumnHeaders,
+ *         writerDefaults);
+ * sml.writeAll(mzTab.getSmallMoleculeSummary());
+ * </pre>
+ *
+ * <p>
+ * Instances are not thread safe.</p>
+ *
+ * @author nilshoffmann
+ * @param <T> the row type.
+ * @see MzTabWriterDefaults
+ */
+public abstract class SectionWriter<T> implements Flushable {
+
+    private final Writer writer;
+    private final String[] columns;
+    private final char columnSeparator;
+    private final char[] lineSeparator;
+    private final char[] nullValue;
+    private final Map<String, Integer> columnIndex;
+    private final Map<String, int[]> indexedColumns;
+    private final int[] start;
+    private final int[] end;
+    private final StringBuilder cells = new StringBuilder(256);
+    private final StringBuilder line = new StringBuilder(256);
+    private char[] chars = new char[256];
+    private int next;
+    private boolean headerWritten = false;
+
+    /**
+     * Create a section writer for the columns of the given schema.
+     *
+     * @param writer the writer.
+     * @param schema the schema defining the column order.
+     */
+    protected SectionWriter(Writer writer, CsvSchema schema) {
+        this.writer = writer;
+        this.columns = new String[schema.size()];
+        this.columnSeparator = schema.getColumnSeparator();
+        this.lineSeparator = schema.getLineSeparator();
+        this.nullValue = schema.getNullValueOrEmpty();
+        this.columnIndex = new HashMap<>();
+        this.indexedColumns = new HashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = schema.columnName(i);
+            columnIndex.putIfAbsent(columns[i], i);
+            indexColumn(columns[i], i);
+        }
+        this.start = new int[columns.length];
+        this.end = new int[columns.length];
+    }
+
+    private void indexColumn(String column, int i) {
+        int open = column.lastIndexOf('[');
+        if (open < 1 || !column.endsWith("]")) {
+            return;
+        }
+        int index;
+        try {
+            index = Integer.parseInt(column.substring(open + 1, column.length() - 1));
+        } catch (NumberFormatException nfe) {
+            return;
+        }
+        if (index < 1) {
+            return;
+        }
+        int[] byIndex = indexedColumns.get(column.substring(0, open));
+        if (byIndex == null || byIndex.length < index) {
+            int[] grown = new int[index];
+            Arrays.fill(grown, -1);
+            if (byIndex != null) {
+                System.arraycopy(byIndex, 0, grown, 0, byIndex.length);
+            }
+            byIndex = grown;
+            indexedColumns.put(column.substring(0, open), byIndex);
+        }
+        if (byIndex[index - 1] < 0) {
+            byIndex[index - 1] = i;
+        }
+    }
+
+    /**
+     * Create a writer for the small molecule summary section.
+     *
+     * @param writer the writer.
+     * @param metadata the metadata, defining the abundance columns.
+     * @param optColumnHeaders the headers of the opt columns, in order.
+     * @param writerDefaults the writer defaults providing the column order.
+     * @return the section writer.
+     * @throws MZTabException if the metadata is null.
+     */
+    public static SectionWriter<SmallMoleculeSummary> smallMoleculeSummary(
+        Writer writer, Metadata metadata, Collection<String> optColumnHeaders,
+        MzTabWriterDefaults writerDefaults) throws MZTabException {
+        return new SmallMoleculeSummaryWriter(writer, writerDefaults.schema(
+            Section.Small_Molecule, metadata, optColumnHeaders));
+    }
+
+    /**
+     * Create a writer for the small molecule feature section.
+     *
+     * @param writer the writer.
+     * @param metadata the metadata, defining the abundance columns.
+     * @param optColumnHeaders the headers of the opt columns, in order.
+     * @param writerDefaults the writer defaults providing the column order.
+     * @return the section writer.
+     * @throws MZTabException if the metadata is null.
+     */
+    public static SectionWriter<SmallMoleculeFeature> smallMoleculeFeature(
+        Writer writer, Metadata metadata, Collection<String> optColumnHeaders,
+        MzTabWriterDefaults writerDefaults) throws MZTabException {
+        return new SmallMoleculeFeatureWriter(writer, writerDefaults.schema(
+            Section.Small_Molecule_Feature, metadata, optColumnHeaders));
+    }
+
+    /**
+     * Create a writer for the small molecule evidence section.
+     *
+     * @param writer the writer.
+     * @param metadata the metadata, defining the id confidence measure
+     * columns.
+     * @param optColumnHeaders the headers of the opt columns, in order.
+     * @param writerDefaults the writer defaults providing the column order.
+     * @return the section writer.
+     * @throws MZTabException if the metadata is null.
+     */
+    public static SectionWriter<SmallMoleculeEvidence> smallMoleculeEvidence(
+        Writer writer, Metadata metadata, Collection<String> optColumnHeaders,
+        MzTabWriterDefaults writerDefaults) throws MZTabException {
+        return new SmallMoleculeEvidenceWriter(writer, writerDefaults.schema(
+            Section.Small_Molecule_Evidence, metadata, optColumnHeaders));
+    }
+
+    /**
+     * Write the header line, unless it has already been written. Called by
+     * the first {@link #write(Object)}, call it directly for sections without
+     * rows.
+     *
+     * @throws IOException if writing fails.
+     */
+    public void writeHeader() throws IOException {
+        if (headerWritten) {
+            return;
+        }
+        headerWritten = true;
+        line.setLength(0);
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                line.append(columnSeparator);
+            }
+            line.append(columns[i]);
+        }
+        line.append(lineSeparator);
+        writeLine();
+    }
+
+    /**
+     * Write a row. Null rows are skipped.
+     *
+     * @param row the row.
+     * @throws IOException if writing fails.
+     */
+    public void write(T row) throws IOException {
+        writeHeader();
+        if (row == null) {
+            return;
+        }
+        cells.setLength(0);
+        Arrays.fill(start, -1);
+        next = 0;
+        writeRow(row);
+        boolean empty = true;
+        line.setLength(0);
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                line.append(columnSeparator);
+            }
+            if (start[i] >= 0) {
+                line.append(cells, start[i], end[i]);
+                empty = false;
+            }
+        }
+        if (!empty) {
+            line.append(lineSeparator);
+            writeLine();
+        }
+    }
+
+    /**
+     * Write the rows, in order.
+     *
+     * @param rows the rows.
+     * @throws IOException if writing fails.
+     */
+    public void writeAll(Collection<? extends T> rows) throws IOException {
+        writeHeader();
+        for (T row : rows) {
+            write(row);
+        }
+    }
+
+    /**
+     * Flush the underlying writer.
+     *
+     * @throws IOException if flushing fails.
+     */
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void writeLine() throws IOException {
+        int length = line.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        line.getChars(0, length, chars, 0);
+        writer.write(chars, 0, length);
+    }
+
+    /**
+     * Write the cells of the row, in the order of the Jackson serializer of
+     * the row type.
+     *
+     * @param row the row, not null.
+     */
+    protected abstract void writeRow(T row);
+
+    /**
+     * Returns the index of the column with the given header.
+     *
+     * @param header the header.
+     * @return the index, or -1 if the schema has no such column.
+     */
+    protected final int column(String header) {
+        Integer index = columnIndex.get(header);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns the column indices of the indexed columns with the given prefix,
+     * e.g. {@code abundance_assay}, where the element at position
+     * {@code i - 1} is the index of column {@code prefix[i]} or -1.
+     *
+     * @param prefix the prefix.
+     * @return the column indices.
+     */
+    protected final int[] indexedColumns(String prefix) {
+        int[] byIndex = indexedColumns.get(prefix);
+        return byIndex == null ? new int[0] : byIndex;
+    }
+
+    private boolean open(int column) {
+        if (column < next) {
+            return false;
+        }
+        start[column] = cells.length();
+        return true;
+    }
+
+    private void close(int column) {
+        end[column] = cells.length();
+        if (column == next) {
+            next++;
+        }
+    }
+
+    private void appendNull() {
+        cells.append(nullValue);
+    }
+
+    /**
+     * Write a string value, or the null value of the schema.
+     *
+     * @param column the column index.
+     * @param value the value.
+     */
+    protected final void string(int column, String value) {
+        if (open(column)) {
+            if (value == null) {
+                appendNull();
+            } else {
+                cells.append(value);
+            }
+            close(column);
+        }
+    }
+
+    /**
+     * Write an integer value, or the null value of the schema.
+     *
+     * @param column the column index.
+     * @param value the value.
+     */
+    protected final void number(int column, Integer value) {
+        if (open(column)) {
+            if (value == null) {
+                appendNull();
+            } else {
+                cells.append(value.intValue());
+            }
+            close(column);
+        }
+    }
+
+    /**
+     * Write a double value, or the null value of the schema. Not a number is written as
+     * {@link MZTabConstants#CALCULATE_ERROR} and positive infinity as
+     * {@link MZTabConstants#INFINITY}.
+     *
+     * @param column the column index.
+     * @param value the value.
+     */
+    protected final void number(int column, Double value) {
+        if (open(column)) {
+            if (value == null) {
+                appendNull();
+            } else if (value.isNaN()) {
+                cells.append(MZTabConstants.CALCULATE_ERROR);
+            } else if (value == Double.POSITIVE_INFINITY) {
+                cells.append(MZTabConstants.INFINITY);
+            } else {
+                cells.append(value.doubleValue());
+            }
+            close(column);
+        }
+    }
+
+    /**
+     * Write a parameter or string value, or the null value of the schema.
+     *
+     * @param column the column index.
+     * @param value the value.
+     * @throws IllegalArgumentException for values of other types.
+     */
+    protected final void object(int column, Object value) {
+        if (value != null && !(value instanceof Parameter) && !(value instanceof String)) {
+            throw new IllegalArgumentException(
+                "Serialization of objects of type " + value.getClass()
+                + " currently not supported!");
+        }
+        if (open(column)) {
+            if (value == null) {
+                appendNull();
+            } else if (value instanceof Parameter) {
+                cells.append(new ParameterConverter().convert((Parameter) value));
+            } else {
+                cells.append((String) value);
+            }
+            close(column);
+        }
+    }
+
+    /**
+     * Write a bar separated list of strings, or the null value of the schema
+     * if the list is null or empty or its only element is empty.
+     *
+     * @param column the column index.
+     * @param values the values.
+     */
+    protected final void strings(int column, List<String> values) {
+        if (open(column)) {
+            int from = cells.length();
+            if (values != null) {
+                Serializers.appendStrings(cells, values);
+            }
+            if (cells.length() == from) {
+                appendNull();
+            }
+            close(column);
+        }
+    }
+
+    /**
+     * Write a bar separated list of numbers, or the null value of the schema
+     * if the list is null or empty.
+     *
+     * @param column the column index.
+     * @param values the values.
+     */
+    protected final void numbers(int column, List<? extends Number> values) {
+        if (open(column)) {
+            if (values == null || values.isEmpty()) {
+                appendNull();
+            } else {
+                Serializers.appendNumbers(cells, values);
+            }
+            close(column);
+        }
+    }
+
+    /**
+     * Write the doubles to the indexed columns, the value at position
+     * {@code i} to column {@code prefix[i + 1]}.
+     *
+     * @param columns the column indices, see {@link #indexedColumns(String)}.
+     * @param values the values, may be null.
+     */
+    protected final void indexedDoubles(int[] columns, List<Double> values) {
+        if (values == null) {
+            return;
+        }
+        for (int i = 0; i < values.size(); i++) {
+            if (i < columns.length && columns[i] >= 0) {
+                number(columns[i], values.get(i));
+            }
+        }
+    }
+
+    /**
+     * Write the values of the opt columns.
+     *
+     * @param optColumnMappings the opt column mappings, may be null.
+     */
+    protected final void optColumns(List<OptColumnMapping> optColumnMappings) {
+        if (optColumnMappings == null) {
+            return;
+        }
+        for (OptColumnMapping ocm : optColumnMappings) {
+            int column = column(Serializers.printOptColumnMapping(ocm));
+            if (column < 0) {
+                continue;
+            }
+            String value = ocm.getValue();
+            if (value == null && ocm.getParam() != null) {
+                value = ocm.getParam().
+                    getValue();
+                if (value != null && value.isEmpty()) {
+                    value = null;
+                }
+            }
+            string(column, value == null ? MZTabConstants.NULL : value);
+        }
+    }
+
+    static final class SmallMoleculeSummaryWriter extends SectionWriter<SmallMoleculeSummary> {
+
+        private final int prefix;
+        private final int[] stable;
+        private final int[] abundanceAssay;
+        private final int[] abundanceStudyVariable;
+        private final int[] abundanceVariationStudyVariable;
+
+        SmallMoleculeSummaryWriter(Writer writer, CsvSchema schema) {
+            super(writer, schema);
+            this.prefix = column(SmallMoleculeSummary.HeaderPrefixEnum.SMH.
+                getValue());
+            SmallMoleculeColumn.Stable[] values = SmallMoleculeColumn.Stable.
+                values();
+            this.stable = new int[values.length];
+            for (SmallMoleculeColumn.Stable s : values) {
+                stable[s.ordinal()] = column(s.getHeader());
+            }
+            this.abundanceAssay = indexedColumns(
+                AbundanceColumn.Field.ABUNDANCE_ASSAY.toString());
+            this.abundanceStudyVariable = indexedColumns(
+                AbundanceColumn.Field.ABUNDANCE_STUDY_VARIABLE.toString());
+            this.abundanceVariationStudyVariable = indexedColumns(
+                AbundanceColumn.Field.ABUNDANCE_VARIATION_STUDY_VARIABLE.
+                    toString());
+        }
+
+        private int column(SmallMoleculeColumn.Stable s) {
+            return stable[s.ordinal()];
+        }
+
+        @Override
+        protected void writeRow(SmallMoleculeSummary row) {
+            string(prefix, SmallMoleculeSummary.PrefixEnum.SML.getValue());
+            number(column(SmallMoleculeColumn.Stable.SML_ID), row.getSmlId());
+            numbers(column(SmallMoleculeColumn.Stable.SMF_ID_REFS), row.
+                getSmfIdRefs() == null ? Collections.emptyList() : row.
+                getSmfIdRefs());
+            strings(column(SmallMoleculeColumn.Stable.DATABASE_IDENTIFIER),
+                row.getDatabaseIdentifier());
+            strings(column(SmallMoleculeColumn.Stable.CHEMICAL_FORMULA), row.
+                getChemicalFormula());
+            strings(column(SmallMoleculeColumn.Stable.SMILES), row.getSmiles());
+            strings(column(SmallMoleculeColumn.Stable.INCHI), row.getInchi());
+            strings(column(SmallMoleculeColumn.Stable.CHEMICAL_NAME), row.
+                getChemicalName());
+            strings(column(SmallMoleculeColumn.Stable.URI), row.getUri());
+            numbers(column(SmallMoleculeColumn.Stable.THEOR_NEUTRAL_MASS), row.
+                getTheoreticalNeutralMass());
+            strings(column(SmallMoleculeColumn.Stable.ADDUCT_IONS), row.
+                getAdductIons());
+            string(column(SmallMoleculeColumn.Stable.RELIABILITY), row.
+                getReliability());
+            object(column(SmallMoleculeColumn.Stable.BEST_ID_CONFIDENCE_MEASURE),
+                row.getBestIdConfidenceMeasure());
+            number(column(SmallMoleculeColumn.Stable.BEST_ID_CONFIDENCE_VALUE),
+                row.getBestIdConfidenceValue());
+            indexedDoubles(abundanceAssay, row.getAbundanceAssay());
+            indexedDoubles(abundanceStudyVariable, row.
+                getAbundanceStudyVariable());
+            indexedDoubles(abundanceVariationStudyVariable, row.
+                getAbundanceVariationStudyVariable());
+            optColumns(row.getOpt());
+        }
+    }
+
+    static final class SmallMoleculeFeatureWriter extends SectionWriter<SmallMoleculeFeature> {
+
+        private final int prefix;
+        private final int[] stable;
+        private final int[] abundanceAssay;
+
+        SmallMoleculeFeatureWriter(Writer writer, CsvSchema schema) {
+            super(writer, schema);
+            this.prefix = column(SmallMoleculeFeature.HeaderPrefixEnum.SFH.
+                getValue());
+            SmallMoleculeFeatureColumn.Stable[] values = SmallMoleculeFeatureColumn.Stable.
+                values();
+            this.stable = new int[values.length];
+            for (SmallMoleculeFeatureColumn.Stable s : values) {
+                stable[s.ordinal()] = column(s.getHeader());
+            }
+            this.abundanceAssay = indexedColumns(
+                AbundanceColumn.Field.ABUNDANCE_ASSAY.toString());
+        }
+
+        private int column(SmallMoleculeFeatureColumn.Stable s) {
+            return stable[s.ordinal()];
+        }
+
+        @Override
+        protected void writeRow(SmallMoleculeFeature row) {
+            string(prefix, SmallMoleculeFeature.PrefixEnum.SMF.getValue());
+            number(column(SmallMoleculeFeatureColumn.Stable.SMF_ID), row.
+                getSmfId());
+            numbers(column(SmallMoleculeFeatureColumn.Stable.SME_ID_REFS), row.
+                getSmeIdRefs() == null ? Collections.emptyList() : row.
+                getSmeIdRefs());
+            number(column(
+                SmallMoleculeFeatureColumn.Stable.SME_ID_REF_AMBIGUITY_CODE),
+                row.getSmeIdRefAmbiguityCode());
+            string(column(SmallMoleculeFeatureColumn.Stable.ADDUCT_ION), row.
+                getAdductIon());
+            object(column(SmallMoleculeFeatureColumn.Stable.ISOTOPOMER), row.
+                getIsotopomer());
+            number(column(SmallMoleculeFeatureColumn.Stable.EXP_MASS_TO_CHARGE),
+                row.getExpMassToCharge());
+            number(column(SmallMoleculeFeatureColumn.Stable.CHARGE), row.
+                getCharge());
+            number(column(
+                SmallMoleculeFeatureColumn.Stable.RETENTION_TIME_IN_SECONDS),
+                row.getRetentionTimeInSeconds());
+            number(column(
+                SmallMoleculeFeatureColumn.Stable.RETENTION_TIME_IN_SECONDS_START),
+                row.getRetentionTimeInSecondsStart());
+            number(column(
+                SmallMoleculeFeatureColumn.Stable.RETENTION_TIME_IN_SECONDS_END),
+                row.getRetentionTimeInSecondsEnd());
+            indexedDoubles(abundanceAssay, row.getAbundanceAssay());
+            optColumns(row.getOpt());
+        }
+    }
+
+    static final class SmallMoleculeEvidenceWriter extends SectionWriter<SmallMoleculeEvidence> {
+
+        private final int prefix;
+        private final int[] stable;
+        private final int[] idConfidenceMeasure;
+        private final StringBuilder spectraRef = new StringBuilder();
+
+        SmallMoleculeEvidenceWriter(Writer writer, CsvSchema schema) {
+            super(writer, schema);
+            this.prefix = column(SmallMoleculeEvidence.HeaderPrefixEnum.SEH.
+                getValue());
+            SmallMoleculeEvidenceColumn.Stable[] values = SmallMoleculeEvidenceColumn.Stable.
+                values();
+            this.stable = new int[values.length];
+            for (SmallMoleculeEvidenceColumn.Stable s : values) {
+                stable[s.ordinal()] = column(s.getHeader());
+            }
+            this.idConfidenceMeasure = indexedColumns(
+                SmallMoleculeEvidence.Properties.idConfidenceMeasure.
+                    getPropertyName());
+        }
+
+        private int column(SmallMoleculeEvidenceColumn.Stable s) {
+            return stable[s.ordinal()];
+        }
+
+        @Override
+        protected void writeRow(SmallMoleculeEvidence row) {
+            string(prefix, SmallMoleculeEvidence.PrefixEnum.SME.getValue());
+            number(column(SmallMoleculeEvidenceColumn.Stable.SME_ID), row.
+                getSmeId());
+            string(column(SmallMoleculeEvidenceColumn.Stable.EVIDENCE_INPUT_ID),
+                row.getEvidenceInputId());
+            string(column(SmallMoleculeEvidenceColumn.Stable.DATABASE_IDENTIFIER),
+                row.getDatabaseIdentifier());
+            string(column(SmallMoleculeEvidenceColumn.Stable.CHEMICAL_FORMULA),
+                row.getChemicalFormula());
+            string(column(SmallMoleculeEvidenceColumn.Stable.SMILES), row.
+                getSmiles());
+            string(column(SmallMoleculeEvidenceColumn.Stable.INCHI), row.
+                getInchi());
+            string(column(SmallMoleculeEvidenceColumn.Stable.CHEMICAL_NAME),
+                row.getChemicalName());
+            string(column(SmallMoleculeEvidenceColumn.Stable.URI), row.getUri());
+            object(column(SmallMoleculeEvidenceColumn.Stable.DERIVATIZED_FORM),
+                row.getDerivatizedForm());
+            string(column(SmallMoleculeEvidenceColumn.Stable.ADDUCT_ION), row.
+                getAdductIon());
+            number(column(SmallMoleculeEvidenceColumn.Stable.EXP_MASS_TO_CHARGE),
+                row.getExpMassToCharge());
+            number(column(SmallMoleculeEvidenceColumn.Stable.CHARGE), row.
+                getCharge());
+            number(column(
+                SmallMoleculeEvidenceColumn.Stable.THEORETICAL_MASS_TO_CHARGE),
+                row.getTheoreticalMassToCharge());
+            spectraRef(column(SmallMoleculeEvidenceColumn.Stable.SPECTRA_REF),
+                row.getSpectraRef());
+            object(column(
+                SmallMoleculeEvidenceColumn.Stable.IDENTIFICATION_METHOD), row.
+                getIdentificationMethod());
+            object(column(SmallMoleculeEvidenceColumn.Stable.MS_LEVEL), row.
+                getMsLevel());
+            indexedDoubles(idConfidenceMeasure, row.getIdConfidenceMeasure());
+            number(column(SmallMoleculeEvidenceColumn.Stable.RANK), row.
+                getRank());
+            optColumns(row.getOpt());
+        }
+
+        private void spectraRef(int column, List<SpectraRef> spectraRefs) {
+            if (spectraRefs == null || spectraRefs.isEmpty()) {
+                string(column, null);
+                return;
+            }
+            spectraRef.setLength(0);
+            for (SpectraRef ref : spectraRefs) {
+                if (spectraRef.length() > 0) {
+                    spectraRef.append(MZTabConstants.BAR);
+                }
+                spectraRef.append(Metadata.Properties.msRun.getPropertyName()).
+                    append('[').
+                    append(ref.getMsRun().
+                        getId()).
+                    append("]:").
+                    append(ref.getReference());
+            }
+            string(column, spectraRef.toString());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.isas.mztab2.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Checksum;
+
+/**
+ * <p>
+ * Line source with positions that can be recorded and returned to, as used by
+ * the {@link MzTabRowOffsetIndex}. Positions are byte offsets for uncompressed
+ * files and virtual offsets for BGZF compressed files, in both cases they
+ * increase monotonically with the lines of the file.</p>
+ *
+ * @author nilshoffmann
+ */
+interface SeekableLineSource extends LineSource {
+
+    /**
+     * Returns the position of the next line.
+     *
+     * @return the position.
+     */
+    long position();
+
+    /**
+     * Continue reading at the given position, which must have been returned
+     * by {@link #position()} for the same file.
+     *
+     * @param position the position.
+     * @throws java.io.IOException if the position is not valid.
+     */
+    void seek(long position) throws IOException;
+
+    /**
+     * Open a local file, which may be uncompressed or BGZF compressed.
+     *
+     * @param file the file.
+     * @param charset the charset of the file.
+     * @return the line source.
+     * @throws java.io.IOException if the file can not be opened, or if it is
+     * compressed in another format than BGZF.
+     */
+    static SeekableLineSource open(Path file, Charset charset) throws IOException {
+        return open(file, charset, null);
+    }
+
+    /**
+     * Open a local file, which may be uncompressed or BGZF compressed, and
+     * update the given checksum with the bytes of the file while its lines
+     * are read. After reading all lines from the start without seeking, the
+     * checksum covers the whole file. The BGZF source returned for a checksum
+     * can not seek.
+     *
+     * @param file the file.
+     * @param charset the charset of the file.
+     * @param checksum the checksum to update, or null.
+     * @return the line source.
+     * @throws java.io.IOException if the file can not be opened, or if it is
+     * compressed in another format than BGZF.
+     */
+    static SeekableLineSource open(Path file, Charset charset,
+        Checksum checksum) throws IOException {
+        byte[] header = new byte[MzTabCompression.MAGIC_LENGTH];
+        int length = 0;
+        try (InputStream is = Files.newInputStream(file)) {
+            int n;
+            while (length < header.length && (n = is.read(header, length,
+                header.length - length)) > 0) {
+                length += n;
+            }
+        }
+        MzTabCompression compression = MzTabCompression.detect(header, length);
+        switch (compression) {
+            case NONE:
+                return new MappedLineSource(file, charset,
+                    MappedLineSource.DEFAULT_WINDOW_SIZE, checksum);
+            case BGZF:
+                FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.READ);
+                return new BgzfLineSource(new BgzfInputStream(checksum == null ? channel : Channels.
+                    newChannel(new CheckedInputStream(Channels.newInputStream(
+                        channel), checksum)), null, 0), charset);
+            default:
+                throw new IOException(
+                    "File " + file + " is compressed with " + compression + ", random access requires a BGZF compressed or an uncompressed file!");
+        }
+    }
+}
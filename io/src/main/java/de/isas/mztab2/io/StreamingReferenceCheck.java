@@ -0,0 +1,168 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.isas.mztab2.io;
+
+import de.isas.mztab2.model.MzTab;
+import de.isas.mztab2.model.SmallMoleculeEvidence;
+import de.isas.mztab2.model.SmallMoleculeFeature;
+import de.isas.mztab2.model.SmallMoleculeSummary;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import uk.ac.ebi.pride.jmztab2.utils.errors.LogicalErrorType;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorList;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorOverflowException;
+
+/**
+ * <p>
+ * Checks the id references between the SML, SMF and SME rows while the rows are
+ * streamed, without keeping the rows. Only the defined SMF and SME ids and the
+ * pairs of row id and referenced id are kept, in primitive arrays. The same
+ * errors are reported in the same order as by {@link MzTabReferenceIndex}.</p>
+ *
+ * @author nilshoffmann
+ * @see MzTabReferenceIndex
+ */
+final class StreamingReferenceCheck {
+
+    private final MzTabReferenceIndex.IdSet smfIds = new MzTabReferenceIndex.IdSet();
+    private final MzTabReferenceIndex.IdSet smeIds = new MzTabReferenceIndex.IdSet();
+    private final References smfIdRefs = new References();
+    private final References smeIdRefs = new References();
+
+    void addSmallMoleculeSummary(SmallMoleculeSummary sml) {
+        smfIdRefs.add(sml.getSmlId(), sml.getSmfIdRefs());
+    }
+
+    void addSmallMoleculeFeature(SmallMoleculeFeature smf) {
+        smfIds.add(smf.getSmfId());
+        smeIdRefs.add(smf.getSmfId(), smf.getSmeIdRefs());
+    }
+
+    void addSmallMoleculeEvidence(SmallMoleculeEvidence sme) {
+        smeIds.add(sme.getSmeId());
+    }
+
+    /**
+     * Report an {@link LogicalErrorType#UnknownRefId} error for every SMF id
+     * referenced from an SML row without a matching SMF row.
+     *
+     * @param errorList the error list to add the errors to.
+     * @throws MZTabErrorOverflowException when too many errors are detected.
+     * @see MzTabReferenceIndex#checkSmfIdRefs(MZTabErrorList)
+     */
+    void checkSmfIdRefs(MZTabErrorList errorList) throws MZTabErrorOverflowException {
+        for (int i = 0; i < smfIdRefs.size; i++) {
+            Integer smfRefId = smfIdRefs.refId(i);
+            if (!smfIds.contains(smfRefId)) {
+                //Reference id "{0}" for column "{1}" from element "{2}" in section "{3}" to section "{4}" must have a matching element defined.
+                errorList.add(
+                    LogicalErrorType.UnknownRefId, -1, "" + smfRefId,
+                    SmallMoleculeSummary.Properties.smfIdRefs.
+                        getPropertyName(), "" + smfIdRefs.rowId(i),
+                    MzTab.Properties.smallMoleculeSummary.
+                        getPropertyName(),
+                    MzTab.Properties.smallMoleculeFeature.
+                        getPropertyName());
+            }
+        }
+    }
+
+    /**
+     * Report an {@link LogicalErrorType#UnknownRefId} error for every SME id
+     * referenced from an SMF row without a matching SME row.
+     *
+     * @param errorList the error list to add the errors to.
+     * @throws MZTabErrorOverflowException when too many errors are detected.
+     * @see MzTabReferenceIndex#checkSmeIdRefs(MZTabErrorList)
+     */
+    void checkSmeIdRefs(MZTabErrorList errorList) throws MZTabErrorOverflowException {
+        for (int i = 0; i < smeIdRefs.size; i++) {
+            Integer smeRefId = smeIdRefs.refId(i);
+            if (!smeIds.contains(smeRefId)) {
+                //Reference id "{0}" for column "{1}" from element "{2}" in section "{3}" to section "{4}" must have a matching element defined.
+                errorList.add(
+                    LogicalErrorType.UnknownRefId, -1, "" + smeRefId,
+                    SmallMoleculeFeature.Properties.smeIdRefs.
+                        getPropertyName(), "" + smeIdRefs.rowId(i),
+                    MzTab.Properties.smallMoleculeFeature.
+                        getPropertyName(),
+                    MzTab.Properties.smallMoleculeEvidence.
+                        getPropertyName());
+            }
+        }
+    }
+
+    /**
+     * Pairs of row id and referenced id in file order. Repeated references of
+     * one row are only kept once, null ids are flagged in bit sets.
+     */
+    private static final class References {
+
+        private int[] rowIds = new int[1024];
+        private int[] refIds = new int[1024];
+        private final BitSet nullRowIds = new BitSet();
+        private final BitSet nullRefIds = new BitSet();
+        private int size = 0;
+
+        void add(Integer rowId, List<Integer> refs) {
+            if (refs == null) {
+                return;
+            }
+            int rowStart = size;
+            for (Integer ref : refs) {
+                if (!contains(rowStart, ref)) {
+                    append(rowId, ref);
+                }
+            }
+        }
+
+        Integer rowId(int index) {
+            return nullRowIds.get(index) ? null : rowIds[index];
+        }
+
+        Integer refId(int index) {
+            return nullRefIds.get(index) ? null : refIds[index];
+        }
+
+        private boolean contains(int rowStart, Integer ref) {
+            for (int i = rowStart; i < size; i++) {
+                if (ref == null ? nullRefIds.get(i) : !nullRefIds.get(i) && refIds[i] == ref) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void append(Integer rowId, Integer ref) {
+            if (size == rowIds.length) {
+                rowIds = Arrays.copyOf(rowIds, size * 2);
+                refIds = Arrays.copyOf(refIds, size * 2);
+            }
+            if (rowId == null) {
+                nullRowIds.set(size);
+            } else {
+                rowIds[size] = rowId;
+            }
+            if (ref == null) {
+                nullRefIds.set(size);
+            } else {
+                refIds[size] = ref;
+            }
+            size++;
+        }
+    }
+}
@@ -32,6 +32,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -55,6 +57,26 @@ import uk.ac.ebi.pride.jmztab2.model.MetadataProperty;
 @Slf4j
 public class Serializers {
 
+    /**
+     * Initial capacity of the per thread buffer for list values.
+     */
+    private static final int BUFFER_CAPACITY = 256;
+
+    /**
+     * Buffers larger than this are not kept for reuse.
+     */
+    private static final int MAX_BUFFER_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.
+            withInitial(() -> new StringBuilder(BUFFER_CAPACITY));
+
+    /**
+     * Indexed column names by prefix, e.g. {@code prefix[1]}.
+     */
+    private static final ConcurrentMap<String, String[]> INDEXED_NAMES = new ConcurrentHashMap<>();
+
+    private static final int MAX_CACHED_PREFIXES = 256;
+
     /**
      * <p>
      * getReference.</p>
@@ -750,30 +772,11 @@ public class Serializers {
         try {
             if (elements == null) {
                 jg.writeNullField(columnName);
+            } else if (elements.isEmpty()) {
+                jg.writeNullField(columnName);
             } else {
-                String arrayElements = elements.stream().
-                        map((number)
-                                -> {
-                            if (number == null) {
-                                return MZTabConstants.NULL;
-                            } else if (number instanceof Short) {
-                                return "" + number.shortValue();
-                            } else if (number instanceof Integer) {
-                                return "" + number.intValue();
-                            } else if (number instanceof Long) {
-                                return "" + number.longValue();
-                            } else if (number instanceof Float) {
-                                return "" + number.floatValue();
-                            } else {
-                                return "" + number.doubleValue();
-                            }
-                        }).
-                        collect(Collectors.joining("" + MZTabConstants.BAR));
-                if (arrayElements.isEmpty()) {
-                    jg.writeNullField(columnName);
-                } else {
-                    jg.writeStringField(columnName, arrayElements);
-                }
+                jg.writeStringField(columnName, appendNumbers(buffer(),
+                        elements).toString());
             }
         } catch (IOException ex) {
             log.error(
@@ -809,19 +812,11 @@ public class Serializers {
             if (elements == null) {
                 jg.writeNull();
             } else {
-                String arrayElements = elements.stream().
-                        map((t)
-                                -> {
-                            if (t == null) {
-                                return MZTabConstants.NULL;
-                            }
-                            return t;
-                        }).
-                        collect(Collectors.joining("" + MZTabConstants.BAR));
-                if (arrayElements.isEmpty()) {
+                StringBuilder arrayElements = appendStrings(buffer(), elements);
+                if (arrayElements.length() == 0) {
                     jg.writeNull();
                 } else {
-                    jg.writeString(arrayElements);
+                    jg.writeString(arrayElements.toString());
                 }
             }
         } catch (IOException ex) {
@@ -843,19 +838,11 @@ public class Serializers {
             if (elements == null) {
                 jg.writeNullField(columnName);
             } else {
-                String arrayElements = elements.stream().
-                        map((t)
-                                -> {
-                            if (t == null) {
-                                return MZTabConstants.NULL;
-                            }
-                            return t;
-                        }).
-                        collect(Collectors.joining("" + MZTabConstants.BAR));
-                if (arrayElements.isEmpty()) {
+                StringBuilder arrayElements = appendStrings(buffer(), elements);
+                if (arrayElements.length() == 0) {
                     jg.writeNullField(columnName);
                 } else {
-                    jg.writeStringField(columnName, arrayElements);
+                    jg.writeStringField(columnName, arrayElements.toString());
                 }
             }
         } catch (IOException ex) {
@@ -1012,22 +999,115 @@ public class Serializers {
      */
     public static void writeIndexedDoubles(String prefix,
             JsonGenerator jg, List<Double> values) {
-        IntStream.range(0, values.
-                size()).
-                forEachOrdered(i
-                        -> {
-                    try {
-                        Serializers.writeNumber(
-                                prefix + "[" + (i + 1) + "]",
-                                jg,
-                                values.
-                                        get(i));
-                    } catch (IOException ex) {
-                        log.error(
-                                "Caught IO exception while trying to write indexed doubles:",
-                                ex);
-                    }
-                });
+        String[] names = indexedNames(prefix, values.size());
+        for (int i = 0; i < values.size(); i++) {
+            try {
+                Serializers.writeNumber(names[i], jg, values.get(i));
+            } catch (IOException ex) {
+                log.error(
+                        "Caught IO exception while trying to write indexed doubles:",
+                        ex);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Append a number to the builder, as {@link MZTabConstants#NULL} if the
+     * number is null. Integral types are appended as is, floats and doubles
+     * like {@link Float#toString(float)} and
+     * {@link Double#toString(double)}, without creating intermediate
+     * strings.</p>
+     *
+     * @param sb the builder to append to.
+     * @param number the number, may be null.
+     * @return the builder.
+     */
+    public static StringBuilder appendNumber(StringBuilder sb, Number number) {
+        if (number == null) {
+            return sb.append(MZTabConstants.NULL);
+        } else if (number instanceof Short || number instanceof Integer) {
+            return sb.append(number.intValue());
+        } else if (number instanceof Long) {
+            return sb.append(number.longValue());
+        } else if (number instanceof Float) {
+            return sb.append(number.floatValue());
+        }
+        return sb.append(number.doubleValue());
+    }
+
+    /**
+     * <p>
+     * Append the numbers to the builder, separated by
+     * {@link MZTabConstants#BAR}. See {@link #appendNumber(StringBuilder, Number)}.</p>
+     *
+     * @param sb the builder to append to.
+     * @param numbers the numbers, elements may be null.
+     * @return the builder.
+     */
+    public static StringBuilder appendNumbers(StringBuilder sb,
+            List<? extends Number> numbers) {
+        for (int i = 0; i < numbers.size(); i++) {
+            if (i > 0) {
+                sb.append(MZTabConstants.BAR);
+            }
+            appendNumber(sb, numbers.get(i));
+        }
+        return sb;
+    }
+
+    /**
+     * <p>
+     * Append the strings to the builder, separated by
+     * {@link MZTabConstants#BAR}. Null elements are appended as
+     * {@link MZTabConstants#NULL}.</p>
+     *
+     * @param sb the builder to append to.
+     * @param strings the strings, elements may be null.
+     * @return the builder.
+     */
+    public static StringBuilder appendStrings(StringBuilder sb,
+            List<String> strings) {
+        for (int i = 0; i < strings.size(); i++) {
+            if (i > 0) {
+                sb.append(MZTabConstants.BAR);
+            }
+            String value = strings.get(i);
+            sb.append(value == null ? MZTabConstants.NULL : value);
+        }
+        return sb;
+    }
+
+    /**
+     * Returns the cleared buffer of the current thread.
+     */
+    private static StringBuilder buffer() {
+        StringBuilder sb = BUFFER.get();
+        if (sb.capacity() > MAX_BUFFER_CAPACITY) {
+            sb = new StringBuilder(BUFFER_CAPACITY);
+            BUFFER.set(sb);
+        }
+        sb.setLength(0);
+        return sb;
+    }
+
+    /**
+     * Returns at least {@code size} names {@code prefix[1]}, {@code prefix[2]},
+     * and so on.
+     */
+    private static String[] indexedNames(String prefix, int size) {
+        String[] names = INDEXED_NAMES.get(prefix);
+        if (names == null || names.length < size) {
+            names = new String[Math.max(size, names == null ? 0 : names.length)];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = prefix + "[" + (i + 1) + "]";
+            }
+            if (INDEXED_NAMES.size() >= MAX_CACHED_PREFIXES) {
+                INDEXED_NAMES.clear();
+            }
+            INDEXED_NAMES.put(prefix, names);
+        }
+        return names;
     }
 
     public static void checkIndexedElement(IndexedElement element) {
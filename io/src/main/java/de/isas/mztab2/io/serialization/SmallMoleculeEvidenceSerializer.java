@@ -31,7 +31,6 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import uk.ac.ebi.pride.jmztab2.model.SmallMoleculeEvidenceColumn;
-import static uk.ac.ebi.pride.jmztab2.model.SmallMoleculeEvidenceColumn.Stable.columnFor;
 
 /**
 * <p>SmallMoleculeEvidenceSerializer implementation for {@link de.isas.mztab2.model.SmallMoleculeEvidence}.</p>
@@ -80,47 +79,51 @@ public class SmallMoleculeEvidenceSerializer extends StdSerializer<SmallMolecule
             writeString(SmallMoleculeEvidence.HeaderPrefixEnum.SEH.getValue(),
                 jg, SmallMoleculeEvidence.PrefixEnum.SME.
                     getValue());
-            writeNumber(columnFor(
-                SmallMoleculeEvidenceColumn.Stable.SME_ID), jg,
+            writeNumber(SmallMoleculeEvidenceColumn.Stable.SME_ID.
+                getColumn(), jg,
                 smallMoleculeEvidence.getSmeId());
-            writeString(columnFor(
-                SmallMoleculeEvidenceColumn.Stable.EVIDENCE_INPUT_ID),
+            writeString(SmallMoleculeEvidenceColumn.Stable.EVIDENCE_INPUT_ID.
+                getColumn(),
                 jg, smallMoleculeEvidence.getEvidenceInputId());
-            writeString(columnFor(
-                SmallMoleculeEvidenceColumn.Stable.DATABASE_IDENTIFIER),
+            writeString(SmallMoleculeEvidenceColumn.Stable.DATABASE_IDENTIFIER.
+                getColumn(),
                 jg, smallMoleculeEvidence.getDatabaseIdentifier());
-            writeString(columnFor(
-                SmallMoleculeEvidenceColumn.Stable.CHEMICAL_FORMULA), jg,
+            writeString(SmallMoleculeEvidenceColumn.Stable.CHEMICAL_FORMULA.
+                getColumn(), jg,
                 smallMoleculeEvidence.getChemicalFormula());
-            writeString(columnFor(SmallMoleculeEvidenceColumn.Stable.SMILES), jg,
+            writeString(SmallMoleculeEvidenceColumn.Stable.SMILES.
+                getColumn(), jg,
                 smallMoleculeEvidence.getSmiles());
-            writeString(columnFor(SmallMoleculeEvidenceColumn.Stable.INCHI), jg,
+            writeString(SmallMoleculeEvidenceColumn.Stable.INCHI.
+                getColumn(), jg,
                 smallMoleculeEvidence.getInchi());
-            writeString(columnFor(
-                SmallMoleculeEvidenceColumn.Stable.CHEMICAL_NAME), jg,
+            writeString(SmallMoleculeEvidenceColumn.Stable.CHEMICAL_NAME.
+                getColumn(), jg,
                 smallMoleculeEvidence.getChemicalName());
-            writeString(columnFor(SmallMoleculeEvidenceColumn.Stable.URI), jg,
+            writeString(SmallMoleculeEvidenceColumn.Stable.URI.getColumn(), jg,
                 smallMoleculeEvidence.getUri());
-            writeObject(columnFor(
-                SmallMoleculeEvidenceColumn.Stable.DERIVATIZED_FORM), jg,
+            writeObject(SmallMoleculeEvidenceColumn.Stable.DERIVATIZED_FORM.
+                getColumn(), jg,
                 sp,
                 smallMoleculeEvidence.getDerivatizedForm());
-            writeString(columnFor(SmallMoleculeEvidenceColumn.Stable.ADDUCT_ION),
+            writeString(SmallMoleculeEvidenceColumn.Stable.ADDUCT_ION.
+                getColumn(),
                 jg,
                 smallMoleculeEvidence.getAdductIon());
-            writeNumber(columnFor(
-                SmallMoleculeEvidenceColumn.Stable.EXP_MASS_TO_CHARGE),
+            writeNumber(SmallMoleculeEvidenceColumn.Stable.EXP_MASS_TO_CHARGE.
+                getColumn(),
                 jg, smallMoleculeEvidence.
                     getExpMassToCharge());
-            writeNumber(columnFor(SmallMoleculeEvidenceColumn.Stable.CHARGE), jg,
+            writeNumber(SmallMoleculeEvidenceColumn.Stable.CHARGE.
+                getColumn(), jg,
                 smallMoleculeEvidence.getCharge());
             writeNumber(
-                columnFor(
-                    SmallMoleculeEvidenceColumn.Stable.THEORETICAL_MASS_TO_CHARGE),
+                SmallMoleculeEvidenceColumn.Stable.THEORETICAL_MASS_TO_CHARGE.
+                    getColumn(),
                 jg, smallMoleculeEvidence.
                     getTheoreticalMassToCharge());
-            writeAsStringArray(columnFor(
-                SmallMoleculeEvidenceColumn.Stable.SPECTRA_REF),
+            writeAsStringArray(SmallMoleculeEvidenceColumn.Stable.SPECTRA_REF.
+                getColumn(),
                 jg, Optional.ofNullable(smallMoleculeEvidence.
                     getSpectraRef()).
                     orElse(Collections.emptyList()).
@@ -132,10 +135,10 @@ public class SmallMoleculeEvidenceSerializer extends StdSerializer<SmallMolecule
                             getId() + "]:" + spectraRef.getReference();
                     }).
                     collect(Collectors.toList()));
-            writeObject(columnFor(
-                SmallMoleculeEvidenceColumn.Stable.IDENTIFICATION_METHOD),
+            writeObject(SmallMoleculeEvidenceColumn.Stable.IDENTIFICATION_METHOD.
+                getColumn(),
                 jg, sp, smallMoleculeEvidence.getIdentificationMethod());
-            writeObject(columnFor(SmallMoleculeEvidenceColumn.Stable.MS_LEVEL),
+            writeObject(SmallMoleculeEvidenceColumn.Stable.MS_LEVEL.getColumn(),
                 jg, sp,
                 smallMoleculeEvidence.
                     getMsLevel());
@@ -145,7 +148,7 @@ public class SmallMoleculeEvidenceSerializer extends StdSerializer<SmallMolecule
                 Optional.ofNullable(smallMoleculeEvidence.
                     getIdConfidenceMeasure()).
                     orElse(Collections.emptyList()));
-            writeNumber(columnFor(SmallMoleculeEvidenceColumn.Stable.RANK), jg,
+            writeNumber(SmallMoleculeEvidenceColumn.Stable.RANK.getColumn(), jg,
                 smallMoleculeEvidence.getRank());
             Serializers.writeOptColumnMappings(smallMoleculeEvidence.getOpt(),
                 jg, sp);
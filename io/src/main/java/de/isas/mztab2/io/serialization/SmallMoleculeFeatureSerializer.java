@@ -29,7 +29,6 @@ import java.util.Collections;
 import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
 import uk.ac.ebi.pride.jmztab2.model.AbundanceColumn;
-import static uk.ac.ebi.pride.jmztab2.model.SmallMoleculeFeatureColumn.Stable.columnFor;
 import uk.ac.ebi.pride.jmztab2.model.SmallMoleculeFeatureColumn;
 
 /**
@@ -79,45 +78,49 @@ public class SmallMoleculeFeatureSerializer extends StdSerializer<SmallMoleculeF
             writeString(SmallMoleculeFeature.HeaderPrefixEnum.SFH.getValue(), jg,
                 SmallMoleculeFeature.PrefixEnum.SMF.
                     getValue());
-            writeNumber(columnFor(SmallMoleculeFeatureColumn.Stable.SMF_ID), jg,
+            writeNumber(SmallMoleculeFeatureColumn.Stable.SMF_ID.
+                getColumn(), jg,
                 smallMoleculeFeature.getSmfId());
-            writeAsNumberArray(columnFor(
-                SmallMoleculeFeatureColumn.Stable.SME_ID_REFS), jg,
+            writeAsNumberArray(SmallMoleculeFeatureColumn.Stable.SME_ID_REFS.
+                getColumn(), jg,
                 Optional.ofNullable(smallMoleculeFeature.getSmeIdRefs()).
                     orElse(Collections.emptyList()));
             writeNumber(
-                columnFor(
-                    SmallMoleculeFeatureColumn.Stable.SME_ID_REF_AMBIGUITY_CODE),
+                SmallMoleculeFeatureColumn.Stable.SME_ID_REF_AMBIGUITY_CODE.
+                    getColumn(),
                 jg,
                 smallMoleculeFeature.
                     getSmeIdRefAmbiguityCode());
-            writeString(columnFor(SmallMoleculeFeatureColumn.Stable.ADDUCT_ION),
+            writeString(SmallMoleculeFeatureColumn.Stable.ADDUCT_ION.
+                getColumn(),
                 jg,
                 smallMoleculeFeature.getAdductIon());
-            writeObject(columnFor(SmallMoleculeFeatureColumn.Stable.ISOTOPOMER),
+            writeObject(SmallMoleculeFeatureColumn.Stable.ISOTOPOMER.
+                getColumn(),
                 jg, sp,
                 smallMoleculeFeature.
                     getIsotopomer());
-            writeNumber(columnFor(
-                SmallMoleculeFeatureColumn.Stable.EXP_MASS_TO_CHARGE), jg,
+            writeNumber(SmallMoleculeFeatureColumn.Stable.EXP_MASS_TO_CHARGE.
+                getColumn(), jg,
                 smallMoleculeFeature.
                     getExpMassToCharge());
-            writeNumber(columnFor(SmallMoleculeFeatureColumn.Stable.CHARGE), jg,
+            writeNumber(SmallMoleculeFeatureColumn.Stable.CHARGE.
+                getColumn(), jg,
                 smallMoleculeFeature.getCharge());
             writeNumber(
-                columnFor(
-                    SmallMoleculeFeatureColumn.Stable.RETENTION_TIME_IN_SECONDS),
+                SmallMoleculeFeatureColumn.Stable.RETENTION_TIME_IN_SECONDS.
+                    getColumn(),
                 jg,
                 smallMoleculeFeature.
                     getRetentionTimeInSeconds());
             writeNumber(
-                columnFor(
-                    SmallMoleculeFeatureColumn.Stable.RETENTION_TIME_IN_SECONDS_START),
+                SmallMoleculeFeatureColumn.Stable.RETENTION_TIME_IN_SECONDS_START.
+                    getColumn(),
                 jg, smallMoleculeFeature.
                     getRetentionTimeInSecondsStart());
             writeNumber(
-                columnFor(
-                    SmallMoleculeFeatureColumn.Stable.RETENTION_TIME_IN_SECONDS_END),
+                SmallMoleculeFeatureColumn.Stable.RETENTION_TIME_IN_SECONDS_END.
+                    getColumn(),
                 jg, smallMoleculeFeature.
                     getRetentionTimeInSecondsEnd());
             Serializers.writeIndexedDoubles(
@@ -33,7 +33,6 @@ import static de.isas.mztab2.io.serialization.Serializers.writeObject;
 import java.util.Collections;
 import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
-import static uk.ac.ebi.pride.jmztab2.model.SmallMoleculeColumn.Stable.columnFor;
 
 /**
 * <p>SmallMoleculeSummarySerializer implementation for {@link de.isas.mztab2.model.SmallMoleculeSummary}.</p>
@@ -82,44 +81,48 @@ public class SmallMoleculeSummarySerializer extends StdSerializer<SmallMoleculeS
             writeString(SmallMoleculeSummary.HeaderPrefixEnum.SMH.getValue(), jg,
                 SmallMoleculeSummary.PrefixEnum.SML.
                     getValue());
-            writeNumber(columnFor(SmallMoleculeColumn.Stable.SML_ID), jg,
+            writeNumber(SmallMoleculeColumn.Stable.SML_ID.getColumn(), jg,
                 smallMoleculeSummary.getSmlId());
-            writeAsNumberArray(columnFor(SmallMoleculeColumn.Stable.SMF_ID_REFS),
+            writeAsNumberArray(SmallMoleculeColumn.Stable.SMF_ID_REFS.
+                getColumn(),
                 jg,
                 Optional.ofNullable(smallMoleculeSummary.
                     getSmfIdRefs()).
                     orElse(Collections.emptyList()));
-            writeAsStringArray(columnFor(
-                SmallMoleculeColumn.Stable.DATABASE_IDENTIFIER),
+            writeAsStringArray(SmallMoleculeColumn.Stable.DATABASE_IDENTIFIER.
+                getColumn(),
                 jg, smallMoleculeSummary.getDatabaseIdentifier());
-            writeAsStringArray(columnFor(
-                SmallMoleculeColumn.Stable.CHEMICAL_FORMULA), jg,
+            writeAsStringArray(SmallMoleculeColumn.Stable.CHEMICAL_FORMULA.
+                getColumn(), jg,
                 smallMoleculeSummary.getChemicalFormula());
-            writeAsStringArray(columnFor(SmallMoleculeColumn.Stable.SMILES), jg,
+            writeAsStringArray(SmallMoleculeColumn.Stable.SMILES.
+                getColumn(), jg,
                 smallMoleculeSummary.getSmiles());
-            writeAsStringArray(columnFor(SmallMoleculeColumn.Stable.INCHI), jg,
+            writeAsStringArray(SmallMoleculeColumn.Stable.INCHI.getColumn(), jg,
                 smallMoleculeSummary.getInchi());
-            writeAsStringArray(columnFor(
-                SmallMoleculeColumn.Stable.CHEMICAL_NAME), jg,
+            writeAsStringArray(SmallMoleculeColumn.Stable.CHEMICAL_NAME.
+                getColumn(), jg,
                 smallMoleculeSummary.getChemicalName());
-            writeAsStringArray(columnFor(SmallMoleculeColumn.Stable.URI), jg,
+            writeAsStringArray(SmallMoleculeColumn.Stable.URI.getColumn(), jg,
                 smallMoleculeSummary.getUri());
-            writeAsNumberArray(columnFor(
-                SmallMoleculeColumn.Stable.THEOR_NEUTRAL_MASS), jg,
+            writeAsNumberArray(SmallMoleculeColumn.Stable.THEOR_NEUTRAL_MASS.
+                getColumn(), jg,
                 smallMoleculeSummary.
                     getTheoreticalNeutralMass());
-            writeAsStringArray(columnFor(SmallMoleculeColumn.Stable.ADDUCT_IONS),
+            writeAsStringArray(SmallMoleculeColumn.Stable.ADDUCT_IONS.
+                getColumn(),
                 jg,
                 smallMoleculeSummary.getAdductIons());
-            writeString(columnFor(SmallMoleculeColumn.Stable.RELIABILITY), jg,
+            writeString(SmallMoleculeColumn.Stable.RELIABILITY.getColumn(), jg,
                 smallMoleculeSummary.getReliability());
             writeObject(
-                columnFor(SmallMoleculeColumn.Stable.BEST_ID_CONFIDENCE_MEASURE),
+                SmallMoleculeColumn.Stable.BEST_ID_CONFIDENCE_MEASURE.
+                    getColumn(),
                 jg, sp,
                 smallMoleculeSummary.
                     getBestIdConfidenceMeasure());
             writeNumber(
-                columnFor(SmallMoleculeColumn.Stable.BEST_ID_CONFIDENCE_VALUE),
+                SmallMoleculeColumn.Stable.BEST_ID_CONFIDENCE_VALUE.getColumn(),
                 jg,
                 smallMoleculeSummary.
                     getBestIdConfidenceValue());
@@ -95,6 +95,16 @@ public class MZTabColumnFactory {
         return factory;
     }
 
+    /**
+     * Returns the header section of this factory.
+     *
+     * @return the header section, e.g.
+     * {@link uk.ac.ebi.pride.jmztab2.model.Section#Small_Molecule_Header}.
+     */
+    public Section getSection() {
+        return section;
+    }
+
     /**
      * Get stable columns mapping. Key is logical position, and value is
      * MZTabColumn object. Stable column with stable order: header name, data
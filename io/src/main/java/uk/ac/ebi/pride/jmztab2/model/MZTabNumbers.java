@@ -0,0 +1,214 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.pride.jmztab2.model;
+
+import static uk.ac.ebi.pride.jmztab2.model.MZTabConstants.INFINITY;
+import static uk.ac.ebi.pride.jmztab2.model.MZTabConstants.NULL;
+
+/**
+ * <p>
+ * Parses numbers from a character range of a cell or line into primitives,
+ * without creating intermediate strings. Plain decimal numbers, e.g.
+ * {@code 1234.5678} or {@code -1.5e-3}, are converted directly. Other
+ * notations accepted by {@link Double#parseDouble(java.lang.String)} and
+ * {@link Integer#parseInt(java.lang.String)} fall back to these methods, so
+ * the results are always identical.</p>
+ *
+ * <p>
+ * The mzTab special values {@code NaN} and {@code INF} are recognized as
+ * {@link Double#NaN} and {@link Double#POSITIVE_INFINITY}. Leading and
+ * trailing whitespace of the range is ignored.</p>
+ *
+ * @author nilshoffmann
+ * @see MZTabUtils#parseDouble(java.lang.String)
+ * @see MZTabUtils#parseInteger(java.lang.String)
+ */
+public final class MZTabNumbers {
+
+    // 10^0 to 10^22 are exactly representable as doubles
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+        1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    // largest mantissa that is exactly representable as a double
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final int MAX_MANTISSA_DIGITS = 18;
+
+    private MZTabNumbers() {
+    }
+
+    /**
+     * Returns true, if the range is empty, only contains whitespace or is the
+     * mzTab {@code null} value, ignoring case.
+     *
+     * @param s the characters.
+     * @param start the start offset, inclusive.
+     * @param end the end offset, exclusive.
+     * @return true, if the range does not contain a value.
+     */
+    public static boolean isNull(CharSequence s, int start, int end) {
+        start = trimStart(s, start, end);
+        end = trimEnd(s, start, end);
+        return start == end || regionMatches(s, start, end, NULL, true);
+    }
+
+    /**
+     * Parse the range into a double.
+     *
+     * @param s the characters.
+     * @param start the start offset, inclusive.
+     * @param end the end offset, exclusive.
+     * @return the value.
+     * @throws NumberFormatException if the range is not a valid double value.
+     */
+    public static double parseDouble(CharSequence s, int start, int end) {
+        start = trimStart(s, start, end);
+        end = trimEnd(s, start, end);
+        int i = start;
+        boolean negative = false;
+        if (i < end && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+            negative = s.charAt(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int mantissaDigits = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+        boolean exact = true;
+        while (i < end && isDigit(s.charAt(i))) {
+            anyDigit = true;
+            exact &= mantissaDigits < MAX_MANTISSA_DIGITS;
+            if (mantissa != 0 || s.charAt(i) != '0') {
+                mantissa = mantissa * 10 + (s.charAt(i) - '0');
+                mantissaDigits++;
+            }
+            i++;
+        }
+        if (i < end && s.charAt(i) == '.') {
+            i++;
+            while (i < end && isDigit(s.charAt(i))) {
+                anyDigit = true;
+                exact &= mantissaDigits < MAX_MANTISSA_DIGITS;
+                if (mantissa != 0 || s.charAt(i) != '0') {
+                    mantissa = mantissa * 10 + (s.charAt(i) - '0');
+                    mantissaDigits++;
+                }
+                exponent--;
+                i++;
+            }
+        }
+        if (anyDigit && i < end && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+                negativeExponent = s.charAt(i) == '-';
+                i++;
+            }
+            int exponentStart = i;
+            int explicitExponent = 0;
+            while (i < end && isDigit(s.charAt(i)) && i - exponentStart < 4) {
+                explicitExponent = explicitExponent * 10 + (s.charAt(i) - '0');
+                i++;
+            }
+            if (i == exponentStart) {
+                anyDigit = false;
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        if (anyDigit && exact && i == end) {
+            if (mantissa == 0) {
+                return negative ? -0.0d : 0.0d;
+            }
+            if (mantissa <= MAX_EXACT_MANTISSA && exponent >= -22 && exponent <= 22) {
+                // both operands are exact, so the result is correctly rounded
+                double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+                return negative ? -value : value;
+            }
+        }
+        if (regionMatches(s, start, end, INFINITY, false)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return Double.parseDouble(s.subSequence(start, end).
+            toString());
+    }
+
+    /**
+     * Parse the range into an int.
+     *
+     * @param s the characters.
+     * @param start the start offset, inclusive.
+     * @param end the end offset, exclusive.
+     * @return the value.
+     * @throws NumberFormatException if the range is not a valid int value.
+     */
+    public static int parseInt(CharSequence s, int start, int end) {
+        start = trimStart(s, start, end);
+        end = trimEnd(s, start, end);
+        int i = start;
+        boolean negative = false;
+        if (i < end && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+            negative = s.charAt(i) == '-';
+            i++;
+        }
+        // at most 9 digits can not overflow an int
+        if (i < end && end - i <= 9) {
+            int value = 0;
+            while (i < end && isDigit(s.charAt(i))) {
+                value = value * 10 + (s.charAt(i) - '0');
+                i++;
+            }
+            if (i == end) {
+                return negative ? -value : value;
+            }
+        }
+        return Integer.parseInt(s.subSequence(start, end).
+            toString());
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int trimStart(CharSequence s, int start, int end) {
+        while (start < end && s.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(CharSequence s, int start, int end) {
+        while (end > start && s.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean regionMatches(CharSequence s, int start, int end,
+        String token, boolean ignoreCase) {
+        if (end - start != token.length()) {
+            return false;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            char c = s.charAt(start + i);
+            char t = token.charAt(i);
+            if (c != t && !(ignoreCase && Character.toLowerCase(c) == Character.
+                toLowerCase(t))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
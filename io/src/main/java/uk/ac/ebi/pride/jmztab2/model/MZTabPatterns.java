@@ -0,0 +1,168 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.pride.jmztab2.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+import static uk.ac.ebi.pride.jmztab2.model.MZTabConstants.*;
+
+/**
+ * <p>
+ * Registry of the precompiled regular expressions used by {@link MZTabUtils}
+ * and the line parsers. {@link Pattern} instances are immutable and can be
+ * shared between threads, so each expression only needs to be compiled
+ * once.</p>
+ *
+ * <p>
+ * Expressions that are built at runtime, e.g. from a metadata element name,
+ * are compiled on first use via {@link #compile(java.lang.String)} and cached
+ * afterwards.</p>
+ *
+ * @author nilshoffmann
+ * @see MZTabConstants
+ */
+public final class MZTabPatterns {
+
+    /**
+     * {@link MZTabConstants#REGEX_EMAIL}
+     */
+    public static final Pattern EMAIL = Pattern.compile(REGEX_EMAIL);
+    /**
+     * {@link MZTabConstants#REGEX_MZTAB_M}
+     */
+    public static final Pattern MZTAB_M = Pattern.compile(REGEX_MZTAB_M);
+    /**
+     * {@link MZTabConstants#REGEX_PARAM_SPLIT}
+     */
+    public static final Pattern PARAM_SPLIT = Pattern.compile(
+        REGEX_PARAM_SPLIT);
+    /**
+     * {@link MZTabConstants#REGEX_DEFAULT_RELIABILITY}
+     */
+    public static final Pattern DEFAULT_RELIABILITY = Pattern.compile(
+        REGEX_DEFAULT_RELIABILITY);
+    /**
+     * {@link MZTabConstants#REGEX_ADDUCT}
+     */
+    public static final Pattern ADDUCT = Pattern.compile(REGEX_ADDUCT);
+    /**
+     * {@link MZTabConstants#REGEX_NORMAL_METADATA}
+     */
+    public static final Pattern NORMAL_METADATA = Pattern.compile(
+        REGEX_NORMAL_METADATA);
+    /**
+     * {@link MZTabConstants#REGEX_OPT_COLUMN_NAME}
+     */
+    public static final Pattern OPT_COLUMN_NAME = Pattern.compile(
+        REGEX_OPT_COLUMN_NAME);
+    /**
+     * {@link MZTabConstants#REGEX_CV_PARAM_OPT_COLUMN_NAME}
+     */
+    public static final Pattern CV_PARAM_OPT_COLUMN_NAME = Pattern.compile(
+        REGEX_CV_PARAM_OPT_COLUMN_NAME);
+    /**
+     * {@link MZTabConstants#REGEX_ABUNDANCE_COLUMN_NAME}
+     */
+    public static final Pattern ABUNDANCE_COLUMN_NAME = Pattern.compile(
+        REGEX_ABUNDANCE_COLUMN_NAME);
+    /**
+     * {@link MZTabConstants#REGEX_ABUNDANCE_ASSAY_COLUMN_NAME}
+     */
+    public static final Pattern ABUNDANCE_ASSAY_COLUMN_NAME = Pattern.compile(
+        REGEX_ABUNDANCE_ASSAY_COLUMN_NAME);
+    /**
+     * {@link MZTabConstants#REGEX_STUDY_VARIABLE_COLUMN_NAME}
+     */
+    public static final Pattern STUDY_VARIABLE_COLUMN_NAME = Pattern.compile(
+        REGEX_STUDY_VARIABLE_COLUMN_NAME);
+    /**
+     * Spectra reference {@code ms_run[1]:index=1}.
+     */
+    public static final Pattern SPECTRA_REF = Pattern.compile(
+        "ms_run\\[(\\d+)\\]:(.*)");
+    /**
+     * Minus sign in a CHEMMOD charge, e.g. {@code CHEMMOD:-159}.
+     */
+    public static final Pattern CHEMMOD_MINUS = Pattern.compile(
+        "(CHEMMOD:.*)(-)(.*)");
+    /**
+     * Escaped minus sign in a CHEMMOD charge, e.g. {@code CHEMMOD:&minus;159}.
+     */
+    public static final Pattern CHEMMOD_ESCAPED_MINUS = Pattern.compile(
+        "(.*CHEMMOD:.*)(&minus;)(.*)");
+    /**
+     * Content of a parameter in square brackets.
+     */
+    public static final Pattern BRACKETED = Pattern.compile(
+        "\\[([^\\[\\]]+)\\]");
+    /**
+     * {@code best_search_engine_score[1]}, with optional suffix.
+     */
+    public static final Pattern BEST_SEARCH_ENGINE_SCORE = Pattern.compile(
+        "search_engine_score\\[(\\d+)\\](\\w+)?");
+    /**
+     * {@code search_engine_score[1]}, with optional suffix.
+     */
+    public static final Pattern SEARCH_ENGINE_SCORE = Pattern.compile(
+        "search_engine_score\\[(\\d+)\\]\\w*");
+
+    private static final ConcurrentMap<String, Pattern> PATTERNS = new ConcurrentHashMap<>();
+
+    static {
+        for (Pattern p : new Pattern[]{EMAIL, MZTAB_M, PARAM_SPLIT,
+            DEFAULT_RELIABILITY, ADDUCT, NORMAL_METADATA, OPT_COLUMN_NAME,
+            CV_PARAM_OPT_COLUMN_NAME, ABUNDANCE_COLUMN_NAME,
+            ABUNDANCE_ASSAY_COLUMN_NAME, STUDY_VARIABLE_COLUMN_NAME}) {
+            PATTERNS.put(p.pattern(), p);
+        }
+    }
+
+    private MZTabPatterns() {
+    }
+
+    /**
+     * Returns the compiled pattern for the given regular expression. The
+     * pattern is compiled on first use and cached.
+     *
+     * @param regex the regular expression.
+     * @return the compiled pattern.
+     * @throws java.util.regex.PatternSyntaxException if the expression is
+     * invalid.
+     */
+    public static Pattern compile(String regex) {
+        Pattern pattern = PATTERNS.get(regex);
+        if (pattern == null) {
+            pattern = Pattern.compile(regex);
+            Pattern previous = PATTERNS.putIfAbsent(regex, pattern);
+            if (previous != null) {
+                pattern = previous;
+            }
+        }
+        return pattern;
+    }
+
+    /**
+     * Returns the compiled pattern {@code element\[(\d+)\]} for an indexed
+     * metadata element.
+     *
+     * @param element the element name.
+     * @return the compiled pattern.
+     */
+    public static Pattern indexed(String element) {
+        return compile(element + REGEX_INDEXED_VALUE);
+    }
+}
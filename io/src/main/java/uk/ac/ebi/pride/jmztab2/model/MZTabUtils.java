@@ -32,6 +32,7 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -90,9 +91,7 @@ public class MZTabUtils {
             return null;
         }
         
-        String regexp = REGEX_EMAIL;
-        Pattern pattern = Pattern.compile(regexp);
-        Matcher matcher = pattern.matcher(target);
+        Matcher matcher = MZTabPatterns.EMAIL.matcher(target);
         
         return matcher.find() ? target : null;
     }
@@ -110,8 +109,7 @@ public class MZTabUtils {
             return null;
         }
         
-        Pattern versionPattern = Pattern.compile(MZTabConstants.REGEX_MZTAB_M);
-        Matcher m = versionPattern.matcher(target);
+        Matcher m = MZTabPatterns.MZTAB_M.matcher(target);
         if (m.matches()) {
             Integer major = Integer.parseInt(m.group("major"));
             Integer minor = Integer.parseInt(m.group("minor"));
@@ -148,7 +146,9 @@ public class MZTabUtils {
         try {
             target = target.substring(target.indexOf("[") + 1, target.
                 lastIndexOf("]"));
-            String[] tokens = target.split(REGEX_PARAM_SPLIT, -1);
+            // commas within quotes need the look-ahead split
+            String[] tokens = target.indexOf('"') < 0 ? target.
+                split(",", -1) : MZTabPatterns.PARAM_SPLIT.split(target, -1);
             
             if (tokens.length == 4) {
                 String cvLabel = tokens[0].trim();
@@ -254,8 +254,8 @@ public class MZTabUtils {
             return null;
         }
         
-        Pattern pattern = Pattern.compile(element + "\\[(\\d+)\\]");
-        Matcher matcher = pattern.matcher(target);
+        Matcher matcher = MZTabPatterns.indexed(element.toString()).
+            matcher(target);
         if (matcher.find()) {
             Integer id = new Integer(matcher.group(1));
             IndexedElement p = new IndexedElement().id(id);
@@ -298,12 +298,25 @@ public class MZTabUtils {
      * @return a {@link java.util.List} object.
      */
     public static List<Parameter> parseParamList(String target) {
+        return parseParamList(target, MZTabUtils::parseParam);
+    }
+
+    /**
+     * A list of '|' separated parameters, each parsed by the given function.
+     *
+     * @param target a {@link java.lang.String} object.
+     * @param paramParser the function to parse a single parameter, returning
+     * null for invalid parameters.
+     * @return a {@link java.util.List} object.
+     */
+    public static List<Parameter> parseParamList(String target,
+        Function<String, Parameter> paramParser) {
         List<String> list = parseStringList(BAR, target);
         
         Parameter param;
         SplitList<Parameter> paramList = new SplitList<>(BAR);
         for (String item : list) {
-            param = parseParam(item);
+            param = paramParser.apply(item);
             if (param == null) {
                 paramList.clear();
                 return paramList;
@@ -346,20 +359,15 @@ public class MZTabUtils {
      * @return a {@link java.lang.Integer} object.
      */
     public static Integer parseInteger(String target) {
-        target = parseString(target);
-        if (target == null) {
+        if (target == null || MZTabNumbers.isNull(target, 0, target.length())) {
             return null;
         }
         
-        Integer integer;
-        
         try {
-            integer = new Integer(target);
+            return MZTabNumbers.parseInt(target, 0, target.length());
         } catch (NumberFormatException e) {
-            integer = null;
+            return null;
         }
-        
-        return integer;
     }
 
     /**
@@ -371,29 +379,15 @@ public class MZTabUtils {
      * @return a {@link java.lang.Double} object.
      */
     public static Double parseDouble(String target) {
-        target = parseString(target);
-        if (target == null) {
+        if (target == null || MZTabNumbers.isNull(target, 0, target.length())) {
             return null;
         }
         
-        Double value;
         try {
-            value = new Double(target);
+            return MZTabNumbers.parseDouble(target, 0, target.length());
         } catch (NumberFormatException e) {
-            switch (target) {
-                case CALCULATE_ERROR:
-                    value = Double.NaN;
-                    break;
-                case INFINITY:
-                    value = Double.POSITIVE_INFINITY;
-                    break;
-                default:
-                    value = null;
-                    break;
-            }
+            return null;
         }
-        
-        return value;
     }
 
     /**
@@ -424,18 +418,27 @@ public class MZTabUtils {
      * @return a {@link java.util.List} object.
      */
     public static List<Double> parseDoubleList(String target) {
-        List<String> list = parseStringList(BAR, target);
-        
-        Double value;
         List<Double> valueList = new ArrayList<>(BAR);
-        for (String item : list) {
-            value = parseDouble(item);
-            if (value == null) {
+        if (target == null || MZTabNumbers.isNull(target, 0, target.length())) {
+            return valueList;
+        }
+        
+        int end = listEnd(target);
+        int start = 0;
+        while (start < end) {
+            int next = target.indexOf(BAR, start);
+            int itemEnd = next < 0 || next > end ? end : next;
+            if (MZTabNumbers.isNull(target, start, itemEnd)) {
+                valueList.clear();
+                break;
+            }
+            try {
+                valueList.add(MZTabNumbers.parseDouble(target, start, itemEnd));
+            } catch (NumberFormatException e) {
                 valueList.clear();
                 break;
-            } else {
-                valueList.add(value);
             }
+            start = itemEnd + 1;
         }
         
         return valueList;
@@ -449,23 +452,47 @@ public class MZTabUtils {
      * @return a {@link java.util.List} object.
      */
     public static List<Integer> parseIntegerList(String target) {
-        List<String> list = parseStringList(BAR, target);
-        
-        Integer value;
         List<Integer> valueList = new ArrayList<>(BAR);
-        for (String item : list) {
-            value = parseInteger(item);
-            if (value == null) {
+        if (target == null || MZTabNumbers.isNull(target, 0, target.length())) {
+            return valueList;
+        }
+        
+        int end = listEnd(target);
+        int start = 0;
+        while (start < end) {
+            int next = target.indexOf(BAR, start);
+            int itemEnd = next < 0 || next > end ? end : next;
+            if (MZTabNumbers.isNull(target, start, itemEnd)) {
+                valueList.clear();
+                break;
+            }
+            try {
+                valueList.add(MZTabNumbers.parseInt(target, start, itemEnd));
+            } catch (NumberFormatException e) {
                 valueList.clear();
                 break;
-            } else {
-                valueList.add(value);
             }
+            start = itemEnd + 1;
         }
         
         return valueList;
     }
 
+    /**
+     * End of the items of a '|' separated list, trailing empty items are
+     * ignored, as by {@link String#split(java.lang.String)}.
+     */
+    private static int listEnd(String target) {
+        int end = target.length();
+        while (end > 0 && target.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        while (end > 0 && target.charAt(end - 1) == BAR) {
+            end--;
+        }
+        return end;
+    }
+
     /**
      * <p>
      * parseURI.</p>
@@ -551,7 +578,7 @@ public class MZTabUtils {
         List<String> list = parseStringList(BAR, target);
         List<SpectraRef> refList = new ArrayList<>();
         
-        Pattern pattern = Pattern.compile("ms_run\\[(\\d+)\\]:(.*)");
+        Pattern pattern = MZTabPatterns.SPECTRA_REF;
         Matcher matcher;
         Integer ms_file_id;
         String reference;
@@ -591,8 +618,10 @@ public class MZTabUtils {
      * @return a {@link java.lang.String} object.
      */
     public static String translateMinusToUnicode(String target) {
-        Pattern pattern = Pattern.compile("(CHEMMOD:.*)(-)(.*)");
-        Matcher matcher = pattern.matcher(target);
+        if (!target.contains("CHEMMOD:")) {
+            return target;
+        }
+        Matcher matcher = MZTabPatterns.CHEMMOD_MINUS.matcher(target);
         StringBuilder sb = new StringBuilder();
         if (matcher.find()) {
             sb.append(matcher.group(1));
@@ -613,8 +642,10 @@ public class MZTabUtils {
      * @return a {@link java.lang.String} object.
      */
     public static String translateMinusInCVtoUnicode(String target) {
-        Pattern pattern = Pattern.compile("\\[([^\\[\\]]+)\\]");
-        Matcher matcher = pattern.matcher(target);
+        if (target.indexOf('[') < 0) {
+            return target;
+        }
+        Matcher matcher = MZTabPatterns.BRACKETED.matcher(target);
         
         StringBuilder sb = new StringBuilder();
         
@@ -624,7 +655,7 @@ public class MZTabUtils {
             end = matcher.start(1);
             sb.append(target.substring(start, end));
             sb.append(matcher.group(1).
-                replaceAll("-", "&minus;"));
+                replace("-", "&minus;"));
             start = matcher.end(1);
         }
         sb.append(target.substring(start, target.length()));
@@ -640,7 +671,7 @@ public class MZTabUtils {
      * @return a {@link java.lang.String} object.
      */
     public static String translateUnicodeCVTermMinus(String target) {
-        return target.replaceAll("&minus;", "-");
+        return target.replace("&minus;", "-");
     }
 
     /**
@@ -651,8 +682,10 @@ public class MZTabUtils {
      * @return a {@link java.lang.String} object.
      */
     public static String translateUnicodeToMinus(String target) {
-        Pattern pattern = Pattern.compile("(.*CHEMMOD:.*)(&minus;)(.*)");
-        Matcher matcher = pattern.matcher(target);
+        if (!target.contains("&minus;")) {
+            return target;
+        }
+        Matcher matcher = MZTabPatterns.CHEMMOD_ESCAPED_MINUS.matcher(target);
         if (matcher.find()) {
             StringBuilder sb = new StringBuilder();
             
@@ -673,8 +706,10 @@ public class MZTabUtils {
      * @return a {@link java.lang.String} object.
      */
     public static String translateCommaToTab(String target) {
-        Pattern pattern = Pattern.compile("\\[([^\\[\\]]+)\\]");
-        Matcher matcher = pattern.matcher(target);
+        if (target.indexOf('[') < 0) {
+            return target;
+        }
+        Matcher matcher = MZTabPatterns.BRACKETED.matcher(target);
         
         StringBuilder sb = new StringBuilder();
         
@@ -684,7 +719,7 @@ public class MZTabUtils {
             end = matcher.start(1);
             sb.append(target.substring(start, end));
             sb.append(matcher.group(1).
-                replaceAll(",", "\t"));
+                replace(',', '\t'));
             start = matcher.end(1);
         }
         sb.append(target.substring(start, target.length()));
@@ -700,8 +735,10 @@ public class MZTabUtils {
      * @return a {@link java.lang.String} object.
      */
     public static String translateTabToComma(String target) {
-        Pattern pattern = Pattern.compile("\\[([^\\[\\]]+)\\]");
-        Matcher matcher = pattern.matcher(target);
+        if (target.indexOf('[') < 0) {
+            return target;
+        }
+        Matcher matcher = MZTabPatterns.BRACKETED.matcher(target);
         
         StringBuilder sb = new StringBuilder();
         
@@ -711,7 +748,7 @@ public class MZTabUtils {
             end = matcher.start(1);
             sb.append(target.substring(start, end));
             sb.append(matcher.group(1).
-                replaceAll("\t", ","));
+                replace('\t', ','));
             start = matcher.end(1);
         }
         sb.append(target.substring(start, target.length()));
@@ -728,8 +765,10 @@ public class MZTabUtils {
      * @return a {@link java.lang.String} object.
      */
     public static String translateMinusToTab(String target) {
-        Pattern pattern = Pattern.compile("\\[([^\\[\\]]+)\\]");
-        Matcher matcher = pattern.matcher(target);
+        if (target.indexOf('[') < 0) {
+            return target;
+        }
+        Matcher matcher = MZTabPatterns.BRACKETED.matcher(target);
         
         StringBuilder sb = new StringBuilder();
         
@@ -739,7 +778,7 @@ public class MZTabUtils {
             end = matcher.start(1);
             sb.append(target.substring(start, end));
             sb.append(matcher.group(1).
-                replaceAll("-", "\t"));
+                replace('-', '\t'));
             start = matcher.end(1);
         }
         sb.append(target.substring(start, target.length()));
@@ -767,8 +806,10 @@ public class MZTabUtils {
      * @return a {@link java.lang.String} object.
      */
     public static String translateLastToTab(String target) {
-        Pattern pattern = Pattern.compile("\\[([^\\[\\]]+)\\]");
-        Matcher matcher = pattern.matcher(target);
+        if (target.indexOf('[') < 0) {
+            return target;
+        }
+        Matcher matcher = MZTabPatterns.BRACKETED.matcher(target);
         
         StringBuilder sb = new StringBuilder();
         
@@ -794,8 +835,10 @@ public class MZTabUtils {
      * @return a {@link java.lang.String} object.
      */
     public static String translateTabToMinus(String target) {
-        Pattern pattern = Pattern.compile("\\[([^\\[\\]]+)\\]");
-        Matcher matcher = pattern.matcher(target);
+        if (target.indexOf('[') < 0) {
+            return target;
+        }
+        Matcher matcher = MZTabPatterns.BRACKETED.matcher(target);
         
         StringBuilder sb = new StringBuilder();
         
@@ -805,7 +848,7 @@ public class MZTabUtils {
             end = matcher.start(1);
             sb.append(target.substring(start, end));
             sb.append(matcher.group(1).
-                replaceAll("\t", "-"));
+                replace('\t', '-'));
             start = matcher.end(1);
         }
         sb.append(target.substring(start, target.length()));
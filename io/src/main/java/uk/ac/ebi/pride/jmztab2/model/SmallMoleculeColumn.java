@@ -20,7 +20,9 @@ import de.isas.mztab2.model.Parameter;
 import de.isas.mztab2.model.SmallMoleculeSummary;
 import static de.isas.mztab2.model.SmallMoleculeSummary.Properties.*;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -49,6 +51,10 @@ public class SmallMoleculeColumn implements ISmallMoleculeColumn {
         this.column = new MZTabColumn(name, dataType, optional, order, id);
     }
 
+    SmallMoleculeColumn(IMZTabColumn column) {
+        this.column = column;
+    }
+
     /**
      * Stable {@link SmallMoleculeColumn} definition templates.
      */
@@ -76,26 +82,38 @@ public class SmallMoleculeColumn implements ISmallMoleculeColumn {
         BEST_ID_CONFIDENCE_VALUE(
             bestIdConfidenceValue, Double.class, false, "13");
 
+        private static final Map<String, Stable> BY_NAME = new HashMap<>();
+        private static final Map<String, Stable> BY_HEADER = new HashMap<>();
+
+        static {
+            for (Stable s : values()) {
+                BY_NAME.putIfAbsent(s.column.getName(), s);
+                BY_HEADER.putIfAbsent(s.column.getHeader(), s);
+            }
+        }
+
         private final ISmallMoleculeColumn column;
 
         private Stable(SmallMoleculeSummary.Properties property,
             Class columnType, boolean optional,
             String order) {
-            this.column = new SmallMoleculeColumn(property.getPropertyName(),
-                columnType, optional,
-                order);
+            this.column = new SmallMoleculeColumn(
+                new StableColumnDescriptor(property.getPropertyName(),
+                    columnType, optional, order));
         }
 
         private Stable(String name, Class columnType, boolean optional,
             String order) {
-            this.column = new SmallMoleculeColumn(name, columnType, optional,
-                order);
+            this.column = new SmallMoleculeColumn(
+                new StableColumnDescriptor(name,
+                    columnType, optional, order));
         }
 
         private Stable(String name, Class columnType, boolean optional,
             String order, Integer id) {
-            this.column = new SmallMoleculeColumn(name, columnType, optional,
-                order, id);
+            this.column = new SmallMoleculeColumn(
+                new StableColumnDescriptor(name,
+                    columnType, optional, order, id));
         }
 
         /**
@@ -106,18 +124,48 @@ public class SmallMoleculeColumn implements ISmallMoleculeColumn {
          * @throws IllegalArgumentException for unknown column names.
          */
         public static SmallMoleculeColumn.Stable forName(String name) throws IllegalArgumentException {
-            SmallMoleculeColumn.Stable s = Arrays.stream(
-                SmallMoleculeColumn.Stable.values()).
-                filter((v) ->
-                    v.column.
-                        getName().
-                        equals(name)).
-                findFirst().
-                orElseThrow(() ->
-                    new IllegalArgumentException("Unknown key:" + name));
+            Stable s = BY_NAME.get(name);
+            if (s == null) {
+                throw new IllegalArgumentException("Unknown key:" + name);
+            }
+            return s;
+        }
+
+        /**
+         * Returns the stable column template for the given column header.
+         *
+         * @param header the column header.
+         * @return the stable column template.
+         * @throws IllegalArgumentException for unknown column headers.
+         */
+        public static Stable forHeader(String header) throws IllegalArgumentException {
+            Stable s = BY_HEADER.get(header);
+            if (s == null) {
+                throw new IllegalArgumentException("Unknown header:" + header);
+            }
             return s;
         }
 
+        /**
+         * Returns the shared, immutable column descriptor of this stable
+         * column. Its setters throw an {@link UnsupportedOperationException},
+         * use {@link #columnFor(Stable)} for a new, mutable column instance.
+         *
+         * @return the column descriptor.
+         */
+        public ISmallMoleculeColumn getColumn() {
+            return column;
+        }
+
+        /**
+         * Returns the header of this stable column.
+         *
+         * @return the column header.
+         */
+        public String getHeader() {
+            return column.getHeader();
+        }
+
         /**
          * Returns a new {@link ISmallMoleculeColumn} instance for the
          * given stable column template.
@@ -21,7 +21,9 @@ import de.isas.mztab2.model.StringList;
 import de.isas.mztab2.model.SmallMoleculeEvidence;
 import static de.isas.mztab2.model.SmallMoleculeEvidence.Properties.*;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -46,6 +48,10 @@ public class SmallMoleculeEvidenceColumn implements ISmallMoleculeEvidenceColumn
         this.column = new MZTabColumn(name, dataType, optional, order, id);
     }
 
+    SmallMoleculeEvidenceColumn(IMZTabColumn column) {
+        this.column = column;
+    }
+
     /**
      * Stable {@link SmallMoleculeEvidenceColumn} definition templates.
      */
@@ -77,28 +83,38 @@ public class SmallMoleculeEvidenceColumn implements ISmallMoleculeEvidenceColumn
         MS_LEVEL(msLevel, Parameter.class, false, "16"),
         RANK(rank, Integer.class, false, "17");
 
+        private static final Map<String, Stable> BY_NAME = new HashMap<>();
+        private static final Map<String, Stable> BY_HEADER = new HashMap<>();
+
+        static {
+            for (Stable s : values()) {
+                BY_NAME.putIfAbsent(s.column.getName(), s);
+                BY_HEADER.putIfAbsent(s.column.getHeader(), s);
+            }
+        }
+
         private final ISmallMoleculeEvidenceColumn column;
 
         private Stable(SmallMoleculeEvidence.Properties property,
             Class columnType, boolean optional,
             String order) {
-            this.column = new SmallMoleculeEvidenceColumn(property.
-                getPropertyName(), columnType, optional,
-                order);
+            this.column = new SmallMoleculeEvidenceColumn(
+                new StableColumnDescriptor(property.getPropertyName(),
+                    columnType, optional, order));
         }
 
         private Stable(String name, Class columnType, boolean optional,
             String order) {
-            this.column = new SmallMoleculeEvidenceColumn(name, columnType,
-                optional,
-                order);
+            this.column = new SmallMoleculeEvidenceColumn(
+                new StableColumnDescriptor(name,
+                    columnType, optional, order));
         }
 
         private Stable(String name, Class columnType, boolean optional,
             String order, Integer id) {
-            this.column = new SmallMoleculeEvidenceColumn(name, columnType,
-                optional,
-                order, id);
+            this.column = new SmallMoleculeEvidenceColumn(
+                new StableColumnDescriptor(name,
+                    columnType, optional, order, id));
         }
 
         /**
@@ -109,18 +125,48 @@ public class SmallMoleculeEvidenceColumn implements ISmallMoleculeEvidenceColumn
          * @throws IllegalArgumentException for unknown column names.
          */
         public static SmallMoleculeEvidenceColumn.Stable forName(String name) throws IllegalArgumentException {
-            SmallMoleculeEvidenceColumn.Stable s = Arrays.stream(
-                SmallMoleculeEvidenceColumn.Stable.values()).
-                filter((v) ->
-                    v.column.
-                        getName().
-                        equals(name)).
-                findFirst().
-                orElseThrow(() ->
-                    new IllegalArgumentException("Unknown key:" + name));
+            Stable s = BY_NAME.get(name);
+            if (s == null) {
+                throw new IllegalArgumentException("Unknown key:" + name);
+            }
+            return s;
+        }
+
+        /**
+         * Returns the stable column template for the given column header.
+         *
+         * @param header the column header.
+         * @return the stable column template.
+         * @throws IllegalArgumentException for unknown column headers.
+         */
+        public static Stable forHeader(String header) throws IllegalArgumentException {
+            Stable s = BY_HEADER.get(header);
+            if (s == null) {
+                throw new IllegalArgumentException("Unknown header:" + header);
+            }
             return s;
         }
 
+        /**
+         * Returns the shared, immutable column descriptor of this stable
+         * column. Its setters throw an {@link UnsupportedOperationException},
+         * use {@link #columnFor(Stable)} for a new, mutable column instance.
+         *
+         * @return the column descriptor.
+         */
+        public ISmallMoleculeEvidenceColumn getColumn() {
+            return column;
+        }
+
+        /**
+         * Returns the header of this stable column.
+         *
+         * @return the column header.
+         */
+        public String getHeader() {
+            return column.getHeader();
+        }
+
         /**
          * Returns a new {@link ISmallMoleculeEvidenceColumn} instance for the
          * given stable column template.
@@ -20,7 +20,9 @@ import de.isas.mztab2.model.SmallMoleculeFeature;
 import static de.isas.mztab2.model.SmallMoleculeFeature.Properties.*;
 import de.isas.mztab2.model.StringList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -48,6 +50,10 @@ public class SmallMoleculeFeatureColumn implements ISmallMoleculeFeatureColumn {
         this.column = new MZTabColumn(name, dataType, optional, order, id);
     }
 
+    SmallMoleculeFeatureColumn(IMZTabColumn column) {
+        this.column = column;
+    }
+
     /**
      * Stable {@link SmallMoleculeFeatureColumn} definition templates.
      */
@@ -69,28 +75,38 @@ public class SmallMoleculeFeatureColumn implements ISmallMoleculeFeatureColumn {
         RETENTION_TIME_IN_SECONDS_END(retentionTimeInSecondsEnd, Double.class,
             true, "10");
 
+        private static final Map<String, Stable> BY_NAME = new HashMap<>();
+        private static final Map<String, Stable> BY_HEADER = new HashMap<>();
+
+        static {
+            for (Stable s : values()) {
+                BY_NAME.putIfAbsent(s.column.getName(), s);
+                BY_HEADER.putIfAbsent(s.column.getHeader(), s);
+            }
+        }
+
         private final ISmallMoleculeFeatureColumn column;
 
         private Stable(SmallMoleculeFeature.Properties property,
             Class columnType, boolean optional,
             String order) {
-            this.column = new SmallMoleculeFeatureColumn(property.
-                getPropertyName(), columnType, optional,
-                order);
+            this.column = new SmallMoleculeFeatureColumn(
+                new StableColumnDescriptor(property.getPropertyName(),
+                    columnType, optional, order));
         }
 
         private Stable(String name, Class columnType, boolean optional,
             String order) {
-            this.column = new SmallMoleculeFeatureColumn(name, columnType,
-                optional,
-                order);
+            this.column = new SmallMoleculeFeatureColumn(
+                new StableColumnDescriptor(name,
+                    columnType, optional, order));
         }
 
         private Stable(String name, Class columnType, boolean optional,
             String order, Integer id) {
-            this.column = new SmallMoleculeFeatureColumn(name, columnType,
-                optional,
-                order, id);
+            this.column = new SmallMoleculeFeatureColumn(
+                new StableColumnDescriptor(name,
+                    columnType, optional, order, id));
         }
 
         /**
@@ -101,17 +117,48 @@ public class SmallMoleculeFeatureColumn implements ISmallMoleculeFeatureColumn {
          * @throws IllegalArgumentException for unknown column names.
          */
         public static Stable forName(String name) throws IllegalArgumentException {
-            Stable s = Arrays.stream(Stable.values()).
-                filter((v) ->
-                    v.column.
-                        getName().
-                        equals(name)).
-                findFirst().
-                orElseThrow(() ->
-                    new IllegalArgumentException("Unknown key:" + name));
+            Stable s = BY_NAME.get(name);
+            if (s == null) {
+                throw new IllegalArgumentException("Unknown key:" + name);
+            }
+            return s;
+        }
+
+        /**
+         * Returns the stable column template for the given column header.
+         *
+         * @param header the column header.
+         * @return the stable column template.
+         * @throws IllegalArgumentException for unknown column headers.
+         */
+        public static Stable forHeader(String header) throws IllegalArgumentException {
+            Stable s = BY_HEADER.get(header);
+            if (s == null) {
+                throw new IllegalArgumentException("Unknown header:" + header);
+            }
             return s;
         }
 
+        /**
+         * Returns the shared, immutable column descriptor of this stable
+         * column. Its setters throw an {@link UnsupportedOperationException},
+         * use {@link #columnFor(Stable)} for a new, mutable column instance.
+         *
+         * @return the column descriptor.
+         */
+        public ISmallMoleculeFeatureColumn getColumn() {
+            return column;
+        }
+
+        /**
+         * Returns the header of this stable column.
+         *
+         * @return the column header.
+         */
+        public String getHeader() {
+            return column.getHeader();
+        }
+
         /**
          * Returns a new {@link ISmallMoleculeFeatureColumn} instance for the
          * given stable column template.
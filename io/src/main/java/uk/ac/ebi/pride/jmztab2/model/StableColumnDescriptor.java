@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.pride.jmztab2.model;
+
+import de.isas.mztab2.model.IndexedElement;
+
+/**
+ * Immutable {@link MZTabColumn} backing the stable column templates of
+ * {@link SmallMoleculeColumn.Stable}, {@link SmallMoleculeFeatureColumn.Stable}
+ * and {@link SmallMoleculeEvidenceColumn.Stable}, which are shared by all
+ * readers and writers. Its setters throw an
+ * {@link UnsupportedOperationException}.
+ *
+ * @author nilshoffmann
+ */
+final class StableColumnDescriptor extends MZTabColumn {
+
+    StableColumnDescriptor(String name, Class<?> dataType, boolean optional,
+        String order) {
+        super(name, dataType, optional, order);
+    }
+
+    StableColumnDescriptor(String name, Class<?> dataType, boolean optional,
+        String order, Integer id) {
+        super(name, dataType, optional, order, id);
+    }
+
+    @Override
+    public void setHeader(String header) {
+        throw immutable();
+    }
+
+    @Override
+    public void setLogicPosition(String logicPosition) {
+        throw immutable();
+    }
+
+    @Override
+    public void setOrder(String order) {
+        throw immutable();
+    }
+
+    @Override
+    public void setElement(IndexedElement element) {
+        throw immutable();
+    }
+
+    private static UnsupportedOperationException immutable() {
+        return new UnsupportedOperationException(
+            "Stable column descriptors are immutable!");
+    }
+}
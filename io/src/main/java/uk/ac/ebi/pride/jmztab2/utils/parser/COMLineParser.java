@@ -52,7 +52,7 @@ public class COMLineParser extends MZTabLineParser {
      * @return a {@link de.isas.mztab2.model.Comment} object.
      */
     public Comment getComment() {
-        String msg = items.length == 1 ? "" : items[1];
+        String msg = items().length == 1 ? "" : items()[1];
         return new Comment().msg(msg).lineNumber(lineNumber);
     }
 }
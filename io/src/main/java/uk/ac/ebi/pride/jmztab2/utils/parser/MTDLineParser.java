@@ -15,6 +15,7 @@
  */
 package uk.ac.ebi.pride.jmztab2.utils.parser;
 
+import uk.ac.ebi.pride.jmztab2.model.MZTabPatterns;
 import uk.ac.ebi.pride.jmztab2.model.MetadataProperty;
 import uk.ac.ebi.pride.jmztab2.model.MetadataElement;
 import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabError;
@@ -43,7 +44,6 @@ import java.net.URI;
 import java.util.*;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import uk.ac.ebi.pride.jmztab2.model.MZTabConstants;
 import static uk.ac.ebi.pride.jmztab2.model.MZTabUtils.*;
@@ -90,15 +90,15 @@ public class MTDLineParser extends MZTabLineParser {
     public void parse(int lineNumber, String mtdLine, MZTabErrorList errorList) throws MZTabException {
         super.parse(lineNumber, mtdLine, errorList);
 
-        if (items.length != 3) {
+        if (items().length != 3) {
             MZTabError error = new MZTabError(FormatErrorType.MTDLine,
                 lineNumber, mtdLine);
             throw new MZTabException(error);
         }
 
-        String defineLabel = items[1].trim().
+        String defineLabel = items()[1].trim().
             toLowerCase();
-        String valueLabel = items[2].trim();
+        String valueLabel = items()[2].trim();
 
         parseNormalMetadata(defineLabel, valueLabel);
     }
@@ -111,8 +111,8 @@ public class MTDLineParser extends MZTabLineParser {
         String email = parseEmail(valueLabel);
 
         if (email == null) {
-            errorList.add(new MZTabError(FormatErrorType.Email, lineNumber,
-                Error_Header + defineLabel, valueLabel));
+            errorList.add(FormatErrorType.Email, lineNumber,
+                Error_Header + defineLabel, valueLabel);
         }
 
         return email;
@@ -147,8 +147,8 @@ public class MTDLineParser extends MZTabLineParser {
     private Parameter checkParameter(String defineLabel, String valueLabel) {
         Parameter param = parseParam(valueLabel);
         if (param == null) {
-            errorList.add(new MZTabError(FormatErrorType.Param, lineNumber,
-                Error_Header + defineLabel, valueLabel));
+            errorList.add(FormatErrorType.Param, lineNumber,
+                Error_Header + defineLabel, valueLabel);
         }
         return param;
     }
@@ -162,8 +162,8 @@ public class MTDLineParser extends MZTabLineParser {
         List<Parameter> paramList = parseParamList(valueLabel);
 
         if (paramList.isEmpty()) {
-            errorList.add(new MZTabError(FormatErrorType.ParamList, lineNumber,
-                Error_Header + defineLabel, valueLabel));
+            errorList.add(FormatErrorType.ParamList, lineNumber,
+                Error_Header + defineLabel, valueLabel);
         }
 
         return paramList;
@@ -187,9 +187,8 @@ public class MTDLineParser extends MZTabLineParser {
             if (publications == null || publications.getPublicationItems() == null || publications.
                 getPublicationItems().
                 isEmpty()) {
-                errorList.add(
-                    new MZTabError(FormatErrorType.Publication, lineNumber,
-                        Error_Header + defineLabel, valueLabel));
+                errorList.add(FormatErrorType.Publication, lineNumber,
+                        Error_Header + defineLabel, valueLabel);
             }
         } catch (MZTabException ex) {
             errorList.add(ex.getError());
@@ -208,17 +207,17 @@ public class MTDLineParser extends MZTabLineParser {
         if (null == parseString(valueLabel)) {
             if (mandatory) {
                 // "null" value is supported when the ms_run[1-n]-location is unknown
-                errorList.add(new MZTabError(LogicalErrorType.NotNULL,
+                errorList.add(LogicalErrorType.NotNULL,
                     lineNumber,
-                    Error_Header + defineLabel, valueLabel));
+                    Error_Header + defineLabel, valueLabel);
             }
             return null;
         }
 
         java.net.URI uri = parseURI(valueLabel);
         if (uri == null) {
-            errorList.add(new MZTabError(FormatErrorType.URI, lineNumber,
-                Error_Header + defineLabel, valueLabel));
+            errorList.add(FormatErrorType.URI, lineNumber,
+                Error_Header + defineLabel, valueLabel);
         }
 
         return uri;
@@ -288,8 +287,7 @@ public class MTDLineParser extends MZTabLineParser {
      * If exists parse error, add it into {@link MZTabErrorList}
      */
     private void parseNormalMetadata(String defineLabel, String valueLabel) throws MZTabException {
-        Pattern pattern = Pattern.compile(MZTabConstants.REGEX_NORMAL_METADATA);
-        Matcher matcher = pattern.matcher(defineLabel);
+        Matcher matcher = MZTabPatterns.NORMAL_METADATA.matcher(defineLabel);
 
         if (matcher.find()) {
             // Stage 1: create Unit.
@@ -407,20 +405,20 @@ public class MTDLineParser extends MZTabLineParser {
             && !defineLabel.equals(
                 Metadata.Properties.colunitSmallMoleculeFeature.
                     getPropertyName())) {
-            errorList.add(new MZTabError(
+            errorList.add(
                 FormatErrorType.MTDDefineLabel, lineNumber,
-                defineLabel));
+                defineLabel);
         } else {
             String[] colunitDef = valueLabel.split("=");
             if (colunitDef.length != 2) {
-                errorList.add(new MZTabError(
-                    FormatErrorType.InvalidColunitFormat, lineNumber, valueLabel));
+                errorList.add(
+                    FormatErrorType.InvalidColunitFormat, lineNumber, valueLabel);
             }
             Parameter p = checkParameter(defineLabel, colunitDef[1]);
             String columnName = colunitDef[0];
             if (columnName == null) {
-                errorList.add(new MZTabError(
-                    FormatErrorType.InvalidColunitFormat, lineNumber, valueLabel));
+                errorList.add(
+                    FormatErrorType.InvalidColunitFormat, lineNumber, valueLabel);
             } else {
                 if (defineLabel.equals(
                     Metadata.Properties.colunitSmallMolecule.getPropertyName())) {
@@ -436,9 +434,9 @@ public class MTDLineParser extends MZTabLineParser {
                     context.
                         addSmallMoleculeEvidenceColUnit(metadata, columnName, p);
                 } else {
-                    errorList.add(new MZTabError(
+                    errorList.add(
                         FormatErrorType.MTDDefineLabel, lineNumber,
-                        defineLabel));
+                        defineLabel);
                 }
             }
         }
@@ -724,64 +722,64 @@ public class MTDLineParser extends MZTabLineParser {
 
         if (metadata.getMzTabVersion() == null) {
 
-            errorList.add(new MZTabError(
+            errorList.add(
                 LogicalErrorType.NotDefineInMetadata, -1,
                 Metadata.Properties.mzTabVersion.getPropertyName(),
-                metadata.getMzTabVersion()));
+                metadata.getMzTabVersion());
         }
 
         if (metadata.getMzTabID() == null) {
-            errorList.add(new MZTabError(
+            errorList.add(
                 LogicalErrorType.NotDefineInMetadata, -1,
                 Metadata.Properties.mzTabID.getPropertyName(),
-                metadata.getMzTabVersion()));
+                metadata.getMzTabVersion());
         }
 
         if (metadata.getSoftware() == null) {
-            errorList.add(new MZTabError(
+            errorList.add(
                 LogicalErrorType.NotDefineInMetadata, -1,
                 Metadata.Properties.software.getPropertyName(),
-                metadata.getMzTabVersion()));
+                metadata.getMzTabVersion());
         }
 
         if (metadata.getQuantificationMethod() == null) {
-            errorList.add(new MZTabError(
+            errorList.add(
                 LogicalErrorType.NotDefineInMetadata, -1,
-                Metadata.Properties.quantificationMethod.getPropertyName()));
+                Metadata.Properties.quantificationMethod.getPropertyName());
         }
 
         if (assayMap.isEmpty()) {
-            errorList.add(new MZTabError(
+            errorList.add(
                 LogicalErrorType.NotDefineInMetadata, -1,
-                Metadata.Properties.assay + ""));
+                Metadata.Properties.assay + "");
         }
 
         for (Integer id : assayMap.keySet()) {
             if (assayMap.get(id).
                 getMsRunRef() == null) {
-                errorList.add(new MZTabError(
+                errorList.add(
                     LogicalErrorType.NotDefineInMetadata, -1,
-                    Metadata.Properties.assay + "[" + id + "]-" + Assay.Properties.msRunRef));
+                    Metadata.Properties.assay + "[" + id + "]-" + Assay.Properties.msRunRef);
             }
         }
 
         if (svMap.isEmpty()) {
-            errorList.add(new MZTabError(
+            errorList.add(
                 LogicalErrorType.NotDefineInMetadata, -1,
-                Metadata.Properties.studyVariable + ""));
+                Metadata.Properties.studyVariable + "");
         } else {
             for (Integer id : svMap.keySet()) {
                 if (svMap.get(id).
                     getName() == null) {
-                    errorList.add(new MZTabError(
+                    errorList.add(
                         LogicalErrorType.NotDefineInMetadata, -1,
-                        Metadata.Properties.studyVariable + "[" + id + "]" + "\t" + "<NAME>"));
+                        Metadata.Properties.studyVariable + "[" + id + "]" + "\t" + "<NAME>");
                 }
                 if (svMap.get(id).
                     getDescription() == null) {
-                    errorList.add(new MZTabError(
+                    errorList.add(
                         LogicalErrorType.NotDefineInMetadata, -1,
-                        Metadata.Properties.studyVariable + "[" + id + "]-" + StudyVariable.Properties.description + "\t" + "<DESCRIPTION>"));
+                        Metadata.Properties.studyVariable + "[" + id + "]-" + StudyVariable.Properties.description + "\t" + "<DESCRIPTION>");
                 }
             }
         }
@@ -791,9 +789,9 @@ public class MTDLineParser extends MZTabLineParser {
                 if (svMap.get(id).
                     getAssayRefs().
                     size() == 0) {
-                    errorList.add(new MZTabError(
+                    errorList.add(
                         LogicalErrorType.AssayRefs, -1,
-                        Metadata.Properties.studyVariable + "[" + id + "]-" + StudyVariable.Properties.assayRefs));
+                        Metadata.Properties.studyVariable + "[" + id + "]-" + StudyVariable.Properties.assayRefs);
                 }
             }
         }
@@ -801,54 +799,54 @@ public class MTDLineParser extends MZTabLineParser {
         for (Integer id : runMap.keySet()) {
             if (runMap.get(id).
                 getLocation() == null) {
-                errorList.add(new MZTabError(
+                errorList.add(
                     LogicalErrorType.NotDefineInMetadata, -1,
-                    Metadata.Properties.msRun + "[" + id + "]-" + MsRun.Properties.location));
+                    Metadata.Properties.msRun + "[" + id + "]-" + MsRun.Properties.location);
             }
             List<Parameter> scanPolarity = runMap.get(id).
                 getScanPolarity();
             if (scanPolarity == null || scanPolarity.isEmpty()) {
-                errorList.add(new MZTabError(
+                errorList.add(
                     LogicalErrorType.NotDefineInMetadata, -1,
-                    Metadata.Properties.msRun + "[" + id + "]-" + MsRun.Properties.scanPolarity));
+                    Metadata.Properties.msRun + "[" + id + "]-" + MsRun.Properties.scanPolarity);
             }
 
         }
 
         if (metadata.getCv() == null || metadata.getCv().
             isEmpty()) {
-            errorList.add(new MZTabError(
+            errorList.add(
                 LogicalErrorType.NotDefineInMetadata, -1,
-                Metadata.Properties.cv + ""));
+                Metadata.Properties.cv + "");
         } else {
             for (CV cv : metadata.getCv()) {
                 if (cv.getLabel() == null) {
-                    errorList.add(new MZTabError(
+                    errorList.add(
                         LogicalErrorType.NotDefineInMetadata, -1,
-                        Metadata.Properties.cv + "[" + cv.getId() + "]-" + CV.Properties.label));
+                        Metadata.Properties.cv + "[" + cv.getId() + "]-" + CV.Properties.label);
                 }
                 if (cv.getFullName() == null) {
-                    errorList.add(new MZTabError(
+                    errorList.add(
                         LogicalErrorType.NotDefineInMetadata, -1,
-                        Metadata.Properties.cv + "[" + cv.getId() + "]-" + CV.Properties.fullName));
+                        Metadata.Properties.cv + "[" + cv.getId() + "]-" + CV.Properties.fullName);
                 }
                 if (cv.getVersion() == null) {
-                    errorList.add(new MZTabError(
+                    errorList.add(
                         LogicalErrorType.NotDefineInMetadata, -1,
-                        Metadata.Properties.cv + "[" + cv.getId() + "]-" + CV.Properties.version));
+                        Metadata.Properties.cv + "[" + cv.getId() + "]-" + CV.Properties.version);
                 }
                 if (cv.getUri() == null) {
-                    errorList.add(new MZTabError(
+                    errorList.add(
                         LogicalErrorType.NotDefineInMetadata, -1,
-                        Metadata.Properties.cv + "[" + cv.getId() + "]-" + CV.Properties.uri));
+                        Metadata.Properties.cv + "[" + cv.getId() + "]-" + CV.Properties.uri);
                 }
             }
         }
         if (metadata.getDatabase() == null || metadata.getDatabase().
             isEmpty()) {
-            errorList.add(new MZTabError(
+            errorList.add(
                 LogicalErrorType.NotDefineInMetadata, -1,
-                Metadata.Properties.database + ""));
+                Metadata.Properties.database + "");
         } else {
             for (Database db : metadata.getDatabase()) {
                 if (db.getParam().
@@ -856,48 +854,48 @@ public class MTDLineParser extends MZTabLineParser {
                     equals("no database")) {
                     if (db.getPrefix() != null && !db.getPrefix().
                         equals("null")) {
-                        errorList.add(new MZTabError(
+                        errorList.add(
                             LogicalErrorType.NoDatabaseMustHaveNullPrefix,
                             -1,
-                            db.getId() + "", db.getPrefix()));
+                            db.getId() + "", db.getPrefix());
                     }
                     if (db.getUri() != null && !db.getUri().
                         equals("null")) {
-                        errorList.add(new MZTabError(
+                        errorList.add(
                             LogicalErrorType.NotDefineInMetadata, -1,
-                            Metadata.Properties.database + "[" + db.getId() + "]-" + Database.Properties.uri));
+                            Metadata.Properties.database + "[" + db.getId() + "]-" + Database.Properties.uri);
                     }
                 } else {
                     if (db.getUri() == null) {
-                        errorList.add(new MZTabError(
+                        errorList.add(
                             LogicalErrorType.NotDefineInMetadata, -1,
-                            Metadata.Properties.database + "[" + db.getId() + "]-" + Database.Properties.uri));
+                            Metadata.Properties.database + "[" + db.getId() + "]-" + Database.Properties.uri);
                     }
                 }
                 if (db.getVersion() == null) {
-                    errorList.add(new MZTabError(
+                    errorList.add(
                         LogicalErrorType.NotDefineInMetadata, -1,
-                        Metadata.Properties.database + "[" + db.getId() + "]-" + Database.Properties.version));
+                        Metadata.Properties.database + "[" + db.getId() + "]-" + Database.Properties.version);
                 }
             }
         }
 
         if (metadata.getSmallMoleculeQuantificationUnit() == null) {
-            errorList.add(new MZTabError(
+            errorList.add(
                 LogicalErrorType.NotDefineInMetadata, -1,
-                Metadata.Properties.smallMoleculeQuantificationUnit + ""));
+                Metadata.Properties.smallMoleculeQuantificationUnit + "");
         }
         if (metadata.getSmallMoleculeFeatureQuantificationUnit() == null) {
-            errorList.add(new MZTabError(
+            errorList.add(
                 LogicalErrorType.NotDefineInMetadata, -1,
-                Metadata.Properties.smallMoleculeFeatureQuantificationUnit + ""));
+                Metadata.Properties.smallMoleculeFeatureQuantificationUnit + "");
         }
         if (metadata.getIdConfidenceMeasure() == null || metadata.
             getIdConfidenceMeasure().
             isEmpty()) {
-            errorList.add(new MZTabError(
+            errorList.add(
                 LogicalErrorType.NotDefineInMetadata, -1,
-                Metadata.Properties.idConfidenceMeasure + ""));
+                Metadata.Properties.idConfidenceMeasure + "");
         }
     }
 
@@ -944,7 +942,7 @@ public class MTDLineParser extends MZTabLineParser {
         if (param != null && (param.getValue() == null || param.getValue().
             trim().
             length() == 0)) {
-            errorList.add(new MZTabError(errorType, lineNumber, valueLabel));
+            errorList.add(errorType, lineNumber, valueLabel);
         } else {
             consumer.accept(param);
         }
@@ -1002,8 +1000,8 @@ public class MTDLineParser extends MZTabLineParser {
                 trim().
                 length() == 0)) {
                 // this is a warn.
-                errorList.add(new MZTabError(LogicalErrorType.SoftwareVersion,
-                    lineNumber, valueLabel));
+                errorList.add(LogicalErrorType.SoftwareVersion,
+                    lineNumber, valueLabel);
             }
             software = context.addSoftwareParameter(metadata, id, param);
         } else {
@@ -1283,9 +1281,9 @@ public class MTDLineParser extends MZTabLineParser {
                         collect(Collectors.toSet()).
                         forEach((indexedElement) ->
                         {
-                            errorList.add(new MZTabError(
+                            errorList.add(
                                 LogicalErrorType.DuplicationID, lineNumber,
-                                valueLabel));
+                                valueLabel);
                         });
                     // check that assays exist
                     for (IndexedElement e : indexedElementList) {
@@ -16,28 +16,33 @@
 package uk.ac.ebi.pride.jmztab2.utils.parser;
 
 import de.isas.mztab2.io.serialization.ParameterConverter;
+import uk.ac.ebi.pride.jmztab2.model.MZTabPatterns;
 import uk.ac.ebi.pride.jmztab2.model.MZTabColumnFactory;
 import uk.ac.ebi.pride.jmztab2.model.MZTabConstants;
 import uk.ac.ebi.pride.jmztab2.model.MZBoolean;
 import uk.ac.ebi.pride.jmztab2.model.IMZTabColumn;
 import uk.ac.ebi.pride.jmztab2.model.SplitList;
 import uk.ac.ebi.pride.jmztab2.model.MZTabUtils;
-import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabError;
+import uk.ac.ebi.pride.jmztab2.model.AbundanceColumn;
+import uk.ac.ebi.pride.jmztab2.model.Section;
 import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabException;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabError;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorType;
 import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorList;
 import uk.ac.ebi.pride.jmztab2.utils.errors.FormatErrorType;
 import uk.ac.ebi.pride.jmztab2.utils.errors.LogicalErrorType;
 import de.isas.mztab2.model.Metadata;
 import de.isas.mztab2.model.MsRun;
 import de.isas.mztab2.model.Parameter;
+import de.isas.mztab2.model.SmallMoleculeEvidence;
 import de.isas.mztab2.model.SpectraRef;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 import java.util.SortedMap;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import lombok.extern.slf4j.Slf4j;
 
 import static uk.ac.ebi.pride.jmztab2.model.MZTabConstants.*;
@@ -74,6 +79,25 @@ public abstract class MZTabDataLineParser<T> extends MZTabLineParser {
 
     protected SortedMap<Integer, IMZTabColumn> mapping;   // logical position --> offset
     protected Metadata metadata;
+    /**
+     * physical position --&gt; column, compiled once from the header. Positions
+     * without a column are null.
+     */
+    protected IMZTabColumn[] columns = new IMZTabColumn[0];
+    /**
+     * physical position --&gt; true, if the cell of the column is skipped, see
+     * {@link #cellAt(int)}. Null if all columns are parsed.
+     */
+    private boolean[] skippedCells = null;
+    /**
+     * True, if the data lines come from a trusted source, see
+     * {@link MZTabParserContext#isTrustedInput()}.
+     */
+    protected final boolean trustedInput;
+    /**
+     * The first conversion error of the current line in trusted mode.
+     */
+    private MZTabError conversionError = null;
 
     /**
      * <p>
@@ -84,6 +108,7 @@ public abstract class MZTabDataLineParser<T> extends MZTabLineParser {
      */
     protected MZTabDataLineParser(MZTabParserContext context) {
         super(context);
+        this.trustedInput = context.isTrustedInput();
     }
 
     /**
@@ -119,6 +144,12 @@ public abstract class MZTabDataLineParser<T> extends MZTabLineParser {
         this.positionMapping = positionMapping;
         this.exchangeMapping = positionMapping.reverse();
         this.mapping = factory.getOffsetColumnsMap();
+        this.columns = createColumnTable(factory, positionMapping);
+        Set<String> projection = context.getColumnProjections().
+            get(Section.toDataSection(factory.getSection()));
+        if (projection != null) {
+            this.skippedCells = project(projection);
+        }
 
         if (metadata == null) {
             throw new NullPointerException("Metadata should be parsed first.");
@@ -127,6 +158,117 @@ public abstract class MZTabDataLineParser<T> extends MZTabLineParser {
         this.errorList = errorList == null ? new MZTabErrorList() : errorList;
     }
 
+    /**
+     * Resolve the column for every physical position of the header line once,
+     * so that the data line parsers can look up the column of a cell by array
+     * index.
+     *
+     * @param factory the column factory of the section.
+     * @param positionMapping the position mapping of the header line.
+     * @return the column table, indexed by physical position.
+     */
+    protected static IMZTabColumn[] createColumnTable(
+        MZTabColumnFactory factory, PositionMapping positionMapping) {
+        int size = 0;
+        for (Integer physicalPosition : positionMapping.keySet()) {
+            size = Math.max(size, physicalPosition + 1);
+        }
+        IMZTabColumn[] table = new IMZTabColumn[size];
+        for (Integer physicalPosition : positionMapping.keySet()) {
+            table[physicalPosition] = factory.getColumnMapping().
+                get(positionMapping.get(physicalPosition));
+        }
+        return table;
+    }
+
+    /**
+     * Restrict the column table to the columns whose headers are in the
+     * projection. Abundance and id_confidence_measure columns are collected
+     * into lists by position. If they are outside of the projection, they
+     * remain in the table, but their cells are reported as null, so that the
+     * list positions are kept. All other columns outside of the projection
+     * are removed from the table, so that their cells are neither trimmed nor
+     * converted.
+     *
+     * @return the skipped cells, indexed by physical position.
+     */
+    private boolean[] project(Set<String> projection) {
+        boolean[] skipped = new boolean[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            IMZTabColumn column = columns[i];
+            if (column == null || projection.contains(column.getHeader())) {
+                continue;
+            }
+            if (column instanceof AbundanceColumn || SmallMoleculeEvidence.Properties.idConfidenceMeasure.
+                getPropertyName().
+                equals(column.getName())) {
+                skipped[i] = true;
+            } else {
+                columns[i] = null;
+            }
+        }
+        return skipped;
+    }
+
+    /**
+     * Returns the raw cell at the given physical position.
+     *
+     * @param physicalPosition the physical position of the cell.
+     * @return the cell, or null, if the column is not part of the column
+     * projection of the context.
+     */
+    protected final String cellAt(int physicalPosition) {
+        if (skippedCells != null && physicalPosition < skippedCells.length && skippedCells[physicalPosition]) {
+            return null;
+        }
+        return tokenizer.get(physicalPosition);
+    }
+
+    /**
+     * Returns the column at the given physical position.
+     *
+     * @param physicalPosition the physical position of the cell.
+     * @return the column, or null, if no column is defined at that position.
+     */
+    protected final IMZTabColumn columnAt(int physicalPosition) {
+        return physicalPosition < columns.length ? columns[physicalPosition] : null;
+    }
+
+    /**
+     * Returns the canonical instance of the value, if the context has a
+     * {@link MZTabValueCache}.
+     *
+     * @param value the value, may be null.
+     * @return the canonical instance or the value itself.
+     */
+    protected final String intern(String value) {
+        MZTabValueCache cache = context.getValueCache();
+        return cache == null ? value : cache.intern(value);
+    }
+
+    /**
+     * Reports a value that could not be converted into the model. In trusted
+     * mode, only the first such value of a line is kept, and
+     * {@link #parse(int, String, MZTabErrorList)} stops with an
+     * {@link MZTabException} after the line has been processed.
+     *
+     * @param type the error type.
+     * @param values the values for the placeholders of the error message.
+     */
+    protected final void conversionError(MZTabErrorType type, String... values) {
+        if (!trustedInput) {
+            this.errorList.add(type, lineNumber, values);
+        } else if (conversionError == null) {
+            conversionError = new MZTabError(type, lineNumber, values);
+        }
+    }
+
+    private Parameter parseParameter(String target) {
+        MZTabValueCache cache = context.getValueCache();
+        return cache == null ? MZTabUtils.parseParam(target) : cache.
+            parseParam(target);
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -138,17 +280,21 @@ public abstract class MZTabDataLineParser<T> extends MZTabLineParser {
         super.parse(lineNumber, line, errorList);
         checkCount();
 
+        conversionError = null;
         int offset = checkData();
-        if (offset != items.length) {
+        if (conversionError != null) {
+            throw new MZTabException(conversionError);
+        }
+        if (offset != tokenizer.size()) {
             log.error(
                 "Number of expected items after parsing header is: {} but data line has: {} items!",
                 offset,
-                items.length);
+                tokenizer.size());
             log.error("Current mapping is: {}", mapping);
-            log.error("Items given: {} expected: {}", Arrays.toString(items),
+            log.error("Items given: {} expected: {}", Arrays.toString(items()),
                 Arrays.toString(line.split("\\t")));
-            this.errorList.add(new MZTabError(FormatErrorType.CountMatch,
-                lineNumber, "" + offset, "" + items.length));
+            this.errorList.add(FormatErrorType.CountMatch,
+                lineNumber, "" + offset, "" + tokenizer.size());
         }
     }
 
@@ -162,7 +308,7 @@ public abstract class MZTabDataLineParser<T> extends MZTabLineParser {
      */
     private void checkCount() {
         int headerCount = mapping.size();
-        int dataCount = items.length - 1;
+        int dataCount = tokenizer.size() - 1;
 
         if (headerCount != dataCount) {
             log.error(
@@ -170,10 +316,10 @@ public abstract class MZTabDataLineParser<T> extends MZTabLineParser {
                 headerCount,
                 dataCount);
             log.error("Current mapping is: {}", mapping);
-            log.error("Items given: {} expected: {}", Arrays.toString(items),
+            log.error("Items given: {} expected: {}", Arrays.toString(items()),
                 Arrays.toString(line.split("\\t")));
-            this.errorList.add(new MZTabError(FormatErrorType.CountMatch,
-                lineNumber, "" + dataCount, "" + headerCount));
+            this.errorList.add(FormatErrorType.CountMatch,
+                lineNumber, "" + dataCount, "" + headerCount);
         }
     }
 
@@ -199,9 +345,8 @@ public abstract class MZTabDataLineParser<T> extends MZTabLineParser {
      */
     protected Integer loadBestSearchEngineScoreId(
         String bestSearchEngineScoreLabel) {
-        Pattern pattern = Pattern.compile(
-            "search_engine_score\\[(\\d+)\\](\\w+)?");
-        Matcher matcher = pattern.matcher(bestSearchEngineScoreLabel);
+        Matcher matcher = MZTabPatterns.BEST_SEARCH_ENGINE_SCORE.matcher(
+            bestSearchEngineScoreLabel);
 
         if (matcher.find()) {
             return new Integer(matcher.group(1));
@@ -217,8 +362,8 @@ public abstract class MZTabDataLineParser<T> extends MZTabLineParser {
      * @return a {@link java.lang.Integer} object.
      */
     protected Integer loadSearchEngineScoreId(String searchEngineLabel) {
-        Pattern pattern = Pattern.compile("search_engine_score\\[(\\d+)\\]\\w*");
-        Matcher matcher = pattern.matcher(searchEngineLabel);
+        Matcher matcher = MZTabPatterns.SEARCH_ENGINE_SCORE.matcher(
+            searchEngineLabel);
 
         if (matcher.find()) {
             return new Integer(matcher.group(1));
@@ -240,24 +385,27 @@ public abstract class MZTabDataLineParser<T> extends MZTabLineParser {
      */
     protected String checkData(IMZTabColumn column, String target,
         boolean allowNull) {
+        if (trustedInput) {
+            return target;
+        }
         if (target == null && allowNull) {
             return null;
         }
         if (target == null) {
-            this.errorList.add(new MZTabError(LogicalErrorType.NULL, lineNumber,
-                column.getHeader()));
+            this.errorList.add(LogicalErrorType.NULL, lineNumber,
+                column.getHeader());
             return null;
         }
 
         target = target.trim();
         if (target.isEmpty()) {
-            this.errorList.add(new MZTabError(LogicalErrorType.NULL, lineNumber,
-                column.getHeader()));
+            this.errorList.add(LogicalErrorType.NULL, lineNumber,
+                column.getHeader());
             return null;
         }
         if (MZTabConstants.NULL.equals(target) && !allowNull) {
-            this.errorList.add(new MZTabError(LogicalErrorType.NULL, lineNumber,
-                column.getHeader()));
+            this.errorList.add(LogicalErrorType.NULL, lineNumber,
+                column.getHeader());
             return null;
         }
 
@@ -275,7 +423,7 @@ public abstract class MZTabDataLineParser<T> extends MZTabLineParser {
      * @return a {@link java.lang.String} object.
      */
     protected String checkString(IMZTabColumn column, String target) {
-        return checkData(column, target, true);
+        return intern(checkData(column, target, true));
     }
 
     /**
@@ -292,7 +440,7 @@ public abstract class MZTabDataLineParser<T> extends MZTabLineParser {
      */
     protected String checkString(IMZTabColumn column, String target,
         boolean allowNull) {
-        return checkData(column, target, allowNull);
+        return intern(checkData(column, target, allowNull));
     }
 
     /**
@@ -331,8 +479,8 @@ public abstract class MZTabDataLineParser<T> extends MZTabLineParser {
 
         Integer value = parseInteger(result);
         if (value == null) {
-            this.errorList.add(new MZTabError(FormatErrorType.Integer,
-                lineNumber, column.getHeader(), target));
+            conversionError(FormatErrorType.Integer,
+                column.getHeader(), target);
         }
 
         return value;
@@ -382,9 +530,8 @@ public abstract class MZTabDataLineParser<T> extends MZTabLineParser {
 
         Double value = parseDouble(result);
         if (value == null) {
-            this.errorList.add(
-                new MZTabError(FormatErrorType.Double, lineNumber, column.
-                    getHeader(), target));
+            conversionError(FormatErrorType.Double, column.getHeader(),
+                target);
             return null;
         }
         if (value.equals(Double.NaN) || value.equals(Double.POSITIVE_INFINITY)) {
@@ -411,21 +558,22 @@ public abstract class MZTabDataLineParser<T> extends MZTabLineParser {
             return new ArrayList<>(BAR);
         }
 
-        List<Parameter> paramList = parseParamList(result);
+        List<Parameter> paramList = parseParamList(result,
+            this::parseParameter);
         if (paramList.isEmpty()) {
-            this.errorList.add(new MZTabError(FormatErrorType.ParamList,
-                lineNumber, "Column " + column.getHeader(), target));
+            conversionError(FormatErrorType.ParamList,
+                "Column " + column.getHeader(), target);
         }
         for (Parameter param : paramList) {
-            if (param != null && param.getCvAccession() != null && !param.
+            if (!trustedInput && param != null && param.getCvAccession() != null && !param.
                 getCvAccession().
                 isEmpty()) {
                 if (!param.getCvAccession().
                     contains(":")) {
-                    this.errorList.add(new MZTabError(
+                    this.errorList.add(
                         FormatErrorType.ParamAccessionNotNamespaced, lineNumber,
                         column.getHeader(), param.getCvAccession(),
-                        new ParameterConverter().convert(param)));
+                        new ParameterConverter().convert(param));
                 }
             }
         }
@@ -447,24 +595,24 @@ public abstract class MZTabDataLineParser<T> extends MZTabLineParser {
         boolean allowNull) {
         String result = checkData(column, target, true);
         if (result == null || (result.equalsIgnoreCase(NULL) && !allowNull)) {
-            this.errorList.add(new MZTabError(FormatErrorType.Param, lineNumber,
-                "Column " + column.getHeader(), target));
+            conversionError(FormatErrorType.Param,
+                "Column " + column.getHeader(), target);
         }
-        Parameter param = MZTabUtils.parseParam(target);
+        Parameter param = parseParameter(target);
         if (param != null && param.getCvAccession() != null && !param.
             getCvAccession().
             isEmpty()) {
-            if (!param.getCvAccession().
+            if (!trustedInput && !param.getCvAccession().
                 contains(":")) {
-                this.errorList.add(new MZTabError(
+                this.errorList.add(
                     FormatErrorType.ParamAccessionNotNamespaced, lineNumber,
                     column.getHeader(), param.getCvAccession(),
-                    new ParameterConverter().convert(param)));
+                    new ParameterConverter().convert(param));
             }
         } else if (param == null && result != null && !result.isEmpty() && !(result.
             equalsIgnoreCase(NULL))) {
-            this.errorList.add(new MZTabError(FormatErrorType.Param, lineNumber,
-                "Column " + column.getHeader(), target));
+            conversionError(FormatErrorType.Param,
+                "Column " + column.getHeader(), target);
         }
         return param;
     }
@@ -490,8 +638,10 @@ public abstract class MZTabDataLineParser<T> extends MZTabLineParser {
 
         List<String> stringList = parseStringList(splitChar, result);
         if (stringList.isEmpty()) {
-            this.errorList.add(new MZTabError(FormatErrorType.StringList,
-                lineNumber, column.getHeader(), result, "" + splitChar));
+            conversionError(FormatErrorType.StringList,
+                column.getHeader(), result, "" + splitChar);
+        } else if (context.getValueCache() != null) {
+            stringList.replaceAll(this::intern);
         }
 
         return stringList;
@@ -536,8 +686,8 @@ public abstract class MZTabDataLineParser<T> extends MZTabLineParser {
 
         List<Integer> stringList = parseIntegerList(result);
         if (stringList.isEmpty()) {
-            this.errorList.add(new MZTabError(FormatErrorType.IntegerList,
-                lineNumber, column.getHeader(), result, "" + splitChar));
+            conversionError(FormatErrorType.IntegerList,
+                column.getHeader(), result, "" + splitChar);
         }
 
         return stringList;
@@ -562,8 +712,8 @@ public abstract class MZTabDataLineParser<T> extends MZTabLineParser {
 
         List<Double> doubleList = parseDoubleList(target);
         if (doubleList.isEmpty()) {
-            this.errorList.add(new MZTabError(FormatErrorType.DoubleList,
-                lineNumber, column.getHeader(), result, "" + MZTabConstants.BAR));
+            conversionError(FormatErrorType.DoubleList,
+                column.getHeader(), result, "" + MZTabConstants.BAR);
         }
 
         return doubleList;
@@ -589,8 +739,8 @@ public abstract class MZTabDataLineParser<T> extends MZTabLineParser {
 
         MZBoolean value = MZBoolean.findBoolean(result);
         if (value == null) {
-            this.errorList.add(new MZTabError(FormatErrorType.MZBoolean,
-                lineNumber, column.getHeader(), result));
+            conversionError(FormatErrorType.MZBoolean,
+                column.getHeader(), result);
         }
 
         return value;
@@ -788,8 +938,8 @@ public abstract class MZTabDataLineParser<T> extends MZTabLineParser {
 
         java.net.URI result = parseURI(result_uri);
         if (result == null) {
-            this.errorList.add(new MZTabError(FormatErrorType.URI, lineNumber,
-                "Column " + column.getHeader(), result_uri));
+            conversionError(FormatErrorType.URI,
+                "Column " + column.getHeader(), result_uri);
             return null;
         } else {
             return result.toASCIIString();
@@ -843,17 +993,17 @@ public abstract class MZTabDataLineParser<T> extends MZTabLineParser {
         List<SpectraRef> refList = parseSpectraRefList(context, metadata,
             result_spectraRef);
         if (refList.isEmpty()) {
-            this.errorList.add(new MZTabError(FormatErrorType.SpectraRef,
-                lineNumber, column.getHeader(), result_spectraRef));
-        } else {
+            conversionError(FormatErrorType.SpectraRef,
+                column.getHeader(), result_spectraRef);
+        } else if (!trustedInput) {
             for (SpectraRef ref : refList) {
                 MsRun run = ref.getMsRun();
                 if (run.getLocation() == null) {
                     //As the location can be null and the field is mandatory, this is not an error, it is a warning
-                    this.errorList.add(new MZTabError(
+                    this.errorList.add(
                         LogicalErrorType.SpectraRef, lineNumber, column.
                             getHeader(), result_spectraRef, "ms_run[" + run.
-                            getId() + "]-location"));
+                            getId() + "]-location");
                 }
             }
         }
@@ -937,8 +1087,8 @@ public abstract class MZTabDataLineParser<T> extends MZTabLineParser {
 
         List<String> stringList = parseGOTermList(result_go_terms);
         if (stringList.isEmpty()) {
-            this.errorList.add(new MZTabError(FormatErrorType.GOTermList,
-                lineNumber, column.getHeader(), result_go_terms));
+            conversionError(FormatErrorType.GOTermList,
+                column.getHeader(), result_go_terms);
         }
 
         return stringList;
@@ -968,9 +1118,9 @@ public abstract class MZTabDataLineParser<T> extends MZTabLineParser {
             return null;
         }
 
-        if (result < 0 || result > 1) {
-            this.errorList.add(new MZTabError(LogicalErrorType.ProteinCoverage,
-                lineNumber, column.getHeader(), printDouble(result)));
+        if (!trustedInput && (result < 0 || result > 1)) {
+            this.errorList.add(LogicalErrorType.ProteinCoverage,
+                lineNumber, column.getHeader(), printDouble(result));
             return null;
         }
 
@@ -997,11 +1147,9 @@ public abstract class MZTabDataLineParser<T> extends MZTabLineParser {
 
         result = result.toUpperCase();
 
-        Pattern pattern = Pattern.compile("[OU]");
-        Matcher matcher = pattern.matcher(result);
-        if (matcher.find()) {
-            this.errorList.add(new MZTabError(FormatErrorType.Sequence,
-                lineNumber, column.getHeader(), sequence));
+        if (!trustedInput && (result.indexOf('O') >= 0 || result.indexOf('U') >= 0)) {
+            this.errorList.add(FormatErrorType.Sequence,
+                lineNumber, column.getHeader(), sequence);
         }
 
         return result;
@@ -1190,8 +1338,8 @@ public abstract class MZTabDataLineParser<T> extends MZTabLineParser {
 
         List<Double> valueList = parseDoubleList(result);
         if (valueList.isEmpty()) {
-            this.errorList.add(new MZTabError(FormatErrorType.DoubleList,
-                lineNumber, column.getHeader(), result, "" + BAR));
+            conversionError(FormatErrorType.DoubleList,
+                column.getHeader(), result, "" + BAR);
         }
 
         return valueList;
@@ -1218,8 +1366,8 @@ public abstract class MZTabDataLineParser<T> extends MZTabLineParser {
 
         List<Double> valueList = parseDoubleList(result);
         if (valueList.isEmpty()) {
-            this.errorList.add(new MZTabError(FormatErrorType.DoubleList,
-                lineNumber, column.getHeader(), result, "" + BAR));
+            conversionError(FormatErrorType.DoubleList,
+                column.getHeader(), result, "" + BAR);
         }
 
         return valueList;
@@ -15,6 +15,7 @@
  */
 package uk.ac.ebi.pride.jmztab2.utils.parser;
 
+import uk.ac.ebi.pride.jmztab2.model.MZTabPatterns;
 import uk.ac.ebi.pride.jmztab2.model.MZTabColumnFactory;
 import uk.ac.ebi.pride.jmztab2.model.MZBoolean;
 import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabError;
@@ -30,7 +31,6 @@ import de.isas.mztab2.model.SmallMoleculeSummary;
 import de.isas.mztab2.model.StudyVariable;
 
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import uk.ac.ebi.pride.jmztab2.model.MZTabColumn;
 import uk.ac.ebi.pride.jmztab2.model.MZTabConstants;
 import uk.ac.ebi.pride.jmztab2.model.Section;
@@ -89,8 +89,8 @@ public abstract class MZTabHeaderLineParser extends MZTabLineParser {
         super.parse(lineNumber, line, errorList);
 
         int offset = parseColumns();
-        if (offset != items.length) {
-            this.errorList.add(new MZTabError(LogicalErrorType.HeaderLine, lineNumber, section.getName(), "" + offset, "" + items.length));
+        if (offset != items().length) {
+            this.errorList.add(LogicalErrorType.HeaderLine, lineNumber, section.getName(), "" + offset, "" + items().length);
         }
 
         refine();
@@ -154,9 +154,7 @@ public abstract class MZTabHeaderLineParser extends MZTabLineParser {
     protected boolean checkOptColumnName(String nameLabel) throws MZTabException {
         nameLabel = nameLabel.trim();
 
-        String regexp = MZTabConstants.REGEX_OPT_COLUMN_NAME;
-        Pattern pattern = Pattern.compile(regexp);
-        Matcher matcher = pattern.matcher(nameLabel);
+        Matcher matcher = MZTabPatterns.OPT_COLUMN_NAME.matcher(nameLabel);
 
         Integer id;
         String object_id;
@@ -232,9 +230,8 @@ public abstract class MZTabHeaderLineParser extends MZTabLineParser {
         nameLabel = nameLabel.trim();
         valueLabel = valueLabel.trim();
 
-        String regexp = MZTabConstants.REGEX_CV_PARAM_OPT_COLUMN_NAME;
-        Pattern pattern = Pattern.compile(regexp);
-        Matcher matcher = pattern.matcher(valueLabel);
+        Matcher matcher = MZTabPatterns.CV_PARAM_OPT_COLUMN_NAME.matcher(
+            valueLabel);
 
         Parameter param;
         if (!matcher.find() || matcher.end() != valueLabel.length()) {
@@ -287,7 +284,7 @@ public abstract class MZTabHeaderLineParser extends MZTabLineParser {
      * @throws uk.ac.ebi.pride.jmztab2.utils.errors.MZTabException if any structural or logical errors are encountered that prohibit further processing.
      */
     protected int checkAbundanceColumns(int offset, String order) throws MZTabException {
-        String headerString = items[offset];
+        String headerString = items()[offset];
         if (headerString.contains(SmallMoleculeSummary.Properties.abundanceAssay.getPropertyName())) {
             checkAbundanceAssayColumn(headerString, order);
             return offset;
@@ -307,8 +304,8 @@ public abstract class MZTabHeaderLineParser extends MZTabLineParser {
     private String checkAbundanceSection(String abundanceHeader) throws MZTabException {
         abundanceHeader = abundanceHeader.trim().toLowerCase();
 
-        Pattern pattern = Pattern.compile(MZTabConstants.REGEX_ABUNDANCE_COLUMN_NAME);
-        Matcher matcher = pattern.matcher(abundanceHeader);
+        Matcher matcher = MZTabPatterns.ABUNDANCE_COLUMN_NAME.matcher(
+            abundanceHeader);
 
         if (matcher.find()) {
 //            String sectionName = matcher.group(1);
@@ -330,8 +327,8 @@ public abstract class MZTabHeaderLineParser extends MZTabLineParser {
     private void checkAbundanceAssayColumn(String abundanceHeader, String order) throws MZTabException {
         String valueLabel = checkAbundanceSection(abundanceHeader);
 
-        Pattern pattern = Pattern.compile(MZTabConstants.REGEX_ABUNDANCE_ASSAY_COLUMN_NAME);
-        Matcher matcher = pattern.matcher(valueLabel);
+        Matcher matcher = MZTabPatterns.ABUNDANCE_ASSAY_COLUMN_NAME.matcher(
+            valueLabel);
         if (!matcher.find()) {
             MZTabError error = new MZTabError(FormatErrorType.AbundanceColumn, lineNumber, abundanceHeader);
             throw new MZTabException(error);
@@ -372,8 +369,8 @@ public abstract class MZTabHeaderLineParser extends MZTabLineParser {
     private StudyVariable checkAbundanceStudyVariableColumn(String abundanceHeader) throws MZTabException {
         String valueLabel = checkAbundanceSection(abundanceHeader);
 
-        Pattern pattern = Pattern.compile(MZTabConstants.REGEX_STUDY_VARIABLE_COLUMN_NAME);
-        Matcher matcher = pattern.matcher(valueLabel);
+        Matcher matcher = MZTabPatterns.STUDY_VARIABLE_COLUMN_NAME.matcher(
+            valueLabel);
         if (!matcher.find()) {
             MZTabError error = new MZTabError(FormatErrorType.AbundanceColumn, lineNumber, abundanceHeader);
             throw new MZTabException(error);
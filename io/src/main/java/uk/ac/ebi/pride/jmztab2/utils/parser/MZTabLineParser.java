@@ -20,7 +20,6 @@ import uk.ac.ebi.pride.jmztab2.utils.errors.FormatErrorType;
 import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabError;
 import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorList;
 import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabException;
-import static uk.ac.ebi.pride.jmztab2.model.MZTabConstants.TAB;
 
 /**
  * Common tab split line parser. If there exists format or logical errors during the parse process,
@@ -41,9 +40,11 @@ public class MZTabLineParser {
     protected String line;
 
     /**
-     * based on TAB char to split raw line into String array.
+     * Splits the raw line into cells, which are read on demand with
+     * {@link TabTokenizer#get(int)}.
      */
-    protected String[] items;
+    protected final TabTokenizer tokenizer = new TabTokenizer();
+    private String[] items;
 
     protected final MZTabParserContext context;
     protected MZTabErrorList errorList;
@@ -74,15 +75,29 @@ public class MZTabLineParser {
         this.line = line;
         this.errorList = errorList == null ? new MZTabErrorList() : errorList;
 
-        this.items = line.split("\\s*" + TAB + "\\s*");
-        items[0] = items[0].trim();
-        items[items.length - 1] = items[items.length - 1].trim();
+        tokenizer.tokenize(line);
+        this.items = null;
 
-        section = Section.findSection(items[0]);
+        String prefix = tokenizer.get(0);
+        section = Section.findSection(prefix);
 
         if (section == null) {
-            MZTabError error = new MZTabError(FormatErrorType.LinePrefix, lineNumber, items[0]);
+            MZTabError error = new MZTabError(FormatErrorType.LinePrefix, lineNumber, prefix);
             this.errorList.add(error);
         }
     }
+
+    /**
+     * Returns all cells of the current line, the array is created on the first
+     * call for each line. Data line parsers read single cells from the
+     * {@link #tokenizer} instead.
+     *
+     * @return the cells of the line.
+     */
+    protected String[] items() {
+        if (items == null) {
+            items = tokenizer.toArray();
+        }
+        return items;
+    }
 }
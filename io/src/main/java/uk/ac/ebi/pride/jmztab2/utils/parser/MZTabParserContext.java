@@ -33,12 +33,15 @@ import de.isas.mztab2.model.StudyVariable;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import lombok.Data;
+import uk.ac.ebi.pride.jmztab2.model.Section;
 import static uk.ac.ebi.pride.jmztab2.model.MZTabStringUtils.isEmpty;
 
 /**
@@ -73,6 +76,22 @@ public class MZTabParserContext {
     private List<ColumnParameterMapping> smallMoleculeFeatureColUnitList = new ArrayList<>();
     private List<ColumnParameterMapping> smallMoleculeEvidenceColUnitList = new ArrayList<>();
     private Map<String, String> colUnitMap = new HashMap<>();
+    /**
+     * Cache of canonical values for the data lines, null if values are not
+     * deduplicated.
+     */
+    private MZTabValueCache valueCache = null;
+    /**
+     * Headers of the columns to parse per data section. Sections without an
+     * entry are parsed completely.
+     */
+    private Map<Section, Set<String>> columnProjections = new EnumMap<>(
+        Section.class);
+    /**
+     * If true, the data lines are only converted into the model, without the
+     * optional semantic and format checks.
+     */
+    private boolean trustedInput = false;
     
     /**
      * Add a sample to metadata. Samples are NOT MANDATORY in mzTab, since many software packages cannot determine what
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.pride.jmztab2.utils.parser;
+
+import de.isas.mztab2.model.Parameter;
+import uk.ac.ebi.pride.jmztab2.model.MZTabUtils;
+
+/**
+ * <p>
+ * Bounded cache of canonical string and {@link Parameter} instances for the
+ * values of a single parse, e.g. adduct ions, database identifiers, opt column
+ * identifiers and parameters like
+ * {@code [MS, MS:1001477, SpectraST, ]}, which repeat on many rows of large
+ * files. Returning the same instance for equal values reduces the retained
+ * heap of the parsed rows and, for parameters, avoids parsing the same value
+ * again.</p>
+ *
+ * <p>
+ * The cache is a fixed size table indexed by the hash code of the value. A
+ * value replaces a different value with a colliding slot, so memory use is
+ * bounded and frequent values stay cached. Lookups are safe for concurrent
+ * use by the parallel line parsers, since every slot holds an immutable
+ * entry.</p>
+ *
+ * <p>
+ * Cached {@link Parameter} instances are shared between all rows that contain
+ * the same value. They must not be modified after parsing, otherwise the
+ * change is visible in all of these rows.</p>
+ *
+ * @author nilshoffmann
+ * @see MZTabParserContext#setValueCache(MZTabValueCache)
+ */
+public final class MZTabValueCache {
+
+    /**
+     * The default number of slots per value type.
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private final String[] strings;
+    private final ParameterEntry[] parameters;
+    private final int mask;
+
+    /**
+     * Create a cache with {@link #DEFAULT_CAPACITY} slots per value type.
+     */
+    public MZTabValueCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a cache with the given number of slots per value type, rounded up
+     * to the next power of two.
+     *
+     * @param capacity the number of slots, must be greater than 0.
+     * @throws IllegalArgumentException if the capacity is smaller than 1.
+     */
+    public MZTabValueCache(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException(
+                "Capacity must be between 1 and 2^30!");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.strings = new String[size];
+        this.parameters = new ParameterEntry[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns the canonical instance of the value.
+     *
+     * @param value the value, may be null.
+     * @return a cached instance equal to the value, or the value itself.
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        int slot = slot(value.hashCode());
+        String cached = strings[slot];
+        if (cached != null && cached.equals(value)) {
+            return cached;
+        }
+        strings[slot] = value;
+        return value;
+    }
+
+    /**
+     * Returns the canonical parameter for the value, as parsed by
+     * {@link MZTabUtils#parseParam(java.lang.String)}.
+     *
+     * @param value the parameter value.
+     * @return the parameter, or null, if the value is not a valid parameter.
+     */
+    public Parameter parseParam(String value) {
+        if (value == null) {
+            return null;
+        }
+        int slot = slot(value.hashCode());
+        ParameterEntry cached = parameters[slot];
+        if (cached != null && cached.value.equals(value)) {
+            return cached.parameter;
+        }
+        Parameter parameter = MZTabUtils.parseParam(value);
+        if (parameter != null) {
+            parameters[slot] = new ParameterEntry(value, parameter);
+        }
+        return parameter;
+    }
+
+    private int slot(int hash) {
+        // spread the high bits, as the table only uses the low bits
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static final class ParameterEntry {
+
+        private final String value;
+        private final Parameter parameter;
+
+        ParameterEntry(String value, Parameter parameter) {
+            this.value = value;
+            this.parameter = parameter;
+        }
+    }
+}
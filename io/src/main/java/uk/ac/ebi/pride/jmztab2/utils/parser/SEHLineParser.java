@@ -15,6 +15,7 @@
  */
 package uk.ac.ebi.pride.jmztab2.utils.parser;
 
+import uk.ac.ebi.pride.jmztab2.model.MZTabPatterns;
 import uk.ac.ebi.pride.jmztab2.model.MZTabColumnFactory;
 import uk.ac.ebi.pride.jmztab2.model.ISmallMoleculeColumn;
 import uk.ac.ebi.pride.jmztab2.model.IMZTabColumn;
@@ -32,7 +33,6 @@ import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.IntStream;
 import uk.ac.ebi.pride.jmztab2.model.MZTabConstants;
 import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorList;
@@ -71,14 +71,14 @@ public class SEHLineParser extends MZTabHeaderLineParser {
         SortedMap<String, IMZTabColumn> optionalMapping = factory.getOptionalColumnMapping();
         SortedMap<String, IMZTabColumn> stableMapping = factory.getStableColumnMapping();
 
-        physPositionToOrder = generateHeaderPhysPositionToOrderMap(items);
+        physPositionToOrder = generateHeaderPhysPositionToOrderMap(items());
 
         //Iterates through the tokens in the small molecule evidence header
         //It will identify the type of column and the position accordingly
-        for (physicalPosition = 1; physicalPosition < items.length; physicalPosition++) {
+        for (physicalPosition = 1; physicalPosition < items().length; physicalPosition++) {
 
             column = null;
-            header = items[physicalPosition];
+            header = items()[physicalPosition];
             if (header.startsWith(SmallMoleculeEvidence.Properties.idConfidenceMeasure.getPropertyName())) {
                 checkIdConfidenceMeasure(header);
             } else if (header.startsWith(MZTabConstants.OPT_PREFIX)) {
@@ -111,8 +111,8 @@ public class SEHLineParser extends MZTabHeaderLineParser {
     private void checkIdConfidenceMeasure(String header) throws MZTabException {
         String valueLabel = header;
         
-        Pattern pattern = Pattern.compile(SmallMoleculeEvidence.Properties.idConfidenceMeasure.getPropertyName()+MZTabConstants.REGEX_INDEXED_VALUE);
-        Matcher matcher = pattern.matcher(valueLabel);
+        Matcher matcher = MZTabPatterns.indexed(SmallMoleculeEvidence.Properties.idConfidenceMeasure.getPropertyName()).
+            matcher(valueLabel);
         if (!matcher.find()) {
             MZTabError error = new MZTabError(FormatErrorType.StableColumn, lineNumber, header);
             throw new MZTabException(error);
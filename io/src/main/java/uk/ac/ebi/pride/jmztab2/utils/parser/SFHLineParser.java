@@ -67,14 +67,14 @@ public class SFHLineParser extends MZTabHeaderLineParser {
         SortedMap<String, IMZTabColumn> optionalMapping = factory.getOptionalColumnMapping();
         SortedMap<String, IMZTabColumn> stableMapping = factory.getStableColumnMapping();
 
-        physPositionToOrder = generateHeaderPhysPositionToOrderMap(items);
+        physPositionToOrder = generateHeaderPhysPositionToOrderMap(items());
 
         //Iterates through the tokens in the protein header
         //It will identify the type of column and the position accordingly
-        for (physicalPosition = 1; physicalPosition < items.length; physicalPosition++) {
+        for (physicalPosition = 1; physicalPosition < items().length; physicalPosition++) {
 
             column = null;
-            header = items[physicalPosition];
+            header = items()[physicalPosition];
 
             if (header.contains(MZTabConstants.ABUNDANCE_PREFIX)) {
                 checkAbundanceColumns(physicalPosition, physPositionToOrder.get(physicalPosition));
@@ -39,6 +39,10 @@ import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorList;
 public class SMELineParser extends MZTabDataLineParser<SmallMoleculeEvidence> {
 
     private SmallMoleculeEvidence smallMoleculeEvidence;
+    /**
+     * physical position --&gt; stable column, null for other columns.
+     */
+    private final Stable[] stableColumns;
 
     /**
      * <p>Constructor for SMELineParser.</p>
@@ -52,6 +56,13 @@ public class SMELineParser extends MZTabDataLineParser<SmallMoleculeEvidence> {
     public SMELineParser(MZTabParserContext context, MZTabColumnFactory factory, PositionMapping positionMapping,
                          Metadata metadata, MZTabErrorList errorList) {
         super(context, factory, positionMapping, metadata, errorList);
+        this.stableColumns = new Stable[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i] instanceof ISmallMoleculeEvidenceColumn) {
+                stableColumns[i] = SmallMoleculeEvidenceColumn.Stable.forName(columns[i].
+                    getName());
+            }
+        }
     }
 
     /** {@inheritDoc} */
@@ -62,18 +73,16 @@ public class SMELineParser extends MZTabDataLineParser<SmallMoleculeEvidence> {
         String columnName;
         String target;
         int physicalPosition;
-        String logicalPosition;
         smallMoleculeEvidence = new SmallMoleculeEvidence();
 
-        for (physicalPosition = 1; physicalPosition < items.length; physicalPosition++) {
-            logicalPosition = positionMapping.get(physicalPosition);
-            column = factory.getColumnMapping().get(logicalPosition);
+        for (physicalPosition = 1; physicalPosition < tokenizer.size(); physicalPosition++) {
+            column = columnAt(physicalPosition);
 
             if (column != null) {
                 columnName = column.getName();
-                target = items[physicalPosition];
+                target = cellAt(physicalPosition);
                 if (column instanceof ISmallMoleculeEvidenceColumn) {
-                    Stable stableColumn = SmallMoleculeEvidenceColumn.Stable.forName(columnName);
+                    Stable stableColumn = stableColumns[physicalPosition];
                     switch(stableColumn) {
                         case ADDUCT_ION:
                             smallMoleculeEvidence.adductIon(checkString(column,
@@ -135,7 +144,7 @@ public class SMELineParser extends MZTabDataLineParser<SmallMoleculeEvidence> {
                    if (columnName.startsWith(MZTabConstants.OPT_PREFIX)) {
                         Class dataType = column.getDataType();
                         OptColumnMapping optColMapping = new OptColumnMapping();
-                        optColMapping.identifier(columnName.substring(MZTabConstants.OPT_PREFIX.length()));
+                        optColMapping.identifier(intern(columnName.substring(MZTabConstants.OPT_PREFIX.length())));
                         if (dataType.equals(String.class)) {
                             optColMapping.value(checkString(column, target));
                         } else if (dataType.equals(Double.class)) {
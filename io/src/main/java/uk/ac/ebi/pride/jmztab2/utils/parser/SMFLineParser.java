@@ -15,6 +15,7 @@
  */
 package uk.ac.ebi.pride.jmztab2.utils.parser;
 
+import uk.ac.ebi.pride.jmztab2.model.MZTabPatterns;
 import uk.ac.ebi.pride.jmztab2.model.MZTabColumnFactory;
 import uk.ac.ebi.pride.jmztab2.model.ISmallMoleculeFeatureColumn;
 import uk.ac.ebi.pride.jmztab2.model.MZTabConstants;
@@ -33,7 +34,6 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import uk.ac.ebi.pride.jmztab2.model.SmallMoleculeFeatureColumn.Stable;
 import uk.ac.ebi.pride.jmztab2.utils.errors.FormatErrorType;
-import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabError;
 import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorList;
 
 /**
@@ -47,6 +47,10 @@ import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorList;
 public class SMFLineParser extends MZTabDataLineParser<SmallMoleculeFeature> {
 
     private SmallMoleculeFeature smallMoleculeFeature;
+    /**
+     * physical position --&gt; stable column, null for other columns.
+     */
+    private final Stable[] stableColumns;
 
     /**
      * <p>
@@ -66,6 +70,13 @@ public class SMFLineParser extends MZTabDataLineParser<SmallMoleculeFeature> {
         PositionMapping positionMapping,
         Metadata metadata, MZTabErrorList errorList) {
         super(context, factory, positionMapping, metadata, errorList);
+        this.stableColumns = new Stable[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i] instanceof ISmallMoleculeFeatureColumn) {
+                stableColumns[i] = SmallMoleculeFeatureColumn.Stable.forName(columns[i].
+                    getName());
+            }
+        }
     }
 
     /**
@@ -78,28 +89,26 @@ public class SMFLineParser extends MZTabDataLineParser<SmallMoleculeFeature> {
         String columnName;
         String target;
         int physicalPosition;
-        String logicalPosition;
         smallMoleculeFeature = new SmallMoleculeFeature();
 
-        for (physicalPosition = 1; physicalPosition < items.length; physicalPosition++) {
-            logicalPosition = positionMapping.get(physicalPosition);
-            column = factory.getColumnMapping().
-                get(logicalPosition);
+        for (physicalPosition = 1; physicalPosition < tokenizer.size(); physicalPosition++) {
+            column = columnAt(physicalPosition);
 
             if (column != null) {
                 columnName = column.getName();
-                target = items[physicalPosition];
+                target = cellAt(physicalPosition);
                 if (column instanceof ISmallMoleculeFeatureColumn) {
-                    Stable stableColumn = SmallMoleculeFeatureColumn.Stable.
-                        forName(columnName);
+                    Stable stableColumn = stableColumns[physicalPosition];
                     switch (stableColumn) {
                         case ADDUCT_ION:
                             String adductIon = checkString(column,
                                 target);
-                            checkRegexMatches(errorList, lineNumber,
-                                SmallMoleculeFeature.Properties.adductIon,
-                                MZTabConstants.REGEX_ADDUCT, Arrays.asList(
-                                    adductIon));
+                            if (!trustedInput) {
+                                checkRegexMatches(errorList, lineNumber,
+                                    SmallMoleculeFeature.Properties.adductIon,
+                                    MZTabConstants.REGEX_ADDUCT, Arrays.asList(
+                                        adductIon));
+                            }
                             smallMoleculeFeature.adductIon(adductIon);
                             break;
                         case CHARGE:
@@ -156,8 +165,8 @@ public class SMFLineParser extends MZTabDataLineParser<SmallMoleculeFeature> {
                     if (columnName.startsWith(MZTabConstants.OPT_PREFIX)) {
                         Class dataType = column.getDataType();
                         OptColumnMapping optColMapping = new OptColumnMapping();
-                        optColMapping.identifier(columnName.substring(
-                            MZTabConstants.OPT_PREFIX.length()));
+                        optColMapping.identifier(intern(columnName.substring(
+                            MZTabConstants.OPT_PREFIX.length())));
                         if (dataType.equals(String.class)) {
                             optColMapping.value(checkString(column, target));
                         } else if (dataType.equals(Double.class)) {
@@ -181,17 +190,17 @@ public class SMFLineParser extends MZTabDataLineParser<SmallMoleculeFeature> {
         SmallMoleculeFeature.Properties elementProperty,
         String regularExpression, List<String> elements) {
         if (!elements.isEmpty()) {
-            Pattern p = Pattern.compile(regularExpression);
+            Pattern p = MZTabPatterns.compile(regularExpression);
             for (int i = 0; i < elements.size(); i++) {
                 String element = elements.get(i);
                 if (!"null".equals(element)) {
                     Matcher m = p.matcher(element);
                     if (!m.matches()) {
-                        errorList.add(new MZTabError(
+                        errorList.add(
                             FormatErrorType.RegexMismatch,
                             lineNumber, elementProperty.getPropertyName(),
                             element,
-                            "" + (i + 1), regularExpression));
+                            "" + (i + 1), regularExpression);
                     }
                 }
             }
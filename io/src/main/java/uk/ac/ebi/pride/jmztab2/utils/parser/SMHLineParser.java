@@ -71,14 +71,14 @@ public class SMHLineParser extends MZTabHeaderLineParser {
         SortedMap<String, IMZTabColumn> optionalMapping = factory.getOptionalColumnMapping();
         SortedMap<String, IMZTabColumn> stableMapping = factory.getStableColumnMapping();
 
-        physPositionToOrder = generateHeaderPhysPositionToOrderMap(items);
+        physPositionToOrder = generateHeaderPhysPositionToOrderMap(items());
 
         //Iterates through the tokens in the protein header
         //It will identify the type of column and the position accordingly
-        for (physicalPosition = 1; physicalPosition < items.length; physicalPosition++) {
+        for (physicalPosition = 1; physicalPosition < items().length; physicalPosition++) {
 
             column = null;
-            header = items[physicalPosition];
+            header = items()[physicalPosition];
             if (header.startsWith(MZTabConstants.ABUNDANCE_PREFIX)) {
                 checkAbundanceColumns(physicalPosition, physPositionToOrder.get(physicalPosition));
             } else if (header.startsWith(MZTabConstants.OPT_PREFIX)) {
@@ -137,9 +137,8 @@ public class SMHLineParser extends MZTabHeaderLineParser {
     protected void refine() throws MZTabException {
 
         for (Stable columnHeader : SmallMoleculeColumn.Stable.values()) {
-            ISmallMoleculeColumn smc = Stable.columnFor(columnHeader);
-            if (factory.findColumnByHeader(smc.getHeader()) == null) {
-                throw new MZTabException(new MZTabError(FormatErrorType.StableColumn, lineNumber, smc.getHeader()));
+            if (factory.findColumnByHeader(columnHeader.getHeader()) == null) {
+                throw new MZTabException(new MZTabError(FormatErrorType.StableColumn, lineNumber, columnHeader.getHeader()));
             }
         }
 
@@ -15,6 +15,7 @@
  */
 package uk.ac.ebi.pride.jmztab2.utils.parser;
 
+import uk.ac.ebi.pride.jmztab2.model.MZTabPatterns;
 import uk.ac.ebi.pride.jmztab2.model.MZTabColumnFactory;
 import uk.ac.ebi.pride.jmztab2.model.ISmallMoleculeColumn;
 import uk.ac.ebi.pride.jmztab2.model.MZTabConstants;
@@ -23,15 +24,16 @@ import uk.ac.ebi.pride.jmztab2.model.IMZTabColumn;
 import uk.ac.ebi.pride.jmztab2.model.OptionColumn;
 import uk.ac.ebi.pride.jmztab2.model.SmallMoleculeColumn;
 import uk.ac.ebi.pride.jmztab2.model.AbundanceColumn;
+import uk.ac.ebi.pride.jmztab2.model.Section;
 import de.isas.mztab2.model.Metadata;
 import de.isas.mztab2.model.OptColumnMapping;
 import de.isas.mztab2.model.SmallMoleculeSummary;
+import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import uk.ac.ebi.pride.jmztab2.utils.errors.FormatErrorType;
 import uk.ac.ebi.pride.jmztab2.utils.errors.LogicalErrorType;
-import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabError;
 import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorList;
 import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorOverflowException;
 
@@ -47,6 +49,15 @@ import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorOverflowException;
 public class SMLLineParser extends MZTabDataLineParser<SmallMoleculeSummary> {
 
     private SmallMoleculeSummary smallMoleculeSummary;
+    /**
+     * physical position --&gt; stable column, null for other columns.
+     */
+    private final SmallMoleculeColumn.Stable[] stableColumns;
+    /**
+     * false, if the database_identifier column is excluded by the column
+     * projection, so that the number of items can not be compared to it.
+     */
+    private final boolean databaseIdentifierParsed;
 
     /**
      * <p>
@@ -66,6 +77,16 @@ public class SMLLineParser extends MZTabDataLineParser<SmallMoleculeSummary> {
         PositionMapping positionMapping,
         Metadata metadata, MZTabErrorList errorList) {
         super(context, factory, positionMapping, metadata, errorList);
+        this.stableColumns = new SmallMoleculeColumn.Stable[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i] instanceof ISmallMoleculeColumn) {
+                stableColumns[i] = SmallMoleculeColumn.Stable.forName(columns[i].
+                    getName());
+            }
+        }
+        this.databaseIdentifierParsed = !context.getColumnProjections().
+            containsKey(Section.Small_Molecule) || Arrays.asList(stableColumns).
+            contains(SmallMoleculeColumn.Stable.DATABASE_IDENTIFIER);
     }
 
     /**
@@ -78,27 +99,25 @@ public class SMLLineParser extends MZTabDataLineParser<SmallMoleculeSummary> {
         String columnName;
         String target;
         int physicalPosition;
-        String logicalPosition;
         smallMoleculeSummary = new SmallMoleculeSummary();
 
-        for (physicalPosition = 1; physicalPosition < items.length; physicalPosition++) {
-            logicalPosition = positionMapping.get(physicalPosition);
-            column = factory.getColumnMapping().
-                get(logicalPosition);
+        for (physicalPosition = 1; physicalPosition < tokenizer.size(); physicalPosition++) {
+            column = columnAt(physicalPosition);
 
             if (column != null) {
                 columnName = column.getName();
-                target = items[physicalPosition];
+                target = cellAt(physicalPosition);
                 if (column instanceof ISmallMoleculeColumn) {
-                    SmallMoleculeColumn.Stable stableColumn = SmallMoleculeColumn.Stable.
-                        forName(columnName);
+                    SmallMoleculeColumn.Stable stableColumn = stableColumns[physicalPosition];
                     switch (stableColumn) {
                         case ADDUCT_IONS:
                             List<String> adductIons = checkStringList(
                                 column, target, MZTabConstants.BAR);
-                            checkRegexMatches(errorList, lineNumber,
-                                SmallMoleculeSummary.Properties.adductIons,
-                                MZTabConstants.REGEX_ADDUCT, adductIons);
+                            if (!trustedInput) {
+                                checkRegexMatches(errorList, lineNumber,
+                                    SmallMoleculeSummary.Properties.adductIons,
+                                    MZTabConstants.REGEX_ADDUCT, adductIons);
+                            }
                             smallMoleculeSummary.adductIons(adductIons);
                             break;
                         case BEST_ID_CONFIDENCE_MEASURE:
@@ -177,8 +196,8 @@ public class SMLLineParser extends MZTabDataLineParser<SmallMoleculeSummary> {
                     if (columnName.startsWith(MZTabConstants.OPT_PREFIX)) {
                         Class dataType = column.getDataType();
                         OptColumnMapping optColMapping = new OptColumnMapping();
-                        optColMapping.identifier(columnName.substring(
-                            MZTabConstants.OPT_PREFIX.length()));
+                        optColMapping.identifier(intern(columnName.substring(
+                            MZTabConstants.OPT_PREFIX.length())));
                         if (dataType.equals(String.class)) {
                             optColMapping.value(checkString(column, target));
                         } else if (dataType.equals(Double.class)) {
@@ -195,36 +214,38 @@ public class SMLLineParser extends MZTabDataLineParser<SmallMoleculeSummary> {
             }
         }
 
-        checkItemNumbers(errorList, lineNumber, smallMoleculeSummary.
-            getDatabaseIdentifier(),
-            SmallMoleculeSummary.Properties.databaseIdentifier,
-            smallMoleculeSummary.getChemicalFormula(),
-            SmallMoleculeSummary.Properties.chemicalFormula);
-        checkItemNumbers(errorList, lineNumber, smallMoleculeSummary.
-            getDatabaseIdentifier(),
-            SmallMoleculeSummary.Properties.databaseIdentifier,
-            smallMoleculeSummary.getSmiles(),
-            SmallMoleculeSummary.Properties.smiles);
-        checkItemNumbers(errorList, lineNumber, smallMoleculeSummary.
-            getDatabaseIdentifier(),
-            SmallMoleculeSummary.Properties.databaseIdentifier,
-            smallMoleculeSummary.getInchi(),
-            SmallMoleculeSummary.Properties.inchi);
-        checkItemNumbers(errorList, lineNumber, smallMoleculeSummary.
-            getDatabaseIdentifier(),
-            SmallMoleculeSummary.Properties.databaseIdentifier,
-            smallMoleculeSummary.getChemicalName(),
-            SmallMoleculeSummary.Properties.chemicalName);
-        checkItemNumbers(errorList, lineNumber, smallMoleculeSummary.
-            getDatabaseIdentifier(),
-            SmallMoleculeSummary.Properties.databaseIdentifier,
-            smallMoleculeSummary.getUri(),
-            SmallMoleculeSummary.Properties.uri);
-        checkItemNumbers(errorList, lineNumber, smallMoleculeSummary.
-            getDatabaseIdentifier(),
-            SmallMoleculeSummary.Properties.databaseIdentifier,
-            smallMoleculeSummary.getTheoreticalNeutralMass(),
-            SmallMoleculeSummary.Properties.theoreticalNeutralMass);
+        if (databaseIdentifierParsed && !trustedInput) {
+            checkItemNumbers(errorList, lineNumber, smallMoleculeSummary.
+                getDatabaseIdentifier(),
+                SmallMoleculeSummary.Properties.databaseIdentifier,
+                smallMoleculeSummary.getChemicalFormula(),
+                SmallMoleculeSummary.Properties.chemicalFormula);
+            checkItemNumbers(errorList, lineNumber, smallMoleculeSummary.
+                getDatabaseIdentifier(),
+                SmallMoleculeSummary.Properties.databaseIdentifier,
+                smallMoleculeSummary.getSmiles(),
+                SmallMoleculeSummary.Properties.smiles);
+            checkItemNumbers(errorList, lineNumber, smallMoleculeSummary.
+                getDatabaseIdentifier(),
+                SmallMoleculeSummary.Properties.databaseIdentifier,
+                smallMoleculeSummary.getInchi(),
+                SmallMoleculeSummary.Properties.inchi);
+            checkItemNumbers(errorList, lineNumber, smallMoleculeSummary.
+                getDatabaseIdentifier(),
+                SmallMoleculeSummary.Properties.databaseIdentifier,
+                smallMoleculeSummary.getChemicalName(),
+                SmallMoleculeSummary.Properties.chemicalName);
+            checkItemNumbers(errorList, lineNumber, smallMoleculeSummary.
+                getDatabaseIdentifier(),
+                SmallMoleculeSummary.Properties.databaseIdentifier,
+                smallMoleculeSummary.getUri(),
+                SmallMoleculeSummary.Properties.uri);
+            checkItemNumbers(errorList, lineNumber, smallMoleculeSummary.
+                getDatabaseIdentifier(),
+                SmallMoleculeSummary.Properties.databaseIdentifier,
+                smallMoleculeSummary.getTheoreticalNeutralMass(),
+                SmallMoleculeSummary.Properties.theoreticalNeutralMass);
+        }
         return physicalPosition;
     }
 
@@ -232,15 +253,15 @@ public class SMLLineParser extends MZTabDataLineParser<SmallMoleculeSummary> {
         SmallMoleculeSummary.Properties elementProperty,
         String regularExpression, List<String> elements) {
         if (!elements.isEmpty()) {
-            Pattern p = Pattern.compile(regularExpression);
+            Pattern p = MZTabPatterns.compile(regularExpression);
             for (int i = 0; i < elements.size(); i++) {
                 String element = elements.get(i);
                 if(!"null".equals(element)) {
                     Matcher m = p.matcher(element);
                     if (!m.matches()) {
-                        errorList.add(new MZTabError(FormatErrorType.RegexMismatch,
+                        errorList.add(FormatErrorType.RegexMismatch,
                             lineNumber, elementProperty.getPropertyName(), element,
-                            "" + (i + 1), regularExpression));
+                            "" + (i + 1), regularExpression);
                     }
                 }
             }
@@ -251,12 +272,17 @@ public class SMLLineParser extends MZTabDataLineParser<SmallMoleculeSummary> {
     protected void checkItemNumbers(MZTabErrorList errorList, int lineNumber,
         List<?> reference, SmallMoleculeSummary.Properties referenceProperty,
         List<?> toCheck, SmallMoleculeSummary.Properties toCheckProperty) throws MZTabErrorOverflowException {
+        //lists of columns that were not parsed, e.g. with a column
+        //projection, are null and not checked
+        if (reference == null || toCheck == null) {
+            return;
+        }
         //check that array types have same element number
         if (!toCheck.isEmpty() && reference.size() != toCheck.size()) {
-            errorList.add(new MZTabError(LogicalErrorType.ItemNumberMismatch,
+            errorList.add(LogicalErrorType.ItemNumberMismatch,
                 lineNumber, toCheckProperty.getPropertyName(), "" + toCheck.
                 size(), referenceProperty.getPropertyName(), "" + reference.
-                size()));
+                size());
         }
     }
 
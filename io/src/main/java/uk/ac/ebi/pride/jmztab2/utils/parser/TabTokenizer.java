@@ -0,0 +1,212 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.pride.jmztab2.utils.parser;
+
+import uk.ac.ebi.pride.jmztab2.model.Section;
+
+/**
+ * <p>
+ * Splits an mzTab line into its tab separated cells, without using regular
+ * expressions. The line is scanned once and the cell boundaries are recorded in
+ * an offset array that is reused for subsequent lines, so one tokenizer should
+ * be kept per line parser. Instances are not thread-safe.</p>
+ *
+ * <p>
+ * The result is identical to {@code line.split("\\s*\t\\s*")}, followed by
+ * trimming the first and the last cell: a cell delimiter is a run of
+ * whitespace containing at least one tab, and trailing empty cells are
+ * dropped.</p>
+ *
+ * @author nilshoffmann
+ * @see MZTabLineParser
+ */
+public final class TabTokenizer {
+
+    private static final Section[] SECTIONS = Section.values();
+
+    // start and end offset of cell i at 2*i and 2*i+1
+    private int[] offsets = new int[64];
+    private int size = 0;
+    private String line = null;
+
+    /**
+     * Split the line into cells.
+     *
+     * @param line the line, must not be null.
+     * @return the number of cells.
+     */
+    public int tokenize(String line) {
+        this.line = line;
+        this.size = 0;
+        int length = line.length();
+        int cellStart = 0;
+        boolean delimited = false;
+        int i = 0;
+        while (i < length) {
+            if (!isWhitespace(line.charAt(i))) {
+                i++;
+                continue;
+            }
+            int runStart = i;
+            boolean tab = false;
+            while (i < length && isWhitespace(line.charAt(i))) {
+                if (line.charAt(i) == '\t') {
+                    tab = true;
+                }
+                i++;
+            }
+            if (tab) {
+                add(cellStart, runStart);
+                cellStart = i;
+                delimited = true;
+            }
+        }
+        add(cellStart, length);
+        if (delimited) {
+            // drop trailing empty cells, as String.split does
+            while (size > 0 && offsets[2 * size - 2] == offsets[2 * size - 1]) {
+                size--;
+            }
+        }
+        if (size > 0) {
+            trim(0);
+            trim(size - 1);
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of cells of the last tokenized line.
+     *
+     * @return the number of cells.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the start offset of the cell in the line, inclusive.
+     *
+     * @param index the cell index.
+     * @return the start offset.
+     */
+    public int start(int index) {
+        checkIndex(index);
+        return offsets[2 * index];
+    }
+
+    /**
+     * Returns the end offset of the cell in the line, exclusive.
+     *
+     * @param index the cell index.
+     * @return the end offset.
+     */
+    public int end(int index) {
+        checkIndex(index);
+        return offsets[2 * index + 1];
+    }
+
+    /**
+     * Returns the content of the cell.
+     *
+     * @param index the cell index.
+     * @return the cell content.
+     */
+    public String get(int index) {
+        checkIndex(index);
+        return line.substring(offsets[2 * index], offsets[2 * index + 1]);
+    }
+
+    /**
+     * Returns the contents of all cells.
+     *
+     * @return a new array with the cell contents.
+     */
+    public String[] toArray() {
+        String[] items = new String[size];
+        for (int i = 0; i < size; i++) {
+            items[i] = line.substring(offsets[2 * i], offsets[2 * i + 1]);
+        }
+        return items;
+    }
+
+    /**
+     * Detect the section of a line from its prefix. Only the first three
+     * characters are compared in the common case of a line starting with a
+     * section prefix, followed by a tab. Other lines are delegated to
+     * {@link Section#findSection(java.lang.String)} with their first cell.
+     *
+     * @param line the line.
+     * @return the section, or null, if no section matches.
+     */
+    public static Section findSection(String line) {
+        int length = line.length();
+        if (length >= 3 && !isWhitespace(line.charAt(0))) {
+            int i = 3;
+            while (i < length && line.charAt(i) != '\t' && isWhitespace(line.
+                charAt(i))) {
+                i++;
+            }
+            if (i == length || line.charAt(i) == '\t') {
+                for (Section section : SECTIONS) {
+                    if (line.regionMatches(true, 0, section.getPrefix(), 0, 3)) {
+                        return section;
+                    }
+                }
+            }
+        }
+        TabTokenizer tokenizer = new TabTokenizer();
+        if (tokenizer.tokenize(line) == 0) {
+            return null;
+        }
+        return Section.findSection(tokenizer.get(0));
+    }
+
+    private void add(int start, int end) {
+        if (2 * size + 1 >= offsets.length) {
+            int[] grown = new int[offsets.length * 2];
+            System.arraycopy(offsets, 0, grown, 0, offsets.length);
+            offsets = grown;
+        }
+        offsets[2 * size] = start;
+        offsets[2 * size + 1] = end;
+        size++;
+    }
+
+    private void trim(int index) {
+        int start = offsets[2 * index];
+        int end = offsets[2 * index + 1];
+        while (start < end && line.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && line.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        offsets[2 * index] = start;
+        offsets[2 * index + 1] = end;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private static boolean isWhitespace(char c) {
+        // same characters as \s in java.util.regex
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
@@ -15,6 +15,8 @@
  */
 package de.isas.mztab2;
 
+import java.util.Arrays;
+import java.util.Random;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.junit.Assert;
@@ -22,7 +24,10 @@ import org.junit.Test;
 import uk.ac.ebi.pride.jmztab2.model.MZTabColumn;
 import uk.ac.ebi.pride.jmztab2.model.MZTabConstants;
 import static uk.ac.ebi.pride.jmztab2.model.MZTabConstants.REGEX_DEFAULT_RELIABILITY;
+import uk.ac.ebi.pride.jmztab2.model.MZTabNumbers;
 import uk.ac.ebi.pride.jmztab2.model.MZTabUtils;
+import uk.ac.ebi.pride.jmztab2.utils.parser.MZTabValueCache;
+import de.isas.mztab2.model.Parameter;
 
 /**
  *
@@ -107,4 +112,126 @@ public class ParsingPrimitivesTest {
         result = MZTabUtils.parseMzTabVersion("1.1.0-M");
         Assert.assertNull(result);
     }
+
+    @Test
+    public void testParseParam() {
+        Parameter p = MZTabUtils.parseParam("[MS, MS:1001477, SpectraST,]");
+        Assert.assertEquals("MS", p.getCvLabel());
+        Assert.assertEquals("MS:1001477", p.getCvAccession());
+        Assert.assertEquals("SpectraST", p.getName());
+        Assert.assertNull(p.getValue());
+
+        p = MZTabUtils.parseParam("[, , \"name, with comma\", value]");
+        Assert.assertEquals("name, with comma", p.getName());
+        Assert.assertEquals("value", p.getValue());
+
+        Assert.assertNull(MZTabUtils.parseParam("[MS, MS:1001477, SpectraST]"));
+    }
+
+    @Test
+    public void testTranslateHelpers() {
+        Assert.assertEquals("[MS\tMS:1\tname\t]|other", MZTabUtils.
+            translateCommaToTab("[MS,MS:1,name,]|other"));
+        Assert.assertEquals("[MS,MS:1,name,]", MZTabUtils.translateTabToComma(
+            "[MS\tMS:1\tname\t]"));
+        Assert.assertEquals("no brackets, here", MZTabUtils.
+            translateCommaToTab("no brackets, here"));
+        Assert.assertEquals("CHEMMOD:&minus;159", MZTabUtils.
+            translateMinusToUnicode("CHEMMOD:-159"));
+        Assert.assertEquals("13-CHEMMOD:-159", MZTabUtils.
+            translateUnicodeToMinus("13-CHEMMOD:&minus;159"));
+        Assert.assertEquals("13-UNIMOD:35", MZTabUtils.
+            translateMinusToUnicode("13-UNIMOD:35"));
+        Assert.assertEquals("[a&minus;b]-c", MZTabUtils.
+            translateMinusInCVtoUnicode("[a-b]-c"));
+    }
+
+    @Test
+    public void testNumberParsingMatchesJdk() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            double d;
+            switch (i % 4) {
+                case 0:
+                    d = random.nextDouble();
+                    break;
+                case 1:
+                    d = (random.nextDouble() - 0.5) * Math.pow(10, random.
+                        nextInt(40) - 20);
+                    break;
+                case 2:
+                    d = Double.longBitsToDouble(random.nextLong());
+                    break;
+                default:
+                    d = Math.round(random.nextDouble() * 1e6) / 1e4;
+            }
+            String s = Double.toString(d);
+            Assert.assertEquals(s, Double.doubleToRawLongBits(Double.
+                parseDouble(s)), Double.doubleToRawLongBits(MZTabNumbers.
+                    parseDouble(s, 0, s.length())));
+            int n = random.nextInt() >> random.nextInt(32);
+            Assert.assertEquals(n, MZTabNumbers.parseInt(Integer.toString(n), 0,
+                Integer.toString(n).
+                    length()));
+        }
+        for (String s : new String[]{"0", "-0", "+1.5", "1.", ".5", "5.e3",
+            "1e-5", "123456789012345678901234567890", "0.1000000000000000055511151231257827",
+            "1E22", "1e23", "4.9e-324", "2.2250738585072014E-308", "1.5d",
+            "0x1p3", "Infinity", "-Infinity", " 12.5 "}) {
+            Assert.assertEquals(s, Double.doubleToRawLongBits(Double.
+                parseDouble(s)), Double.doubleToRawLongBits(MZTabNumbers.
+                    parseDouble(s, 0, s.length())));
+        }
+        Assert.assertEquals(Integer.MAX_VALUE, (int) MZTabUtils.parseInteger(
+            "2147483647"));
+        Assert.assertEquals(Integer.MIN_VALUE, (int) MZTabUtils.parseInteger(
+            "-2147483648"));
+        Assert.assertNull(MZTabUtils.parseInteger("2147483648"));
+        Assert.assertNull(MZTabUtils.parseInteger("1.0"));
+        Assert.assertNull(MZTabUtils.parseInteger("-"));
+    }
+
+    @Test
+    public void testDoubleParsing() {
+        Assert.assertEquals(Double.POSITIVE_INFINITY, MZTabUtils.parseDouble(
+            "INF"), 0.0d);
+        Assert.assertTrue(MZTabUtils.parseDouble("NaN").
+            isNaN());
+        Assert.assertNull(MZTabUtils.parseDouble("null"));
+        Assert.assertNull(MZTabUtils.parseDouble("NULL"));
+        Assert.assertNull(MZTabUtils.parseDouble(" "));
+        Assert.assertNull(MZTabUtils.parseDouble("-INF"));
+        Assert.assertNull(MZTabUtils.parseDouble("1e"));
+        Assert.assertNull(MZTabUtils.parseDouble("1,5"));
+        Assert.assertEquals(Arrays.asList(1.5, 2.0, Double.POSITIVE_INFINITY),
+            MZTabUtils.parseDoubleList(" 1.5| 2 |INF||"));
+        Assert.assertTrue(MZTabUtils.parseDoubleList("1.5||2").
+            isEmpty());
+        Assert.assertTrue(MZTabUtils.parseDoubleList("1.5|null").
+            isEmpty());
+        Assert.assertTrue(MZTabUtils.parseDoubleList("null").
+            isEmpty());
+        Assert.assertEquals(Arrays.asList(1, -2), MZTabUtils.parseIntegerList(
+            "1|-2|"));
+        Assert.assertTrue(MZTabUtils.parseIntegerList("1|a").
+            isEmpty());
+    }
+
+    @Test
+    public void testValueCache() {
+        MZTabValueCache cache = new MZTabValueCache(3);
+        String adduct = new String("[M+H]1+");
+        Assert.assertSame(adduct, cache.intern(adduct));
+        Assert.assertSame(adduct, cache.intern(new String("[M+H]1+")));
+        Assert.assertNull(cache.intern(null));
+        String value = "[MS, MS:1001477, SpectraST, ]";
+        Parameter param = cache.parseParam(value);
+        Assert.assertEquals(MZTabUtils.parseParam(value), param);
+        Assert.assertSame(param, cache.parseParam(new String(value)));
+        Assert.assertNull(cache.parseParam("[MS, MS:1001477"));
+        // colliding values replace each other, but stay correct
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals("v" + i, cache.intern("v" + i));
+        }
+    }
 }
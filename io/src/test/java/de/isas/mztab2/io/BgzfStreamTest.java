@@ -0,0 +1,219 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.isas.mztab2.io;
+
+import de.isas.mztab2.test.utils.LogMethodName;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for BgzfOutputStream, BgzfInputStream and BgzfLineSource
+ *
+ * @author nilshoffmann
+ */
+public class BgzfStreamTest {
+
+    @Rule
+    public LogMethodName methodNameLogger = new LogMethodName();
+
+    @Rule
+    public TemporaryFolder tf = new TemporaryFolder();
+
+    @Test
+    public void testRoundTripIsReadableByGzip() throws IOException {
+        for (byte[] data : new byte[][]{new byte[0], text(10), text(300000),
+            random(200000)}) {
+            byte[] compressed = compress(data);
+            Assert.assertTrue(BgzfInputStream.isBgzf(compressed,
+                compressed.length));
+            Assert.assertArrayEquals(data, readAll(new GZIPInputStream(
+                new ByteArrayInputStream(compressed))));
+            Assert.assertArrayEquals(data, readAll(new BgzfInputStream(
+                Channels.newChannel(new ByteArrayInputStream(compressed)),
+                null, 0)));
+            ForkJoinPool pool = new ForkJoinPool(4);
+            try {
+                Assert.assertArrayEquals(data, readAll(new BgzfInputStream(
+                    Channels.newChannel(new ByteArrayInputStream(compressed)),
+                    pool, 8)));
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void testPlainGzipIsNotBgzf() throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (OutputStream os = new GZIPOutputStream(bos)) {
+            os.write(text(100));
+        }
+        byte[] gzip = bos.toByteArray();
+        Assert.assertFalse(BgzfInputStream.isBgzf(gzip, gzip.length));
+    }
+
+    @Test
+    public void testInvalidBlockSizeIsRejected() throws IOException {
+        byte[] compressed = compress(text(10));
+        // the uncompressed size of the first block precedes the EOF block
+        int isize = compressed.length - 28 - 4;
+        for (int value : new int[]{-1, BgzfInputStream.MAX_BLOCK_SIZE + 1,
+            Integer.MAX_VALUE, 1}) {
+            byte[] corrupt = compressed.clone();
+            for (int i = 0; i < 4; i++) {
+                corrupt[isize + i] = (byte) (value >>> (8 * i));
+            }
+            try {
+                readAll(new BgzfInputStream(Channels.newChannel(
+                    new ByteArrayInputStream(corrupt)), null, 0));
+                Assert.fail("Expected an IOException for size " + value);
+            } catch (IOException ex) {
+                Assert.assertTrue(ex.getMessage(), ex.getMessage().
+                    contains("at byte 0"));
+            }
+        }
+    }
+
+    @Test
+    public void testCrcMismatchIsRejected() throws IOException {
+        byte[] corrupt = compress(text(10));
+        corrupt[corrupt.length - 28 - 8] ^= 1;
+        try {
+            readAll(new BgzfInputStream(Channels.newChannel(
+                new ByteArrayInputStream(corrupt)), null, 0));
+            Assert.fail("Expected an IOException");
+        } catch (IOException ex) {
+            Assert.assertTrue(ex.getMessage(), ex.getMessage().
+                startsWith("CRC mismatch"));
+        }
+    }
+
+    @Test
+    public void testPlainGzipHasNoRandomAccess() throws IOException {
+        Path file = tf.newFile("plain.mztab.gz").
+            toPath();
+        try (OutputStream os = new GZIPOutputStream(Files.newOutputStream(
+            file))) {
+            os.write(text(100));
+        }
+        try (SeekableLineSource source = SeekableLineSource.open(file,
+            StandardCharsets.UTF_8)) {
+            Assert.fail("Expected an IOException");
+        } catch (IOException ex) {
+            Assert.assertTrue(ex.getMessage(), ex.getMessage().
+                contains("requires a BGZF compressed or an uncompressed file"));
+        }
+    }
+
+    @Test
+    public void testSeekToLinePositions() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            sb.append("SML\t").
+                append(i).
+                append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        Path file = tf.newFile("lines.mztab.gz").
+            toPath();
+        Files.write(file, compress(sb.toString().
+            getBytes(StandardCharsets.UTF_8)));
+
+        List<Long> positions = new ArrayList<>();
+        List<String> lines = new ArrayList<>();
+        try (SeekableLineSource source = SeekableLineSource.open(file,
+            StandardCharsets.UTF_8)) {
+            Assert.assertTrue(source instanceof BgzfLineSource);
+            long position = source.position();
+            String line;
+            while ((line = source.readLine()) != null) {
+                positions.add(position);
+                lines.add(line);
+                position = source.position();
+            }
+            Assert.assertEquals(20000, lines.size());
+            Assert.assertEquals("SML\t19999", lines.get(19999));
+            for (int i = lines.size() - 1; i >= 0; i -= 997) {
+                source.seek(positions.get(i));
+                Assert.assertEquals(lines.get(i), source.readLine());
+            }
+            source.seek(positions.get(0));
+            Assert.assertEquals(lines.get(0), source.readLine());
+            Assert.assertEquals(lines.get(1), source.readLine());
+        }
+    }
+
+    private static byte[] compress(byte[] data) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (BgzfOutputStream os = new BgzfOutputStream(bos)) {
+            // uneven writes to exercise block boundaries
+            int off = 0;
+            while (off < data.length) {
+                int len = Math.min(data.length - off, 7919);
+                os.write(data, off, len);
+                off += len;
+            }
+        }
+        return bos.toByteArray();
+    }
+
+    private static byte[] readAll(InputStream is) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (InputStream in = is) {
+            byte[] buffer = new byte[4096];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                bos.write(buffer, 0, n);
+            }
+        }
+        return bos.toByteArray();
+    }
+
+    private static byte[] text(int lines) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            sb.append("SMF\t").
+                append(i).
+                append("\tnull\t").
+                append(i * 0.5d).
+                append('\n');
+        }
+        return sb.toString().
+            getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] random(int length) {
+        byte[] data = new byte[length];
+        new Random(42).nextBytes(data);
+        return data;
+    }
+}
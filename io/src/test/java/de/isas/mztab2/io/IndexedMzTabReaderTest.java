@@ -0,0 +1,285 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.isas.mztab2.io;
+
+import de.isas.mztab2.model.MzTab;
+import de.isas.mztab2.model.SmallMoleculeEvidence;
+import de.isas.mztab2.model.SmallMoleculeFeature;
+import de.isas.mztab2.model.SmallMoleculeSummary;
+import de.isas.mztab2.test.utils.ClassPathFile;
+import static de.isas.mztab2.test.utils.ClassPathFile.LIPIDOMICS_EXAMPLE;
+import static de.isas.mztab2.test.utils.ClassPathFile.MINIMAL_EXAMPLE;
+import static de.isas.mztab2.test.utils.ClassPathFile.MOUSELIVER_NEGATIVE;
+import static de.isas.mztab2.test.utils.ClassPathFile.MTBLS263;
+import de.isas.mztab2.test.utils.ExtractClassPathFiles;
+import de.isas.mztab2.test.utils.LogMethodName;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import uk.ac.ebi.pride.jmztab2.model.Section;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorType;
+
+/**
+ * Tests for IndexedMzTabReader and MzTabRowOffsetIndex
+ *
+ * @author nilshoffmann
+ */
+@RunWith(Parameterized.class)
+public class IndexedMzTabReaderTest {
+
+    @Rule
+    public LogMethodName methodNameLogger = new LogMethodName();
+
+    @ClassRule
+    public static final TemporaryFolder TF = new TemporaryFolder();
+
+    @ClassRule
+    public static final ExtractClassPathFiles EXTRACT_FILES = new ExtractClassPathFiles(
+        TF,
+        MTBLS263,
+        MOUSELIVER_NEGATIVE,
+        LIPIDOMICS_EXAMPLE,
+        MINIMAL_EXAMPLE);
+
+    @Parameterized.Parameters(name = "{index}: indexed '{0}'")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][]{
+            {MTBLS263},
+            {MOUSELIVER_NEGATIVE},
+            {LIPIDOMICS_EXAMPLE},
+            {MINIMAL_EXAMPLE}});
+    }
+
+    @Parameterized.Parameter(0)
+    public ClassPathFile resource;
+
+    @Test
+    public void testRowsMatchFileParser() throws Exception {
+        File testFile = new File(TF.getRoot(), resource.fileName());
+        MzTabFileParser fileParser = new MzTabFileParser(testFile);
+        fileParser.parse(System.err, MZTabErrorType.Level.Info, 500);
+        MzTab mzTab = fileParser.getMZTabFile();
+        Assert.assertNotNull(mzTab);
+
+        try (IndexedMzTabReader reader = new IndexedMzTabReader(testFile.
+            toPath())) {
+            Assert.assertEquals(mzTab.getMetadata().
+                getMzTabID(), reader.getMetadata().
+                    getMzTabID());
+            // all rows, ordered by id
+            Assert.assertEquals(sorted(mzTab.getSmallMoleculeSummary(),
+                Comparator.comparing(SmallMoleculeSummary::getSmlId)), reader.
+                    getSmallMoleculeSummaries(Integer.MIN_VALUE,
+                        Integer.MAX_VALUE));
+            Assert.assertEquals(sorted(mzTab.getSmallMoleculeFeature(),
+                Comparator.comparing(SmallMoleculeFeature::getSmfId)), reader.
+                    getSmallMoleculeFeatures(Integer.MIN_VALUE,
+                        Integer.MAX_VALUE));
+            Assert.assertEquals(sorted(mzTab.getSmallMoleculeEvidence(),
+                Comparator.comparing(SmallMoleculeEvidence::getSmeId)), reader.
+                    getSmallMoleculeEvidences(Integer.MIN_VALUE,
+                        Integer.MAX_VALUE));
+            // single rows in reverse file order
+            List<SmallMoleculeEvidence> smes = mzTab.getSmallMoleculeEvidence();
+            for (int i = smes.size() - 1; i >= 0; i--) {
+                Assert.assertEquals(smes.get(i), reader.
+                    getSmallMoleculeEvidence(smes.get(i).
+                        getSmeId()).
+                    get());
+            }
+            for (SmallMoleculeSummary sml : mzTab.getSmallMoleculeSummary()) {
+                Assert.assertEquals(sml, reader.getSmallMoleculeSummary(sml.
+                    getSmlId()).
+                    get());
+            }
+            Assert.assertFalse(reader.getSmallMoleculeFeature(-1).
+                isPresent());
+        }
+    }
+
+    @Test
+    public void testSidecarIsReusedAndRebuilt() throws Exception {
+        Path source = TF.newFolder().
+            toPath().
+            resolve(resource.fileName());
+        Files.copy(new File(TF.getRoot(), resource.fileName()).
+            toPath(), source);
+        Path sidecar = MzTabRowOffsetIndex.sidecarFor(source);
+        Assert.assertFalse(Files.exists(sidecar));
+
+        MzTabRowOffsetIndex index = MzTabRowOffsetIndex.build(source);
+        try (IndexedMzTabReader reader = new IndexedMzTabReader(source)) {
+            Assert.assertTrue(Files.exists(sidecar));
+            assertSameIndex(index, reader.getIndex());
+        }
+        MzTabRowOffsetIndex loaded = MzTabRowOffsetIndex.load(sidecar);
+        assertSameIndex(index, loaded);
+        Assert.assertTrue(loaded.matches(source, true));
+
+        Files.setLastModifiedTime(source, FileTime.fromMillis(Files.
+            getLastModifiedTime(source).
+            toMillis() + 2000));
+        Assert.assertFalse(loaded.matches(source, false));
+        try (IndexedMzTabReader reader = new IndexedMzTabReader(source)) {
+            Assert.assertTrue(reader.getIndex().
+                matches(source, true));
+        }
+        Assert.assertTrue(MzTabRowOffsetIndex.load(sidecar).
+            matches(source, false));
+    }
+
+    @Test
+    public void testSidecarIsRebuiltForSameSizeRewrite() throws Exception {
+        Path source = TF.newFolder().
+            toPath().
+            resolve(resource.fileName());
+        Files.copy(new File(TF.getRoot(), resource.fileName()).
+            toPath(), source);
+        Path sidecar = MzTabRowOffsetIndex.sidecarFor(source);
+        try (IndexedMzTabReader reader = new IndexedMzTabReader(source)) {
+            Assert.assertTrue(Files.exists(sidecar));
+        }
+        MzTabRowOffsetIndex stale = MzTabRowOffsetIndex.load(sidecar);
+
+        // rewrite with the same size and modification time
+        FileTime lastModified = Files.getLastModifiedTime(source);
+        byte[] bytes = Files.readAllBytes(source);
+        int last = bytes.length - 1;
+        while (bytes[last] < '0' || bytes[last] > '9') {
+            last--;
+        }
+        bytes[last] = (byte) (bytes[last] == '1' ? '2' : '1');
+        Files.write(source, bytes);
+        Files.setLastModifiedTime(source, lastModified);
+        Assert.assertTrue(stale.matches(source, false));
+        Assert.assertFalse(stale.matches(source, true));
+
+        try (IndexedMzTabReader reader = new IndexedMzTabReader(source)) {
+            Assert.assertEquals(stale.getSourceChecksum(), reader.getIndex().
+                getSourceChecksum());
+        }
+        try (IndexedMzTabReader reader = new IndexedMzTabReader(source, true)) {
+            Assert.assertTrue(reader.getIndex().
+                matches(source, true));
+        }
+        Assert.assertTrue(MzTabRowOffsetIndex.load(sidecar).
+            matches(source, true));
+    }
+
+    @Test
+    public void testSidecarWithInvalidRowCountIsRebuilt() throws Exception {
+        Path source = TF.newFolder().
+            toPath().
+            resolve(resource.fileName());
+        Files.copy(new File(TF.getRoot(), resource.fileName()).
+            toPath(), source);
+        Path sidecar = MzTabRowOffsetIndex.sidecarFor(source);
+        MzTabRowOffsetIndex index = MzTabRowOffsetIndex.build(source);
+        // row count of the first section, after the file header and the
+        // header offset and line number of the section
+        int countOffset = 40 + 12;
+        for (int count : new int[]{-1, Integer.MAX_VALUE, (int) index.
+            getSourceSize()}) {
+            index.save(sidecar);
+            byte[] bytes = Files.readAllBytes(sidecar);
+            ByteBuffer.wrap(bytes).
+                putInt(countOffset, count);
+            Files.write(sidecar, bytes);
+            try {
+                MzTabRowOffsetIndex.load(sidecar);
+                Assert.fail("Expected an IOException for row count " + count);
+            } catch (IOException ex) {
+                // expected
+            }
+            try (IndexedMzTabReader reader = new IndexedMzTabReader(source)) {
+                assertSameIndex(index, reader.getIndex());
+            }
+            assertSameIndex(index, MzTabRowOffsetIndex.load(sidecar));
+        }
+    }
+
+    @Test
+    public void testBlockCompressedRowsMatchUncompressed() throws Exception {
+        Path plain = new File(TF.getRoot(), resource.fileName()).
+            toPath();
+        Path compressed = TF.newFolder().
+            toPath().
+            resolve(resource.fileName() + ".gz");
+        try (BgzfOutputStream os = new BgzfOutputStream(Files.newOutputStream(
+            compressed))) {
+            Files.copy(plain, os);
+        }
+        try (IndexedMzTabReader plainReader = new IndexedMzTabReader(plain,
+            MzTabRowOffsetIndex.build(plain));
+            IndexedMzTabReader reader = new IndexedMzTabReader(compressed)) {
+            // the checksum of the compressed bytes is computed while indexing
+            Assert.assertTrue(reader.getIndex().
+                matches(compressed, true));
+            Assert.assertEquals(plainReader.getMetadata(), reader.getMetadata());
+            Assert.assertEquals(plainReader.getSmallMoleculeSummaries(
+                Integer.MIN_VALUE, Integer.MAX_VALUE), reader.
+                    getSmallMoleculeSummaries(Integer.MIN_VALUE,
+                        Integer.MAX_VALUE));
+            Assert.assertEquals(plainReader.getSmallMoleculeEvidences(
+                Integer.MIN_VALUE, Integer.MAX_VALUE), reader.
+                    getSmallMoleculeEvidences(Integer.MIN_VALUE,
+                        Integer.MAX_VALUE));
+            Assert.assertEquals(plainReader.getSmallMoleculeFeatures(
+                Integer.MIN_VALUE, Integer.MAX_VALUE), reader.
+                    getSmallMoleculeFeatures(Integer.MIN_VALUE,
+                        Integer.MAX_VALUE));
+        }
+    }
+
+    private static void assertSameIndex(MzTabRowOffsetIndex expected,
+        MzTabRowOffsetIndex actual) {
+        Assert.assertEquals(expected.getSourceSize(), actual.getSourceSize());
+        Assert.assertEquals(expected.getSourceChecksum(), actual.
+            getSourceChecksum());
+        Assert.assertEquals(expected.getMetadataEnd(), actual.getMetadataEnd());
+        for (Section section : new Section[]{Section.Small_Molecule,
+            Section.Small_Molecule_Feature, Section.Small_Molecule_Evidence}) {
+            Assert.assertEquals(expected.getHeaderOffset(section), actual.
+                getHeaderOffset(section));
+            Assert.assertEquals(expected.getRowCount(section), actual.
+                getRowCount(section));
+            Assert.assertArrayEquals(expected.getRowPositions(section,
+                Integer.MIN_VALUE, Integer.MAX_VALUE), actual.getRowPositions(
+                section, Integer.MIN_VALUE, Integer.MAX_VALUE));
+        }
+    }
+
+    private static <T> List<T> sorted(List<T> rows, Comparator<T> comparator) {
+        return rows.stream().
+            sorted(comparator).
+            collect(Collectors.toList());
+    }
+}
@@ -29,6 +29,7 @@ import static de.isas.mztab2.test.utils.ClassPathFile.STANDARDMIX_POSITIVE_EXPOR
 import static de.isas.mztab2.test.utils.ClassPathFile.STANDARDMIX_POSITIVE_EXPORTSPECIESLEVEL;
 import de.isas.mztab2.test.utils.ExtractClassPathFiles;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.net.URISyntaxException;
@@ -46,6 +47,7 @@ import org.junit.ClassRule;
 import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorList;
 import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorOverflowException;
 import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorType;
 import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabException;
@@ -115,6 +117,21 @@ public class MZTabFileParserTest {
             validationLevel, expectedStructuralLogicalErrors);
     }
 
+    @Test
+    public void testValidationMatchesParse() throws IOException {
+        File testFile = new File(TF.getRoot(), resource.fileName());
+        MzTabFileParser parser = new MzTabFileParser(testFile);
+        MZTabErrorList errors = parser.parse(System.out, validationLevel);
+        Assert.assertNotNull(parser.getMZTabFile());
+
+        MzTabFileParser validator = new MzTabFileParser(testFile);
+        MZTabErrorList validationErrors = validator.validate(System.out,
+            validationLevel);
+        Assert.assertEquals(errors.toString(), validationErrors.toString());
+        Assert.assertNull(validator.getMZTabFile());
+        Assert.assertNull(validator.getReferenceIndex());
+    }
+
     void testExample(TemporaryFolder tf, ClassPathFile resource,
         MZTabErrorType.Level level,
         Integer expectedErrors) throws MZTabException {
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.isas.mztab2.io;
+
+import de.isas.mztab2.test.utils.LogMethodName;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for MappedLineSource
+ *
+ * @author nilshoffmann
+ */
+public class MappedLineSourceTest {
+
+    @Rule
+    public LogMethodName methodNameLogger = new LogMethodName();
+
+    @Rule
+    public TemporaryFolder tf = new TemporaryFolder();
+
+    private static final String[] CONTENTS = {
+        "",
+        "\n",
+        "MTD\tmzTab-version\t2.0.0-M\nSML\t1\t2\n",
+        "MTD\ta\r\nSML\t1\r\n\r\nSML\t2",
+        "MTD\ta\rSML\t1\r\rCOM\tc\n\r",
+        "COM\tÄnderung ü\nSML\tµmol\t中\nSML\tx",
+        "line without terminator"
+    };
+
+    @Test
+    public void testLinesMatchBufferedReader() throws IOException {
+        for (String content : CONTENTS) {
+            Path file = tf.newFile().
+                toPath();
+            Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+            List<String> expected = readLines(LineSource.of(new BufferedReader(
+                new StringReader(content))));
+            // small windows to exercise lines crossing window boundaries
+            for (int windowSize : new int[]{MappedLineSource.DEFAULT_WINDOW_SIZE, 64, 31, 30}) {
+                List<String> actual = readLines(new MappedLineSource(file,
+                    StandardCharsets.UTF_8, windowSize));
+                Assert.assertEquals(content + " with window " + windowSize,
+                    expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void testSkippedLinesMatchBufferedReader() throws IOException {
+        for (String content : CONTENTS) {
+            Path file = tf.newFile().
+                toPath();
+            Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+            List<String> expected = new ArrayList<>();
+            for (String line : readLines(LineSource.of(new BufferedReader(
+                new StringReader(content))))) {
+                if (!line.startsWith("SML\t")) {
+                    expected.add(line);
+                }
+            }
+            for (int windowSize : new int[]{MappedLineSource.DEFAULT_WINDOW_SIZE, 64, 31, 30}) {
+                List<String> actual = new ArrayList<>();
+                try (LineSource s = new MappedLineSource(file,
+                    StandardCharsets.UTF_8, windowSize)) {
+                    String line;
+                    while (true) {
+                        if (s.skipLine("SML\t")) {
+                            continue;
+                        }
+                        if ((line = s.readLine()) == null) {
+                            break;
+                        }
+                        actual.add(line);
+                    }
+                }
+                Assert.assertEquals(content + " with window " + windowSize,
+                    expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void testChecksumMatchesFile() throws IOException {
+        List<String> contents = new ArrayList<>(Arrays.asList(CONTENTS));
+        // the line feed of the CR LF terminator is just after the first window
+        contents.add("SML\t1234567890123456789012345\r\nSML\t1");
+        for (String content : contents) {
+            Path file = tf.newFile().
+                toPath();
+            byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            Files.write(file, bytes);
+            CRC32 expected = new CRC32();
+            expected.update(bytes);
+            for (int windowSize : new int[]{MappedLineSource.DEFAULT_WINDOW_SIZE, 64, 31, 30}) {
+                CRC32 lines = new CRC32();
+                readLines(new MappedLineSource(file, StandardCharsets.UTF_8,
+                    windowSize, lines));
+                Assert.assertEquals(content + " with window " + windowSize,
+                    expected.getValue(), lines.getValue());
+                CRC32 skipped = new CRC32();
+                try (LineSource s = new MappedLineSource(file,
+                    StandardCharsets.UTF_8, windowSize, skipped)) {
+                    while (s.skipLine("SML\t") || s.readLine() != null) {
+                    }
+                }
+                Assert.assertEquals(content + " with window " + windowSize,
+                    expected.getValue(), skipped.getValue());
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testLineLongerThanWindow() throws IOException {
+        Path file = tf.newFile().
+            toPath();
+        Files.write(file, "SML\t1234567890\nSML\t1\n".getBytes(
+            StandardCharsets.UTF_8));
+        readLines(new MappedLineSource(file, StandardCharsets.UTF_8, 8));
+    }
+
+    private static List<String> readLines(LineSource source) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (LineSource s = source) {
+            String line;
+            while ((line = s.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.isas.mztab2.io;
+
+import de.isas.mztab2.model.MzTab;
+import de.isas.mztab2.test.utils.ClassPathFile;
+import static de.isas.mztab2.test.utils.ClassPathFile.LIPIDOMICS_EXAMPLE;
+import de.isas.mztab2.test.utils.ExtractClassPathFiles;
+import de.isas.mztab2.test.utils.LogMethodName;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.EnumSet;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorType;
+
+/**
+ * Tests for MzTabCompression
+ *
+ * @author nilshoffmann
+ */
+public class MzTabCompressionTest {
+
+    @Rule
+    public LogMethodName methodNameLogger = new LogMethodName();
+
+    @ClassRule
+    public static final TemporaryFolder TF = new TemporaryFolder();
+
+    @ClassRule
+    public static final ExtractClassPathFiles EXTRACT_FILES = new ExtractClassPathFiles(
+        TF,
+        LIPIDOMICS_EXAMPLE);
+
+    @Test
+    public void testRoundTripIsDetected() throws IOException {
+        byte[] data = "MTD\tmzTab-version\t2.0.0-M\n".getBytes(
+            StandardCharsets.UTF_8);
+        for (MzTabCompression compression : MzTabCompression.values()) {
+            if (!compression.isAvailable()) {
+                continue;
+            }
+            for (int level : new int[]{MzTabCompression.DEFAULT_LEVEL, 1}) {
+                ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                try (OutputStream os = compression.compress(bos, level)) {
+                    os.write(data);
+                }
+                byte[] compressed = bos.toByteArray();
+                Assert.assertEquals(compression, MzTabCompression.detect(
+                    compressed, compressed.length));
+                InputStream is = compression.decompress(
+                    new ByteArrayInputStream(compressed), null);
+                Assert.assertArrayEquals(data, readAll(is));
+            }
+        }
+    }
+
+    @Test
+    public void testFileNames() {
+        Assert.assertEquals(MzTabCompression.BGZF, MzTabCompression.
+            forFileName("a.mzTab.gz"));
+        Assert.assertEquals(MzTabCompression.BGZF, MzTabCompression.
+            forFileName("a.mzTab.bgz"));
+        Assert.assertEquals(MzTabCompression.ZSTD, MzTabCompression.
+            forFileName("a.mzTab.zst"));
+        Assert.assertEquals(MzTabCompression.XZ, MzTabCompression.
+            forFileName("a.mzTab.xz"));
+        Assert.assertEquals(MzTabCompression.BZIP2, MzTabCompression.
+            forFileName("a.mzTab.bz2"));
+        Assert.assertEquals(MzTabCompression.NONE, MzTabCompression.
+            forFileName("a.mzTab"));
+    }
+
+    @Test
+    public void testCompressedWritingParsesLikeUncompressed() throws Exception {
+        File testFile = new File(TF.getRoot(), LIPIDOMICS_EXAMPLE.fileName());
+        MzTabFileParser fileParser = new MzTabFileParser(testFile);
+        fileParser.parse(System.err, MZTabErrorType.Level.Info, 500);
+        MzTab mzTab = fileParser.getMZTabFile();
+
+        File plainFile = TF.newFile("plain.mztab");
+        new MzTabNonValidatingWriter().write(plainFile.toPath(), mzTab);
+        MzTabFileParser plainParser = new MzTabFileParser(plainFile);
+        MZTabErrorType.Level level = MZTabErrorType.Level.Info;
+        String errors = plainParser.parse(System.err, level, 500).
+            toString();
+        for (MzTabCompression compression : EnumSet.complementOf(EnumSet.of(
+            MzTabCompression.NONE))) {
+            if (!compression.isAvailable()) {
+                continue;
+            }
+            // no suffix, the format is detected from the magic bytes
+            File compressedFile = TF.newFile("compressed-" + compression);
+            new MzTabNonValidatingWriter(new MzTabWriterDefaults(),
+                compression, MzTabCompression.DEFAULT_LEVEL).write(
+                    compressedFile.toPath(), mzTab);
+            byte[] bytes = Files.readAllBytes(compressedFile.toPath());
+            Assert.assertEquals(compression, MzTabCompression.detect(bytes,
+                bytes.length));
+            for (MzTabFileParser parser : new MzTabFileParser[]{
+                new MzTabFileParser(compressedFile), new MzTabFileParser(bytes)}) {
+                parser.setMemoryMapped(true);
+                Assert.assertEquals(errors, parser.parse(System.err, level, 500).
+                    toString());
+                Assert.assertEquals(plainParser.getMZTabFile(), parser.
+                    getMZTabFile());
+            }
+        }
+    }
+
+    @Test
+    public void testBgzfWritingFillsBlocks() throws Exception {
+        File testFile = new File(TF.getRoot(), LIPIDOMICS_EXAMPLE.fileName());
+        MzTabFileParser fileParser = new MzTabFileParser(testFile);
+        fileParser.parse(System.err, MZTabErrorType.Level.Info, 500);
+        MzTab mzTab = fileParser.getMZTabFile();
+
+        File plainFile = TF.newFile("blocks.mztab");
+        new MzTabNonValidatingWriter().write(plainFile.toPath(), mzTab);
+        File compressedFile = TF.newFile("blocks.mztab.gz");
+        new MzTabNonValidatingWriter().write(compressedFile.toPath(), mzTab);
+        long lines = Files.lines(plainFile.toPath()).
+            count();
+        byte[] bytes = Files.readAllBytes(compressedFile.toPath());
+        // walk the blocks by their BSIZE field
+        int blocks = 0;
+        int offset = 0;
+        while (offset < bytes.length) {
+            Assert.assertTrue(BgzfInputStream.isBgzf(Arrays.copyOfRange(bytes,
+                offset, bytes.length), bytes.length - offset));
+            offset += ((bytes[offset + 16] & 0xff) | (bytes[offset + 17] & 0xff) << 8) + 1;
+            blocks++;
+        }
+        Assert.assertEquals(bytes.length, offset);
+        // the flushes after each line must not end a block
+        Assert.assertTrue(lines > 10 * blocks);
+        Assert.assertEquals(plainFile.length() / BgzfOutputStream.MAX_BLOCK_INPUT + 2,
+            blocks);
+    }
+
+    @Test
+    public void testUnsupportedLevelFailsBeforeWriting() throws Exception {
+        for (MzTabCompression compression : EnumSet.complementOf(EnumSet.of(
+            MzTabCompression.NONE))) {
+            compression.checkLevel(MzTabCompression.DEFAULT_LEVEL);
+            for (int level : new int[]{-2, 23}) {
+                try {
+                    new MzTabNonValidatingWriter(new MzTabWriterDefaults(),
+                        compression, level);
+                    Assert.fail("Expected level " + level + " to fail for " + compression);
+                } catch (IllegalArgumentException ex) {
+                    Assert.assertTrue(ex.getMessage(), ex.getMessage().
+                        contains(compression.toString()));
+                }
+            }
+        }
+        MzTabCompression.NONE.checkLevel(42);
+
+        File testFile = new File(TF.getRoot(), LIPIDOMICS_EXAMPLE.fileName());
+        MzTabFileParser fileParser = new MzTabFileParser(testFile);
+        fileParser.parse(System.err, MZTabErrorType.Level.Info, 500);
+        File target = new File(TF.getRoot(), "level.mztab.gz");
+        try {
+            new MzTabNonValidatingWriter(new MzTabWriterDefaults(), null, 10).
+                write(target.toPath(), fileParser.getMZTabFile());
+            Assert.fail("Expected level 10 to fail for BGZF");
+        } catch (IllegalArgumentException ex) {
+            Assert.assertFalse(target.exists());
+        }
+    }
+
+    @Test
+    public void testZstdIsAvailable() {
+        // zstd-jni is an optional dependency, which is on the test classpath
+        Assert.assertTrue(MzTabCompression.ZSTD.isAvailable());
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnavailableFormatFails() throws IOException {
+        Assume.assumeFalse(MzTabCompression.ZSTD.isAvailable());
+        MzTabCompression.ZSTD.compress(new ByteArrayOutputStream(),
+            MzTabCompression.DEFAULT_LEVEL);
+    }
+
+    private static byte[] readAll(InputStream is) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int n;
+        try (InputStream in = is) {
+            while ((n = in.read(buffer)) > 0) {
+                bos.write(buffer, 0, n);
+            }
+        }
+        return bos.toByteArray();
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.isas.mztab2.io;
+
+import de.isas.mztab2.model.SmallMoleculeEvidence;
+import de.isas.mztab2.model.SmallMoleculeFeature;
+import de.isas.mztab2.model.SmallMoleculeSummary;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import uk.ac.ebi.pride.jmztab2.utils.errors.LogicalErrorType;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorList;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorType;
+
+/**
+ * Tests for MzTabReferenceIndex
+ *
+ * @author nilshoffmann
+ */
+public class MzTabReferenceIndexTest {
+
+    @Test
+    public void testUnknownRefIdsAndReverseLookups() {
+        MzTabReferenceIndex index = new MzTabReferenceIndex(
+            Arrays.asList(
+                new SmallMoleculeSummary().smlId(1).
+                    smfIdRefs(Arrays.asList(1, 2)),
+                new SmallMoleculeSummary().smlId(2).
+                    smfIdRefs(Arrays.asList(2, 5, 5))),
+            Arrays.asList(
+                new SmallMoleculeFeature().smfId(1).
+                    smeIdRefs(Arrays.asList(1)),
+                new SmallMoleculeFeature().smfId(2).
+                    smeIdRefs(Arrays.asList(1, 7))),
+            Collections.singletonList(new SmallMoleculeEvidence().smeId(1)));
+
+        Assert.assertTrue(index.containsSmfId(2));
+        Assert.assertFalse(index.containsSmfId(5));
+        Assert.assertTrue(index.containsSmeId(1));
+        Assert.assertFalse(index.containsSmeId(7));
+        Assert.assertEquals(Arrays.asList(1, 2), index.getSmlIdsReferencing(2));
+        Assert.assertEquals(Arrays.asList(1, 2), index.getSmfIdsReferencing(1));
+        Assert.assertEquals(Arrays.asList(2), index.getSmfIdsReferencing(7));
+        Assert.assertTrue(index.getSmfIdsReferencing(3).
+            isEmpty());
+
+        MZTabErrorList errorList = new MZTabErrorList(MZTabErrorType.Level.Info);
+        index.checkSmfIdRefs(errorList);
+        // SMF id 5 is referenced twice from SML 2, but reported once
+        Assert.assertEquals(1, errorList.size());
+        index.checkSmeIdRefs(errorList);
+        Assert.assertEquals(2, errorList.size());
+        Assert.assertEquals(LogicalErrorType.UnknownRefId, errorList.
+            getError(0).
+            getType());
+        Assert.assertEquals(LogicalErrorType.UnknownRefId, errorList.
+            getError(1).
+            getType());
+    }
+
+    @Test
+    public void testSparseLargeIds() {
+        MzTabReferenceIndex.IdSet ids = new MzTabReferenceIndex.IdSet();
+        for (int i = 1; i <= 100; i++) {
+            ids.add(i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            ids.add(2000000000 + i * 100003);
+        }
+        ids.add(Integer.MAX_VALUE);
+        ids.add(Integer.MIN_VALUE);
+        ids.add(-7);
+        for (int i = 1; i <= 100; i++) {
+            Assert.assertTrue(ids.contains(i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(ids.contains(2000000000 + i * 100003));
+            Assert.assertFalse(ids.contains(2000000001 + i * 100003));
+        }
+        Assert.assertTrue(ids.contains(Integer.MAX_VALUE));
+        Assert.assertTrue(ids.contains(Integer.MIN_VALUE));
+        Assert.assertTrue(ids.contains(-7));
+        Assert.assertFalse(ids.contains(0));
+        Assert.assertFalse(ids.contains(101));
+        Assert.assertFalse(ids.contains(-8));
+        Assert.assertFalse(ids.contains(null));
+        // the large ids must not be kept in the bitmap
+        Assert.assertTrue(ids.bitmapSize() <= MzTabReferenceIndex.IdSet.MIN_DENSE_LIMIT);
+
+        List<SmallMoleculeSummary> smls = Collections.singletonList(
+            new SmallMoleculeSummary().smlId(1).
+                smfIdRefs(Arrays.asList(2000000000, Integer.MAX_VALUE)));
+        List<SmallMoleculeFeature> smfs = Arrays.asList(
+            new SmallMoleculeFeature().smfId(2000000000).
+                smeIdRefs(Arrays.asList(1999999999)),
+            new SmallMoleculeFeature().smfId(Integer.MAX_VALUE));
+        List<SmallMoleculeEvidence> smes = Collections.singletonList(
+            new SmallMoleculeEvidence().smeId(1999999999));
+        MZTabErrorList errorList = new MZTabErrorList(MZTabErrorType.Level.Info);
+        MzTabReferenceIndex index = new MzTabReferenceIndex(smls, smfs, smes);
+        index.checkSmfIdRefs(errorList);
+        index.checkSmeIdRefs(errorList);
+        StreamingReferenceCheck check = new StreamingReferenceCheck();
+        smls.forEach(check::addSmallMoleculeSummary);
+        smfs.forEach(check::addSmallMoleculeFeature);
+        smes.forEach(check::addSmallMoleculeEvidence);
+        check.checkSmfIdRefs(errorList);
+        check.checkSmeIdRefs(errorList);
+        Assert.assertTrue(errorList.toString(), errorList.isEmpty());
+    }
+
+    @Test
+    public void testStreamingCheckMatchesIndex() {
+        List<SmallMoleculeSummary> smls = Arrays.asList(
+            new SmallMoleculeSummary().smlId(1).
+                smfIdRefs(Arrays.asList(1, 2)),
+            new SmallMoleculeSummary().smlId(2).
+                smfIdRefs(Arrays.asList(2, 5, 5, -3)),
+            new SmallMoleculeSummary().smlId(null).
+                smfIdRefs(Arrays.asList(5)));
+        List<SmallMoleculeFeature> smfs = Arrays.asList(
+            new SmallMoleculeFeature().smfId(1).
+                smeIdRefs(Arrays.asList(1)),
+            new SmallMoleculeFeature().smfId(2).
+                smeIdRefs(Arrays.asList(1, 7, 7)));
+        List<SmallMoleculeEvidence> smes = Collections.singletonList(
+            new SmallMoleculeEvidence().smeId(1));
+        MzTabReferenceIndex index = new MzTabReferenceIndex(smls, smfs, smes);
+        MZTabErrorList expected = new MZTabErrorList(MZTabErrorType.Level.Info);
+        index.checkSmfIdRefs(expected);
+        index.checkSmeIdRefs(expected);
+
+        StreamingReferenceCheck check = new StreamingReferenceCheck();
+        smls.forEach(check::addSmallMoleculeSummary);
+        smfs.forEach(check::addSmallMoleculeFeature);
+        smes.forEach(check::addSmallMoleculeEvidence);
+        MZTabErrorList actual = new MZTabErrorList(MZTabErrorType.Level.Info);
+        check.checkSmfIdRefs(actual);
+        check.checkSmeIdRefs(actual);
+        Assert.assertEquals(4, expected.size());
+        Assert.assertEquals(expected.toString(), actual.toString());
+    }
+}
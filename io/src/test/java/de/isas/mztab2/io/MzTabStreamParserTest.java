@@ -0,0 +1,621 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.isas.mztab2.io;
+
+import de.isas.mztab2.model.Comment;
+import de.isas.mztab2.model.Metadata;
+import de.isas.mztab2.model.MzTab;
+import de.isas.mztab2.model.SmallMoleculeEvidence;
+import de.isas.mztab2.model.SmallMoleculeFeature;
+import de.isas.mztab2.model.SmallMoleculeSummary;
+import de.isas.mztab2.test.utils.ClassPathFile;
+import static de.isas.mztab2.test.utils.ClassPathFile.LIPIDOMICS_EXAMPLE;
+import static de.isas.mztab2.test.utils.ClassPathFile.MINIMAL_EXAMPLE;
+import static de.isas.mztab2.test.utils.ClassPathFile.MOUSELIVER_NEGATIVE;
+import static de.isas.mztab2.test.utils.ClassPathFile.MTBLS263;
+import de.isas.mztab2.test.utils.ExtractClassPathFiles;
+import de.isas.mztab2.test.utils.LogMethodName;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import uk.ac.ebi.pride.jmztab2.model.MZTabColumnFactory;
+import uk.ac.ebi.pride.jmztab2.model.Section;
+import uk.ac.ebi.pride.jmztab2.utils.errors.FormatErrorType;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabError;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorList;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorType;
+
+/**
+ * Tests for MzTabStreamParser
+ *
+ * @author nilshoffmann
+ */
+@RunWith(Parameterized.class)
+public class MzTabStreamParserTest {
+
+    @Rule
+    public LogMethodName methodNameLogger = new LogMethodName();
+
+    @ClassRule
+    public static final TemporaryFolder TF = new TemporaryFolder();
+
+    @ClassRule
+    public static final ExtractClassPathFiles EXTRACT_FILES = new ExtractClassPathFiles(
+        TF,
+        MTBLS263,
+        MOUSELIVER_NEGATIVE,
+        LIPIDOMICS_EXAMPLE,
+        MINIMAL_EXAMPLE);
+
+    @Parameterized.Parameters(name = "{index}: streaming '{0}'")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][]{
+            {MTBLS263},
+            {MOUSELIVER_NEGATIVE},
+            {LIPIDOMICS_EXAMPLE},
+            {MINIMAL_EXAMPLE}});
+    }
+
+    @Parameterized.Parameter(0)
+    public ClassPathFile resource;
+
+    @Test
+    public void testStreamMatchesFileParser() throws Exception {
+        File testFile = new File(TF.getRoot(), resource.fileName());
+        MzTabFileParser fileParser = new MzTabFileParser(testFile);
+        fileParser.parse(System.err, MZTabErrorType.Level.Info, 500);
+        MzTab mzTab = fileParser.getMZTabFile();
+        Assert.assertNotNull(mzTab);
+
+        List<String> events = new ArrayList<>();
+        List<Integer> smlIds = new ArrayList<>();
+        List<Integer> smfIds = new ArrayList<>();
+        List<Integer> smeIds = new ArrayList<>();
+        List<MZTabError> errors = new ArrayList<>();
+        MzTabStreamParser streamParser = new MzTabStreamParser(testFile);
+        MZTabErrorList errorList = streamParser.parse(new MzTabStreamHandler() {
+            @Override
+            public void onComment(Comment comment) {
+                events.add("COM");
+            }
+
+            @Override
+            public void onMetadata(Metadata metadata) {
+                Assert.assertEquals(mzTab.getMetadata().
+                    getMzTabID(), metadata.getMzTabID());
+                events.add("MTD");
+            }
+
+            @Override
+            public void onHeader(Section section,
+                MZTabColumnFactory columnFactory) {
+                Assert.assertTrue(section.isHeader());
+                Assert.assertNotNull(columnFactory);
+                events.add(section.getPrefix());
+            }
+
+            @Override
+            public void onSmallMoleculeSummary(
+                SmallMoleculeSummary smallMoleculeSummary) {
+                smlIds.add(smallMoleculeSummary.getSmlId());
+            }
+
+            @Override
+            public void onSmallMoleculeFeature(
+                SmallMoleculeFeature smallMoleculeFeature) {
+                smfIds.add(smallMoleculeFeature.getSmfId());
+            }
+
+            @Override
+            public void onSmallMoleculeEvidence(
+                SmallMoleculeEvidence smallMoleculeEvidence) {
+                smeIds.add(smallMoleculeEvidence.getSmeId());
+            }
+
+            @Override
+            public void onError(MZTabError error) {
+                errors.add(error);
+            }
+        }, MZTabErrorType.Level.Info, 500);
+
+        Assert.assertEquals(1, events.stream().
+            filter((t) ->
+            {
+                return "MTD".equals(t);
+            }).
+            count());
+        Assert.assertEquals(errorList.size(), errors.size());
+        Assert.assertEquals(mzTab.getSmallMoleculeSummary().
+            stream().
+            map(SmallMoleculeSummary::getSmlId).
+            collect(Collectors.toList()), smlIds);
+        Assert.assertEquals(mzTab.getSmallMoleculeFeature().
+            stream().
+            map(SmallMoleculeFeature::getSmfId).
+            collect(Collectors.toList()), smfIds);
+        Assert.assertEquals(mzTab.getSmallMoleculeEvidence().
+            stream().
+            map(SmallMoleculeEvidence::getSmeId).
+            collect(Collectors.toList()), smeIds);
+    }
+
+    @Test
+    public void testParallelParsingMatchesSequential() throws Exception {
+        File testFile = new File(TF.getRoot(), resource.fileName());
+        MzTabFileParser fileParser = new MzTabFileParser(testFile);
+        MZTabErrorList sequentialErrors = fileParser.parse(System.err,
+            MZTabErrorType.Level.Info, 500);
+        MzTab mzTab = fileParser.getMZTabFile();
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            MzTabFileParser parallelParser = new MzTabFileParser(testFile);
+            // small batches to exercise batch boundaries and chunk merging
+            parallelParser.setParallel(pool, 7);
+            MZTabErrorList parallelErrors = parallelParser.parse(System.err,
+                MZTabErrorType.Level.Info, 500);
+            Assert.assertEquals(sequentialErrors.toString(), parallelErrors.
+                toString());
+            MzTab parallelMzTab = parallelParser.getMZTabFile();
+            Assert.assertEquals(mzTab.getSmallMoleculeSummary(), parallelMzTab.
+                getSmallMoleculeSummary());
+            Assert.assertEquals(mzTab.getSmallMoleculeFeature(), parallelMzTab.
+                getSmallMoleculeFeature());
+            Assert.assertEquals(mzTab.getSmallMoleculeEvidence(),
+                parallelMzTab.getSmallMoleculeEvidence());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testMemoryMappedParsingMatchesReader() throws Exception {
+        File testFile = new File(TF.getRoot(), resource.fileName());
+        MzTabFileParser fileParser = new MzTabFileParser(testFile);
+        MZTabErrorList errors = fileParser.parse(System.err,
+            MZTabErrorType.Level.Info, 500);
+        MzTab mzTab = fileParser.getMZTabFile();
+
+        MzTabFileParser mappedParser = new MzTabFileParser(testFile);
+        mappedParser.setMemoryMapped(true);
+        MZTabErrorList mappedErrors = mappedParser.parse(System.err,
+            MZTabErrorType.Level.Info, 500);
+        Assert.assertEquals(errors.toString(), mappedErrors.toString());
+        Assert.assertEquals(mzTab, mappedParser.getMZTabFile());
+    }
+
+    @Test
+    public void testDeduplicatedParsingMatchesDefault() throws Exception {
+        File testFile = new File(TF.getRoot(), resource.fileName());
+        MzTabFileParser fileParser = new MzTabFileParser(testFile);
+        MZTabErrorList errors = fileParser.parse(System.err,
+            MZTabErrorType.Level.Info, 500);
+        MzTab mzTab = fileParser.getMZTabFile();
+
+        MzTabFileParser dedupParser = new MzTabFileParser(testFile);
+        dedupParser.setDeduplicateValues(true);
+        MZTabErrorList dedupErrors = dedupParser.parse(System.err,
+            MZTabErrorType.Level.Info, 500);
+        Assert.assertEquals(errors.toString(), dedupErrors.toString());
+        MzTab dedupMzTab = dedupParser.getMZTabFile();
+        Assert.assertEquals(mzTab, dedupMzTab);
+        List<SmallMoleculeEvidence> smes = dedupMzTab.
+            getSmallMoleculeEvidence();
+        for (int i = 1; i < smes.size(); i++) {
+            if (smes.get(0).
+                getMsLevel().
+                equals(smes.get(i).
+                    getMsLevel())) {
+                Assert.assertSame(smes.get(0).
+                    getMsLevel(), smes.get(i).
+                        getMsLevel());
+            }
+        }
+    }
+
+    @Test
+    public void testTrustedInputMatchesFileParser() throws Exception {
+        File testFile = new File(TF.getRoot(), resource.fileName());
+        MzTabFileParser fileParser = new MzTabFileParser(testFile);
+        MZTabErrorList errors = fileParser.parse(System.err,
+            MZTabErrorType.Level.Error, 500);
+        MzTab mzTab = fileParser.getMZTabFile();
+
+        MzTabFileParser trustedParser = new MzTabFileParser(testFile);
+        trustedParser.setTrustedInput(true);
+        MZTabErrorList trustedErrors = trustedParser.parse(System.err,
+            MZTabErrorType.Level.Error, 500);
+        if (errors.isEmpty()) {
+            Assert.assertTrue(trustedErrors.toString(), trustedErrors.
+                isEmpty());
+            Assert.assertEquals(mzTab, trustedParser.getMZTabFile());
+        }
+
+        List<String> lines = Files.readAllLines(testFile.toPath());
+        int smlLine = -1;
+        for (int i = 0; i < lines.size() && smlLine < 0; i++) {
+            if (lines.get(i).
+                startsWith("SML\t")) {
+                smlLine = i;
+            }
+        }
+        Assume.assumeTrue(smlLine >= 0);
+        String[] cells = lines.get(smlLine).
+            split("\t", -1);
+        cells[1] = "not_a_number";
+        lines.set(smlLine, String.join("\t", cells));
+        File brokenFile = TF.newFile("trusted-" + resource.fileName());
+        Files.write(brokenFile.toPath(), lines);
+        MzTabFileParser brokenParser = new MzTabFileParser(brokenFile);
+        brokenParser.setTrustedInput(true);
+        MZTabErrorList brokenErrors = brokenParser.parse(System.err,
+            MZTabErrorType.Level.Error, 500);
+        Assert.assertEquals(brokenErrors.toString(), 1, brokenErrors.size());
+        Assert.assertEquals(FormatErrorType.Integer, brokenErrors.getError(0).
+            getType());
+        Assert.assertEquals(smlLine + 1, brokenErrors.getError(0).
+            getLineNumber());
+    }
+
+    @Test
+    public void testSectionSelectiveParsingMatchesFileParser() throws Exception {
+        File testFile = new File(TF.getRoot(), resource.fileName());
+        MzTabFileParser fileParser = new MzTabFileParser(testFile);
+        MZTabErrorList errors = fileParser.parse(System.err,
+            MZTabErrorType.Level.Info, 500);
+        MzTab mzTab = fileParser.getMZTabFile();
+
+        for (Section section : MzTabStreamParser.DATA_SECTIONS) {
+            for (boolean memoryMapped : new boolean[]{false, true}) {
+                MzTabFileParser selectiveParser = new MzTabFileParser(testFile);
+                selectiveParser.setDataSections(EnumSet.of(section));
+                selectiveParser.setMemoryMapped(memoryMapped);
+                MZTabErrorList selectiveErrors = selectiveParser.parse(
+                    System.err, MZTabErrorType.Level.Info, 500);
+                if (errors.isEmpty()) {
+                    Assert.assertTrue(selectiveErrors.toString(),
+                        selectiveErrors.isEmpty());
+                }
+                MzTab selective = selectiveParser.getMZTabFile();
+                Assert.assertEquals(mzTab.getMetadata(), selective.
+                    getMetadata());
+                Assert.assertEquals(section == Section.Small_Molecule ? mzTab.
+                    getSmallMoleculeSummary() : Collections.emptyList(),
+                    selective.getSmallMoleculeSummary());
+                Assert.assertEquals(
+                    section == Section.Small_Molecule_Feature ? mzTab.
+                    getSmallMoleculeFeature() : Collections.emptyList(),
+                    selective.getSmallMoleculeFeature());
+                Assert.assertEquals(
+                    section == Section.Small_Molecule_Evidence ? mzTab.
+                    getSmallMoleculeEvidence() : Collections.emptyList(),
+                    selective.getSmallMoleculeEvidence());
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSelectingNonDataSectionFails() {
+        new MzTabStreamParser(new File(TF.getRoot(), resource.fileName())).
+            setDataSections(EnumSet.of(Section.Small_Molecule_Header));
+    }
+
+    @Test
+    public void testColumnProjectionMatchesFileParser() throws Exception {
+        File testFile = new File(TF.getRoot(), resource.fileName());
+        MzTabFileParser fileParser = new MzTabFileParser(testFile);
+        MZTabErrorList errors = fileParser.parse(System.err,
+            MZTabErrorType.Level.Info, 500);
+        MzTab mzTab = fileParser.getMZTabFile();
+
+        String abundanceHeader;
+        try (Stream<String> lines = Files.lines(testFile.toPath())) {
+            abundanceHeader = lines.filter((line) ->
+                line.startsWith("SMH\t")).
+                flatMap((line) ->
+                    Arrays.stream(line.split("\t"))).
+                filter((header) ->
+                    header.startsWith("abundance_assay[")).
+                findFirst().
+                orElse(null);
+        }
+        MzTabStreamParser streamParser = new MzTabStreamParser(testFile);
+        streamParser.setColumns(Section.Small_Molecule, new HashSet<>(Arrays.
+            asList("SML_ID", abundanceHeader)));
+        streamParser.setColumns(Section.Small_Molecule_Feature, Collections.
+            singleton("SMF_ID"));
+        List<SmallMoleculeSummary> smls = new ArrayList<>();
+        List<SmallMoleculeFeature> smfs = new ArrayList<>();
+        MZTabErrorList projectedErrors = streamParser.parse(
+            new MzTabStreamHandler() {
+            @Override
+            public void onSmallMoleculeSummary(
+                SmallMoleculeSummary smallMoleculeSummary) {
+                smls.add(smallMoleculeSummary);
+            }
+
+            @Override
+            public void onSmallMoleculeFeature(
+                SmallMoleculeFeature smallMoleculeFeature) {
+                smfs.add(smallMoleculeFeature);
+            }
+        }, MZTabErrorType.Level.Info, 500);
+        if (errors.isEmpty()) {
+            Assert.assertTrue(projectedErrors.toString(), projectedErrors.
+                isEmpty());
+        }
+        Assert.assertEquals(mzTab.getSmallMoleculeSummary().
+            size(), smls.size());
+        for (int i = 0; i < smls.size(); i++) {
+            SmallMoleculeSummary expected = mzTab.getSmallMoleculeSummary().
+                get(i);
+            SmallMoleculeSummary projected = smls.get(i);
+            Assert.assertEquals(expected.getSmlId(), projected.getSmlId());
+            Assert.assertNull(projected.getReliability());
+            Assert.assertTrue(projected.getOpt() == null || projected.
+                getOpt().
+                isEmpty());
+            List<Double> abundances = projected.getAbundanceAssay();
+            Assert.assertEquals(expected.getAbundanceAssay().
+                size(), abundances.size());
+            for (int j = 0; j < abundances.size(); j++) {
+                Assert.assertEquals(j == 0 ? expected.getAbundanceAssay().
+                    get(0) : null, abundances.get(j));
+            }
+        }
+        Assert.assertEquals(mzTab.getSmallMoleculeFeature().
+            stream().
+            map(SmallMoleculeFeature::getSmfId).
+            collect(Collectors.toList()), smfs.stream().
+                map(SmallMoleculeFeature::getSmfId).
+                collect(Collectors.toList()));
+        for (SmallMoleculeFeature smf : smfs) {
+            Assert.assertNull(smf.getExpMassToCharge());
+        }
+    }
+
+    @Test
+    public void testDatabaseIdentifierProjectionMatchesFileParser() throws Exception {
+        File testFile = new File(TF.getRoot(), resource.fileName());
+        MzTabFileParser fileParser = new MzTabFileParser(testFile);
+        MZTabErrorList errors = fileParser.parse(System.err,
+            MZTabErrorType.Level.Info, 500);
+        MzTab mzTab = fileParser.getMZTabFile();
+
+        MzTabStreamParser streamParser = new MzTabStreamParser(testFile);
+        streamParser.setColumns(Section.Small_Molecule, new HashSet<>(Arrays.
+            asList("SML_ID", "database_identifier")));
+        List<SmallMoleculeSummary> smls = new ArrayList<>();
+        MZTabErrorList projectedErrors = streamParser.parse(
+            new MzTabStreamHandler() {
+            @Override
+            public void onSmallMoleculeSummary(
+                SmallMoleculeSummary smallMoleculeSummary) {
+                smls.add(smallMoleculeSummary);
+            }
+        }, MZTabErrorType.Level.Info, 500);
+        if (errors.isEmpty()) {
+            Assert.assertTrue(projectedErrors.toString(), projectedErrors.
+                isEmpty());
+        }
+        Assert.assertEquals(mzTab.getSmallMoleculeSummary().
+            size(), smls.size());
+        for (int i = 0; i < smls.size(); i++) {
+            SmallMoleculeSummary expected = mzTab.getSmallMoleculeSummary().
+                get(i);
+            SmallMoleculeSummary projected = smls.get(i);
+            Assert.assertEquals(expected.getSmlId(), projected.getSmlId());
+            Assert.assertEquals(expected.getDatabaseIdentifier(), projected.
+                getDatabaseIdentifier());
+            Assert.assertNull(projected.getChemicalFormula());
+            Assert.assertNull(projected.getUri());
+        }
+    }
+
+    @Test
+    public void testMetadataOnlyParsingMatchesFileParser() throws Exception {
+        File testFile = new File(TF.getRoot(), resource.fileName());
+        MzTabFileParser fileParser = new MzTabFileParser(testFile);
+        fileParser.parse(System.err, MZTabErrorType.Level.Info, 500);
+        MzTab mzTab = fileParser.getMZTabFile();
+
+        MzTabFileParser metadataParser = new MzTabFileParser(testFile);
+        MZTabErrorList metadataErrors = metadataParser.parseMetadata(
+            System.err, MZTabErrorType.Level.Info, 500);
+        Assert.assertTrue(metadataErrors.toString(), metadataErrors.isEmpty());
+        MzTab metadataMzTab = metadataParser.getMZTabFile();
+        Assert.assertEquals(mzTab.getMetadata(), metadataMzTab.getMetadata());
+        Assert.assertTrue(metadataMzTab.getSmallMoleculeSummary().
+            isEmpty());
+        Assert.assertTrue(metadataMzTab.getSmallMoleculeFeature().
+            isEmpty());
+        Assert.assertTrue(metadataMzTab.getSmallMoleculeEvidence().
+            isEmpty());
+
+        File compressedFile = new File(TF.newFolder(), resource.fileName() + ".gz");
+        try (BgzfOutputStream os = new BgzfOutputStream(new FileOutputStream(
+            compressedFile))) {
+            Files.copy(testFile.toPath(), os);
+        }
+        List<Metadata> metadata = new ArrayList<>();
+        MzTabStreamParser streamParser = new MzTabStreamParser(compressedFile.
+            toURI());
+        MZTabErrorList streamErrors = streamParser.parseMetadata(
+            new MzTabStreamHandler() {
+            @Override
+            public void onMetadata(Metadata m) {
+                metadata.add(m);
+            }
+
+            @Override
+            public void onSmallMoleculeSummary(
+                SmallMoleculeSummary smallMoleculeSummary) {
+                Assert.fail("No rows expected!");
+            }
+        }, MZTabErrorType.Level.Info, 500);
+        Assert.assertTrue(streamErrors.toString(), streamErrors.isEmpty());
+        Assert.assertEquals(1, metadata.size());
+        Assert.assertEquals(mzTab.getMetadata(), metadata.get(0));
+    }
+
+    @Test
+    public void testBlockCompressedParsingMatchesUncompressed() throws Exception {
+        File testFile = new File(TF.getRoot(), resource.fileName());
+        MzTabFileParser fileParser = new MzTabFileParser(testFile);
+        MZTabErrorList errors = fileParser.parse(System.err,
+            MZTabErrorType.Level.Info, 500);
+        MzTab mzTab = fileParser.getMZTabFile();
+
+        File compressedFile = new File(TF.newFolder(), resource.fileName() + ".bgz");
+        try (BgzfOutputStream os = new BgzfOutputStream(new FileOutputStream(
+            compressedFile))) {
+            Files.copy(testFile.toPath(), os);
+        }
+        MzTabFileParser compressedParser = new MzTabFileParser(compressedFile);
+        MZTabErrorList compressedErrors = compressedParser.parse(System.err,
+            MZTabErrorType.Level.Info, 500);
+        Assert.assertEquals(errors.toString(), compressedErrors.toString());
+        Assert.assertEquals(mzTab, compressedParser.getMZTabFile());
+    }
+
+    @Test
+    public void testInMemoryParsingMatchesFileParser() throws Exception {
+        File testFile = new File(TF.getRoot(), resource.fileName());
+        MzTabFileParser fileParser = new MzTabFileParser(testFile);
+        MZTabErrorList errors = fileParser.parse(System.err,
+            MZTabErrorType.Level.Info, 500);
+        MzTab mzTab = fileParser.getMZTabFile();
+
+        byte[] bytes = Files.readAllBytes(testFile.toPath());
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream os = new GZIPOutputStream(gzipped)) {
+            os.write(bytes);
+        }
+        ByteArrayOutputStream blockCompressed = new ByteArrayOutputStream();
+        try (BgzfOutputStream os = new BgzfOutputStream(blockCompressed)) {
+            os.write(bytes);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 2);
+        buffer.put((byte) 0).
+            put(bytes).
+            put((byte) 0);
+        buffer.position(1);
+        buffer.limit(bytes.length + 1);
+        List<MzTabFileParser> parsers = Arrays.asList(
+            new MzTabFileParser(bytes),
+            new MzTabFileParser(buffer),
+            new MzTabFileParser(new ByteArrayInputStream(bytes)),
+            new MzTabFileParser(new ByteArrayInputStream(gzipped.toByteArray())),
+            new MzTabFileParser(blockCompressed.toByteArray()),
+            new MzTabFileParser(new InputStreamReader(new ByteArrayInputStream(
+                bytes), StandardCharsets.UTF_8)));
+        for (MzTabFileParser parser : parsers) {
+            MZTabErrorList parserErrors = parser.parse(System.err,
+                MZTabErrorType.Level.Info, 500);
+            Assert.assertEquals(errors.toString(), parserErrors.toString());
+            Assert.assertEquals(mzTab, parser.getMZTabFile());
+        }
+        Assert.assertEquals(1, buffer.position());
+
+        File gzippedFile = TF.newFile("gzipped-" + resource.fileName());
+        Files.write(gzippedFile.toPath(), gzipped.toByteArray());
+        MzTabFileParser gzippedParser = new MzTabFileParser(gzippedFile);
+        gzippedParser.setMemoryMapped(true);
+        gzippedParser.parse(System.err, MZTabErrorType.Level.Info, 500);
+        Assert.assertEquals(mzTab, gzippedParser.getMZTabFile());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testInputStreamIsReadOnce() throws Exception {
+        File testFile = new File(TF.getRoot(), resource.fileName());
+        MzTabStreamParser streamParser = new MzTabStreamParser(
+            new ByteArrayInputStream(Files.readAllBytes(testFile.toPath())));
+        streamParser.parse(new MzTabStreamHandler() {
+        });
+        streamParser.parse(new MzTabStreamHandler() {
+        });
+    }
+
+    @Test
+    public void testRowIteratorsMatchFileParser() throws Exception {
+        File testFile = new File(TF.getRoot(), resource.fileName());
+        MzTabFileParser fileParser = new MzTabFileParser(testFile);
+        fileParser.parse(System.err, MZTabErrorType.Level.Info, 500);
+        MzTab mzTab = fileParser.getMZTabFile();
+        Assert.assertNotNull(mzTab);
+
+        MzTabStreamParser streamParser = new MzTabStreamParser(testFile.
+            toPath());
+        try (MzTabRowIterator<SmallMoleculeFeature> iter = streamParser.
+            iterateSmallMoleculeFeatures()) {
+            Assert.assertNotNull(iter.getMetadata());
+            Assert.assertEquals(mzTab.getMetadata().
+                getMzTabID(), iter.getMetadata().
+                    getMzTabID());
+            List<Integer> smfIds = new ArrayList<>();
+            iter.forEachRemaining((smf) ->
+            {
+                smfIds.add(smf.getSmfId());
+            });
+            Assert.assertEquals(mzTab.getSmallMoleculeFeature().
+                stream().
+                map(SmallMoleculeFeature::getSmfId).
+                collect(Collectors.toList()), smfIds);
+            Assert.assertFalse(iter.hasNext());
+        }
+        try (Stream<SmallMoleculeSummary> sml = streamParser.
+            streamSmallMoleculeSummaries()) {
+            Assert.assertEquals(mzTab.getSmallMoleculeSummary().
+                stream().
+                map(SmallMoleculeSummary::getSmlId).
+                collect(Collectors.toList()), sml.map(
+                    SmallMoleculeSummary::getSmlId).
+                    collect(Collectors.toList()));
+        }
+        try (Stream<SmallMoleculeEvidence> sme = streamParser.
+            streamSmallMoleculeEvidences()) {
+            Assert.assertEquals(mzTab.getSmallMoleculeEvidence().
+                stream().
+                map(SmallMoleculeEvidence::getSmeId).
+                findFirst(), sme.map(SmallMoleculeEvidence::getSmeId).
+                    findFirst());
+        }
+    }
+}
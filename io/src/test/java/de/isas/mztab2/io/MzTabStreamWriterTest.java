@@ -0,0 +1,176 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.isas.mztab2.io;
+
+import de.isas.mztab2.io.serialization.Serializers;
+import de.isas.mztab2.model.MzTab;
+import de.isas.mztab2.model.OptColumnMapping;
+import de.isas.mztab2.test.utils.ClassPathFile;
+import static de.isas.mztab2.test.utils.ClassPathFile.LIPIDOMICS_EXAMPLE;
+import static de.isas.mztab2.test.utils.ClassPathFile.MTBLS263;
+import de.isas.mztab2.test.utils.ExtractClassPathFiles;
+import de.isas.mztab2.test.utils.LogMethodName;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import uk.ac.ebi.pride.jmztab2.model.Section;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorType;
+
+/**
+ * Tests for MzTabStreamWriter
+ *
+ * @author nilshoffmann
+ */
+public class MzTabStreamWriterTest {
+
+    @Rule
+    public LogMethodName methodNameLogger = new LogMethodName();
+
+    @ClassRule
+    public static final TemporaryFolder TF = new TemporaryFolder();
+
+    @ClassRule
+    public static final ExtractClassPathFiles EXTRACT_FILES = new ExtractClassPathFiles(
+        TF,
+        LIPIDOMICS_EXAMPLE, MTBLS263);
+
+    @Test
+    public void testStreamWritingMatchesWriter() throws Exception {
+        for (ClassPathFile file : new ClassPathFile[]{LIPIDOMICS_EXAMPLE,
+            MTBLS263}) {
+            MzTab mzTab = parse(file);
+            String expected = write(mzTab);
+
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            try (MzTabStreamWriter writer = new MzTabStreamWriter(
+                new OutputStreamWriter(bos, StandardCharsets.UTF_8), mzTab.
+                getMetadata())) {
+                writer.setOptColumns(Section.Small_Molecule, optColumns(mzTab.
+                    getSmallMoleculeSummary(), (sml) ->
+                {
+                    return sml.getOpt();
+                }));
+                writer.setOptColumns(Section.Small_Molecule_Feature, optColumns(
+                    mzTab.getSmallMoleculeFeature(), (smf) ->
+                {
+                    return smf.getOpt();
+                }));
+                writer.setOptColumns(Section.Small_Molecule_Evidence,
+                    optColumns(mzTab.getSmallMoleculeEvidence(), (sme) ->
+                    {
+                        return sme.getOpt();
+                    }));
+                mzTab.getSmallMoleculeSummary().
+                    forEach((sml) ->
+                    {
+                        try {
+                            writer.writeSmallMoleculeSummary(sml);
+                        } catch (IOException ex) {
+                            throw new RuntimeException(ex);
+                        }
+                    });
+                writer.flush();
+                writer.writeSmallMoleculeFeatures(mzTab.
+                    getSmallMoleculeFeature());
+                writer.writeSmallMoleculeEvidences(mzTab.
+                    getSmallMoleculeEvidence());
+            }
+            Assert.assertEquals(expected, new String(bos.toByteArray(),
+                StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testSkippedSectionsAreWrittenOnClose() throws Exception {
+        MzTab mzTab = parse(LIPIDOMICS_EXAMPLE);
+        MzTab metadataOnly = new MzTab().metadata(mzTab.getMetadata()).
+            smallMoleculeSummary(Collections.emptyList()).
+            smallMoleculeFeature(Collections.emptyList()).
+            smallMoleculeEvidence(Collections.emptyList());
+        File streamFile = TF.newFile("metadata-only.mztab");
+        new MzTabStreamWriter(streamFile.toPath(), mzTab.getMetadata()).close();
+        Assert.assertEquals(write(metadataOnly), new String(Files.readAllBytes(
+            streamFile.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSectionOrderIsEnforced() throws Exception {
+        MzTab mzTab = parse(LIPIDOMICS_EXAMPLE);
+        try (MzTabStreamWriter writer = new MzTabStreamWriter(
+            new OutputStreamWriter(new ByteArrayOutputStream(),
+                StandardCharsets.UTF_8), mzTab.getMetadata())) {
+            writer.writeSmallMoleculeFeatures(mzTab.getSmallMoleculeFeature());
+            writer.writeSmallMoleculeSummaries(mzTab.getSmallMoleculeSummary());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testOptColumnsOfStartedSectionFail() throws Exception {
+        MzTab mzTab = parse(LIPIDOMICS_EXAMPLE);
+        try (MzTabStreamWriter writer = new MzTabStreamWriter(
+            new OutputStreamWriter(new ByteArrayOutputStream(),
+                StandardCharsets.UTF_8), mzTab.getMetadata())) {
+            writer.writeSmallMoleculeSummaries(mzTab.getSmallMoleculeSummary());
+            writer.setOptColumns(Section.Small_Molecule, Collections.
+                emptyList());
+        }
+    }
+
+    private static MzTab parse(ClassPathFile file) throws IOException {
+        MzTabFileParser parser = new MzTabFileParser(new File(TF.getRoot(),
+            file.fileName()));
+        parser.parse(System.err, MZTabErrorType.Level.Info, 500);
+        return parser.getMZTabFile();
+    }
+
+    private static String write(MzTab mzTab) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        new MzTabNonValidatingWriter().write(new OutputStreamWriter(bos,
+            StandardCharsets.UTF_8), mzTab);
+        return new String(bos.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static <T> List<OptColumnMapping> optColumns(List<T> rows,
+        Function<T, List<OptColumnMapping>> opt) {
+        Map<String, OptColumnMapping> columns = new LinkedHashMap<>();
+        rows.forEach((row) ->
+        {
+            List<OptColumnMapping> mappings = opt.apply(row);
+            if (mappings != null) {
+                mappings.forEach((ocm) ->
+                {
+                    columns.putIfAbsent(Serializers.printOptColumnMapping(ocm),
+                        ocm);
+                });
+            }
+        });
+        return new ArrayList<>(columns.values());
+    }
+}
@@ -49,6 +49,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.junit.Assert;
@@ -312,6 +313,23 @@ public class MzTabWriterTest {
         compareMzTabModels(mzTabFile, parser.getMZTabFile());
     }
 
+    @Test
+    public void testReadWriteBlockCompressedRoundtrip() throws IOException, URISyntaxException, MZTabException {
+        MzTab mzTabFile = TestResources.parseResource(tf,
+            "lipidomics-example.mzTab", MZTabErrorType.Level.Info,
+            0);
+        File tempFile = tf.newFile("testReadWriteBlockCompressedRoundtrip.mztab.gz");
+        MzTabNonValidatingWriter writer = new MzTabNonValidatingWriter();
+        writer.write(tempFile.toPath(), mzTabFile);
+        byte[] header = Files.readAllBytes(tempFile.toPath());
+        Assert.assertTrue(BgzfInputStream.isBgzf(header, header.length));
+        MzTabFileParser parser = new MzTabFileParser(tempFile);
+        MZTabErrorList errors = parser.parse(System.out,
+            MZTabErrorType.Level.Info, 500);
+        Assert.assertTrue(errors.toString(), errors.isEmpty());
+        compareMzTabModels(mzTabFile, parser.getMZTabFile());
+    }
+
     @Test
     public void testReadWriteRoundtripWithJacksonLda2StdMix() throws IOException, URISyntaxException, MZTabException {
         MzTab mzTabFile = TestResources.parseResource(tf,
@@ -698,4 +716,49 @@ public class MzTabWriterTest {
             ,
              lines);
     }
+
+    @Test
+    public void testCachedWritersAreReusedAcrossThreads() throws IOException, MZTabException {
+        MzTabFileParser parser = new MzTabFileParser(new File(tf.getRoot(),
+            LIPIDOMICS_EXAMPLE.fileName()));
+        parser.parse(System.err, MZTabErrorType.Level.Info, 500);
+        MzTab mzTab = parser.getMZTabFile();
+        String expected = writeToString(new MzTabNonValidatingWriter(
+            new MzTabWriterDefaults()), mzTab);
+
+        MzTabWriterDefaults writerDefaults = new MzTabWriterDefaults();
+        Assert.assertSame(writerDefaults.metadataWriter(), writerDefaults.
+            metadataWriter());
+        Assert.assertSame(writerDefaults.smallMoleculeSummaryWriter(mzTab),
+            writerDefaults.smallMoleculeSummaryWriter(mzTab.getMetadata(),
+                MzTabWriterDefaults.optColumnHeaders(mzTab.
+                    getSmallMoleculeSummary(), SmallMoleculeSummary::getOpt)));
+        Assert.assertNotSame(writerDefaults.smallMoleculeFeatureWriter(mzTab),
+            writerDefaults.smallMoleculeFeatureWriter(mzTab.getMetadata(),
+                Arrays.asList("opt_global_other")));
+        MzTabNonValidatingWriter writer = new MzTabNonValidatingWriter(
+            writerDefaults);
+        List<String> written = Arrays.asList(new String[16]).
+            parallelStream().
+            map((s) ->
+            {
+                try {
+                    return writeToString(writer, mzTab);
+                } catch (IOException ex) {
+                    throw new RuntimeException(ex);
+                }
+            }).
+            collect(Collectors.toList());
+        written.forEach((s) ->
+        {
+            Assert.assertEquals(expected, s);
+        });
+    }
+
+    private static String writeToString(MzTabNonValidatingWriter writer,
+        MzTab mzTab) throws IOException {
+        StringWriter sw = new StringWriter();
+        writer.writeMzTab(mzTab, sw);
+        return sw.toString();
+    }
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.isas.mztab2.io;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import de.isas.mztab2.model.Assay;
+import de.isas.mztab2.model.Metadata;
+import de.isas.mztab2.model.MsRun;
+import de.isas.mztab2.model.Parameter;
+import de.isas.mztab2.model.SmallMoleculeEvidence;
+import de.isas.mztab2.model.SmallMoleculeSummary;
+import de.isas.mztab2.model.SpectraRef;
+import de.isas.mztab2.model.StudyVariable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabException;
+
+/**
+ * <p>
+ * JMH benchmark comparing the Jackson CSV writers of the
+ * {@link MzTabWriterDefaults} with the direct {@link SectionWriter} for 1000
+ * small molecule summary and evidence rows, written to a discarding
+ * writer.</p>
+ *
+ * <p>
+ * This is not a unit test. Run it from the test classpath via
+ * {@link #main(java.lang.String[])}, e.g. from the IDE.</p>
+ *
+ * @author nilshoffmann
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SectionWriterBenchmark {
+
+    private static final int ROWS = 1000;
+    private static final int ASSAYS = 12;
+
+    private final MzTabWriterDefaults writerDefaults = new MzTabWriterDefaults();
+    private final Writer discard = new Writer() {
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+    private Metadata metadata;
+    private List<SmallMoleculeSummary> summaries;
+    private List<SmallMoleculeEvidence> evidences;
+
+    @Setup
+    public void setup() {
+        metadata = new Metadata();
+        for (int i = 1; i <= ASSAYS; i++) {
+            metadata.addAssayItem(new Assay().id(i));
+        }
+        metadata.addStudyVariableItem(new StudyVariable().id(1));
+        metadata.addIdConfidenceMeasureItem(new Parameter().id(1).
+            name("score"));
+        MsRun msRun = new MsRun().id(1);
+        summaries = new ArrayList<>(ROWS);
+        evidences = new ArrayList<>(ROWS);
+        for (int i = 1; i <= ROWS; i++) {
+            List<Double> abundances = new ArrayList<>(ASSAYS);
+            for (int a = 1; a <= ASSAYS; a++) {
+                abundances.add(i * 1000.0 / a);
+            }
+            summaries.add(new SmallMoleculeSummary().smlId(i).
+                smfIdRefs(Arrays.asList(i, i + 1)).
+                databaseIdentifier(Arrays.asList("HMDB:HMDB" + i)).
+                chemicalFormula(Arrays.asList("C6H12O6")).
+                chemicalName(Arrays.asList("molecule " + i)).
+                theoreticalNeutralMass(Arrays.asList(180.06339 + i)).
+                adductIons(Arrays.asList("[M+H]1+")).
+                reliability("2").
+                bestIdConfidenceMeasure(new Parameter().cvLabel("MS").
+                    cvAccession("MS:1001090").
+                    name("null")).
+                bestIdConfidenceValue(0.5 + i / (double) ROWS).
+                abundanceAssay(abundances).
+                abundanceStudyVariable(Collections.singletonList(1.5 * i)).
+                abundanceVariationStudyVariable(Collections.singletonList(
+                    0.1)));
+            evidences.add(new SmallMoleculeEvidence().smeId(i).
+                evidenceInputId("" + i).
+                databaseIdentifier("HMDB:HMDB" + i).
+                chemicalFormula("C6H12O6").
+                chemicalName("molecule " + i).
+                adductIon("[M+H]1+").
+                expMassToCharge(181.0707 + i).
+                charge(1).
+                theoreticalMassToCharge(181.0706 + i).
+                spectraRef(Arrays.asList(new SpectraRef().msRun(msRun).
+                    reference("index=" + i))).
+                identificationMethod(new Parameter().name("database search")).
+                msLevel(new Parameter().cvLabel("MS").
+                    cvAccession("MS:1000511").
+                    name("ms level").
+                    value("1")).
+                idConfidenceMeasure(Collections.singletonList(0.9)).
+                rank(1));
+        }
+    }
+
+    @Benchmark
+    public Writer jacksonSmallMoleculeSummary() throws IOException, MZTabException {
+        ObjectWriter writer = writerDefaults.smallMoleculeSummaryWriter(
+            metadata, Collections.emptyList());
+        writer.writeValue(discard, summaries);
+        return discard;
+    }
+
+    @Benchmark
+    public Writer directSmallMoleculeSummary() throws IOException, MZTabException {
+        SectionWriter.smallMoleculeSummary(discard, metadata, Collections.
+            emptyList(), writerDefaults).
+            writeAll(summaries);
+        return discard;
+    }
+
+    @Benchmark
+    public Writer jacksonSmallMoleculeEvidence() throws IOException, MZTabException {
+        ObjectWriter writer = writerDefaults.smallMoleculeEvidenceWriter(
+            metadata, Collections.emptyList());
+        writer.writeValue(discard, evidences);
+        return discard;
+    }
+
+    @Benchmark
+    public Writer directSmallMoleculeEvidence() throws IOException, MZTabException {
+        SectionWriter.smallMoleculeEvidence(discard, metadata, Collections.
+            emptyList(), writerDefaults).
+            writeAll(evidences);
+        return discard;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(
+            SectionWriterBenchmark.class.getSimpleName()).
+            build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.isas.mztab2.io;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import de.isas.mztab2.model.Assay;
+import de.isas.mztab2.model.Metadata;
+import de.isas.mztab2.model.MsRun;
+import de.isas.mztab2.model.MzTab;
+import de.isas.mztab2.model.OptColumnMapping;
+import de.isas.mztab2.model.Parameter;
+import de.isas.mztab2.model.SmallMoleculeEvidence;
+import de.isas.mztab2.model.SmallMoleculeFeature;
+import de.isas.mztab2.model.SmallMoleculeSummary;
+import de.isas.mztab2.model.SpectraRef;
+import de.isas.mztab2.model.StudyVariable;
+import de.isas.mztab2.test.utils.ClassPathFile;
+import static de.isas.mztab2.test.utils.ClassPathFile.GCXGC_MS_EXAMPLE;
+import static de.isas.mztab2.test.utils.ClassPathFile.LIPIDOMICS_EXAMPLE;
+import static de.isas.mztab2.test.utils.ClassPathFile.MINIMAL_EXAMPLE;
+import static de.isas.mztab2.test.utils.ClassPathFile.MOUSELIVER_NEGATIVE;
+import static de.isas.mztab2.test.utils.ClassPathFile.MTBLS263;
+import de.isas.mztab2.test.utils.ExtractClassPathFiles;
+import de.isas.mztab2.test.utils.LogMethodName;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabErrorType;
+import uk.ac.ebi.pride.jmztab2.utils.errors.MZTabException;
+
+/**
+ * Tests for SectionWriter
+ *
+ * @author nilshoffmann
+ */
+public class SectionWriterTest {
+
+    @Rule
+    public LogMethodName methodNameLogger = new LogMethodName();
+
+    @ClassRule
+    public static final TemporaryFolder TF = new TemporaryFolder();
+
+    @ClassRule
+    public static final ExtractClassPathFiles EXTRACT_FILES = new ExtractClassPathFiles(
+        TF,
+        LIPIDOMICS_EXAMPLE, MTBLS263, MOUSELIVER_NEGATIVE, GCXGC_MS_EXAMPLE,
+        MINIMAL_EXAMPLE);
+
+    private final MzTabWriterDefaults writerDefaults = new MzTabWriterDefaults();
+
+    @Test
+    public void testOutputMatchesJacksonForExamples() throws Exception {
+        for (ClassPathFile file : new ClassPathFile[]{LIPIDOMICS_EXAMPLE,
+            MTBLS263, MOUSELIVER_NEGATIVE, GCXGC_MS_EXAMPLE, MINIMAL_EXAMPLE}) {
+            MzTabFileParser parser = new MzTabFileParser(new File(TF.getRoot(),
+                file.fileName()));
+            parser.parse(System.err, MZTabErrorType.Level.Info, 500);
+            assertSectionsMatch(parser.getMZTabFile());
+        }
+    }
+
+    @Test
+    public void testOutputMatchesJacksonForEdgeCases() throws Exception {
+        Metadata metadata = new Metadata().
+            addAssayItem(new Assay().id(1)).
+            addAssayItem(new Assay().id(3)).
+            addStudyVariableItem(new StudyVariable().id(1)).
+            addIdConfidenceMeasureItem(new Parameter().id(1).
+                name("score"));
+        MsRun msRun = new MsRun().id(2);
+        OptColumnMapping global = new OptColumnMapping().identifier("global").
+            param(new Parameter().cvAccession("MS:1002217").
+                name("decoy peptide").
+                value("false"));
+        OptColumnMapping globalNull = new OptColumnMapping().identifier(
+            "global_note");
+        OptColumnMapping undeclared = new OptColumnMapping().identifier(
+            "global_undeclared").
+            value("x");
+        SmallMoleculeSummary sml = new SmallMoleculeSummary().smlId(1).
+            smfIdRefs(Arrays.asList(1, null, 3)).
+            databaseIdentifier(Arrays.asList("")).
+            chemicalName(Arrays.asList("a", null, "")).
+            smiles(Collections.emptyList()).
+            theoreticalNeutralMass(Arrays.asList(1.0e-5, null,
+                Double.NEGATIVE_INFINITY, 123456789.123)).
+            bestIdConfidenceMeasure(new Parameter().name("score")).
+            bestIdConfidenceValue(Double.NaN).
+            abundanceAssay(Arrays.asList(Double.POSITIVE_INFINITY, 2.0, 3.5)).
+            abundanceStudyVariable(Arrays.asList(-0.0)).
+            opt(Arrays.asList(globalNull, global, undeclared, new OptColumnMapping().
+                identifier("global").
+                param(global.getParam()).
+                value("duplicate")));
+        SmallMoleculeFeature smf = new SmallMoleculeFeature().smfId(2).
+            isotopomer(new Parameter().cvLabel("MS").
+                cvAccession("MS:1").
+                name("iso").
+                value("1")).
+            expMassToCharge(Double.MIN_VALUE).
+            abundanceAssay(Arrays.asList(1.0));
+        SmallMoleculeEvidence sme = new SmallMoleculeEvidence().smeId(3).
+            evidenceInputId("in").
+            spectraRef(Arrays.asList(new SpectraRef().msRun(msRun).
+                reference("index=1"), new SpectraRef().msRun(msRun).
+                reference("index=2"))).
+            msLevel(new Parameter().name("ms level").
+                value("2")).
+            idConfidenceMeasure(Arrays.asList(0.5, 0.25)).
+            rank(1).
+            opt(Arrays.asList(globalNull));
+        MzTab mzTab = new MzTab().metadata(metadata).
+            smallMoleculeSummary(Arrays.asList(sml, new SmallMoleculeSummary())).
+            smallMoleculeFeature(Arrays.asList(smf, new SmallMoleculeFeature())).
+            smallMoleculeEvidence(Arrays.asList(sme, new SmallMoleculeEvidence()));
+        assertSectionsMatch(mzTab);
+        // null rows are skipped, undeclared opt columns are ignored
+        List<SmallMoleculeSummary> withNull = Arrays.asList(sml, null, sml);
+        List<String> optColumns = Arrays.asList("opt_global_note",
+            "opt_global_cv_MS:1002217_decoy_peptide");
+        StringWriter out = new StringWriter();
+        Assert.assertEquals(
+            jackson(writerDefaults.smallMoleculeSummaryWriter(metadata,
+                optColumns), withNull),
+            direct(out, SectionWriter.smallMoleculeSummary(out,
+                metadata, optColumns, writerDefaults), withNull));
+    }
+
+    @Test
+    public void testEmptySectionWritesHeader() throws Exception {
+        Metadata metadata = new Metadata().addAssayItem(new Assay().id(1));
+        StringWriter sw = new StringWriter();
+        SectionWriter<SmallMoleculeFeature> writer = SectionWriter.
+            smallMoleculeFeature(sw, metadata, Collections.emptyList(),
+                writerDefaults);
+        writer.writeAll(Collections.emptyList());
+        Assert.assertEquals(jackson(writerDefaults.smallMoleculeFeatureWriter(
+            metadata, Collections.emptyList()), Collections.emptyList()), sw.
+            toString());
+    }
+
+    private void assertSectionsMatch(MzTab mzTab) throws IOException, MZTabException {
+        Metadata metadata = mzTab.getMetadata();
+        Collection<String> smlOpt = MzTabWriterDefaults.optColumnHeaders(mzTab.
+            getSmallMoleculeSummary(), SmallMoleculeSummary::getOpt);
+        StringWriter smlOut = new StringWriter();
+        Assert.assertEquals(jackson(writerDefaults.smallMoleculeSummaryWriter(
+            mzTab), mzTab.getSmallMoleculeSummary()), direct(smlOut, SectionWriter.
+            smallMoleculeSummary(smlOut, metadata, smlOpt,
+                writerDefaults), mzTab.getSmallMoleculeSummary()));
+        Collection<String> smfOpt = MzTabWriterDefaults.optColumnHeaders(mzTab.
+            getSmallMoleculeFeature(), SmallMoleculeFeature::getOpt);
+        StringWriter smfOut = new StringWriter();
+        Assert.assertEquals(jackson(writerDefaults.smallMoleculeFeatureWriter(
+            mzTab), mzTab.getSmallMoleculeFeature()), direct(smfOut, SectionWriter.
+            smallMoleculeFeature(smfOut, metadata, smfOpt,
+                writerDefaults), mzTab.getSmallMoleculeFeature()));
+        Collection<String> smeOpt = MzTabWriterDefaults.optColumnHeaders(mzTab.
+            getSmallMoleculeEvidence(), SmallMoleculeEvidence::getOpt);
+        StringWriter smeOut = new StringWriter();
+        Assert.assertEquals(jackson(writerDefaults.smallMoleculeEvidenceWriter(
+            mzTab), mzTab.getSmallMoleculeEvidence()), direct(smeOut, SectionWriter.
+            smallMoleculeEvidence(smeOut, metadata, smeOpt,
+                writerDefaults), mzTab.getSmallMoleculeEvidence()));
+    }
+
+    private static String jackson(ObjectWriter writer, List<?> rows) throws IOException {
+        StringWriter sw = new StringWriter();
+        writer.writeValue(sw, rows);
+        return sw.toString();
+    }
+
+    private static <T> String direct(StringWriter sw, SectionWriter<T> writer,
+        List<T> rows) throws IOException {
+        writer.writeAll(rows);
+        return sw.toString();
+    }
+}
@@ -19,6 +19,8 @@ import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import de.isas.mztab2.test.utils.LogMethodName;
+import java.util.Arrays;
+import java.util.Collections;
 import static org.junit.Assert.assertEquals;
 import uk.ac.ebi.pride.jmztab2.model.IOptColumnMappingBuilder;
 import uk.ac.ebi.pride.jmztab2.model.OptColumnMappingBuilderTest;
@@ -54,6 +56,26 @@ public class SerializersTest {
                 camelCaseToUnderscoreLowerCase(camelCase3));
     }
 
+    @Test
+    public void testAppendNumbers() {
+        StringBuilder sb = new StringBuilder("x");
+        Serializers.appendNumbers(sb, Arrays.asList((short) 1, 2, 3L, 0.1f,
+                0.1d, 1.0E-10, null));
+        assertEquals("x1|2|3|0.1|0.1|1.0E-10|null", sb.toString());
+        assertEquals("", Serializers.appendNumbers(new StringBuilder(),
+                Collections.emptyList()).toString());
+        assertEquals("" + 12.345678901234567d, Serializers.appendNumber(
+                new StringBuilder(), 12.345678901234567d).toString());
+    }
+
+    @Test
+    public void testAppendStrings() {
+        assertEquals("a|null|", Serializers.appendStrings(new StringBuilder(),
+                Arrays.asList("a", null, "")).toString());
+        assertEquals("", Serializers.appendStrings(new StringBuilder(),
+                Collections.singletonList("")).toString());
+    }
+
     /**
      * Test of getReference method, of class Serializers.
      */
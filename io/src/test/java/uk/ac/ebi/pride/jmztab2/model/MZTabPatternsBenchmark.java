@@ -0,0 +1,129 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.pride.jmztab2.model;
+
+import de.isas.mztab2.model.Parameter;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import static uk.ac.ebi.pride.jmztab2.model.MZTabConstants.REGEX_PARAM_SPLIT;
+
+/**
+ * <p>
+ * JMH benchmark comparing per call compilation of the regular expressions, as
+ * done by earlier versions of {@link MZTabUtils}, with the precompiled
+ * {@link MZTabPatterns} and the non-regex fast paths.</p>
+ *
+ * <p>
+ * This is not a unit test. Run it from the test classpath via
+ * {@link #main(java.lang.String[])}, e.g. from the IDE.</p>
+ *
+ * @author nilshoffmann
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MZTabPatternsBenchmark {
+
+    private final String param = "[MS, MS:1001477, SpectraST,]";
+    private final String quotedParam = "[, , \"name, with comma\", value]";
+    private final String modification = "CHEMMOD:+159.93";
+    private final String email = "first.last@example.org";
+
+    @Benchmark
+    public String[] paramSplitCompiledPerCall() {
+        return param.substring(1, param.length() - 1).
+            split(REGEX_PARAM_SPLIT, -1);
+    }
+
+    @Benchmark
+    public String[] paramSplitPrecompiled() {
+        return MZTabPatterns.PARAM_SPLIT.split(param.substring(1, param.
+            length() - 1), -1);
+    }
+
+    @Benchmark
+    public Parameter parseParam() {
+        return MZTabUtils.parseParam(param);
+    }
+
+    @Benchmark
+    public Parameter parseQuotedParam() {
+        return MZTabUtils.parseParam(quotedParam);
+    }
+
+    @Benchmark
+    public boolean emailCompiledPerCall() {
+        Pattern pattern = Pattern.compile(MZTabConstants.REGEX_EMAIL);
+        Matcher matcher = pattern.matcher(email);
+        return matcher.find();
+    }
+
+    @Benchmark
+    public boolean emailPrecompiled() {
+        return MZTabPatterns.EMAIL.matcher(email).
+            find();
+    }
+
+    @Benchmark
+    public String translateCommaToTabCompiledPerCall() {
+        Pattern pattern = Pattern.compile("\\[([^\\[\\]]+)\\]");
+        Matcher matcher = pattern.matcher(modification);
+        StringBuilder sb = new StringBuilder();
+        int start = 0;
+        while (matcher.find()) {
+            sb.append(modification.substring(start, matcher.start(1)));
+            sb.append(matcher.group(1).
+                replaceAll(",", "\t"));
+            start = matcher.end(1);
+        }
+        sb.append(modification.substring(start));
+        return sb.toString();
+    }
+
+    @Benchmark
+    public String translateCommaToTab() {
+        return MZTabUtils.translateCommaToTab(modification);
+    }
+
+    @Benchmark
+    public String translateMinusToUnicode() {
+        return MZTabUtils.translateMinusToUnicode(modification);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(
+            MZTabPatternsBenchmark.class.getSimpleName()).
+            build();
+        new Runner(options).run();
+    }
+}
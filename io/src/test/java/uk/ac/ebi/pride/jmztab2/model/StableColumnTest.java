@@ -0,0 +1,112 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.pride.jmztab2.model;
+
+import de.isas.mztab2.test.utils.LogMethodName;
+import org.junit.Assert;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Tests for the stable column templates of the small molecule sections.
+ *
+ * @author nilshoffmann
+ */
+public class StableColumnTest {
+
+    @Rule
+    public LogMethodName methodNameLogger = new LogMethodName();
+
+    /**
+     * Test of getColumn, getHeader and forHeader, of class
+     * SmallMoleculeColumn.Stable.
+     */
+    @Test
+    public void testSmallMoleculeColumns() {
+        for (SmallMoleculeColumn.Stable s : SmallMoleculeColumn.Stable.values()) {
+            ISmallMoleculeColumn column = SmallMoleculeColumn.Stable.
+                columnFor(s);
+            assertEquals(column.getHeader(), s.getHeader());
+            assertEquals(column.getLogicPosition(), s.getColumn().
+                getLogicPosition());
+            assertSame(s.getColumn(), s.getColumn());
+            assertNotSame(column, SmallMoleculeColumn.Stable.columnFor(s));
+            assertSame(s, SmallMoleculeColumn.Stable.forHeader(s.getHeader()));
+            assertSame(s, SmallMoleculeColumn.Stable.forName(column.getName()));
+        }
+        assertEquals("SML_ID", SmallMoleculeColumn.Stable.SML_ID.getHeader());
+    }
+
+    /**
+     * Test of getColumn, getHeader and forHeader, of class
+     * SmallMoleculeFeatureColumn.Stable.
+     */
+    @Test
+    public void testSmallMoleculeFeatureColumns() {
+        for (SmallMoleculeFeatureColumn.Stable s : SmallMoleculeFeatureColumn.Stable.
+            values()) {
+            ISmallMoleculeFeatureColumn column = SmallMoleculeFeatureColumn.Stable.
+                columnFor(s);
+            assertEquals(column.getHeader(), s.getHeader());
+            assertSame(s, SmallMoleculeFeatureColumn.Stable.forHeader(s.
+                getHeader()));
+        }
+        assertEquals("SME_ID_REF_ambiguity_code",
+            SmallMoleculeFeatureColumn.Stable.SME_ID_REF_AMBIGUITY_CODE.
+                getHeader());
+    }
+
+    /**
+     * Test of getColumn, getHeader and forHeader, of class
+     * SmallMoleculeEvidenceColumn.Stable.
+     */
+    @Test
+    public void testSmallMoleculeEvidenceColumns() {
+        for (SmallMoleculeEvidenceColumn.Stable s : SmallMoleculeEvidenceColumn.Stable.
+            values()) {
+            ISmallMoleculeEvidenceColumn column = SmallMoleculeEvidenceColumn.Stable.
+                columnFor(s);
+            assertEquals(column.getHeader(), s.getHeader());
+            assertSame(s, SmallMoleculeEvidenceColumn.Stable.forHeader(s.
+                getHeader()));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownHeader() {
+        SmallMoleculeColumn.Stable.forHeader("opt_global_unknown");
+    }
+
+    @Test
+    public void testDescriptorsAreImmutable() {
+        IMZTabColumn column = SmallMoleculeColumn.Stable.SML_ID.getColumn();
+        try {
+            column.setHeader("changed");
+            Assert.fail("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException uoe) {
+            assertEquals("SML_ID", column.getHeader());
+        }
+        // new instances from columnFor stay mutable
+        ISmallMoleculeColumn copy = SmallMoleculeColumn.Stable.columnFor(
+            SmallMoleculeColumn.Stable.SML_ID);
+        copy.setHeader("changed");
+        assertEquals("changed", copy.getHeader());
+        assertEquals("SML_ID", SmallMoleculeColumn.Stable.SML_ID.getHeader());
+    }
+}
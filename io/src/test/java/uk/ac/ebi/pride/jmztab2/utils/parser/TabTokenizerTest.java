@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 Leibniz-Institut für Analytische Wissenschaften – ISAS – e.V..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.pride.jmztab2.utils.parser;
+
+import de.isas.mztab2.test.utils.LogMethodName;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Rule;
+import org.junit.Test;
+import uk.ac.ebi.pride.jmztab2.model.Section;
+
+/**
+ * Tests for TabTokenizer
+ *
+ * @author nilshoffmann
+ */
+public class TabTokenizerTest {
+
+    @Rule
+    public LogMethodName methodNameLogger = new LogMethodName();
+
+    private static final String[] LINES = {
+        "SML\t1\t2\tnull",
+        "SML\t1\t\t2",
+        "SML \t 1 \t2 ",
+        "  SML\t1",
+        "MTD\tmzTab-version\t2.0.0-M",
+        "SML\t1\t2\t",
+        "SML\t1\t2\t\t \t",
+        "SML\ta b\tc\rd",
+        "SML x\ty",
+        "SML",
+        "",
+        " ",
+        "\tSML\t1",
+        "COM\tsome comment with  spaces"
+    };
+
+    @Test
+    public void testTokenizeMatchesSplit() {
+        TabTokenizer tokenizer = new TabTokenizer();
+        for (String line : LINES) {
+            String[] expected = line.split("\\s*\t\\s*");
+            if (expected.length > 0) {
+                expected[0] = expected[0].trim();
+                expected[expected.length - 1] = expected[expected.length - 1].
+                    trim();
+            }
+            assertEquals(line, expected.length, tokenizer.tokenize(line));
+            assertArrayEquals(line, expected, tokenizer.toArray());
+        }
+    }
+
+    @Test
+    public void testTokenizeManyCells() {
+        TabTokenizer tokenizer = new TabTokenizer();
+        StringBuilder sb = new StringBuilder("SML");
+        for (int i = 0; i < 500; i++) {
+            sb.append('\t').
+                append(i);
+        }
+        assertEquals(501, tokenizer.tokenize(sb.toString()));
+        assertEquals("499", tokenizer.get(500));
+        assertEquals(sb.length() - 3, tokenizer.start(500));
+        assertEquals(sb.length(), tokenizer.end(500));
+    }
+
+    @Test
+    public void testFindSection() {
+        assertEquals(Section.Small_Molecule, TabTokenizer.findSection(
+            "SML\t1"));
+        assertEquals(Section.Small_Molecule_Evidence_Header, TabTokenizer.
+            findSection("SEH\tSME_ID"));
+        assertEquals(Section.Metadata, TabTokenizer.findSection("mtd \tx"));
+        assertEquals(Section.Small_Molecule, TabTokenizer.findSection(
+            "  SML\t1"));
+        assertEquals(Section.Small_Molecule, TabTokenizer.findSection(
+            "small_molecule\t1"));
+        assertEquals(Section.Comment, TabTokenizer.findSection("COM"));
+        assertNull(TabTokenizer.findSection("SMLX\t1"));
+        assertNull(TabTokenizer.findSection("XYZ\t1"));
+        assertNull(TabTokenizer.findSection(""));
+    }
+}